@@ -0,0 +1,48 @@
+package com.hackathon.creditinder.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Constructing a {@link LoanApplication}, and the two calls that dominate
+ * it: the random UUID, drawn from the shared {@code SecureRandom}, and the
+ * submission timestamp. Run with {@code ./gradlew jmh}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoanApplicationBenchmark {
+
+    @Benchmark
+    public LoanApplication construct() {
+        return new LoanApplication();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public LoanApplication constructContended() {
+        return new LoanApplication();
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String randomUuidContended() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public LocalDateTime now() {
+        return LocalDateTime.now();
+    }
+}
@@ -0,0 +1,136 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The service's hot paths against an in-memory store of 1,000, 100,000 and
+ * 1,000,000 applications, from one thread and from four. Run with
+ * {@code ./gradlew jmh}; the GC profiler adds allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoanApplicationServiceBenchmark {
+
+    private static final String[] PURPOSES = {"Home Improvement", "Debt Consolidation", "Education", "Auto", "Business"};
+    private static final String[] EMPLOYMENT = {"Full-time", "Part-time", "Self-employed", "Contract"};
+
+    @State(Scope.Benchmark)
+    public static class Store {
+
+        @Param({"1000", "100000", "1000000"})
+        public int applications;
+
+        /** Voters the identified votes are spread across. */
+        @Param({"100000"})
+        public int voters;
+
+        LoanApplicationService service;
+        String[] ids;
+
+        @Setup(Level.Trial)
+        public void populate() {
+            service = new LoanApplicationService(false);
+            ids = new String[applications];
+            for (int i = 0; i < applications; i++) {
+                ids[i] = service.submitApplication(application()).getId();
+            }
+        }
+
+        String anyId() {
+            return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        }
+
+        String anyVoter() {
+            return "voter-" + ThreadLocalRandom.current().nextInt(voters);
+        }
+    }
+
+    /**
+     * Every submission stays in the store, so {@code applications} is the
+     * size it starts from. Rebuilding it per iteration instead would charge
+     * the rebuild's allocation to the GC profiler's per-operation figures.
+     */
+    @Benchmark
+    public LoanApplication submitApplication(Store store) {
+        return store.service.submitApplication(application());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public LoanApplication submitApplicationContended(Store store) {
+        return store.service.submitApplication(application());
+    }
+
+    @Benchmark
+    public void voteAnonymously(Store store) {
+        store.service.voteOnApplication(store.anyId(), ThreadLocalRandom.current().nextBoolean());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void voteAnonymouslyContended(Store store) {
+        store.service.voteOnApplication(store.anyId(), ThreadLocalRandom.current().nextBoolean());
+    }
+
+    @Benchmark
+    public VoteResult voteAsVoter(Store store) {
+        return store.service.voteOnApplication(store.anyVoter(), store.anyId(), ThreadLocalRandom.current().nextBoolean());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public VoteResult voteAsVoterContended(Store store) {
+        return store.service.voteOnApplication(store.anyVoter(), store.anyId(), ThreadLocalRandom.current().nextBoolean());
+    }
+
+    @Benchmark
+    public LoanApplication getRandomApplication(Store store) {
+        return store.service.getRandomApplication();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public LoanApplication getRandomApplicationContended(Store store) {
+        return store.service.getRandomApplication();
+    }
+
+    @Benchmark
+    public LoanApplication getRandomApplicationForVoter(Store store) {
+        return store.service.getRandomApplication(store.anyVoter());
+    }
+
+    @Benchmark
+    public List<LoanApplication> getAllApplications(Store store) {
+        return store.service.getAllApplications();
+    }
+
+    /**
+     * A fully filled-in application, as the form would submit it.
+     */
+    static LoanApplication application() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LoanApplication application = new LoanApplication();
+        application.setApplicantName("Applicant " + random.nextInt(1_000_000));
+        application.setLoanAmount(BigDecimal.valueOf(random.nextInt(1_000, 500_000)));
+        application.setLoanPurpose(PURPOSES[random.nextInt(PURPOSES.length)]);
+        application.setAnnualIncome(BigDecimal.valueOf(random.nextInt(20_000, 250_000)));
+        application.setCreditScore(random.nextInt(300, 851));
+        application.setEmploymentStatus(EMPLOYMENT[random.nextInt(EMPLOYMENT.length)]);
+        return application;
+    }
+}
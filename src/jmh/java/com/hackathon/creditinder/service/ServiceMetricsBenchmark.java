@@ -0,0 +1,83 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the hot-path timers cost: one histogram recording on the registry
+ * production scrapes, from one thread and from four, and a detail lookup
+ * with the service bound to that registry and without. Run with
+ * {@code ./gradlew jmh -PjmhIncludes=ServiceMetrics}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ServiceMetricsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Recorder {
+
+        ServiceMetrics metrics;
+
+        @Setup
+        public void bind() {
+            metrics = new ServiceMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Store {
+
+        @Param({"false", "true"})
+        public boolean bound;
+
+        LoanApplicationService service;
+        String[] ids;
+
+        @Setup
+        public void populate() {
+            service = new LoanApplicationService(false);
+            ids = new String[10_000];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = service.submitApplication(new LoanApplication()).getId();
+            }
+            if (bound) {
+                service.bindTo(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+            }
+        }
+    }
+
+    @Benchmark
+    public void recordTimer(Recorder recorder) {
+        recorder.metrics.vote.record(ThreadLocalRandom.current().nextLong(1_000, 1_000_000), TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordTimerContended(Recorder recorder) {
+        recorder.metrics.vote.record(ThreadLocalRandom.current().nextLong(1_000, 1_000_000), TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    public void countVote(Recorder recorder) {
+        recorder.metrics.count(VoteResult.RECORDED);
+    }
+
+    @Benchmark
+    public Optional<LoanApplication> getApplicationById(Store store) {
+        return store.service.getApplicationById(store.ids[ThreadLocalRandom.current().nextInt(store.ids.length)]);
+    }
+}
@@ -0,0 +1,73 @@
+package com.hackathon.creditinder.trending;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What one vote costs the trending tracker, with its refresher re-ranking in
+ * the background: spread over many applications from one thread and from
+ * four, and all on one application from four. Run with
+ * {@code ./gradlew jmh -PjmhIncludes=TrendingTracker}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TrendingTrackerBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Tracker {
+
+        @Param({"1000", "100000"})
+        public int applications;
+
+        TrendingTracker tracker;
+        LoanApplication[] voted;
+
+        @Setup
+        public void start() {
+            tracker = new TrendingTracker(Duration.ofMinutes(5), Duration.ofHours(1), Duration.ofMinutes(1),
+                    10, applications, Duration.ofSeconds(1));
+            voted = new LoanApplication[applications];
+            for (int i = 0; i < applications; i++) {
+                voted[i] = new LoanApplication();
+                voted[i].setId(UUID.randomUUID().toString());
+                tracker.onVotes(voted[i], 1, 0);
+            }
+        }
+
+        @TearDown
+        public void stop() {
+            tracker.close();
+        }
+    }
+
+    @Benchmark
+    public void vote(Tracker state) {
+        state.tracker.onVotes(state.voted[ThreadLocalRandom.current().nextInt(state.applications)], 1, 0);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void voteContended(Tracker state) {
+        state.tracker.onVotes(state.voted[ThreadLocalRandom.current().nextInt(state.applications)], 1, 0);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void voteOneApplication(Tracker state) {
+        state.tracker.onVotes(state.voted[0], 1, 0);
+    }
+}
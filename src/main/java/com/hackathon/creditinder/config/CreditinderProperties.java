@@ -0,0 +1,719 @@
+package com.hackathon.creditinder.config;
+
+import com.hackathon.creditinder.journal.FsyncPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application settings bound from the {@code creditinder.*} properties.
+ */
+@ConfigurationProperties(prefix = "creditinder")
+public class CreditinderProperties {
+
+    private final Journal journal = new Journal();
+    private final Intake intake = new Intake();
+    private final Idempotency idempotency = new Idempotency();
+    private final RateLimit rateLimit = new RateLimit();
+    private final Live live = new Live();
+    private final Replication replication = new Replication();
+    private final Partition partition = new Partition();
+    private final Trending trending = new Trending();
+
+    public Journal getJournal() {
+        return journal;
+    }
+
+    public Intake getIntake() {
+        return intake;
+    }
+
+    public Idempotency getIdempotency() {
+        return idempotency;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public Live getLive() {
+        return live;
+    }
+
+    public Replication getReplication() {
+        return replication;
+    }
+
+    public Partition getPartition() {
+        return partition;
+    }
+
+    public Trending getTrending() {
+        return trending;
+    }
+
+    public static class Journal {
+
+        /**
+         * Whether submissions and votes are written to the on-disk journal and
+         * replayed on startup. When disabled, all state lives in memory only.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Directory holding the journal segment files.
+         */
+        private String directory = "data/journal";
+
+        /**
+         * When appended records are forced to disk.
+         */
+        private FsyncPolicy fsyncPolicy = FsyncPolicy.BATCH;
+
+        /**
+         * Upper bound on how long records stay un-synced under the interval policy.
+         */
+        private Duration fsyncInterval = Duration.ofMillis(100);
+
+        /**
+         * Most records written (and fsynced) together in one group commit.
+         */
+        private int maxBatchSize = 1024;
+
+        /**
+         * Size after which the journal rolls over to a new segment file.
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Records between snapshots; each snapshot lets the journal segments it
+         * covers be deleted, so restart time tracks the snapshot size rather
+         * than every vote ever cast. 0 disables automatic snapshots.
+         */
+        private long snapshotEveryRecords = 1_000_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public FsyncPolicy getFsyncPolicy() {
+            return fsyncPolicy;
+        }
+
+        public void setFsyncPolicy(FsyncPolicy fsyncPolicy) {
+            this.fsyncPolicy = fsyncPolicy;
+        }
+
+        public Duration getFsyncInterval() {
+            return fsyncInterval;
+        }
+
+        public void setFsyncInterval(Duration fsyncInterval) {
+            this.fsyncInterval = fsyncInterval;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public DataSize getSegmentSize() {
+            return segmentSize;
+        }
+
+        public void setSegmentSize(DataSize segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+
+        public long getSnapshotEveryRecords() {
+            return snapshotEveryRecords;
+        }
+
+        public void setSnapshotEveryRecords(long snapshotEveryRecords) {
+            this.snapshotEveryRecords = snapshotEveryRecords;
+        }
+    }
+
+    public static class Intake {
+
+        /**
+         * Accepted submissions waiting to be written; once full, new ones are
+         * answered with 429.
+         */
+        private int queueCapacity = 1024;
+
+        /**
+         * Most submissions written together in one batch.
+         */
+        private int maxBatchSize = 128;
+
+        /**
+         * Wait suggested to clients refused because the queue was full.
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+    }
+
+    public static class Idempotency {
+
+        /**
+         * Most idempotency keys remembered at once; past this the oldest is
+         * forgotten early.
+         */
+        private int maxKeys = 100_000;
+
+        /**
+         * How long a key's answer is replayed to retries of the same request.
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+
+        public int getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static class RateLimit {
+
+        /**
+         * Whether votes and submissions are rate limited per voter and per
+         * remote address.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Sustained votes and submissions per second allowed for one voter
+         * cookie.
+         */
+        private double voterPermitsPerSecond = 10;
+
+        /**
+         * Requests one voter may make at once after being idle.
+         */
+        private int voterBurst = 30;
+
+        /**
+         * Sustained votes and submissions per second allowed from one remote
+         * address, which many voters may share.
+         */
+        private double addressPermitsPerSecond = 200;
+
+        /**
+         * Requests one address may make at once after being idle.
+         */
+        private int addressBurst = 400;
+
+        /**
+         * Voters or addresses tracked at once; beyond this, new ones share a
+         * single limit until idle ones are swept.
+         */
+        private int maxKeys = 1_000_000;
+
+        /**
+         * How often limits that have fully recovered are forgotten.
+         */
+        private Duration sweepInterval = Duration.ofSeconds(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getVoterPermitsPerSecond() {
+            return voterPermitsPerSecond;
+        }
+
+        public void setVoterPermitsPerSecond(double voterPermitsPerSecond) {
+            this.voterPermitsPerSecond = voterPermitsPerSecond;
+        }
+
+        public int getVoterBurst() {
+            return voterBurst;
+        }
+
+        public void setVoterBurst(int voterBurst) {
+            this.voterBurst = voterBurst;
+        }
+
+        public double getAddressPermitsPerSecond() {
+            return addressPermitsPerSecond;
+        }
+
+        public void setAddressPermitsPerSecond(double addressPermitsPerSecond) {
+            this.addressPermitsPerSecond = addressPermitsPerSecond;
+        }
+
+        public int getAddressBurst() {
+            return addressBurst;
+        }
+
+        public void setAddressBurst(int addressBurst) {
+            this.addressBurst = addressBurst;
+        }
+
+        public int getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        public Duration getSweepInterval() {
+            return sweepInterval;
+        }
+
+        public void setSweepInterval(Duration sweepInterval) {
+            this.sweepInterval = sweepInterval;
+        }
+    }
+
+    public static class Live {
+
+        /**
+         * How often tally changes are pushed to live subscribers. Votes in
+         * between are coalesced, so this caps frames per subscriber.
+         */
+        private Duration flushInterval = Duration.ofMillis(250);
+
+        /**
+         * Threads writing frames to subscriber connections.
+         */
+        private int fanOutThreads = 4;
+
+        /**
+         * Interval between keep-alives on otherwise idle streams.
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+        /**
+         * Flush intervals a subscriber may fall behind before it is dropped.
+         */
+        private int maxBacklog = 40;
+
+        /**
+         * How long one frame may take to write before the subscriber is
+         * dropped and its fan-out thread replaced.
+         */
+        private Duration writeTimeout = Duration.ofSeconds(5);
+
+        /**
+         * How long one stream stays open before the browser has to reconnect.
+         */
+        private Duration streamTimeout = Duration.ofMinutes(30);
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public int getFanOutThreads() {
+            return fanOutThreads;
+        }
+
+        public void setFanOutThreads(int fanOutThreads) {
+            this.fanOutThreads = fanOutThreads;
+        }
+
+        public Duration getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(Duration heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+
+        public int getMaxBacklog() {
+            return maxBacklog;
+        }
+
+        public void setMaxBacklog(int maxBacklog) {
+            this.maxBacklog = maxBacklog;
+        }
+
+        public Duration getWriteTimeout() {
+            return writeTimeout;
+        }
+
+        public void setWriteTimeout(Duration writeTimeout) {
+            this.writeTimeout = writeTimeout;
+        }
+
+        public Duration getStreamTimeout() {
+            return streamTimeout;
+        }
+
+        public void setStreamTimeout(Duration streamTimeout) {
+            this.streamTimeout = streamTimeout;
+        }
+    }
+
+    public static class Replication {
+
+        /**
+         * Whether applications and votes are exchanged with the peers below.
+         * When disabled, this node stands alone.
+         */
+        private boolean enabled = false;
+
+        /**
+         * This node's name in every vote counter; must be unique in the
+         * cluster and stable across restarts. Defaults to host:port.
+         */
+        private String nodeId;
+
+        /**
+         * Port this node listens on for peers.
+         */
+        private int port = 7070;
+
+        /**
+         * Address the replication listener binds to: the interface peers
+         * reach this node on. Loopback by default, so nothing outside the
+         * host can send frames until a cluster interface is chosen.
+         */
+        private String bindAddress = "127.0.0.1";
+
+        /**
+         * Every other node, as host:port of its replication port.
+         */
+        private List<String> peers = new ArrayList<>();
+
+        /**
+         * How often locally taken votes and submissions are sent to peers.
+         */
+        private Duration flushInterval = Duration.ofMillis(100);
+
+        /**
+         * Wait between attempts to reach a peer that is down.
+         */
+        private Duration reconnectDelay = Duration.ofSeconds(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public void setNodeId(String nodeId) {
+            this.nodeId = nodeId;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public void setPort(int port) {
+            this.port = port;
+        }
+
+        public String getBindAddress() {
+            return bindAddress;
+        }
+
+        public void setBindAddress(String bindAddress) {
+            this.bindAddress = bindAddress;
+        }
+
+        public List<String> getPeers() {
+            return peers;
+        }
+
+        public void setPeers(List<String> peers) {
+            this.peers = peers;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public Duration getReconnectDelay() {
+            return reconnectDelay;
+        }
+
+        public void setReconnectDelay(Duration reconnectDelay) {
+            this.reconnectDelay = reconnectDelay;
+        }
+    }
+
+    public static class Partition {
+
+        /**
+         * Whether applications are split across the members below, each node
+         * holding the ones it owns. When disabled, this node holds them all.
+         */
+        private boolean enabled = false;
+
+        /**
+         * This node's name on the hash ring; must be unique in the cluster
+         * and stable across restarts. Defaults to host:port.
+         */
+        private String nodeId;
+
+        /**
+         * Base URL other nodes reach this one on. Defaults to
+         * http://host:server.port.
+         */
+        private String url;
+
+        /**
+         * Other nodes known at startup, as id=url. One is enough: the rest
+         * are learned from it when this node joins.
+         */
+        private List<String> members = new ArrayList<>();
+
+        /**
+         * Shared secret every node sends with its calls to the others; calls
+         * to /internal/partition without it are refused. Required when
+         * enabled, and the same on every node.
+         */
+        private String secret;
+
+        /**
+         * Points per node on the hash ring; more spread applications more
+         * evenly.
+         */
+        private int virtualNodes = 128;
+
+        /**
+         * Most partitions asked at once when gathering random picks or the
+         * full list.
+         */
+        private int fanOut = 4;
+
+        /**
+         * How long a call to another node may take before it is given up on.
+         */
+        private Duration requestTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Wait after a node joins before handing it its applications, so
+         * joins in quick succession move each application once.
+         */
+        private Duration handoffDelay = Duration.ofMillis(500);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public void setNodeId(String nodeId) {
+            this.nodeId = nodeId;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public List<String> getMembers() {
+            return members;
+        }
+
+        public void setMembers(List<String> members) {
+            this.members = members;
+        }
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+
+        public int getVirtualNodes() {
+            return virtualNodes;
+        }
+
+        public void setVirtualNodes(int virtualNodes) {
+            this.virtualNodes = virtualNodes;
+        }
+
+        public int getFanOut() {
+            return fanOut;
+        }
+
+        public void setFanOut(int fanOut) {
+            this.fanOut = fanOut;
+        }
+
+        public Duration getRequestTimeout() {
+            return requestTimeout;
+        }
+
+        public void setRequestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+        }
+
+        public Duration getHandoffDelay() {
+            return handoffDelay;
+        }
+
+        public void setHandoffDelay(Duration handoffDelay) {
+            this.handoffDelay = handoffDelay;
+        }
+    }
+
+    public static class Trending {
+
+        /**
+         * Votes over this trailing period rank the short trending list.
+         */
+        private Duration shortWindow = Duration.ofMinutes(5);
+
+        /**
+         * Votes over this trailing period rank the long trending list. Each
+         * application voted on within it keeps one counter per resolution.
+         */
+        private Duration longWindow = Duration.ofHours(1);
+
+        /**
+         * Step the windows slide by; votes within one step are counted
+         * together.
+         */
+        private Duration resolution = Duration.ofMinutes(1);
+
+        /**
+         * Applications kept in each trending list.
+         */
+        private int top = 10;
+
+        /**
+         * Applications followed at most; votes for others are not counted
+         * until an idle one is evicted.
+         */
+        private int maxTracked = 100_000;
+
+        /**
+         * How often the trending lists are re-ranked from recent votes.
+         */
+        private Duration refreshInterval = Duration.ofSeconds(1);
+
+        public Duration getShortWindow() {
+            return shortWindow;
+        }
+
+        public void setShortWindow(Duration shortWindow) {
+            this.shortWindow = shortWindow;
+        }
+
+        public Duration getLongWindow() {
+            return longWindow;
+        }
+
+        public void setLongWindow(Duration longWindow) {
+            this.longWindow = longWindow;
+        }
+
+        public Duration getResolution() {
+            return resolution;
+        }
+
+        public void setResolution(Duration resolution) {
+            this.resolution = resolution;
+        }
+
+        public int getTop() {
+            return top;
+        }
+
+        public void setTop(int top) {
+            this.top = top;
+        }
+
+        public int getMaxTracked() {
+            return maxTracked;
+        }
+
+        public void setMaxTracked(int maxTracked) {
+            this.maxTracked = maxTracked;
+        }
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.hackathon.creditinder.config;
+
+import com.hackathon.creditinder.idempotency.IdempotencyCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdempotencyConfiguration {
+
+    @Bean
+    public IdempotencyCache idempotencyCache(CreditinderProperties properties) {
+        CreditinderProperties.Idempotency settings = properties.getIdempotency();
+        return new IdempotencyCache(settings.getMaxKeys(), settings.getTtl());
+    }
+}
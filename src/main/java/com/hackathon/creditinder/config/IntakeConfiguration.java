@@ -0,0 +1,22 @@
+package com.hackathon.creditinder.config;
+
+import com.hackathon.creditinder.intake.SubmissionPipeline;
+import com.hackathon.creditinder.service.LoanApplicationService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IntakeConfiguration {
+
+    /**
+     * Spring closes it before the service and journal it writes to, so
+     * submissions accepted before shutdown are still written.
+     */
+    @Bean(destroyMethod = "close")
+    public SubmissionPipeline submissionPipeline(CreditinderProperties properties,
+                                                 LoanApplicationService loanApplicationService) {
+        CreditinderProperties.Intake settings = properties.getIntake();
+        return new SubmissionPipeline(loanApplicationService, settings.getQueueCapacity(),
+                settings.getMaxBatchSize(), settings.getRetryAfter());
+    }
+}
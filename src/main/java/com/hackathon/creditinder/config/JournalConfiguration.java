@@ -0,0 +1,33 @@
+package com.hackathon.creditinder.config;
+
+import com.hackathon.creditinder.journal.FileJournal;
+import com.hackathon.creditinder.journal.Journal;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+@EnableConfigurationProperties(CreditinderProperties.class)
+public class JournalConfiguration {
+
+    /**
+     * The service replays this journal when it is constructed; Spring closes
+     * it on shutdown, which flushes and fsyncs anything still queued.
+     */
+    @Bean(destroyMethod = "close")
+    public Journal journal(CreditinderProperties properties) {
+        CreditinderProperties.Journal settings = properties.getJournal();
+        if (!settings.isEnabled()) {
+            return Journal.NONE;
+        }
+        return new FileJournal(
+                Path.of(settings.getDirectory()),
+                settings.getFsyncPolicy(),
+                settings.getFsyncInterval(),
+                settings.getMaxBatchSize(),
+                settings.getSegmentSize().toBytes(),
+                settings.getSnapshotEveryRecords());
+    }
+}
@@ -0,0 +1,27 @@
+package com.hackathon.creditinder.config;
+
+import com.hackathon.creditinder.live.TallyBroadcaster;
+import com.hackathon.creditinder.service.LoanApplicationService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LiveConfiguration {
+
+    /**
+     * Listens to every tally change in the service; Spring closes it on
+     * shutdown, ending all open streams.
+     */
+    @Bean(destroyMethod = "close")
+    public TallyBroadcaster tallyBroadcaster(CreditinderProperties properties, LoanApplicationService loanApplicationService) {
+        CreditinderProperties.Live settings = properties.getLive();
+        TallyBroadcaster broadcaster = new TallyBroadcaster(
+                settings.getFlushInterval(),
+                settings.getFanOutThreads(),
+                settings.getHeartbeatInterval(),
+                settings.getMaxBacklog(),
+                settings.getWriteTimeout());
+        loanApplicationService.addTallyListener(broadcaster);
+        return broadcaster;
+    }
+}
@@ -0,0 +1,146 @@
+package com.hackathon.creditinder.config;
+
+import com.hackathon.creditinder.idempotency.IdempotencyCache;
+import com.hackathon.creditinder.intake.SubmissionPipeline;
+import com.hackathon.creditinder.journal.FileJournal;
+import com.hackathon.creditinder.journal.Journal;
+import com.hackathon.creditinder.live.TallyBroadcaster;
+import com.hackathon.creditinder.ratelimit.ClientRateLimiter;
+import com.hackathon.creditinder.ratelimit.RateLimiter;
+import com.hackathon.creditinder.replication.VoteReplicator;
+import com.hackathon.creditinder.trending.TrendingTracker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gauges over the journal, submission intake, idempotency keys, rate limits,
+ * live streams, replication and trending, scraped from
+ * {@code /internal/prometheus} on the management port. The service binds its
+ * own hot-path timers.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public MeterBinder journalMetrics(Journal journal) {
+        return registry -> {
+            if (!(journal instanceof FileJournal file)) {
+                return;
+            }
+            Gauge.builder("creditinder.journal.queued", file, FileJournal::queued)
+                    .description("Appends waiting for the journal writer")
+                    .register(registry);
+            FunctionCounter.builder("creditinder.journal.records", file, f -> f.stats().records())
+                    .description("Records written to the journal")
+                    .register(registry);
+            FunctionCounter.builder("creditinder.journal.batches", file, f -> f.stats().batches())
+                    .description("Batches written to the journal")
+                    .register(registry);
+            FunctionCounter.builder("creditinder.journal.fsyncs", file, f -> f.stats().fsyncs())
+                    .description("fsyncs issued by the journal")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder idempotencyMetrics(IdempotencyCache cache) {
+        return registry -> {
+            Gauge.builder("creditinder.idempotency.keys", cache, IdempotencyCache::size)
+                    .description("Idempotency keys remembered")
+                    .register(registry);
+            FunctionCounter.builder("creditinder.idempotency.replayed", cache, c -> c.stats().replayed())
+                    .description("Retried requests answered with the first attempt's result")
+                    .register(registry);
+            FunctionCounter.builder("creditinder.idempotency.evicted", cache, c -> c.stats().evicted())
+                    .description("Idempotency keys forgotten before expiring to stay within max-keys")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder rateLimitMetrics(ClientRateLimiter limiter) {
+        return registry -> {
+            bindRateLimiter(registry, "voter", limiter.voters());
+            bindRateLimiter(registry, "address", limiter.addresses());
+        };
+    }
+
+    private static void bindRateLimiter(MeterRegistry registry, String limit, RateLimiter limiter) {
+        if (limiter == null) {
+            return;
+        }
+        Gauge.builder("creditinder.ratelimit.keys", limiter, RateLimiter::keys)
+                .description("Voters or addresses currently tracked by the rate limiter")
+                .tag("limit", limit)
+                .register(registry);
+        FunctionCounter.builder("creditinder.ratelimit.rejected", limiter, l -> l.stats().rejected())
+                .description("Votes and submissions refused with 429 for exceeding the rate limit")
+                .tag("limit", limit)
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder intakeMetrics(SubmissionPipeline pipeline) {
+        return registry -> {
+            Gauge.builder("creditinder.intake.queued", pipeline, SubmissionPipeline::queued)
+                    .description("Accepted submissions waiting to be written")
+                    .register(registry);
+            FunctionCounter.builder("creditinder.intake.accepted", pipeline, p -> p.stats().accepted())
+                    .description("Submissions accepted into the intake queue")
+                    .register(registry);
+            FunctionCounter.builder("creditinder.intake.rejected", pipeline, p -> p.stats().rejected())
+                    .description("Submissions refused with 429 because the intake queue was full")
+                    .register(registry);
+            FunctionCounter.builder("creditinder.intake.failed", pipeline, p -> p.stats().failed())
+                    .description("Accepted submissions that could not be written")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder liveMetrics(TallyBroadcaster broadcaster) {
+        return registry -> {
+            Gauge.builder("creditinder.live.subscribers", broadcaster, b -> b.stats().subscribers())
+                    .description("Open live tally streams")
+                    .register(registry);
+            FunctionCounter.builder("creditinder.live.frames", broadcaster, b -> b.stats().frames())
+                    .description("Tally frames written to live streams")
+                    .register(registry);
+            FunctionCounter.builder("creditinder.live.dropped", broadcaster, b -> b.stats().dropped())
+                    .description("Live streams dropped for falling behind or failing")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder trendingMetrics(TrendingTracker tracker) {
+        return registry -> {
+            Gauge.builder("creditinder.trending.tracked", tracker, TrendingTracker::tracked)
+                    .description("Applications whose recent votes are counted for trending")
+                    .register(registry);
+            FunctionCounter.builder("creditinder.trending.dropped", tracker, t -> t.stats().dropped())
+                    .description("Votes left out of trending because max-tracked applications were followed")
+                    .register(registry);
+            FunctionCounter.builder("creditinder.trending.evicted", tracker, t -> t.stats().evicted())
+                    .description("Applications no longer followed after a long window without votes")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder replicationMetrics(ObjectProvider<VoteReplicator> replicator) {
+        return registry -> replicator.ifAvailable(r -> {
+            FunctionCounter.builder("creditinder.replication.frames.sent", r, v -> v.stats().framesSent())
+                    .description("Replication frames sent to peers")
+                    .register(registry);
+            FunctionCounter.builder("creditinder.replication.frames.applied", r, v -> v.stats().framesApplied())
+                    .description("Replication frames from peers applied here")
+                    .register(registry);
+        });
+    }
+}
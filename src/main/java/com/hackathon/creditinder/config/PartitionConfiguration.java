@@ -0,0 +1,104 @@
+package com.hackathon.creditinder.config;
+
+import com.hackathon.creditinder.journal.Journal;
+import com.hackathon.creditinder.partition.PartitionMember;
+import com.hackathon.creditinder.partition.PartitionSecretFilter;
+import com.hackathon.creditinder.partition.PartitionedApplicationService;
+import com.hackathon.creditinder.partition.PartitionedTrending;
+import com.hackathon.creditinder.trending.Trending;
+import com.hackathon.creditinder.trending.TrendingTracker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(prefix = "creditinder.partition", name = "enabled", havingValue = "true")
+public class PartitionConfiguration {
+
+    /**
+     * Stands in for the plain service everywhere it is injected. It replays
+     * the journal like the plain one, keeping only what it held before.
+     */
+    @Bean(destroyMethod = "close")
+    public PartitionedApplicationService loanApplicationService(Journal journal, CreditinderProperties properties,
+                                                                @Value("${server.port:8080}") int serverPort) {
+        CreditinderProperties.Partition settings = properties.getPartition();
+        String host = hostName();
+        String nodeId = settings.getNodeId();
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = host + ":" + serverPort;
+        }
+        String url = settings.getUrl();
+        if (url == null || url.isBlank()) {
+            url = "http://" + host + ":" + serverPort;
+        }
+        List<PartitionMember> members = new ArrayList<>(settings.getMembers().size());
+        for (String member : settings.getMembers()) {
+            members.add(member(member));
+        }
+        return new PartitionedApplicationService(journal, new PartitionMember(nodeId, stripSlash(url)), members,
+                settings.getVirtualNodes(), settings.getFanOut(), settings.getRequestTimeout(),
+                settings.getHandoffDelay(), settings.getSecret());
+    }
+
+    /**
+     * Trending across the cluster for the pages; the partition endpoints
+     * still serve the local tracker.
+     */
+    @Bean
+    @Primary
+    public Trending partitionedTrending(TrendingTracker trendingTracker, PartitionedApplicationService service) {
+        return new PartitionedTrending(trendingTracker, service);
+    }
+
+    /**
+     * Guards the endpoints other nodes call, which share the public port.
+     * Startup fails when no secret is configured.
+     */
+    @Bean
+    public FilterRegistrationBean<PartitionSecretFilter> partitionSecretFilter(CreditinderProperties properties) {
+        FilterRegistrationBean<PartitionSecretFilter> registration =
+                new FilterRegistrationBean<>(new PartitionSecretFilter(properties.getPartition().getSecret()));
+        registration.addUrlPatterns("/internal/partition/*");
+        return registration;
+    }
+
+    /**
+     * Joins once the web server is up, so members told about this node can
+     * hand it applications straight away.
+     */
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> partitionJoiner(PartitionedApplicationService service) {
+        return event -> service.joinCluster();
+    }
+
+    private static PartitionMember member(String member) {
+        int equals = member.indexOf('=');
+        if (equals <= 0) {
+            throw new IllegalArgumentException("Partition member must be id=url, got '" + member + "'");
+        }
+        return new PartitionMember(member.substring(0, equals).trim(), stripSlash(member.substring(equals + 1).trim()));
+    }
+
+    private static String stripSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+}
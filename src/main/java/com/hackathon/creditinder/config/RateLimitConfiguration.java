@@ -0,0 +1,23 @@
+package com.hackathon.creditinder.config;
+
+import com.hackathon.creditinder.ratelimit.ClientRateLimiter;
+import com.hackathon.creditinder.ratelimit.RateLimiter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RateLimitConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public ClientRateLimiter clientRateLimiter(CreditinderProperties properties) {
+        CreditinderProperties.RateLimit settings = properties.getRateLimit();
+        if (!settings.isEnabled()) {
+            return ClientRateLimiter.unlimited();
+        }
+        return new ClientRateLimiter(
+                new RateLimiter("voters", settings.getVoterPermitsPerSecond(), settings.getVoterBurst(),
+                        settings.getMaxKeys(), settings.getSweepInterval()),
+                new RateLimiter("addresses", settings.getAddressPermitsPerSecond(), settings.getAddressBurst(),
+                        settings.getMaxKeys(), settings.getSweepInterval()));
+    }
+}
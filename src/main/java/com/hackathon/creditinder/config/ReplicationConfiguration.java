@@ -0,0 +1,72 @@
+package com.hackathon.creditinder.config;
+
+import com.hackathon.creditinder.replication.ReplicationTransport;
+import com.hackathon.creditinder.replication.TcpReplicationTransport;
+import com.hackathon.creditinder.replication.VoteReplicator;
+import com.hackathon.creditinder.service.LoanApplicationService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(prefix = "creditinder.replication", name = "enabled", havingValue = "true")
+public class ReplicationConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public ReplicationTransport replicationTransport(CreditinderProperties properties) {
+        CreditinderProperties.Replication settings = properties.getReplication();
+        List<InetSocketAddress> peers = new ArrayList<>(settings.getPeers().size());
+        for (String peer : settings.getPeers()) {
+            peers.add(peerAddress(peer));
+        }
+        return new TcpReplicationTransport(bindAddress(settings.getBindAddress()), settings.getPort(), peers,
+                settings.getReconnectDelay());
+    }
+
+    /**
+     * Created with the other singletons, so after the service has replayed
+     * its journal and before the web server takes its first vote. Spring
+     * closes it before the transport it depends on.
+     */
+    @Bean(destroyMethod = "close")
+    public VoteReplicator voteReplicator(CreditinderProperties properties, LoanApplicationService loanApplicationService,
+                                         ReplicationTransport replicationTransport) {
+        CreditinderProperties.Replication settings = properties.getReplication();
+        String nodeId = settings.getNodeId();
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = hostName() + ":" + settings.getPort();
+        }
+        return new VoteReplicator(nodeId, loanApplicationService, replicationTransport, settings.getFlushInterval());
+    }
+
+    private static InetSocketAddress peerAddress(String peer) {
+        int colon = peer.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Replication peer must be host:port, got '" + peer + "'");
+        }
+        return InetSocketAddress.createUnresolved(peer.substring(0, colon).trim(),
+                Integer.parseInt(peer.substring(colon + 1).trim()));
+    }
+
+    private static InetAddress bindAddress(String host) {
+        try {
+            return InetAddress.getByName(host);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Unknown replication bind address '" + host + "'", e);
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.hackathon.creditinder.config;
+
+import com.hackathon.creditinder.service.LoanApplicationService;
+import com.hackathon.creditinder.trending.TrendingTracker;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TrendingConfiguration {
+
+    /**
+     * Hears every vote counted by the service, local or replicated; Spring
+     * closes it on shutdown, stopping its refresher.
+     */
+    @Bean(destroyMethod = "close")
+    public TrendingTracker trendingTracker(CreditinderProperties properties,
+                                           LoanApplicationService loanApplicationService) {
+        CreditinderProperties.Trending settings = properties.getTrending();
+        TrendingTracker tracker = new TrendingTracker(
+                settings.getShortWindow(),
+                settings.getLongWindow(),
+                settings.getResolution(),
+                settings.getTop(),
+                settings.getMaxTracked(),
+                settings.getRefreshInterval());
+        loanApplicationService.addVoteListener(tracker);
+        return tracker;
+    }
+}
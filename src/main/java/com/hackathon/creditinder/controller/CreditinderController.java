@@ -1,23 +1,97 @@
 package com.hackathon.creditinder.controller;
 
+import com.hackathon.creditinder.idempotency.IdempotencyCache;
+import com.hackathon.creditinder.intake.SubmissionPipeline;
+import com.hackathon.creditinder.live.SseTallySink;
+import com.hackathon.creditinder.live.TallyBroadcaster;
+import com.hackathon.creditinder.live.TallySink;
 import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.model.SwipeCard;
+import com.hackathon.creditinder.model.SwipeRequest;
+import com.hackathon.creditinder.model.SubmissionResponse;
+import com.hackathon.creditinder.model.SwipeResponse;
+import com.hackathon.creditinder.model.TrendingApplication;
+import com.hackathon.creditinder.model.TrendingResponse;
+import com.hackathon.creditinder.model.VoteBatchRequest;
+import com.hackathon.creditinder.model.VoteBatchResponse;
+import com.hackathon.creditinder.ratelimit.ClientRateLimiter;
+import com.hackathon.creditinder.service.ApplicationAnalytics;
+import com.hackathon.creditinder.service.ApplicationPage;
+import com.hackathon.creditinder.service.ApplicationSort;
 import com.hackathon.creditinder.service.LoanApplicationService;
+import com.hackathon.creditinder.service.SearchFilter;
+import com.hackathon.creditinder.service.VoteResult;
+import com.hackathon.creditinder.trending.Trending;
+import com.hackathon.creditinder.trending.TrendingTracker;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 @Controller
 public class CreditinderController {
     
+    static final int DEFAULT_SWIPE_BATCH = 5;
+    static final int MAX_SWIPE_BATCH = 20;
+    // Ids a swipe request may exclude: the client's queue, its unsent votes
+    // and the card on screen. Anything past it is ignored.
+    static final int MAX_SWIPE_QUEUED = 5 * MAX_SWIPE_BATCH;
+    static final int DEFAULT_PAGE_SIZE = 25;
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_VOTE_BATCH = 500;
+    static final String VOTER_COOKIE = "creditinder_voter";
+    static final String IDEMPOTENCY_HEADER = "Idempotency-Key";
+    // The same key as a request parameter, for forms and sendBeacon.
+    static final String IDEMPOTENCY_PARAM = "idempotencyKey";
+    static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    private static final int VOTER_COOKIE_MAX_AGE_SECONDS = 365 * 24 * 60 * 60;
+    // Part of every ETag, so a page rendered before a restart never
+    // revalidates against the store rebuilt after it.
+    private static final String ETAG_EPOCH = Long.toString(System.currentTimeMillis(), 36);
+    
     @Autowired
     private LoanApplicationService loanApplicationService;
     
+    @Autowired
+    private TallyBroadcaster tallyBroadcaster;
+    
+    @Autowired
+    private SubmissionPipeline submissionPipeline;
+    
+    @Autowired
+    private IdempotencyCache idempotencyCache;
+    
+    @Autowired
+    private ClientRateLimiter clientRateLimiter;
+    
+    @Autowired
+    private Trending trends;
+    
+    @Value("${creditinder.live.stream-timeout:30m}")
+    private Duration streamTimeout;
+    
     @GetMapping("/")
     public String home() {
         return "index";
@@ -26,57 +100,507 @@ public class CreditinderController {
     @GetMapping("/apply")
     public String showApplicationForm(Model model) {
         model.addAttribute("loanApplication", new LoanApplication());
+        // Sent back with the form, so submitting it twice files it once.
+        model.addAttribute(IDEMPOTENCY_PARAM, UUID.randomUUID().toString());
         return "apply";
     }
     
+    /**
+     * Queues a valid application and redirects straight away; it is written
+     * in the background. When the intake queue is full the form comes back
+     * with 429 and a Retry-After, keeping what was entered. A resubmitted
+     * form carries the same idempotency key and redirects to the application
+     * already filed.
+     */
     @PostMapping("/apply")
     public String submitApplication(@Valid @ModelAttribute LoanApplication loanApplication, 
                                   BindingResult bindingResult, 
-                                  RedirectAttributes redirectAttributes) {
+                                  RedirectAttributes redirectAttributes,
+                                  @CookieValue(name = VOTER_COOKIE, required = false) String voterId,
+                                  HttpServletRequest request,
+                                  HttpServletResponse response, Model model) {
+        String key = idempotencyKey(request);
+        if (!validKey(key)) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            model.addAttribute(IDEMPOTENCY_PARAM, UUID.randomUUID().toString());
+            return "apply";
+        }
+        // Reused if the form comes back, since nothing was filed under it.
+        model.addAttribute(IDEMPOTENCY_PARAM, key != null ? key : UUID.randomUUID().toString());
+        long wait = rateLimited(voterId, request);
+        if (wait > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(wait));
+            model.addAttribute("busyMessage", "You are submitting too quickly. Please wait a moment and try again.");
+            return "apply";
+        }
         if (bindingResult.hasErrors()) {
             return "apply";
         }
         
-        loanApplicationService.submitApplication(loanApplication);
+        LoanApplication submission = newSubmission(loanApplication);
+        String applicationId = once("apply", null, key,
+                () -> submissionPipeline.offer(submission) ? submission.getId() : null);
+        if (applicationId == null) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds());
+            model.addAttribute("busyMessage",
+                    "We are receiving a lot of applications right now. Please try again in a moment.");
+            return "apply";
+        }
         redirectAttributes.addFlashAttribute("message", "Application submitted successfully!");
+        redirectAttributes.addFlashAttribute("applicationId", applicationId);
         return "redirect:/";
     }
     
+    /**
+     * JSON counterpart of {@code POST /apply}: answers 202 with the id the
+     * application will be stored under, or 429 with a Retry-After when the
+     * intake queue is full. A retry with the same idempotency key gets the
+     * same id.
+     */
+    @PostMapping("/api/applications")
+    @ResponseBody
+    public ResponseEntity<SubmissionResponse> submitApplicationJson(@Valid @RequestBody LoanApplication loanApplication,
+                                                                    @CookieValue(name = VOTER_COOKIE, required = false) String voterId,
+                                                                    HttpServletRequest request) {
+        long wait = rateLimited(voterId, request);
+        if (wait > 0) {
+            return tooManyRequests(wait);
+        }
+        String key = idempotencyKey(request);
+        if (!validKey(key)) {
+            return ResponseEntity.badRequest().build();
+        }
+        LoanApplication submission = newSubmission(loanApplication);
+        String applicationId = once("apply", null, key,
+                () -> submissionPipeline.offer(submission) ? submission.getId() : null);
+        if (applicationId == null) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds())
+                    .build();
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/application/" + applicationId))
+                .body(new SubmissionResponse(applicationId));
+    }
+    
     @GetMapping("/swipe")
-    public String showSwipePage(Model model) {
-        LoanApplication randomApp = loanApplicationService.getRandomApplication();
+    public String showSwipePage(@CookieValue(name = VOTER_COOKIE, required = false) String voterId,
+                                HttpServletResponse response, Model model) {
+        LoanApplication randomApp;
+        if (voterId == null) {
+            // A first-time visitor has not voted on anything yet
+            response.addCookie(newVoterCookie());
+            randomApp = loanApplicationService.getRandomApplication();
+        } else {
+            randomApp = loanApplicationService.getRandomApplication(voterId);
+        }
         if (randomApp == null) {
             model.addAttribute("noApplications", true);
             return "swipe";
         }
         model.addAttribute("application", randomApp);
+        // Rendered under its own name: ${application} is Thymeleaf's servlet-context scope
+        model.addAttribute("swipeCard", SwipeCard.from(randomApp));
         return "swipe";
     }
     
+    @GetMapping("/api/swipe")
+    @ResponseBody
+    public ResponseEntity<SwipeResponse> nextSwipeCards(@CookieValue(name = VOTER_COOKIE, required = false) String voterId,
+                                                        @RequestParam(defaultValue = "" + DEFAULT_SWIPE_BATCH) int count,
+                                                        @RequestParam(required = false) List<String> queued,
+                                                        HttpServletRequest request) {
+        long wait = rateLimited(voterId, request);
+        if (wait > 0) {
+            return tooManyRequests(wait);
+        }
+        return ResponseEntity.ok(SwipeResponse.of(loanApplicationService.getRandomApplications(
+                voterId, clampSwipeBatch(count), capQueued(queued))));
+    }
+    
+    /**
+     * Records a vote and returns the next cards. A repeated vote by the same
+     * voter answers 409 and an unknown card 404, both still carrying cards so
+     * the client queue keeps moving.
+     */
+    @PostMapping("/api/swipe")
+    @ResponseBody
+    public ResponseEntity<SwipeResponse> swipe(@CookieValue(name = VOTER_COOKIE, required = false) String voterId,
+                                               @RequestBody SwipeRequest request,
+                                               HttpServletRequest servletRequest) {
+        long wait = rateLimited(voterId, servletRequest);
+        if (wait > 0) {
+            return tooManyRequests(wait);
+        }
+        if (request.applicationId() == null || request.approve() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        VoteResult result;
+        try {
+            result = castVote(voterId, request.applicationId(), request.approve());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+        int count = clampSwipeBatch(request.count() == null ? DEFAULT_SWIPE_BATCH : request.count());
+        SwipeResponse next = SwipeResponse.of(
+                loanApplicationService.getRandomApplications(voterId, count, capQueued(request.queued())));
+        return ResponseEntity.status(statusOf(result)).body(next);
+    }
+    
+    /**
+     * Records one vote. A retry with the same idempotency key is answered
+     * like the first attempt and is not counted again, even for anonymous
+     * voters.
+     */
     @PostMapping("/vote")
     @ResponseBody
-    public ResponseEntity<String> vote(@RequestParam String applicationId, @RequestParam boolean approve) {
+    public ResponseEntity<String> vote(@CookieValue(name = VOTER_COOKIE, required = false) String voterId,
+                                       @RequestParam String applicationId, @RequestParam boolean approve,
+                                       HttpServletRequest request) {
+        long wait = rateLimited(voterId, request);
+        if (wait > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(wait))
+                    .body("rate-limited");
+        }
+        String key = idempotencyKey(request);
+        if (!validKey(key)) {
+            return ResponseEntity.badRequest().body("invalid-key");
+        }
         try {
-            loanApplicationService.voteOnApplication(applicationId, approve);
-            return ResponseEntity.ok("success");
+            return switch (once("vote", voterId, key, () -> castVote(voterId, applicationId, approve))) {
+                case RECORDED -> ResponseEntity.ok("success");
+                case DUPLICATE -> ResponseEntity.status(HttpStatus.CONFLICT).body("duplicate");
+                case NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("not-found");
+            };
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("error");
         }
     }
     
+    /**
+     * Records up to {@link #MAX_VOTE_BATCH} buffered swipes in one request.
+     * Duplicates and unknown cards do not fail the batch; they are reported
+     * per vote. A malformed or oversized batch is rejected whole. A batch
+     * resent with the same idempotency key gets the first attempt's results.
+     */
+    @PostMapping("/api/votes")
+    @ResponseBody
+    public ResponseEntity<VoteBatchResponse> voteBatch(@CookieValue(name = VOTER_COOKIE, required = false) String voterId,
+                                                       @RequestBody VoteBatchRequest request,
+                                                       HttpServletRequest servletRequest) {
+        List<VoteBatchRequest.Vote> votes = request.votes();
+        String key = idempotencyKey(servletRequest);
+        if (votes == null || votes.size() > MAX_VOTE_BATCH
+                || votes.stream().anyMatch(v -> v == null || v.applicationId() == null || v.approve() == null)
+                || !validKey(key)) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Charged per vote, so batching does not multiply a client's rate.
+        long wait = rateLimited(voterId, servletRequest, Math.max(1, votes.size()));
+        if (wait > 0) {
+            return tooManyRequests(wait);
+        }
+        List<VoteResult> results;
+        try {
+            results = once("votes", voterId, key, () -> loanApplicationService.voteOnApplications(voterId, votes));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+        return ResponseEntity.ok(new VoteBatchResponse(results.stream().map(result -> switch (result) {
+            case RECORDED -> "recorded";
+            case DUPLICATE -> "duplicate";
+            case NOT_FOUND -> "not-found";
+        }).toList()));
+    }
+    
+    /**
+     * Anonymous votes (no voter cookie) keep the original fire-and-forget
+     * semantics; identified voters get one vote per application.
+     */
+    private VoteResult castVote(String voterId, String applicationId, boolean approve) {
+        if (voterId == null) {
+            loanApplicationService.voteOnApplication(applicationId, approve);
+            return VoteResult.RECORDED;
+        }
+        return loanApplicationService.voteOnApplication(voterId, applicationId, approve);
+    }
+    
+    /**
+     * Streams one application's tally as Server-Sent Events, starting with
+     * its current tally.
+     */
+    @GetMapping(path = "/api/applications/{id}/tally", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTally(@PathVariable String id) {
+        return loanApplicationService.getApplicationById(id)
+                .map(app -> ResponseEntity.ok(stream(sink -> tallyBroadcaster.subscribe(List.of(app), sink))))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Streams tally changes for the applications in {@code ids}, at most one
+     * page's worth, starting with their current tallies. Without {@code ids},
+     * streams changes to every application.
+     */
+    @GetMapping(path = "/api/tallies", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTallies(@RequestParam(required = false) List<String> ids) {
+        if (ids == null) {
+            return stream(tallyBroadcaster::subscribeAll);
+        }
+        List<LoanApplication> applications = ids.stream()
+                .limit(MAX_PAGE_SIZE)
+                .map(loanApplicationService::getApplicationById)
+                .flatMap(Optional::stream)
+                .toList();
+        return stream(sink -> tallyBroadcaster.subscribe(applications, sink));
+    }
+    
+    private SseEmitter stream(Function<TallySink, TallyBroadcaster.Subscription> subscribe) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        TallyBroadcaster.Subscription subscription = subscribe.apply(new SseTallySink(emitter));
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        return emitter;
+    }
+    
+    /**
+     * Takes one of the client's votes or submissions from its rate limits.
+     * Returns 0 when it may go ahead, otherwise the whole seconds it should
+     * wait.
+     */
+    private long rateLimited(String voterId, HttpServletRequest request) {
+        return rateLimited(voterId, request, 1);
+    }
+    
+    private long rateLimited(String voterId, HttpServletRequest request, int permits) {
+        long waitNanos = clientRateLimiter.acquire(voterId, request.getRemoteAddr(), permits);
+        return waitNanos <= 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+    }
+    
+    private static <T> ResponseEntity<T> tooManyRequests(long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .build();
+    }
+    
+    private static String idempotencyKey(HttpServletRequest request) {
+        String key = request.getHeader(IDEMPOTENCY_HEADER);
+        if (key == null) {
+            key = request.getParameter(IDEMPOTENCY_PARAM);
+        }
+        return key == null || key.isBlank() ? null : key;
+    }
+    
+    private static boolean validKey(String key) {
+        return key == null || key.length() <= MAX_IDEMPOTENCY_KEY_LENGTH;
+    }
+    
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+    
+    /**
+     * Runs {@code request} once per idempotency key, or every time when the
+     * client sent none. Keys are scoped to the endpoint and voter, so one
+     * client can not replay another's answer.
+     */
+    private <V> V once(String endpoint, String voterId, String key, Supplier<V> request) {
+        if (key == null) {
+            return request.get();
+        }
+        return idempotencyCache.execute(endpoint + '\n' + (voterId == null ? "" : voterId) + '\n' + key, request);
+    }
+    
+    private static HttpStatus statusOf(VoteResult result) {
+        return switch (result) {
+            case RECORDED -> HttpStatus.OK;
+            case DUPLICATE -> HttpStatus.CONFLICT;
+            case NOT_FOUND -> HttpStatus.NOT_FOUND;
+        };
+    }
+    
+    private static Cookie newVoterCookie() {
+        Cookie cookie = new Cookie(VOTER_COOKIE, UUID.randomUUID().toString());
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge(VOTER_COOKIE_MAX_AGE_SECONDS);
+        return cookie;
+    }
+    
+    /**
+     * Pages through applications, newest first unless another {@code sort}
+     * is chosen. {@code after} is the opaque cursor from the previous page's
+     * "Next" link. With a search query {@code q}, lists the applications
+     * whose purpose or notes match it instead, best match first, optionally
+     * narrowed by purpose, employment status and minimum credit score.
+     * Tagged with the store version, so a dashboard polling an idle store
+     * gets 304s without the page being rendered.
+     */
     @GetMapping("/applications")
-    public String showAllApplications(Model model) {
-        model.addAttribute("applications", loanApplicationService.getAllApplications());
+    public String showAllApplications(@RequestParam(required = false) String after,
+                                      @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                                      @RequestParam(required = false) String sort,
+                                      @RequestParam(defaultValue = "desc") String dir,
+                                      @RequestParam(required = false) String q,
+                                      @RequestParam(required = false) String purpose,
+                                      @RequestParam(required = false) String employment,
+                                      @RequestParam(required = false) Integer minScore,
+                                      ServletWebRequest request, Model model) {
+        if (notModified(request, loanApplicationService.getStoreVersion())) {
+            return null;
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        ApplicationSort order = ApplicationSort.fromParam(sort);
+        if (order == null) {
+            order = ApplicationSort.SUBMITTED_AT;
+        }
+        boolean descending = !"asc".equalsIgnoreCase(dir);
+        boolean searching = q != null && !q.isBlank();
+        ApplicationPage page;
+        if (searching) {
+            SearchFilter filter = new SearchFilter(blankToNull(purpose), blankToNull(employment), minScore, null);
+            page = loanApplicationService.searchApplications(q.strip(), filter, after, pageSize);
+        } else {
+            page = loanApplicationService.getApplicationPage(order, descending, after, pageSize);
+        }
+        model.addAttribute("searching", searching);
+        model.addAttribute("q", searching ? q.strip() : null);
+        model.addAttribute("purpose", blankToNull(purpose));
+        model.addAttribute("employment", blankToNull(employment));
+        model.addAttribute("minScore", minScore);
+        model.addAttribute("applications", page.applications());
+        model.addAttribute("sort", order.param());
+        model.addAttribute("dir", descending ? "desc" : "asc");
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("totalApplications", page.total());
+        model.addAttribute("pageSize", pageSize);
+        model.addAttribute("firstPage", after == null || after.isBlank());
         return "applications";
     }
     
+    /**
+     * Approval rates and amounts requested by loan purpose, credit band and
+     * employment status. The figures are kept up to date on every submission
+     * and vote, so the page costs the same however many applications there
+     * are; it is tagged with the store version like the applications page.
+     */
+    @GetMapping("/analytics")
+    public String showAnalytics(ServletWebRequest request, Model model) {
+        if (notModified(request, loanApplicationService.getStoreVersion())) {
+            return null;
+        }
+        model.addAttribute("analytics", loanApplicationService.getAnalytics());
+        return "analytics";
+    }
+    
+    @GetMapping("/api/analytics")
+    @ResponseBody
+    public ApplicationAnalytics.Snapshot analytics() {
+        return loanApplicationService.getAnalytics();
+    }
+    
+    /**
+     * The applications taking the most votes over the short and the long
+     * trending window. Both lists are ranked in the background, so the page
+     * only looks up the few applications on them.
+     */
+    @GetMapping("/trending")
+    public String showTrending(Model model) {
+        TrendingResponse trending = trending();
+        model.addAttribute("trending", trending);
+        model.addAttribute("shortWindow", describe(trends.shortWindow()));
+        model.addAttribute("longWindow", describe(trends.longWindow()));
+        return "trending";
+    }
+    
+    @GetMapping("/api/trending")
+    @ResponseBody
+    public TrendingResponse trending() {
+        return new TrendingResponse(
+                resolve(trends.shortTrending()),
+                resolve(trends.longTrending()));
+    }
+    
+    /**
+     * Shows one application, tagged with its own version so it revalidates
+     * until that application changes, whatever happens to the others.
+     */
     @GetMapping("/application/{id}")
-    public String showApplicationDetails(@PathVariable String id, Model model) {
-        return loanApplicationService.getApplicationById(id)
-                .map(app -> {
-                    model.addAttribute("application", app);
-                    return "application-details";
-                })
-                .orElse("redirect:/applications");
+    public String showApplicationDetails(@PathVariable String id, ServletWebRequest request, Model model) {
+        LoanApplication app = loanApplicationService.getApplicationById(id).orElse(null);
+        if (app == null) {
+            return "redirect:/applications";
+        }
+        if (notModified(request, app.getVersion())) {
+            return null;
+        }
+        model.addAttribute("application", app);
+        return "application-details";
+    }
+    
+    /**
+     * Looks up the applications on a trending list, leaving out any removed
+     * since they were voted on.
+     */
+    private List<TrendingApplication> resolve(List<TrendingTracker.Trend> trends) {
+        return trends.stream()
+                .flatMap(trend -> loanApplicationService.getApplicationById(trend.applicationId()).stream()
+                        .map(application -> TrendingApplication.from(application, trend.votes())))
+                .toList();
+    }
+    
+    private static String describe(Duration window) {
+        if (window.toMinutesPart() == 0 && window.toSecondsPart() == 0 && window.toHours() > 0) {
+            return window.toHours() == 1 ? "hour" : window.toHours() + " hours";
+        }
+        long minutes = window.toMinutes();
+        return minutes == 1 ? "minute" : minutes + " minutes";
+    }
+    
+    /**
+     * Answers 304 when the client's copy carries {@code version}, otherwise
+     * tags the response with it. The version must be read before the page is
+     * built, so the tag never claims more than the page shows.
+     */
+    private static boolean notModified(ServletWebRequest request, long version) {
+        // Cached copies must be revalidated on every use.
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        return request.checkNotModified(ETAG_EPOCH + "-" + version);
+    }
+    
+    /**
+     * Copies only what an applicant fills in onto a new application, so a
+     * request can not choose its id, submission time or tally.
+     */
+    private static LoanApplication newSubmission(LoanApplication submitted) {
+        LoanApplication application = new LoanApplication();
+        application.setApplicantName(submitted.getApplicantName());
+        application.setLoanAmount(submitted.getLoanAmount());
+        application.setLoanPurpose(submitted.getLoanPurpose());
+        application.setAnnualIncome(submitted.getAnnualIncome());
+        application.setCreditScore(submitted.getCreditScore());
+        application.setEmploymentStatus(submitted.getEmploymentStatus());
+        application.setAdditionalNotes(submitted.getAdditionalNotes());
+        return application;
+    }
+    
+    private String retryAfterSeconds() {
+        // Whole seconds, rounded up, as the header requires.
+        long millis = submissionPipeline.retryAfter().toMillis();
+        return Long.toString(Math.max(1, (millis + 999) / 1000));
+    }
+    
+    private static int clampSwipeBatch(int count) {
+        return Math.max(0, Math.min(count, MAX_SWIPE_BATCH));
+    }
+    
+    private static List<String> capQueued(List<String> queued) {
+        if (queued == null) {
+            return List.of();
+        }
+        return queued.size() > MAX_SWIPE_QUEUED ? queued.subList(0, MAX_SWIPE_QUEUED) : queued;
     }
 }
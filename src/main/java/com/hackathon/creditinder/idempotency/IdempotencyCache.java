@@ -0,0 +1,156 @@
+package com.hackathon.creditinder.idempotency;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of each request sent with an idempotency key, so a
+ * client that retries after a timeout gets the first attempt's answer back
+ * instead of voting or submitting twice.
+ *
+ * Keys are kept in the order they were first seen. Every key lives for the
+ * same {@code ttl}, so that is also the order they expire in: expired keys
+ * are dropped from the head as new ones arrive, and once {@code maxKeys} are
+ * held the oldest goes whether expired or not. Each request therefore costs
+ * a hash lookup and amortised O(1) eviction under one short lock, and the
+ * table never outgrows {@code maxKeys} however fast requests come in. A
+ * retry arriving after its key is gone is simply run again.
+ */
+public class IdempotencyCache {
+
+    private final int maxKeys;
+    private final long ttlNanos;
+    private final LongSupplier nanoTime;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Insertion order, which is expiry order.
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public IdempotencyCache(int maxKeys, Duration ttl) {
+        this(maxKeys, ttl, System::nanoTime);
+    }
+
+    IdempotencyCache(int maxKeys, Duration ttl, LongSupplier nanoTime) {
+        if (maxKeys <= 0 || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("maxKeys and ttl must be positive");
+        }
+        this.maxKeys = maxKeys;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Runs {@code request} the first time {@code key} is seen and returns its
+     * result; while the key is remembered, later calls return that same
+     * result without running theirs, waiting for it if the first is still
+     * running. A request that throws, or returns {@code null} for an outcome
+     * that should not stick (such as being refused for load), is forgotten
+     * so a retry runs again.
+     */
+    public <V> V execute(String key, Supplier<V> request) {
+        CompletableFuture<Object> outcome;
+        Entry mine = null;
+        lock.lock();
+        try {
+            long now = nanoTime.getAsLong();
+            evict(now);
+            Entry existing = entries.get(key);
+            if (existing != null) {
+                outcome = existing.outcome;
+            } else {
+                mine = new Entry(now + ttlNanos, new CompletableFuture<>());
+                entries.put(key, mine);
+                if (entries.size() > maxKeys) {
+                    Iterator<Entry> eldest = entries.values().iterator();
+                    eldest.next();
+                    eldest.remove();
+                    evicted.increment();
+                }
+                outcome = mine.outcome;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (mine == null) {
+            replayed.increment();
+            return await(outcome);
+        }
+
+        V result;
+        try {
+            result = request.get();
+        } catch (RuntimeException | Error e) {
+            forget(key, mine);
+            mine.outcome.completeExceptionally(e);
+            throw e;
+        }
+        if (result == null) {
+            forget(key, mine);
+        }
+        mine.outcome.complete(result);
+        return result;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(size(), replayed.sum(), evicted.sum());
+    }
+
+    private void evict(long now) {
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (oldest.hasNext() && oldest.next().expiresAt - now <= 0) {
+            oldest.remove();
+        }
+    }
+
+    private void forget(String key, Entry entry) {
+        lock.lock();
+        try {
+            entries.remove(key, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V await(CompletableFuture<Object> outcome) {
+        try {
+            return (V) outcome.join();
+        } catch (CompletionException e) {
+            // The first attempt failed; this one fails the same way and its
+            // client can retry.
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Entry(long expiresAt, CompletableFuture<Object> outcome) {
+    }
+
+    /**
+     * @param keys     keys currently remembered
+     * @param replayed requests answered with an earlier attempt's result
+     * @param evicted  keys dropped before expiring to stay within the bound
+     */
+    public record Stats(int keys, long replayed, long evicted) {
+    }
+}
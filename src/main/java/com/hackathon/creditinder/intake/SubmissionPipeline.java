@@ -0,0 +1,152 @@
+package com.hackathon.creditinder.intake;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.service.LoanApplicationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Takes validated submissions off the request thread.
+ *
+ * A request only puts its application on a bounded queue and answers with
+ * the application's id. One intake thread drains the queue in batches of up
+ * to {@code maxBatchSize} and submits each batch to the service in one go,
+ * so the journal writes it with a single group commit and the request
+ * threads never wait on it. When the queue is full, {@link #offer} refuses
+ * straight away and the caller tells the client to come back after
+ * {@link #retryAfter()}: a spike in submissions then costs the clients a
+ * retry instead of tying up threads the rest of the app needs.
+ *
+ * An accepted application shows up in the store once its batch is written,
+ * usually within a few milliseconds.
+ */
+public class SubmissionPipeline implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SubmissionPipeline.class);
+    // Put after the last submission on close; never submitted.
+    private static final LoanApplication STOP = new LoanApplication();
+
+    private final LoanApplicationService service;
+    private final BlockingQueue<LoanApplication> queue;
+    private final int maxBatchSize;
+    private final Duration retryAfter;
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final Thread intake;
+    private volatile boolean closed;
+
+    public SubmissionPipeline(LoanApplicationService service, int capacity, int maxBatchSize, Duration retryAfter) {
+        if (capacity <= 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("capacity and maxBatchSize must be positive");
+        }
+        this.service = service;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.retryAfter = retryAfter;
+        this.intake = Thread.ofPlatform().name("submission-intake").daemon().start(this::intakeLoop);
+    }
+
+    /**
+     * Queues {@code application} to be submitted. Returns {@code false},
+     * without waiting, when the queue is full or the pipeline is closed.
+     */
+    public boolean offer(LoanApplication application) {
+        if (!closed && queue.offer(application)) {
+            accepted.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * How long a client refused by {@link #offer} should wait before trying
+     * again.
+     */
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    public Stats stats() {
+        return new Stats(accepted.sum(), rejected.sum(), batches.sum(), failed.sum());
+    }
+
+    /**
+     * Stops taking submissions and waits for the queued ones to be written.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            // Waits for room, which the intake thread is making.
+            queue.put(STOP);
+            intake.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void intakeLoop() {
+        List<LoanApplication> batch = new ArrayList<>(maxBatchSize);
+        for (;;) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            boolean stop = batch.remove(STOP);
+            if (!batch.isEmpty()) {
+                submit(batch);
+            }
+            batch.clear();
+            if (stop) {
+                // Anything that slipped in while closing.
+                queue.drainTo(batch);
+                if (!batch.isEmpty()) {
+                    submit(batch);
+                }
+                return;
+            }
+        }
+    }
+
+    private void submit(List<LoanApplication> batch) {
+        batches.increment();
+        try {
+            service.submitApplications(List.copyOf(batch));
+        } catch (RuntimeException e) {
+            int lost = 0;
+            for (LoanApplication application : batch) {
+                if (service.getApplicationById(application.getId()).isEmpty()) {
+                    lost++;
+                }
+            }
+            failed.add(lost);
+            log.error("Could not write {} of {} accepted submissions", lost, batch.size(), e);
+        }
+    }
+
+    /**
+     * @param accepted submissions queued since startup
+     * @param rejected submissions refused because the queue was full
+     * @param batches  batches handed to the service
+     * @param failed   accepted submissions that could not be written
+     */
+    public record Stats(long accepted, long rejected, long batches, long failed) {
+    }
+}
@@ -0,0 +1,643 @@
+package com.hackathon.creditinder.journal;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal stored as a directory of segment files.
+ *
+ * Callers encode their record and hand it to a single writer thread, which
+ * drains whatever has queued up, writes it with one gathering write and, under
+ * {@link FsyncPolicy#BATCH}, one fsync for the whole batch before completing
+ * the callers' futures. Under load, many votes therefore share a single fsync.
+ * A caller on a virtual thread parks on its future without holding a carrier;
+ * the writer itself stays a platform thread, since file I/O cannot unmount one.
+ *
+ * Each record is {@code [int length][int crc32c][long lsn][byte type][payload]},
+ * where length and checksum cover everything after the checksum. Segments are
+ * named after the LSN of their first record and rolled once they exceed the
+ * configured size. A torn or corrupt record at the tail of the last segment
+ * is what a crash mid-append leaves behind, and is truncated away. Anywhere
+ * else, as in a segment that was closed and fsynced before the next one was
+ * opened, damage or a gap in the LSNs fails replay and aborts compaction
+ * rather than silently dropping the records after it.
+ *
+ * Every {@code snapshotEveryRecords} records the writer rolls to a fresh
+ * segment and hands the closed ones to a compactor thread. It folds them into
+ * the previous snapshot off to the side, writes the result and deletes the
+ * segments it covers, so appends never wait for it and startup only replays
+ * the latest snapshot plus the segments written since.
+ */
+public class FileJournal implements Journal {
+
+    private static final Logger log = LoggerFactory.getLogger(FileJournal.class);
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+    private static final int MAX_BODY_BYTES = 16 * 1024 * 1024;
+    private static final int QUEUED_BATCHES = 64;
+
+    private static final byte SUBMISSION = 1;
+    private static final byte VOTE = 2;
+    private static final byte REMOVAL = 3;
+
+    /** Wakes the writer so it can drain and exit. */
+    private static final Pending SHUTDOWN = new Pending(new byte[0], null);
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final int maxBatchSize;
+    private final long segmentBytes;
+    private final long snapshotEveryRecords;
+
+    private final LinkedBlockingQueue<Pending> queue;
+    private final SnapshotStore snapshots;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("journal-compactor").daemon().factory());
+    private final Stats stats = new Stats();
+
+    private volatile boolean started;
+    private volatile boolean closed;
+    private volatile IOException failure;
+    private volatile boolean compactionQueued;
+    private Thread writer;
+
+    // Writer-thread state.
+    private FileChannel segment;
+    private long segmentSize;
+    private long nextLsn = 1;
+    private long recordsSinceSnapshot;
+    private long lastFsyncNanos;
+    private boolean dirty;
+
+    /**
+     * @param snapshotEveryRecords records between automatic snapshots, or 0 to
+     *                             only snapshot when {@link #snapshot()} is called
+     */
+    public FileJournal(Path directory, FsyncPolicy fsyncPolicy, Duration fsyncInterval, int maxBatchSize,
+                       long segmentBytes, long snapshotEveryRecords) {
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.segmentBytes = segmentBytes;
+        this.snapshotEveryRecords = snapshotEveryRecords;
+        // Bounded so the relaxed policies push back on callers instead of
+        // queueing without limit when the disk falls behind.
+        this.queue = new LinkedBlockingQueue<>(maxBatchSize * QUEUED_BATCHES);
+        this.snapshots = new SnapshotStore(directory);
+    }
+
+    @Override
+    public synchronized long replay(JournalReplayHandler handler) {
+        if (started) {
+            throw new IllegalStateException("Journal has already been replayed");
+        }
+        try {
+            Files.createDirectories(directory);
+            long restored = 0;
+            long snapshotLsn = 0;
+            Path snapshot = snapshots.latest();
+            if (snapshot != null) {
+                snapshotLsn = SnapshotStore.lsnOf(snapshot);
+                restored += snapshots.load(snapshot, handler);
+                nextLsn = snapshotLsn + 1;
+            }
+            snapshots.deleteOlderThan(snapshotLsn);
+
+            List<Path> segments = new ArrayList<>(listSegments());
+            // Segments wholly covered by the snapshot outlived a compaction
+            // that crashed before deleting them.
+            while (segments.size() > 1 && firstLsnOf(segments.get(1)) - 1 <= snapshotLsn) {
+                Files.deleteIfExists(segments.remove(0));
+            }
+            for (int i = 0; i < segments.size(); i++) {
+                boolean last = i == segments.size() - 1;
+                SegmentScan scan = readSegment(segments.get(i), handler, snapshotLsn, last);
+                checkContinues(segments.get(i), scan, nextLsn);
+                restored += scan.records;
+                nextLsn = Math.max(nextLsn, scan.lastLsn + 1);
+                recordsSinceSnapshot += scan.records;
+            }
+            openSegmentForAppend(segments);
+            log.info("Restored {} applications and records from {} and {} segment(s) in {}", restored,
+                    snapshot == null ? "no snapshot" : snapshot.getFileName(), segments.size(), directory);
+            startWriter();
+            return restored;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay journal in " + directory, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> appendSubmission(LoanApplication application) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(SUBMISSION);
+            JournalCodec.writeApplication(out, application);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return enqueue(bytes.toByteArray(), fsyncPolicy == FsyncPolicy.BATCH);
+    }
+
+    @Override
+    public CompletableFuture<Void> appendVote(String applicationId, String voterId, boolean approve) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VOTE);
+            JournalCodec.writeString(out, applicationId);
+            JournalCodec.writeString(out, voterId);
+            out.writeBoolean(approve);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return enqueue(bytes.toByteArray(), fsyncPolicy == FsyncPolicy.BATCH);
+    }
+
+    @Override
+    public CompletableFuture<Void> appendRemoval(String applicationId) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(48);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(REMOVAL);
+            JournalCodec.writeString(out, applicationId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return enqueue(bytes.toByteArray(), fsyncPolicy == FsyncPolicy.BATCH);
+    }
+
+    /**
+     * Snapshots everything appended so far and drops the journal segments it
+     * covers. The returned future completes once the snapshot is on disk.
+     */
+    public CompletableFuture<Void> snapshot() {
+        return enqueue(null, true);
+    }
+
+    @Override
+    public void close() {
+        Thread running;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            running = writer;
+        }
+        try {
+            if (running != null) {
+                queue.put(SHUTDOWN);
+                running.join();
+            }
+            compactor.shutdown();
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Records written, batches written, fsyncs issued and snapshots taken
+     * since startup.
+     */
+    public Stats stats() {
+        return stats;
+    }
+
+    /**
+     * Appends waiting for the writer: how far the disk is behind callers.
+     */
+    public int queued() {
+        return queue.size();
+    }
+
+    private CompletableFuture<Void> enqueue(byte[] payload, boolean awaitCompletion) {
+        if (!started) {
+            throw new IllegalStateException("Journal must be replayed before appending");
+        }
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Journal is unavailable after a write failure", failure);
+        }
+        // Only BATCH acknowledges after the fsync; the relaxed policies return
+        // immediately and let the writer catch up.
+        CompletableFuture<Void> done = awaitCompletion ? new CompletableFuture<>() : null;
+        try {
+            queue.put(new Pending(payload, done));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while appending to the journal", e);
+        }
+        return done == null ? COMPLETED : done;
+    }
+
+    private void startWriter() {
+        lastFsyncNanos = System.nanoTime();
+        writer = Thread.ofPlatform().name("journal-writer").daemon().unstarted(this::writeLoop);
+        started = true;
+        writer.start();
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        List<Pending> snapshotRequests = new ArrayList<>();
+        boolean running = true;
+        while (running) {
+            try {
+                Pending first = fsyncPolicy == FsyncPolicy.INTERVAL
+                        ? queue.poll(fsyncIntervalNanos, TimeUnit.NANOSECONDS)
+                        : queue.take();
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatchSize - 1);
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            if (batch.remove(SHUTDOWN)) {
+                // Anything still queued behind the marker was appended before close returned.
+                queue.drainTo(batch);
+                batch.remove(SHUTDOWN);
+                running = false;
+            }
+            batch.removeIf(pending -> pending.isSnapshotRequest() && snapshotRequests.add(pending));
+            try {
+                if (!batch.isEmpty()) {
+                    writeBatch(batch);
+                }
+                if (!running || fsyncDue()) {
+                    fsync();
+                }
+                complete(batch, null);
+                if (!snapshotRequests.isEmpty()
+                        || (snapshotEveryRecords > 0 && recordsSinceSnapshot >= snapshotEveryRecords && !compactionQueued)) {
+                    startCompaction(List.copyOf(snapshotRequests));
+                }
+            } catch (IOException e) {
+                log.error("Journal write failed; rejecting further appends", e);
+                failure = e;
+                complete(batch, e);
+                complete(snapshotRequests, e);
+                queue.forEach(pending -> completeOne(pending, e));
+                queue.clear();
+                running = false;
+            }
+            batch.clear();
+            snapshotRequests.clear();
+        }
+        closeSegment();
+        // Appends that raced with close() never reach the file.
+        IOException closedError = new IOException("Journal closed before the record was written");
+        queue.forEach(pending -> completeOne(pending, closedError));
+    }
+
+    private boolean fsyncDue() {
+        return switch (fsyncPolicy) {
+            case BATCH -> true;
+            case INTERVAL -> System.nanoTime() - lastFsyncNanos >= fsyncIntervalNanos;
+            case NONE -> false;
+        };
+    }
+
+    private void writeBatch(List<Pending> batch) throws IOException {
+        if (segmentSize >= segmentBytes) {
+            rollSegment();
+        }
+        ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+        CRC32C crc = new CRC32C();
+        long bytes = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            byte[] payload = batch.get(i).payload;
+            int bodyLength = Long.BYTES + payload.length;
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + bodyLength);
+            buffer.putInt(bodyLength);
+            buffer.putInt(0);
+            buffer.putLong(nextLsn++);
+            buffer.put(payload);
+            crc.reset();
+            crc.update(buffer.array(), HEADER_BYTES, bodyLength);
+            buffer.putInt(Integer.BYTES, (int) crc.getValue());
+            buffer.flip();
+            buffers[i] = buffer;
+            bytes += buffer.remaining();
+        }
+        long written = 0;
+        while (written < bytes) {
+            written += segment.write(buffers);
+        }
+        segmentSize += bytes;
+        dirty = true;
+        recordsSinceSnapshot += buffers.length;
+        stats.records += buffers.length;
+        stats.batches++;
+    }
+
+    private void fsync() throws IOException {
+        if (dirty) {
+            segment.force(false);
+            dirty = false;
+            stats.fsyncs++;
+        }
+        lastFsyncNanos = System.nanoTime();
+    }
+
+    private void complete(List<Pending> batch, IOException error) {
+        for (Pending pending : batch) {
+            completeOne(pending, error);
+        }
+    }
+
+    private static void completeOne(Pending pending, IOException error) {
+        if (pending.done == null) {
+            return;
+        }
+        if (error == null) {
+            pending.done.complete(null);
+        } else {
+            pending.done.completeExceptionally(new UncheckedIOException(error));
+        }
+    }
+
+    /**
+     * Closes the active segment at the current LSN and queues a compaction of
+     * everything before it. Runs on the writer thread.
+     */
+    private void startCompaction(List<Pending> requests) throws IOException {
+        if (segmentSize > 0) {
+            rollSegment();
+        }
+        long upToLsn = nextLsn - 1;
+        recordsSinceSnapshot = 0;
+        compactionQueued = true;
+        compactor.execute(() -> {
+            compactionQueued = false;
+            try {
+                compact(upToLsn);
+                complete(requests, null);
+            } catch (IOException | RuntimeException e) {
+                log.error("Journal compaction up to LSN {} failed", upToLsn, e);
+                complete(requests, e instanceof IOException io ? io : new IOException(e));
+            }
+        });
+    }
+
+    /**
+     * Folds the latest snapshot and every closed segment up to {@code upToLsn}
+     * into a new snapshot, then deletes what it replaced. Segments at or below
+     * {@code upToLsn} are never written to again, so this runs alongside the
+     * writer. A damaged segment or a missing LSN fails the compaction before
+     * anything is written or deleted.
+     */
+    private void compact(long upToLsn) throws IOException {
+        Path previous = snapshots.latest();
+        long previousLsn = previous == null ? 0 : SnapshotStore.lsnOf(previous);
+        if (previousLsn >= upToLsn) {
+            return;
+        }
+        SnapshotStore.Image image = new SnapshotStore.Image();
+        if (previous != null) {
+            snapshots.load(previous, image);
+        }
+        List<Path> covered = listSegments().stream()
+                .filter(path -> firstLsnOf(path) <= upToLsn)
+                .toList();
+        long next = previousLsn + 1;
+        for (Path path : covered) {
+            SegmentScan scan = readSegment(path, image, previousLsn, false);
+            checkContinues(path, scan, next);
+            next = Math.max(next, scan.lastLsn + 1);
+        }
+        if (next != upToLsn + 1) {
+            throw new IOException("Journal segments end at LSN " + (next - 1) + ", expected " + upToLsn);
+        }
+        snapshots.write(upToLsn, image);
+        for (Path path : covered) {
+            Files.deleteIfExists(path);
+        }
+        snapshots.deleteOlderThan(upToLsn);
+        stats.snapshots++;
+        log.info("Snapshot at LSN {} holds {} applications; compacted {} segment(s)",
+                upToLsn, image.applicationCount(), covered.size());
+    }
+
+    private void rollSegment() throws IOException {
+        segment.force(false);
+        segment.close();
+        dirty = false;
+        openSegment(directory.resolve(segmentName(nextLsn)));
+    }
+
+    private void openSegmentForAppend(List<Path> segments) throws IOException {
+        if (segments.isEmpty()) {
+            openSegment(directory.resolve(segmentName(nextLsn)));
+        } else {
+            openSegment(segments.get(segments.size() - 1));
+        }
+    }
+
+    private void openSegment(Path path) throws IOException {
+        segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentSize = segment.size();
+    }
+
+    private void closeSegment() {
+        try {
+            if (dirty) {
+                segment.force(false);
+            }
+            segment.close();
+        } catch (IOException e) {
+            log.warn("Could not close journal segment cleanly", e);
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static String segmentName(long firstLsn) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, firstLsn, SEGMENT_SUFFIX);
+    }
+
+    private static long firstLsnOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Replays one segment's records after {@code afterLsn}. A segment ends
+     * cleanly at a record boundary; a torn or corrupt record, or one whose
+     * LSN does not follow the one before, is damage. In the {@code last}
+     * segment damage is taken for a crashed append and cut off, so new
+     * records follow good ones; in any other it is an {@link IOException}.
+     */
+    private static SegmentScan readSegment(Path path, JournalReplayHandler handler, long afterLsn,
+                                           boolean last) throws IOException {
+        long replayed = 0;
+        long firstLsn = 0;
+        long lastLsn = 0;
+        long validBytes = 0;
+        String damage = null;
+        CRC32C crc = new CRC32C();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+            while (true) {
+                int bodyLength;
+                try {
+                    bodyLength = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (bodyLength < Long.BYTES + 1 || bodyLength > MAX_BODY_BYTES) {
+                    damage = "corrupt record length " + bodyLength;
+                    break;
+                }
+                byte[] body = new byte[bodyLength];
+                int checksum;
+                try {
+                    checksum = in.readInt();
+                    in.readFully(body);
+                } catch (EOFException e) {
+                    damage = "torn record";
+                    break;
+                }
+                crc.reset();
+                crc.update(body);
+                if ((int) crc.getValue() != checksum) {
+                    damage = "checksum mismatch";
+                    break;
+                }
+                long lsn = lsnOf(body);
+                if (lastLsn != 0 && lsn != lastLsn + 1) {
+                    damage = "LSN " + lsn + " after " + lastLsn;
+                    break;
+                }
+                if (lsn > afterLsn) {
+                    apply(body, handler);
+                    replayed++;
+                }
+                if (firstLsn == 0) {
+                    firstLsn = lsn;
+                }
+                lastLsn = lsn;
+                validBytes += HEADER_BYTES + bodyLength;
+            }
+        }
+        if (damage != null) {
+            if (!last) {
+                throw new IOException("Journal segment " + path + " is damaged at offset " + validBytes + ": " + damage);
+            }
+            log.warn("Truncating {} at offset {} after a {} at its tail", path, validBytes, damage);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(validBytes);
+                channel.force(true);
+            }
+        }
+        return new SegmentScan(replayed, firstLsn, lastLsn);
+    }
+
+    /**
+     * Fails unless {@code scan}'s records pick up at or before {@code nextLsn},
+     * so no LSN between the previous segment and this one went missing.
+     */
+    private static void checkContinues(Path path, SegmentScan scan, long nextLsn) throws IOException {
+        if (scan.firstLsn > nextLsn) {
+            throw new IOException("Journal is missing LSNs " + nextLsn + " to " + (scan.firstLsn - 1)
+                    + " before " + path);
+        }
+    }
+
+    private static long lsnOf(byte[] body) {
+        return ByteBuffer.wrap(body).getLong();
+    }
+
+    private static void apply(byte[] body, JournalReplayHandler handler) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body, Long.BYTES, body.length - Long.BYTES));
+        byte type = in.readByte();
+        switch (type) {
+            case SUBMISSION -> handler.onSubmission(JournalCodec.readApplication(in));
+            case VOTE -> handler.onVote(JournalCodec.readString(in), JournalCodec.readString(in), in.readBoolean());
+            case REMOVAL -> handler.onRemoval(JournalCodec.readString(in));
+            default -> throw new IOException("Unknown journal record type " + type);
+        }
+    }
+
+    /**
+     * A record to append, or a snapshot request when {@code payload} is null.
+     */
+    private record Pending(byte[] payload, CompletableFuture<Void> done) {
+        boolean isSnapshotRequest() {
+            return payload == null;
+        }
+    }
+
+    /**
+     * Records replayed from a segment, and the LSNs of its first and last
+     * records, 0 when it has none.
+     */
+    private record SegmentScan(long records, long firstLsn, long lastLsn) {
+    }
+
+    /**
+     * Writer and compactor counters. Each has a single writing thread; reads
+     * are approximate while the journal is running.
+     */
+    public static final class Stats {
+        private volatile long records;
+        private volatile long batches;
+        private volatile long fsyncs;
+        private volatile long snapshots;
+
+        public long records() {
+            return records;
+        }
+
+        public long batches() {
+            return batches;
+        }
+
+        public long fsyncs() {
+            return fsyncs;
+        }
+
+        public long snapshots() {
+            return snapshots;
+        }
+    }
+}
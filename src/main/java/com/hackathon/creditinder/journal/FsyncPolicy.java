@@ -0,0 +1,26 @@
+package com.hackathon.creditinder.journal;
+
+/**
+ * When the journal forces appended records to stable storage.
+ */
+public enum FsyncPolicy {
+
+    /**
+     * One fsync per group-committed batch; callers wait until their record is
+     * durable before the vote or submission is applied and acknowledged.
+     */
+    BATCH,
+
+    /**
+     * Records are written as they arrive and fsynced at most once per
+     * configured interval; callers do not wait. A crash can lose up to one
+     * interval of acknowledged writes.
+     */
+    INTERVAL,
+
+    /**
+     * Records are written but never explicitly fsynced; the operating system
+     * decides when they reach disk.
+     */
+    NONE
+}
@@ -0,0 +1,68 @@
+package com.hackathon.creditinder.journal;
+
+import com.hackathon.creditinder.model.LoanApplication;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Write-ahead log of submissions, votes and removals.
+ *
+ * Appends return a future that completes once the record is as durable as the
+ * configured {@link FsyncPolicy} promises; callers apply the change in memory
+ * only after it completes.
+ */
+public interface Journal extends AutoCloseable {
+
+    /**
+     * Journal that records nothing, for purely in-memory operation.
+     */
+    Journal NONE = new Journal() {
+        @Override
+        public long replay(JournalReplayHandler handler) {
+            return 0;
+        }
+
+        @Override
+        public CompletableFuture<Void> appendSubmission(LoanApplication application) {
+            return COMPLETED;
+        }
+
+        @Override
+        public CompletableFuture<Void> appendVote(String applicationId, String voterId, boolean approve) {
+            return COMPLETED;
+        }
+
+        @Override
+        public CompletableFuture<Void> appendRemoval(String applicationId) {
+            return COMPLETED;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    CompletableFuture<Void> COMPLETED = CompletableFuture.completedFuture(null);
+
+    /**
+     * Feeds every record on disk to {@code handler} and returns how many were
+     * replayed. Must be called once, before the first append.
+     */
+    long replay(JournalReplayHandler handler);
+
+    CompletableFuture<Void> appendSubmission(LoanApplication application);
+
+    CompletableFuture<Void> appendVote(String applicationId, String voterId, boolean approve);
+
+    /**
+     * Records that an application left this node, e.g. handed to another
+     * partition, so replay does not bring it back.
+     */
+    CompletableFuture<Void> appendRemoval(String applicationId);
+
+    /**
+     * Flushes and fsyncs everything appended so far and releases the files.
+     */
+    @Override
+    void close();
+}
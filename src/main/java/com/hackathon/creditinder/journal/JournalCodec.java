@@ -0,0 +1,100 @@
+package com.hackathon.creditinder.journal;
+
+import com.hackathon.creditinder.model.LoanApplication;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Binary encoding shared by journal records, snapshots and replication
+ * frames.
+ */
+public final class JournalCodec {
+
+    /** Bytes of a string allocated before any of them have been read. */
+    private static final int STRING_CHUNK = 8192;
+
+    private JournalCodec() {
+    }
+
+    public static void writeApplication(DataOutput out, LoanApplication application) throws IOException {
+        writeString(out, application.getId());
+        writeString(out, application.getApplicantName());
+        writeString(out, toString(application.getLoanAmount()));
+        writeString(out, application.getLoanPurpose());
+        writeString(out, toString(application.getAnnualIncome()));
+        out.writeBoolean(application.getCreditScore() != null);
+        out.writeInt(application.getCreditScore() == null ? 0 : application.getCreditScore());
+        writeString(out, application.getEmploymentStatus());
+        writeString(out, application.getAdditionalNotes());
+        writeString(out, application.getSubmittedAt() == null ? null : application.getSubmittedAt().toString());
+        out.writeInt(application.getApprovalVotes());
+        out.writeInt(application.getRejectionVotes());
+    }
+
+    public static LoanApplication readApplication(DataInput in) throws IOException {
+        LoanApplication application = new LoanApplication();
+        application.setId(readString(in));
+        application.setApplicantName(readString(in));
+        application.setLoanAmount(toBigDecimal(readString(in)));
+        application.setLoanPurpose(readString(in));
+        application.setAnnualIncome(toBigDecimal(readString(in)));
+        boolean hasCreditScore = in.readBoolean();
+        int creditScore = in.readInt();
+        application.setCreditScore(hasCreditScore ? creditScore : null);
+        application.setEmploymentStatus(readString(in));
+        application.setAdditionalNotes(readString(in));
+        String submittedAt = readString(in);
+        application.setSubmittedAt(submittedAt == null ? null : LocalDateTime.parse(submittedAt));
+        int approvals = in.readInt();
+        int rejections = in.readInt();
+        application.setApprovalVotes(approvals);
+        application.setRejectionVotes(rejections);
+        return application;
+    }
+
+    public static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString}. A length larger than
+     * what the input actually holds fails with an {@link java.io.EOFException}
+     * having allocated at most about twice the bytes that were there, so a
+     * corrupt or hostile length can not make us allocate gigabytes.
+     */
+    public static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[Math.min(length, STRING_CHUNK)];
+        in.readFully(bytes);
+        int read = bytes.length;
+        while (read < length) {
+            bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * read));
+            in.readFully(bytes, read, bytes.length - read);
+            read = bytes.length;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String toString(BigDecimal value) {
+        return value == null ? null : value.toPlainString();
+    }
+
+    private static BigDecimal toBigDecimal(String value) {
+        return value == null ? null : new BigDecimal(value);
+    }
+}
@@ -0,0 +1,29 @@
+package com.hackathon.creditinder.journal;
+
+import com.hackathon.creditinder.model.LoanApplication;
+
+/**
+ * Receives the latest snapshot and then the journal records after it, in
+ * append order, while state is rebuilt on startup.
+ */
+public interface JournalReplayHandler {
+
+    void onSubmission(LoanApplication application);
+
+    /**
+     * @param voterId the identified voter, or {@code null} for an anonymous vote
+     */
+    void onVote(String applicationId, String voterId, boolean approve);
+
+    /**
+     * A vote already counted in the tallies of a snapshotted application;
+     * only the voter's history needs restoring.
+     */
+    void onPriorVote(String applicationId, String voterId);
+
+    /**
+     * The application no longer lives here; votes for it after this are
+     * ignored, as for any unknown application.
+     */
+    void onRemoval(String applicationId);
+}
@@ -0,0 +1,268 @@
+package com.hackathon.creditinder.journal;
+
+import com.hackathon.creditinder.model.LoanApplication;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Snapshot files next to the journal segments.
+ *
+ * A snapshot is {@code [int magic][int version][long lsn]}, every application
+ * with its tallies, every voter's history as indexes into that application
+ * list, and a trailing CRC32C of everything before it. It reflects exactly the
+ * records up to and including {@code lsn}. Files are written under a temporary
+ * name, fsynced and renamed, so a crash mid-write leaves the previous snapshot
+ * in place.
+ */
+final class SnapshotStore {
+
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int MAGIC = 0x43524453;
+    private static final int VERSION = 1;
+
+    private final Path directory;
+
+    SnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * The newest snapshot, or {@code null} when none has been written yet.
+     */
+    Path latest() throws IOException {
+        List<Path> snapshots = list();
+        return snapshots.isEmpty() ? null : snapshots.get(snapshots.size() - 1);
+    }
+
+    static long lsnOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Feeds a snapshot to {@code handler} and returns how many applications it held.
+     */
+    long load(Path snapshot, JournalReplayHandler handler) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshot), 64 * 1024), crc);
+             DataInputStream in = new DataInputStream(checked)) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a snapshot file: " + snapshot);
+            }
+            in.readLong();
+            int applicationCount = in.readInt();
+            String[] ids = new String[applicationCount];
+            for (int i = 0; i < applicationCount; i++) {
+                LoanApplication application = JournalCodec.readApplication(in);
+                ids[i] = application.getId();
+                handler.onSubmission(application);
+            }
+            int voterCount = in.readInt();
+            for (int v = 0; v < voterCount; v++) {
+                String voterId = JournalCodec.readString(in);
+                int votes = in.readInt();
+                for (int i = 0; i < votes; i++) {
+                    handler.onPriorVote(ids[in.readInt()], voterId);
+                }
+            }
+            int expected = (int) crc.getValue();
+            if (in.readInt() != expected) {
+                throw new IOException("Checksum mismatch in snapshot " + snapshot);
+            }
+            return applicationCount;
+        }
+    }
+
+    void write(long lsn, Image image) throws IOException {
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, lsn, SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + TEMP_SUFFIX);
+        CRC32C crc = new CRC32C();
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(
+                     new CheckedOutputStream(new BufferedOutputStream(file, 64 * 1024), crc))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(lsn);
+            image.writeTo(out);
+            out.flush();
+            // The checksum itself is written outside the checked stream.
+            new DataOutputStream(file).writeInt((int) crc.getValue());
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+    }
+
+    /**
+     * Removes snapshots older than {@code lsn} and leftovers of interrupted writes.
+     */
+    void deleteOlderThan(long lsn) throws IOException {
+        for (Path snapshot : list()) {
+            if (lsnOf(snapshot) < lsn) {
+                Files.deleteIfExists(snapshot);
+            }
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path temp : files.filter(path -> path.getFileName().toString().endsWith(TEMP_SUFFIX)).toList()) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private List<Path> list() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private void syncDirectory() {
+        // Makes the rename durable; not every platform can open a directory.
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * State rebuilt from a snapshot and journal records, away from the live
+     * service, so compaction never blocks voting.
+     */
+    static final class Image implements JournalReplayHandler {
+
+        private final List<LoanApplication> applications = new ArrayList<>();
+        private final Map<String, Integer> indexById = new HashMap<>();
+        private final Map<String, IntList> votesByVoter = new HashMap<>();
+
+        @Override
+        public void onSubmission(LoanApplication application) {
+            Integer index = indexById.putIfAbsent(application.getId(), applications.size());
+            if (index == null) {
+                applications.add(application);
+            } else {
+                applications.set(index, application);
+            }
+        }
+
+        @Override
+        public void onVote(String applicationId, String voterId, boolean approve) {
+            Integer index = indexById.get(applicationId);
+            if (index == null) {
+                return;
+            }
+            if (approve) {
+                applications.get(index).addApprovalVote();
+            } else {
+                applications.get(index).addRejectionVote();
+            }
+            if (voterId != null) {
+                votesByVoter.computeIfAbsent(voterId, id -> new IntList()).add(index);
+            }
+        }
+
+        @Override
+        public void onPriorVote(String applicationId, String voterId) {
+            Integer index = indexById.get(applicationId);
+            if (index != null) {
+                votesByVoter.computeIfAbsent(voterId, id -> new IntList()).add(index);
+            }
+        }
+
+        /**
+         * Leaves a hole, so the indexes already in voters' histories stay
+         * put; holes are squeezed out when the image is written.
+         */
+        @Override
+        public void onRemoval(String applicationId) {
+            Integer index = indexById.remove(applicationId);
+            if (index != null) {
+                applications.set(index, null);
+            }
+        }
+
+        int applicationCount() {
+            return indexById.size();
+        }
+
+        private void writeTo(DataOutputStream out) throws IOException {
+            int[] written = new int[applications.size()];
+            int count = 0;
+            for (int i = 0; i < written.length; i++) {
+                written[i] = applications.get(i) == null ? -1 : count++;
+            }
+            out.writeInt(count);
+            for (LoanApplication application : applications) {
+                if (application != null) {
+                    JournalCodec.writeApplication(out, application);
+                }
+            }
+            out.writeInt(votesByVoter.size());
+            for (Map.Entry<String, IntList> entry : votesByVoter.entrySet()) {
+                int[] indexes = entry.getValue().sortedDistinct();
+                int kept = 0;
+                for (int index : indexes) {
+                    if (written[index] >= 0) {
+                        indexes[kept++] = written[index];
+                    }
+                }
+                JournalCodec.writeString(out, entry.getKey());
+                out.writeInt(kept);
+                for (int i = 0; i < kept; i++) {
+                    out.writeInt(indexes[i]);
+                }
+            }
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] sortedDistinct() {
+            int[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            return Arrays.copyOf(sorted, distinct);
+        }
+    }
+}
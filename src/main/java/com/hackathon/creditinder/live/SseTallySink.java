@@ -0,0 +1,36 @@
+package com.hackathon.creditinder.live;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * {@link TallySink} writing Server-Sent Events to an {@link SseEmitter}.
+ */
+public class SseTallySink implements TallySink {
+
+    private final SseEmitter emitter;
+
+    public SseTallySink(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void send(String event, String data) throws IOException {
+        emitter.send(SseEmitter.event().name(event).data(data));
+    }
+
+    @Override
+    public void heartbeat() throws IOException {
+        emitter.send(SseEmitter.event().comment("keep-alive"));
+    }
+
+    @Override
+    public void close() {
+        try {
+            emitter.complete();
+        } catch (IllegalStateException e) {
+            // Already completed by the container.
+        }
+    }
+}
@@ -0,0 +1,457 @@
+package com.hackathon.creditinder.live;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.model.TallyUpdate;
+import com.hackathon.creditinder.service.TallyListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes tally changes to live subscribers. A subscriber follows a chosen set
+ * of applications or every application.
+ *
+ * A vote only marks its application as changed. That is a single
+ * {@code putIfAbsent} on the voting thread, lock-free once the application is
+ * already marked. Once per flush interval a ticker thread takes the changed
+ * set. It reads each tally once and serialises it once. It then hands every
+ * subscriber at most one batch holding the changes it follows. So a card
+ * taking 10k votes/s still costs each subscriber one frame per interval.
+ *
+ * Writes run on a small fan-out pool. Each subscriber drains its own backlog
+ * in order, so a slow connection does not hold up the ticker. A backlog of
+ * several batches is merged into one frame, keeping only the latest tally per
+ * application. A subscriber more than {@code maxBacklog} intervals behind is
+ * dropped; the browser reconnects on its own and starts again from current
+ * tallies.
+ *
+ * A write blocks its fan-out thread until the client takes the bytes, so a
+ * few stalled clients could otherwise occupy the whole pool. The ticker
+ * drops any subscriber whose write has run past {@code writeTimeout} and
+ * grows the pool by one thread in place of the stuck one, until that write
+ * returns or fails, so everyone else keeps getting frames.
+ */
+public class TallyBroadcaster implements TallyListener, AutoCloseable {
+
+    /** SSE event name; its data is a JSON array of {@link TallyUpdate}s. */
+    public static final String EVENT = "tally";
+
+    private static final Logger log = LoggerFactory.getLogger(TallyBroadcaster.class);
+
+    // Write start times are kept relative to construction, plus one, so
+    // they stay positive and leave these two free.
+    private static final long IDLE = 0;
+    private static final long ABANDONED = -1;
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final ConcurrentHashMap<String, LoanApplication> changed = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<Subscription>> byApplication = new ConcurrentHashMap<>();
+    private final Set<Subscription> everything = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Set<Subscription> writing = ConcurrentHashMap.newKeySet();
+    private final long originNanos = System.nanoTime();
+
+    private final ScheduledExecutorService ticker;
+    private final ThreadPoolExecutor fanOut;
+    private final int fanOutThreads;
+    private final ReentrantLock resizeLock = new ReentrantLock();
+    // Guarded by resizeLock.
+    private int stuckThreads;
+    private final int maxBacklog;
+    private final long heartbeatNanos;
+    private final long writeTimeoutNanos;
+    // Ticker thread only.
+    private long lastHeartbeatNanos = System.nanoTime();
+
+    public TallyBroadcaster(Duration flushInterval, int fanOutThreads, Duration heartbeatInterval, int maxBacklog,
+                            Duration writeTimeout) {
+        this.maxBacklog = maxBacklog;
+        this.heartbeatNanos = heartbeatInterval.toNanos();
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.fanOutThreads = fanOutThreads;
+        // Platform threads even when requests run on virtual ones: SseEmitter
+        // holds its monitor across the socket write, which would pin a
+        // carrier for as long as a slow client keeps the write blocked.
+        this.fanOut = new ThreadPoolExecutor(fanOutThreads, fanOutThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemon("tally-fan-out"));
+        this.ticker = Executors.newSingleThreadScheduledExecutor(daemon("tally-ticker"));
+        long interval = flushInterval.toNanos();
+        ticker.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onTallyChanged(LoanApplication application) {
+        if (subscribers.get() != 0) {
+            // Returns without locking when the application is already marked.
+            changed.putIfAbsent(application.getId(), application);
+        }
+    }
+
+    /**
+     * Follows {@code applications}, starting with a frame of their current
+     * tallies.
+     */
+    public Subscription subscribe(Collection<LoanApplication> applications, TallySink sink) {
+        Subscription subscription = new Subscription(sink, new ArrayList<>(applications.size()));
+        List<Update> current = new ArrayList<>(applications.size());
+        for (LoanApplication application : applications) {
+            String id = application.getId();
+            subscription.applicationIds.add(id);
+            byApplication.compute(id, (key, watchers) -> {
+                Set<Subscription> set = watchers != null ? watchers : ConcurrentHashMap.<Subscription>newKeySet();
+                set.add(subscription);
+                return set;
+            });
+            current.add(update(application));
+        }
+        subscribers.incrementAndGet();
+        subscription.offer(new Batch(current));
+        return subscription;
+    }
+
+    /**
+     * Follows every application. Only changes are sent; there is no initial
+     * frame.
+     */
+    public Subscription subscribeAll(TallySink sink) {
+        Subscription subscription = new Subscription(sink, null);
+        everything.add(subscription);
+        subscribers.incrementAndGet();
+        return subscription;
+    }
+
+    public Stats stats() {
+        return new Stats(subscribers.get(), frames.sum(), dropped.sum());
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        for (Subscription subscription : everything) {
+            subscription.close();
+        }
+        for (Set<Subscription> watchers : byApplication.values()) {
+            for (Subscription subscription : watchers) {
+                subscription.close();
+            }
+        }
+        fanOut.shutdown();
+    }
+
+    /**
+     * One tick: drop subscribers stuck in a write, publish everything that
+     * changed since the last one, and queue a heartbeat when one is due.
+     */
+    void flush() {
+        try {
+            if (!writing.isEmpty()) {
+                abandonStuckWrites();
+            }
+            if (!changed.isEmpty()) {
+                publishChanges();
+            }
+            long now = System.nanoTime();
+            if (now - lastHeartbeatNanos >= heartbeatNanos) {
+                lastHeartbeatNanos = now;
+                everything.forEach(Subscription::offerHeartbeat);
+                byApplication.values().forEach(watchers -> watchers.forEach(Subscription::offerHeartbeat));
+            }
+        } catch (RuntimeException e) {
+            // Escaping would cancel the schedule and silence every stream.
+            log.error("Publishing tally changes failed", e);
+        }
+    }
+
+    private void publishChanges() {
+        List<Update> updates = new ArrayList<>(changed.size());
+        Map<Subscription, List<Update>> perSubscriber = new HashMap<>();
+        for (Iterator<LoanApplication> it = changed.values().iterator(); it.hasNext(); ) {
+            LoanApplication application = it.next();
+            // Unmark before reading, so a vote landing after the read marks
+            // the application again for the next tick.
+            it.remove();
+            Update update = update(application);
+            updates.add(update);
+            Set<Subscription> watchers = byApplication.get(update.id());
+            if (watchers != null) {
+                for (Subscription subscription : watchers) {
+                    perSubscriber.computeIfAbsent(subscription, s -> new ArrayList<>()).add(update);
+                }
+            }
+        }
+        if (!everything.isEmpty() && !updates.isEmpty()) {
+            // Serialised once and shared by every subscriber following everything.
+            Batch all = new Batch(updates);
+            everything.forEach(subscription -> subscription.offer(all));
+        }
+        perSubscriber.forEach((subscription, batch) -> subscription.offer(new Batch(batch)));
+    }
+
+    private void abandonStuckWrites() {
+        long startedBefore = clock() - writeTimeoutNanos;
+        for (Subscription subscription : writing) {
+            long started = subscription.writeStarted.get();
+            if (started != IDLE && started != ABANDONED && started < startedBefore
+                    && subscription.writeStarted.compareAndSet(started, ABANDONED)) {
+                dropped.increment();
+                // The sink is closed by the writing thread once its write
+                // returns; closing it here would block on the same monitor.
+                subscription.detach();
+                resizeFanOut(1);
+            }
+        }
+    }
+
+    /**
+     * Adds a thread to the fan-out pool for each write given up on, and takes
+     * it away again once that write has returned.
+     */
+    private void resizeFanOut(int stuckDelta) {
+        resizeLock.lock();
+        try {
+            stuckThreads += stuckDelta;
+            int size = fanOutThreads + stuckThreads;
+            if (stuckDelta > 0) {
+                fanOut.setMaximumPoolSize(size);
+                fanOut.setCorePoolSize(size);
+            } else {
+                fanOut.setCorePoolSize(size);
+                fanOut.setMaximumPoolSize(size);
+            }
+        } finally {
+            resizeLock.unlock();
+        }
+    }
+
+    private long clock() {
+        return System.nanoTime() - originNanos + 1;
+    }
+
+    private Update update(LoanApplication application) {
+        try {
+            return new Update(application.getId(), json.writeValueAsString(TallyUpdate.of(application)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return Thread.ofPlatform().name(name + "-", 0).daemon().factory();
+    }
+
+    /**
+     * Subscribers, frames written and subscribers dropped for falling behind
+     * or failing a write.
+     */
+    public record Stats(int subscribers, long frames, long dropped) {
+    }
+
+    private record Update(String id, String json) {
+    }
+
+    /**
+     * Updates sent together, with their JSON array built on first use.
+     */
+    private static final class Batch {
+        private final List<Update> updates;
+        private volatile String json;
+
+        private Batch(List<Update> updates) {
+            this.updates = updates;
+        }
+
+        private String json() {
+            String built = json;
+            if (built == null) {
+                built = join(updates);
+                json = built;
+            }
+            return built;
+        }
+
+        private static String join(Collection<Update> updates) {
+            StringJoiner array = new StringJoiner(",", "[", "]");
+            for (Update update : updates) {
+                array.add(update.json());
+            }
+            return array.toString();
+        }
+    }
+
+    /**
+     * One live stream. Close it when the connection ends.
+     */
+    public final class Subscription {
+
+        private final TallySink sink;
+        /** Followed applications, or {@code null} for every application. */
+        private final List<String> applicationIds;
+        private final ConcurrentLinkedQueue<Batch> backlog = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger backlogSize = new AtomicInteger();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        /** When the write in progress started, or {@code IDLE} or {@code ABANDONED}. */
+        private final AtomicLong writeStarted = new AtomicLong(IDLE);
+
+        private Subscription(TallySink sink, List<String> applicationIds) {
+            this.sink = sink;
+            this.applicationIds = applicationIds;
+        }
+
+        private void offer(Batch batch) {
+            if (backlogSize.incrementAndGet() > maxBacklog) {
+                dropped.increment();
+                close();
+                return;
+            }
+            backlog.add(batch);
+            schedule();
+        }
+
+        private void offerHeartbeat() {
+            heartbeatDue.set(true);
+            schedule();
+        }
+
+        private void schedule() {
+            if (pending.getAndIncrement() != 0) {
+                return;
+            }
+            try {
+                fanOut.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Shutting down.
+            }
+        }
+
+        /**
+         * Runs on one fan-out thread at a time per subscription, so the sink
+         * is never written concurrently.
+         */
+        private void drain() {
+            int missed = 1;
+            do {
+                if (closed.get()) {
+                    return;
+                }
+                boolean failed = false;
+                writing.add(this);
+                writeStarted.set(clock());
+                try {
+                    write();
+                } catch (IOException | RuntimeException e) {
+                    failed = true;
+                }
+                writing.remove(this);
+                if (writeStarted.getAndSet(IDLE) == ABANDONED) {
+                    // Already dropped by the ticker, which added a thread in
+                    // place of this one for as long as the write was stuck.
+                    resizeFanOut(-1);
+                    sink.close();
+                    return;
+                }
+                if (failed) {
+                    dropped.increment();
+                    close();
+                    return;
+                }
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void write() throws IOException {
+            Batch first = backlog.poll();
+            if (first == null) {
+                if (heartbeatDue.getAndSet(false)) {
+                    sink.heartbeat();
+                }
+                return;
+            }
+            heartbeatDue.set(false);
+            Batch next = backlog.poll();
+            String frame;
+            if (next == null) {
+                backlogSize.decrementAndGet();
+                frame = first.json();
+            } else {
+                // Behind: keep only the latest tally per application.
+                Map<String, Update> latest = new LinkedHashMap<>();
+                merge(first, latest);
+                merge(next, latest);
+                int merged = 2;
+                for (Batch batch = backlog.poll(); batch != null; batch = backlog.poll()) {
+                    merge(batch, latest);
+                    merged++;
+                }
+                backlogSize.addAndGet(-merged);
+                frame = Batch.join(latest.values());
+            }
+            sink.send(EVENT, frame);
+            frames.increment();
+        }
+
+        private static void merge(Batch batch, Map<String, Update> latest) {
+            for (Update update : batch.updates) {
+                latest.put(update.id(), update);
+            }
+        }
+
+        public void close() {
+            if (detach()) {
+                sink.close();
+            }
+        }
+
+        /**
+         * Stops routing changes here; returns {@code false} when already
+         * closed.
+         */
+        private boolean detach() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            if (applicationIds == null) {
+                everything.remove(this);
+            } else {
+                for (String id : applicationIds) {
+                    byApplication.computeIfPresent(id, (key, watchers) -> {
+                        watchers.remove(this);
+                        return watchers.isEmpty() ? null : watchers;
+                    });
+                }
+            }
+            subscribers.decrementAndGet();
+            return true;
+        }
+    }
+}
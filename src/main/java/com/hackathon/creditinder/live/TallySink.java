@@ -0,0 +1,26 @@
+package com.hackathon.creditinder.live;
+
+import java.io.IOException;
+
+/**
+ * Connection a {@link TallyBroadcaster} subscriber's frames are written to.
+ * Only ever called from one thread at a time per sink.
+ */
+public interface TallySink {
+
+    /**
+     * Writes one named event carrying {@code data}, a JSON document.
+     */
+    void send(String event, String data) throws IOException;
+
+    /**
+     * Writes a no-op keep-alive, so dead connections are noticed even when
+     * nothing is voted on.
+     */
+    void heartbeat() throws IOException;
+
+    /**
+     * Ends the connection. Called once, when the subscriber is dropped.
+     */
+    void close();
+}
@@ -1,14 +1,32 @@
 package com.hackathon.creditinder.model;
 
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 public class LoanApplication {
     
+    private static final AtomicLongFieldUpdater<LoanApplication> VERSION =
+            AtomicLongFieldUpdater.newUpdater(LoanApplication.class, "version");
+    
+    /**
+     * The options the application form offers. Anything else is turned away
+     * here, before it can take a slot in the service's symbol tables.
+     */
+    public static final String LOAN_PURPOSES =
+            "Home Improvement|Debt Consolidation|Vehicle Purchase|Education|Medical Expenses|Business|Other";
+    public static final String EMPLOYMENT_STATUSES =
+            "Full-time|Part-time|Self-employed|Contract|Unemployed|Retired|Student";
+    
+    /** Code of a purpose or status that has not been through the symbol tables. */
+    public static final int UNCODED = Integer.MIN_VALUE;
+    
     private String id;
     
     @NotBlank(message = "Applicant name is required")
@@ -16,33 +34,49 @@ public class LoanApplication {
     
     @NotNull(message = "Loan amount is required")
     @Positive(message = "Loan amount must be positive")
+    @Digits(integer = 12, fraction = 2, message = "Loan amount must be under a trillion, in whole cents")
     private BigDecimal loanAmount;
     
     @NotBlank(message = "Loan purpose is required")
+    @Pattern(regexp = "(" + LOAN_PURPOSES + ")?", message = "Loan purpose must be one of the listed options")
     private String loanPurpose;
     
     @NotNull(message = "Annual income is required")
     @Positive(message = "Annual income must be positive")
+    @Digits(integer = 12, fraction = 2, message = "Annual income must be under a trillion, in whole cents")
     private BigDecimal annualIncome;
     
     @NotNull(message = "Credit score is required")
     private Integer creditScore;
     
     @NotBlank(message = "Employment status is required")
+    @Pattern(regexp = "(" + EMPLOYMENT_STATUSES + ")?", message = "Employment status must be one of the listed options")
     private String employmentStatus;
     
+    // Assigned by the service before it publishes the application, and reset
+    // whenever the value they stand for changes.
+    private int loanPurposeCode = UNCODED;
+    private int employmentStatusCode = UNCODED;
+    
     private String additionalNotes;
     
     private LocalDateTime submittedAt;
     
-    private int approvalVotes;
-    private int rejectionVotes;
+    private final VoteTally votes = new VoteTally();
+    
+    private volatile long version;
     
     public LoanApplication() {
-        this.id = UUID.randomUUID().toString();
-        this.submittedAt = LocalDateTime.now();
-        this.approvalVotes = 0;
-        this.rejectionVotes = 0;
+        this(UUID.randomUUID().toString(), LocalDateTime.now());
+    }
+    
+    /**
+     * For rebuilding an application that already has an id, without drawing
+     * a fresh random one first.
+     */
+    public LoanApplication(String id, LocalDateTime submittedAt) {
+        this.id = id;
+        this.submittedAt = submittedAt;
     }
     
     // Getters and Setters
@@ -76,6 +110,7 @@ public class LoanApplication {
     
     public void setLoanPurpose(String loanPurpose) {
         this.loanPurpose = loanPurpose;
+        this.loanPurposeCode = UNCODED;
     }
     
     public BigDecimal getAnnualIncome() {
@@ -100,6 +135,7 @@ public class LoanApplication {
     
     public void setEmploymentStatus(String employmentStatus) {
         this.employmentStatus = employmentStatus;
+        this.employmentStatusCode = UNCODED;
     }
     
     public String getAdditionalNotes() {
@@ -119,35 +155,88 @@ public class LoanApplication {
     }
     
     public int getApprovalVotes() {
-        return approvalVotes;
+        return votes.snapshot().approvals();
     }
     
     public void setApprovalVotes(int approvalVotes) {
-        this.approvalVotes = approvalVotes;
+        votes.reset(approvalVotes, getRejectionVotes());
     }
     
     public int getRejectionVotes() {
-        return rejectionVotes;
+        return votes.snapshot().rejections();
     }
     
     public void setRejectionVotes(int rejectionVotes) {
-        this.rejectionVotes = rejectionVotes;
+        votes.reset(getApprovalVotes(), rejectionVotes);
     }
     
     public int getTotalVotes() {
-        return approvalVotes + rejectionVotes;
+        return votes.snapshot().total();
     }
     
     public double getApprovalPercentage() {
-        if (getTotalVotes() == 0) return 0.0;
-        return (double) approvalVotes / getTotalVotes() * 100;
+        return votes.snapshot().approvalPercentage();
+    }
+    
+    /**
+     * Consistent approval/rejection pair; prefer this over calling the
+     * individual getters when more than one count is needed.
+     */
+    public VoteTally.Counts getVoteCounts() {
+        return votes.snapshot();
     }
     
     public void addApprovalVote() {
-        this.approvalVotes++;
+        votes.recordApproval();
     }
     
     public void addRejectionVote() {
-        this.rejectionVotes++;
+        votes.recordRejection();
+    }
+    
+    public void addVotes(int approvals, int rejections) {
+        votes.record(approvals, rejections);
+    }
+    
+    /**
+     * Counts changes to anything shown about this application, so a page
+     * rendered from it can be revalidated by comparing versions.
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Moves the version past its current value and past {@code replaced}, the
+     * version of the application this one replaces (0 when none), and
+     * returns the new version.
+     */
+    public long nextVersion(long replaced) {
+        return VERSION.accumulateAndGet(this, replaced, (current, floor) -> Math.max(current, floor) + 1);
+    }
+    
+    /**
+     * The loan purpose's code in the storing service's symbol table, or
+     * {@link #UNCODED}.
+     */
+    public int loanPurposeCode() {
+        return loanPurposeCode;
+    }
+    
+    /**
+     * The employment status's code in the storing service's symbol table, or
+     * {@link #UNCODED}.
+     */
+    public int employmentStatusCode() {
+        return employmentStatusCode;
+    }
+    
+    /**
+     * Records the codes of the current purpose and employment status, so
+     * filters and group-bys read an int instead of looking up the string.
+     */
+    public void assignCodes(int loanPurposeCode, int employmentStatusCode) {
+        this.loanPurposeCode = loanPurposeCode;
+        this.employmentStatusCode = employmentStatusCode;
     }
 }
@@ -0,0 +1,8 @@
+package com.hackathon.creditinder.model;
+
+/**
+ * Answer to {@code POST /api/applications}: the id the application will be
+ * stored under. It is queued, not yet stored, when this is sent.
+ */
+public record SubmissionResponse(String id) {
+}
@@ -0,0 +1,35 @@
+package com.hackathon.creditinder.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only projection of a {@link LoanApplication} sent to the swipe page
+ * when it renders cards client-side.
+ */
+public record SwipeCard(
+        String id,
+        String applicantName,
+        BigDecimal loanAmount,
+        String loanPurpose,
+        BigDecimal annualIncome,
+        Integer creditScore,
+        String employmentStatus,
+        String additionalNotes,
+        int approvalVotes,
+        int rejectionVotes) {
+
+    public static SwipeCard from(LoanApplication application) {
+        VoteTally.Counts votes = application.getVoteCounts();
+        return new SwipeCard(
+                application.getId(),
+                application.getApplicantName(),
+                application.getLoanAmount(),
+                application.getLoanPurpose(),
+                application.getAnnualIncome(),
+                application.getCreditScore(),
+                application.getEmploymentStatus(),
+                application.getAdditionalNotes(),
+                votes.approvals(),
+                votes.rejections());
+    }
+}
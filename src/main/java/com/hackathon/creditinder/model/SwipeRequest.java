@@ -0,0 +1,15 @@
+package com.hackathon.creditinder.model;
+
+import java.util.List;
+
+/**
+ * Body of {@code POST /api/swipe}: the vote being cast plus how many cards the
+ * client wants to top its queue back up with.
+ *
+ * @param applicationId card being voted on
+ * @param approve       {@code true} to approve, {@code false} to reject
+ * @param count         number of cards to return, clamped by the server
+ * @param queued        ids already waiting in the client queue, never returned again
+ */
+public record SwipeRequest(String applicationId, Boolean approve, Integer count, List<String> queued) {
+}
@@ -0,0 +1,13 @@
+package com.hackathon.creditinder.model;
+
+import java.util.List;
+
+/**
+ * Next cards for the client-side swipe queue.
+ */
+public record SwipeResponse(List<SwipeCard> cards) {
+
+    public static SwipeResponse of(List<LoanApplication> applications) {
+        return new SwipeResponse(applications.stream().map(SwipeCard::from).toList());
+    }
+}
@@ -0,0 +1,13 @@
+package com.hackathon.creditinder.model;
+
+/**
+ * Current vote tally of one application, as pushed to live subscribers.
+ */
+public record TallyUpdate(String id, int approvalVotes, int rejectionVotes, int totalVotes, double approvalPercentage) {
+
+    public static TallyUpdate of(LoanApplication application) {
+        VoteTally.Counts counts = application.getVoteCounts();
+        return new TallyUpdate(application.getId(), counts.approvals(), counts.rejections(),
+                counts.total(), counts.approvalPercentage());
+    }
+}
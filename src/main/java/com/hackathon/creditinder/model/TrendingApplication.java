@@ -0,0 +1,29 @@
+package com.hackathon.creditinder.model;
+
+import java.math.BigDecimal;
+
+/**
+ * An application on a trending list, with the votes it took over the list's
+ * window alongside its all-time tally.
+ */
+public record TrendingApplication(
+        String id,
+        String applicantName,
+        BigDecimal loanAmount,
+        String loanPurpose,
+        long recentVotes,
+        int approvalVotes,
+        int rejectionVotes) {
+
+    public static TrendingApplication from(LoanApplication application, long recentVotes) {
+        VoteTally.Counts votes = application.getVoteCounts();
+        return new TrendingApplication(
+                application.getId(),
+                application.getApplicantName(),
+                application.getLoanAmount(),
+                application.getLoanPurpose(),
+                recentVotes,
+                votes.approvals(),
+                votes.rejections());
+    }
+}
@@ -0,0 +1,10 @@
+package com.hackathon.creditinder.model;
+
+import java.util.List;
+
+/**
+ * The applications taking the most votes over the short and the long
+ * trending window, most recent votes first.
+ */
+public record TrendingResponse(List<TrendingApplication> shortWindow, List<TrendingApplication> longWindow) {
+}
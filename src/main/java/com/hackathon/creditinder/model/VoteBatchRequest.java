@@ -0,0 +1,19 @@
+package com.hackathon.creditinder.model;
+
+import java.util.List;
+
+/**
+ * Body of {@code POST /api/votes}: swipes buffered by the client, sent
+ * together.
+ *
+ * @param votes votes in the order they were cast
+ */
+public record VoteBatchRequest(List<Vote> votes) {
+
+    /**
+     * @param applicationId card being voted on
+     * @param approve       {@code true} to approve, {@code false} to reject
+     */
+    public record Vote(String applicationId, Boolean approve) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.hackathon.creditinder.model;
+
+import java.util.List;
+
+/**
+ * Outcome of each vote in a {@link VoteBatchRequest}, in request order: one
+ * of {@code "recorded"}, {@code "duplicate"} or {@code "not-found"}, the same
+ * words {@code POST /vote} answers with.
+ */
+public record VoteBatchResponse(List<String> results) {
+}
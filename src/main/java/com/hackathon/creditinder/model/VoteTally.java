@@ -0,0 +1,152 @@
+package com.hackathon.creditinder.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contention-safe approve/reject counter for a single loan application.
+ *
+ * Both counts are packed into one 64-bit word (approvals in the high half,
+ * rejections in the low half) so every read observes a matching pair. Quiet
+ * cards only ever touch a single base word; once two voters collide on it the
+ * tally lazily grows a striped, cache-line padded cell array, LongAdder style,
+ * so hot cards scale with the number of voting threads instead of bouncing
+ * one cache line between them.
+ */
+public final class VoteTally {
+
+    private static final long APPROVAL = 1L << 32;
+    private static final long REJECTION = 1L;
+    private static final long LOW_MASK = 0xFFFF_FFFFL;
+
+    /** Longs per cell: 8 x 8 bytes keeps each stripe on its own cache line. */
+    private static final int PAD = 8;
+    private static final int MAX_CELLS = Integer.highestOneBit(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1) << 1);
+    private static final int SNAPSHOT_RETRIES = 4;
+
+    private static final VarHandle BASE;
+    private static final VarHandle CELLS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            BASE = lookup.findVarHandle(VoteTally.class, "base", long.class);
+            CELLS = lookup.findVarHandle(VoteTally.class, "cells", AtomicLongArray.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long base;
+    private volatile AtomicLongArray cells;
+
+    public VoteTally() {
+    }
+
+    public VoteTally(int approvals, int rejections) {
+        this.base = pack(approvals, rejections);
+    }
+
+    public void recordApproval() {
+        add(APPROVAL);
+    }
+
+    public void recordRejection() {
+        add(REJECTION);
+    }
+
+    public void record(boolean approve) {
+        add(approve ? APPROVAL : REJECTION);
+    }
+
+    /**
+     * Adds several votes at once with a single atomic update.
+     */
+    public void record(int approvals, int rejections) {
+        add(pack(approvals, rejections));
+    }
+
+    /**
+     * Returns approvals and rejections taken from the same pass over the
+     * stripes. When no writer raced the read, two identical consecutive
+     * passes prove the pair existed at a single instant; under sustained
+     * writes the last pass is returned after a bounded number of retries.
+     */
+    public Counts snapshot() {
+        long previous = collect();
+        for (int i = 0; i < SNAPSHOT_RETRIES; i++) {
+            long current = collect();
+            if (current == previous) {
+                break;
+            }
+            previous = current;
+        }
+        return new Counts((int) (previous >>> 32), (int) (previous & LOW_MASK));
+    }
+
+    /**
+     * Overwrites the tally. Intended for restoring state and form binding,
+     * not for use while votes are being recorded concurrently.
+     */
+    public void reset(int approvals, int rejections) {
+        CELLS.setVolatile(this, (AtomicLongArray) null);
+        BASE.setVolatile(this, pack(approvals, rejections));
+    }
+
+    private void add(long delta) {
+        AtomicLongArray stripes = cells;
+        if (stripes == null) {
+            long current = base;
+            if (BASE.compareAndSet(this, current, current + delta)) {
+                return;
+            }
+            stripes = inflate();
+        }
+        stripes.getAndAdd(stripeIndex(stripes), delta);
+    }
+
+    private AtomicLongArray inflate() {
+        AtomicLongArray created = new AtomicLongArray(MAX_CELLS * PAD);
+        AtomicLongArray witness = (AtomicLongArray) CELLS.compareAndExchange(this, (AtomicLongArray) null, created);
+        return witness != null ? witness : created;
+    }
+
+    private static int stripeIndex(AtomicLongArray stripes) {
+        long h = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        int cellCount = stripes.length() / PAD;
+        return ((int) (h >>> 32) & (cellCount - 1)) * PAD;
+    }
+
+    private long collect() {
+        long sum = base;
+        AtomicLongArray stripes = cells;
+        if (stripes != null) {
+            for (int i = 0; i < stripes.length(); i += PAD) {
+                sum += stripes.get(i);
+            }
+        }
+        return sum;
+    }
+
+    private static long pack(int approvals, int rejections) {
+        return ((long) approvals << 32) | (rejections & LOW_MASK);
+    }
+
+    /**
+     * Immutable, mutually consistent view of a tally.
+     */
+    public record Counts(int approvals, int rejections) {
+
+        public int total() {
+            return approvals + rejections;
+        }
+
+        public double approvalPercentage() {
+            int total = total();
+            if (total == 0) return 0.0;
+            return (double) approvals / total * 100;
+        }
+    }
+}
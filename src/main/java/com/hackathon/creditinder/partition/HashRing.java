@@ -0,0 +1,132 @@
+package com.hackathon.creditinder.partition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Consistent hashing of application ids onto nodes.
+ *
+ * Each node is placed at {@code virtualNodes} points on a 64-bit ring, and a
+ * key belongs to the node at the first point at or after its own hash,
+ * wrapping round. Adding a node only takes over the keys just before its own
+ * points, so about {@code 1/n} of the keys move and all of them move to the
+ * newcomer; with enough points per node every node gets a near-equal share.
+ *
+ * A ring never changes once built, so lookups read it without locking and a
+ * membership change swaps in a new one.
+ */
+public final class HashRing {
+
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private final List<String> nodes;
+    private final int virtualNodes;
+    // Sorted hashes of every point, and the index in nodes of each one's owner.
+    private final long[] points;
+    private final int[] owners;
+
+    public HashRing(Collection<String> nodes, int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        List<String> sorted = new ArrayList<>(new TreeSet<>(nodes));
+        this.nodes = Collections.unmodifiableList(sorted);
+        this.virtualNodes = virtualNodes;
+
+        int n = sorted.size() * virtualNodes;
+        long[] hashes = new long[n];
+        int[] indexes = new int[n];
+        int i = 0;
+        for (int node = 0; node < sorted.size(); node++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                hashes[i] = hash(sorted.get(node) + "#" + v);
+                indexes[i] = node;
+                i++;
+            }
+        }
+        // Sort the points, carrying their owners along; ties (vanishingly
+        // rare) go to the node that sorts first, so every ring agrees.
+        Integer[] order = new Integer[n];
+        for (int k = 0; k < n; k++) {
+            order[k] = k;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int byHash = Long.compareUnsigned(hashes[a], hashes[b]);
+            return byHash != 0 ? byHash : Integer.compare(indexes[a], indexes[b]);
+        });
+        this.points = new long[n];
+        this.owners = new int[n];
+        for (int k = 0; k < n; k++) {
+            points[k] = hashes[order[k]];
+            owners[k] = indexes[order[k]];
+        }
+    }
+
+    /**
+     * Node that owns {@code key}, or {@code null} when the ring is empty.
+     */
+    public String ownerOf(String key) {
+        if (points.length == 0) {
+            return null;
+        }
+        long hash = hash(key);
+        // First point at or after the hash, in unsigned order.
+        int low = 0;
+        int high = points.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(points[mid], hash) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return nodes.get(owners[low == points.length ? 0 : low]);
+    }
+
+    /**
+     * This ring with {@code node} added, or this ring when it is already on.
+     */
+    public HashRing withNode(String node) {
+        if (contains(node)) {
+            return this;
+        }
+        List<String> grown = new ArrayList<>(nodes);
+        grown.add(node);
+        return new HashRing(grown, virtualNodes);
+    }
+
+    public boolean contains(String node) {
+        return Collections.binarySearch(nodes, node) >= 0;
+    }
+
+    /**
+     * Every node on the ring, in name order.
+     */
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes, then a 64-bit finalizer so that ids and
+     * node names differing in one character still land far apart.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
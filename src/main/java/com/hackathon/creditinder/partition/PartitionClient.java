@@ -0,0 +1,208 @@
+package com.hackathon.creditinder.partition;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.model.VoteBatchRequest;
+import com.hackathon.creditinder.service.ApplicationAnalytics;
+import com.hackathon.creditinder.service.ApplicationPage;
+import com.hackathon.creditinder.service.ApplicationSort;
+import com.hackathon.creditinder.service.SearchResults;
+import com.hackathon.creditinder.service.VoteResult;
+import com.hackathon.creditinder.trending.TrendingTracker;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Calls another partition's {@link PartitionController} endpoints.
+ *
+ * Every call is asynchronous underneath, so a scatter-gather waits out the
+ * slowest partition rather than the sum of them. A partition that cannot be
+ * reached, takes longer than the request timeout or answers with an error
+ * fails the call with an {@link UncheckedIOException}.
+ */
+class PartitionClient implements AutoCloseable {
+
+    static final String BASE_PATH = "/internal/partition";
+    /** Carries the cluster's shared secret on every call; see {@link PartitionSecretFilter}. */
+    static final String SECRET_HEADER = "X-Creditinder-Cluster-Secret";
+    private static final String OCTET_STREAM = "application/octet-stream";
+
+    private final HttpClient http;
+    private final Duration requestTimeout;
+    private final String secret;
+
+    PartitionClient(Duration requestTimeout, String secret) {
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(requestTimeout)
+                .build();
+        this.requestTimeout = requestTimeout;
+        this.secret = secret;
+    }
+
+    Optional<LoanApplication> get(PartitionMember member, String applicationId) {
+        byte[] body = await(send(request(member, "/applications/" + encode(applicationId)).GET()));
+        if (body == null) {
+            return Optional.empty();
+        }
+        return Optional.of(decodeOne(body));
+    }
+
+    LoanApplication submit(PartitionMember member, LoanApplication application) {
+        byte[] body = await(send(request(member, "/applications")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(PartitionCodec.encodeApplications(List.of(application))))));
+        return decodeOne(body);
+    }
+
+    CompletableFuture<List<VoteResult>> vote(PartitionMember member, String voterId, List<VoteBatchRequest.Vote> votes) {
+        return send(request(member, "/votes" + voterQuery(voterId, '?'))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(PartitionCodec.encodeVotes(votes))))
+                .thenApply(body -> decode(body, PartitionCodec::decodeResults));
+    }
+
+    CompletableFuture<List<LoanApplication>> random(PartitionMember member, String voterId, int count,
+                                                    Collection<String> excludedIds) {
+        return send(request(member, "/random?count=" + count + voterQuery(voterId, '&'))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(PartitionCodec.encodeIds(excludedIds))))
+                .thenApply(body -> decode(body, PartitionCodec::decodeApplications));
+    }
+
+    CompletableFuture<List<LoanApplication>> all(PartitionMember member) {
+        return send(request(member, "/applications").GET())
+                .thenApply(body -> decode(body, PartitionCodec::decodeApplications));
+    }
+
+    CompletableFuture<ApplicationPage> page(PartitionMember member, ApplicationSort sort, boolean descending,
+                                            String cursor, int limit) {
+        return send(request(member, "/page?sort=" + sort.name() + "&descending=" + descending + "&limit=" + limit
+                + (cursor == null ? "" : "&cursor=" + encode(cursor))).GET())
+                .thenApply(body -> decode(body, PartitionCodec::decodePage));
+    }
+
+    CompletableFuture<SearchResults> search(PartitionMember member, PartitionCodec.Search search, int limit) {
+        return send(request(member, "/search?limit=" + limit)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(PartitionCodec.encodeSearch(search))))
+                .thenApply(body -> decode(body, PartitionCodec::decodeSearchResults));
+    }
+
+    CompletableFuture<ApplicationAnalytics.Snapshot> analytics(PartitionMember member) {
+        return send(request(member, "/analytics").GET())
+                .thenApply(body -> decode(body, PartitionCodec::decodeAnalytics));
+    }
+
+    CompletableFuture<List<TrendingTracker.Trend>> trending(PartitionMember member, boolean shortWindow) {
+        return send(request(member, "/trending?window=" + (shortWindow ? "short" : "long")).GET())
+                .thenApply(body -> decode(body, PartitionCodec::decodeTrends));
+    }
+
+    CompletableFuture<Long> version(PartitionMember member) {
+        return send(request(member, "/version").GET())
+                .thenApply(body -> decode(body, PartitionCodec::decodeVersion));
+    }
+
+    /**
+     * Tells {@code member} that {@code self} is in the cluster and returns
+     * every member it knows of.
+     */
+    List<PartitionMember> join(PartitionMember member, PartitionMember self) {
+        byte[] body = await(send(request(member, "/members")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(PartitionCodec.encodeMembers(List.of(self))))));
+        return decode(body, PartitionCodec::decodeMembers);
+    }
+
+    void handoff(PartitionMember member, List<PartitionCodec.Handoff> handoffs) {
+        await(send(request(member, "/handoff")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(PartitionCodec.encodeHandoffs(handoffs)))));
+    }
+
+    @Override
+    public void close() {
+        http.shutdownNow();
+    }
+
+    private HttpRequest.Builder request(PartitionMember member, String path) {
+        return HttpRequest.newBuilder(URI.create(member.url() + BASE_PATH + path))
+                .timeout(requestTimeout)
+                .header("Content-Type", OCTET_STREAM)
+                .header("Accept", OCTET_STREAM)
+                .header(SECRET_HEADER, secret);
+    }
+
+    /**
+     * The response body, or {@code null} for a 404.
+     */
+    private CompletableFuture<byte[]> send(HttpRequest.Builder request) {
+        HttpRequest built = request.build();
+        return http.sendAsync(built, HttpResponse.BodyHandlers.ofByteArray()).thenApply(response -> {
+            int status = response.statusCode();
+            if (status == 404) {
+                return null;
+            }
+            if (status / 100 != 2) {
+                throw new UncheckedIOException(new IOException(
+                        built.method() + " " + built.uri() + " answered " + status));
+            }
+            return response.body();
+        });
+    }
+
+    private interface Decoder<T> {
+        T decode(byte[] body) throws IOException;
+    }
+
+    private static <T> T decode(byte[] body, Decoder<T> decoder) {
+        if (body == null) {
+            throw new UncheckedIOException(new IOException("Partition endpoint not found"));
+        }
+        try {
+            return decoder.decode(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static LoanApplication decodeOne(byte[] body) {
+        List<LoanApplication> applications = decode(body, PartitionCodec::decodeApplications);
+        if (applications.size() != 1) {
+            throw new UncheckedIOException(new IOException("Expected one application, got " + applications.size()));
+        }
+        return applications.get(0);
+    }
+
+    /**
+     * Waits for {@code future}, rethrowing an I/O failure unchecked.
+     */
+    static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw new UncheckedIOException(io);
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    private static String voterQuery(String voterId, char separator) {
+        return voterId == null ? "" : separator + "voter=" + encode(voterId);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
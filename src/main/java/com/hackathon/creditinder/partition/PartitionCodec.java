@@ -0,0 +1,402 @@
+package com.hackathon.creditinder.partition;
+
+import com.hackathon.creditinder.journal.JournalCodec;
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.model.VoteBatchRequest;
+import com.hackathon.creditinder.service.ApplicationAnalytics;
+import com.hackathon.creditinder.service.ApplicationPage;
+import com.hackathon.creditinder.service.SearchFilter;
+import com.hackathon.creditinder.service.SearchResults;
+import com.hackathon.creditinder.service.TextIndex;
+import com.hackathon.creditinder.service.VoteResult;
+import com.hackathon.creditinder.trending.TrendingTracker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bodies of the requests and responses between partitions. Each is a count
+ * followed by that many entries, with applications in the journal's
+ * encoding, tallies included, followed by their version.
+ */
+final class PartitionCodec {
+
+    private static final VoteResult[] RESULTS = VoteResult.values();
+
+    private PartitionCodec() {
+    }
+
+    /**
+     * An application this node hands to its new owner, with everyone who
+     * has voted on it.
+     */
+    record Handoff(LoanApplication application, List<String> voters) {
+    }
+
+    static byte[] encodeApplications(Collection<LoanApplication> applications) {
+        return encode(applications.size() * 256, out -> {
+            out.writeInt(applications.size());
+            for (LoanApplication application : applications) {
+                writeApplication(out, application);
+            }
+        });
+    }
+
+    static List<LoanApplication> decodeApplications(byte[] body) throws IOException {
+        DataInputStream in = input(body);
+        int count = count(in, body);
+        List<LoanApplication> applications = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            applications.add(readApplication(in));
+        }
+        return applications;
+    }
+
+    static byte[] encodeVotes(List<VoteBatchRequest.Vote> votes) {
+        return encode(votes.size() * 48, out -> {
+            out.writeInt(votes.size());
+            for (VoteBatchRequest.Vote vote : votes) {
+                JournalCodec.writeString(out, vote.applicationId());
+                out.writeBoolean(vote.approve());
+            }
+        });
+    }
+
+    static List<VoteBatchRequest.Vote> decodeVotes(byte[] body) throws IOException {
+        DataInputStream in = input(body);
+        int count = count(in, body);
+        List<VoteBatchRequest.Vote> votes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            votes.add(new VoteBatchRequest.Vote(JournalCodec.readString(in), in.readBoolean()));
+        }
+        return votes;
+    }
+
+    static byte[] encodeResults(List<VoteResult> results) {
+        return encode(4 + results.size(), out -> {
+            out.writeInt(results.size());
+            for (VoteResult result : results) {
+                out.writeByte(result.ordinal());
+            }
+        });
+    }
+
+    static List<VoteResult> decodeResults(byte[] body) throws IOException {
+        DataInputStream in = input(body);
+        int count = in.readInt();
+        if (count < 0 || count > body.length) {
+            throw new IOException("Bad entry count " + count);
+        }
+        List<VoteResult> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int ordinal = in.readUnsignedByte();
+            if (ordinal >= RESULTS.length) {
+                throw new IOException("Unknown vote result " + ordinal);
+            }
+            results.add(RESULTS[ordinal]);
+        }
+        return results;
+    }
+
+    static byte[] encodeMembers(Collection<PartitionMember> members) {
+        return encode(members.size() * 64, out -> {
+            out.writeInt(members.size());
+            for (PartitionMember member : members) {
+                JournalCodec.writeString(out, member.id());
+                JournalCodec.writeString(out, member.url());
+            }
+        });
+    }
+
+    static List<PartitionMember> decodeMembers(byte[] body) throws IOException {
+        DataInputStream in = input(body);
+        int count = count(in, body);
+        List<PartitionMember> members = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            members.add(new PartitionMember(JournalCodec.readString(in), JournalCodec.readString(in)));
+        }
+        return members;
+    }
+
+    static byte[] encodeHandoffs(List<Handoff> handoffs) {
+        return encode(handoffs.size() * 512, out -> {
+            out.writeInt(handoffs.size());
+            for (Handoff handoff : handoffs) {
+                writeApplication(out, handoff.application());
+                out.writeInt(handoff.voters().size());
+                for (String voter : handoff.voters()) {
+                    JournalCodec.writeString(out, voter);
+                }
+            }
+        });
+    }
+
+    static List<Handoff> decodeHandoffs(byte[] body) throws IOException {
+        DataInputStream in = input(body);
+        int count = count(in, body);
+        List<Handoff> handoffs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LoanApplication application = readApplication(in);
+            int voterCount = count(in, body);
+            List<String> voters = new ArrayList<>(voterCount);
+            for (int v = 0; v < voterCount; v++) {
+                voters.add(JournalCodec.readString(in));
+            }
+            handoffs.add(new Handoff(application, voters));
+        }
+        return handoffs;
+    }
+
+    static byte[] encodeIds(Collection<String> ids) {
+        return encode(ids.size() * 40, out -> {
+            out.writeInt(ids.size());
+            for (String id : ids) {
+                JournalCodec.writeString(out, id);
+            }
+        });
+    }
+
+    static List<String> decodeIds(byte[] body) throws IOException {
+        DataInputStream in = input(body);
+        int count = count(in, body);
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(JournalCodec.readString(in));
+        }
+        return ids;
+    }
+
+    static byte[] encodePage(ApplicationPage page) {
+        return encode(16 + page.applications().size() * 256, out -> {
+            JournalCodec.writeString(out, page.nextCursor());
+            out.writeInt(page.total());
+            out.writeInt(page.applications().size());
+            for (LoanApplication application : page.applications()) {
+                writeApplication(out, application);
+            }
+        });
+    }
+
+    static ApplicationPage decodePage(byte[] body) throws IOException {
+        DataInputStream in = input(body);
+        String nextCursor = JournalCodec.readString(in);
+        int total = in.readInt();
+        int count = count(in, body);
+        List<LoanApplication> applications = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            applications.add(readApplication(in));
+        }
+        return new ApplicationPage(applications, nextCursor, total);
+    }
+
+    /**
+     * A search request: the query, the filter, and the hit to continue
+     * after, if any.
+     */
+    record Search(String query, SearchFilter filter, TextIndex.Hit after) {
+    }
+
+    static byte[] encodeSearch(Search search) {
+        return encode(128, out -> {
+            JournalCodec.writeString(out, search.query());
+            JournalCodec.writeString(out, search.filter().loanPurpose());
+            JournalCodec.writeString(out, search.filter().employmentStatus());
+            writeInteger(out, search.filter().minCreditScore());
+            writeInteger(out, search.filter().maxCreditScore());
+            out.writeBoolean(search.after() != null);
+            if (search.after() != null) {
+                out.writeFloat(search.after().score());
+                out.writeInt(search.after().ordinal());
+            }
+        });
+    }
+
+    static Search decodeSearch(byte[] body) throws IOException {
+        DataInputStream in = input(body);
+        String query = JournalCodec.readString(in);
+        if (query == null) {
+            throw new IOException("Search without a query");
+        }
+        SearchFilter filter = new SearchFilter(JournalCodec.readString(in), JournalCodec.readString(in),
+                readInteger(in), readInteger(in));
+        TextIndex.Hit after = null;
+        if (in.readBoolean()) {
+            float score = in.readFloat();
+            after = new TextIndex.Hit(in.readInt(), score);
+        }
+        return new Search(query, filter, after);
+    }
+
+    static byte[] encodeSearchResults(SearchResults results) {
+        return encode(8 + results.applications().size() * 264, out -> {
+            out.writeInt(results.total());
+            out.writeInt(results.applications().size());
+            for (int i = 0; i < results.applications().size(); i++) {
+                TextIndex.Hit hit = results.hits().get(i);
+                out.writeFloat(hit.score());
+                out.writeInt(hit.ordinal());
+                writeApplication(out, results.applications().get(i));
+            }
+        });
+    }
+
+    static SearchResults decodeSearchResults(byte[] body) throws IOException {
+        DataInputStream in = input(body);
+        int total = in.readInt();
+        int count = count(in, body);
+        List<LoanApplication> applications = new ArrayList<>(count);
+        List<TextIndex.Hit> hits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            float score = in.readFloat();
+            hits.add(new TextIndex.Hit(in.readInt(), score));
+            applications.add(readApplication(in));
+        }
+        return new SearchResults(applications, hits, total);
+    }
+
+    static byte[] encodeAnalytics(ApplicationAnalytics.Snapshot snapshot) {
+        return encode(1024, out -> {
+            writeBucket(out, snapshot.total());
+            writeBuckets(out, snapshot.byLoanPurpose());
+            writeBuckets(out, snapshot.byCreditScore());
+            writeBuckets(out, snapshot.byEmploymentStatus());
+        });
+    }
+
+    static ApplicationAnalytics.Snapshot decodeAnalytics(byte[] body) throws IOException {
+        DataInputStream in = input(body);
+        return new ApplicationAnalytics.Snapshot(readBucket(in),
+                readBuckets(in, body), readBuckets(in, body), readBuckets(in, body));
+    }
+
+    static byte[] encodeTrends(List<TrendingTracker.Trend> trends) {
+        return encode(4 + trends.size() * 48, out -> {
+            out.writeInt(trends.size());
+            for (TrendingTracker.Trend trend : trends) {
+                JournalCodec.writeString(out, trend.applicationId());
+                out.writeLong(trend.votes());
+            }
+        });
+    }
+
+    static List<TrendingTracker.Trend> decodeTrends(byte[] body) throws IOException {
+        DataInputStream in = input(body);
+        int count = count(in, body);
+        List<TrendingTracker.Trend> trends = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            trends.add(new TrendingTracker.Trend(JournalCodec.readString(in), in.readLong()));
+        }
+        return trends;
+    }
+
+    static byte[] encodeVersion(long version) {
+        return encode(8, out -> out.writeLong(version));
+    }
+
+    static long decodeVersion(byte[] body) throws IOException {
+        return input(body).readLong();
+    }
+
+    private static void writeBuckets(DataOutputStream out, List<ApplicationAnalytics.Bucket> buckets)
+            throws IOException {
+        out.writeInt(buckets.size());
+        for (ApplicationAnalytics.Bucket bucket : buckets) {
+            writeBucket(out, bucket);
+        }
+    }
+
+    private static List<ApplicationAnalytics.Bucket> readBuckets(DataInputStream in, byte[] body) throws IOException {
+        int count = count(in, body);
+        List<ApplicationAnalytics.Bucket> buckets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            buckets.add(readBucket(in));
+        }
+        return buckets;
+    }
+
+    private static void writeBucket(DataOutputStream out, ApplicationAnalytics.Bucket bucket) throws IOException {
+        JournalCodec.writeString(out, bucket.label());
+        out.writeLong(bucket.applications());
+        JournalCodec.writeString(out, bucket.amountRequested().toPlainString());
+        out.writeLong(bucket.approvals());
+        out.writeLong(bucket.rejections());
+        out.writeDouble(bucket.approvalPercentage());
+    }
+
+    private static ApplicationAnalytics.Bucket readBucket(DataInputStream in) throws IOException {
+        String label = JournalCodec.readString(in);
+        long applications = in.readLong();
+        String amount = JournalCodec.readString(in);
+        BigDecimal amountRequested;
+        try {
+            amountRequested = new BigDecimal(amount == null ? "" : amount);
+        } catch (NumberFormatException e) {
+            throw new IOException("Bad amount " + amount, e);
+        }
+        return new ApplicationAnalytics.Bucket(label, applications, amountRequested,
+                in.readLong(), in.readLong(), in.readDouble());
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        out.writeInt(value == null ? 0 : value);
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        boolean present = in.readBoolean();
+        int value = in.readInt();
+        return present ? value : null;
+    }
+
+    private static void writeApplication(DataOutputStream out, LoanApplication application) throws IOException {
+        JournalCodec.writeApplication(out, application);
+        out.writeLong(application.getVersion());
+    }
+
+    private static LoanApplication readApplication(DataInputStream in) throws IOException {
+        LoanApplication application = JournalCodec.readApplication(in);
+        // Carries the owner's version over, so a page tagged with it on one
+        // node still revalidates correctly when served by another.
+        long version = in.readLong();
+        if (version > 0) {
+            application.nextVersion(version - 1);
+        }
+        return application;
+    }
+
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] encode(int sizeHint, Writer writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(16, Math.min(sizeHint, 1 << 20)));
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static DataInputStream input(byte[] body) {
+        return new DataInputStream(new ByteArrayInputStream(body));
+    }
+
+    private static int count(DataInputStream in, byte[] body) throws IOException {
+        int count = in.readInt();
+        // Every entry takes at least four bytes, which bounds what a corrupt
+        // count can make us allocate.
+        if (count < 0 || count > body.length / 4) {
+            throw new IOException("Bad entry count " + count);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,172 @@
+package com.hackathon.creditinder.partition;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.service.ApplicationSort;
+import com.hackathon.creditinder.trending.TrendingTracker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Endpoints other partitions call, in {@link PartitionCodec}'s binary
+ * encoding. Each acts on this node's partition only and never routes a
+ * request on, so a request can not bounce between nodes whose rings
+ * disagree. Only calls carrying the cluster's shared secret reach them; see
+ * {@link PartitionSecretFilter}.
+ */
+@RestController
+@RequestMapping(path = PartitionClient.BASE_PATH, produces = PartitionController.OCTET_STREAM)
+@ConditionalOnProperty(prefix = "creditinder.partition", name = "enabled", havingValue = "true")
+public class PartitionController {
+
+    static final String OCTET_STREAM = "application/octet-stream";
+
+    @Autowired
+    private PartitionedApplicationService service;
+
+    @Autowired
+    private TrendingTracker trendingTracker;
+
+    @GetMapping("/applications")
+    public byte[] applications() {
+        return PartitionCodec.encodeApplications(service.localApplications());
+    }
+
+    @PostMapping(path = "/applications", consumes = OCTET_STREAM)
+    public ResponseEntity<byte[]> submit(@RequestBody byte[] body) {
+        List<LoanApplication> applications;
+        try {
+            applications = PartitionCodec.decodeApplications(body);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (applications.size() != 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(PartitionCodec.encodeApplications(List.of(service.localSubmit(applications.get(0)))));
+    }
+
+    @GetMapping("/applications/{id}")
+    public ResponseEntity<byte[]> application(@PathVariable String id) {
+        return service.localApplication(id)
+                .map(application -> ResponseEntity.ok(PartitionCodec.encodeApplications(List.of(application))))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping(path = "/votes", consumes = OCTET_STREAM)
+    public ResponseEntity<byte[]> votes(@RequestParam(required = false) String voter, @RequestBody byte[] body) {
+        try {
+            return ResponseEntity.ok(PartitionCodec.encodeResults(
+                    service.localVotes(voter, PartitionCodec.decodeVotes(body))));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Random picks from this partition, skipping the ids in the body.
+     */
+    @PostMapping(path = "/random", consumes = OCTET_STREAM)
+    public ResponseEntity<byte[]> random(@RequestParam(required = false) String voter, @RequestParam int count,
+                                         @RequestBody byte[] body) {
+        try {
+            return ResponseEntity.ok(PartitionCodec.encodeApplications(
+                    service.localRandom(voter, Math.max(0, count), PartitionCodec.decodeIds(body))));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * One page of this partition in {@code sort} order, for merging with the
+     * other partitions' pages.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<byte[]> page(@RequestParam String sort, @RequestParam boolean descending,
+                                       @RequestParam(required = false) String cursor, @RequestParam int limit) {
+        ApplicationSort order;
+        try {
+            order = ApplicationSort.valueOf(sort);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(PartitionCodec.encodePage(
+                service.localPage(order, descending, cursor, Math.max(1, limit))));
+    }
+
+    /**
+     * Matches on this partition ranking below the hit in the body, if any.
+     */
+    @PostMapping(path = "/search", consumes = OCTET_STREAM)
+    public ResponseEntity<byte[]> search(@RequestParam int limit, @RequestBody byte[] body) {
+        PartitionCodec.Search search;
+        try {
+            search = PartitionCodec.decodeSearch(body);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(PartitionCodec.encodeSearchResults(
+                service.localSearch(search.query(), search.filter(), search.after(), Math.max(1, limit))));
+    }
+
+    @GetMapping("/analytics")
+    public byte[] analytics() {
+        return PartitionCodec.encodeAnalytics(service.localAnalytics());
+    }
+
+    /**
+     * The votes counted here, not the cluster's; {@code window} is
+     * {@code short} or {@code long}.
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<byte[]> trending(@RequestParam String window) {
+        return switch (window) {
+            case "short" -> ResponseEntity.ok(PartitionCodec.encodeTrends(trendingTracker.shortTrending()));
+            case "long" -> ResponseEntity.ok(PartitionCodec.encodeTrends(trendingTracker.longTrending()));
+            default -> ResponseEntity.badRequest().build();
+        };
+    }
+
+    @GetMapping("/version")
+    public byte[] version() {
+        return PartitionCodec.encodeVersion(service.localVersion());
+    }
+
+    /**
+     * Adds the members in the body and answers with every member known here.
+     */
+    @PostMapping(path = "/members", consumes = OCTET_STREAM)
+    public ResponseEntity<byte[]> join(@RequestBody byte[] body) {
+        List<PartitionMember> joining;
+        try {
+            joining = PartitionCodec.decodeMembers(body);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<PartitionMember> known = service.members();
+        for (PartitionMember member : joining) {
+            known = service.join(member);
+        }
+        return ResponseEntity.ok(PartitionCodec.encodeMembers(known));
+    }
+
+    @PostMapping(path = "/handoff", consumes = OCTET_STREAM)
+    public ResponseEntity<byte[]> handoff(@RequestBody byte[] body) {
+        try {
+            service.acceptHandoff(PartitionCodec.decodeHandoffs(body));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(new byte[0]);
+    }
+}
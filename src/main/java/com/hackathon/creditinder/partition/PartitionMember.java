@@ -0,0 +1,8 @@
+package com.hackathon.creditinder.partition;
+
+/**
+ * A node holding one partition: its name on the {@link HashRing} and the
+ * base URL other nodes reach its internal endpoints on.
+ */
+public record PartitionMember(String id, String url) {
+}
@@ -0,0 +1,40 @@
+package com.hackathon.creditinder.partition;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Refuses calls to the {@link PartitionController} endpoints that do not
+ * carry the cluster's shared secret, so a client on the public port can
+ * neither join a rogue node to the ring nor hand this node applications.
+ * Compared in constant time, so response timing does not leak it.
+ */
+public class PartitionSecretFilter extends OncePerRequestFilter {
+
+    private final byte[] secret;
+
+    public PartitionSecretFilter(String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("creditinder.partition.secret must be set when partitioning is enabled");
+        }
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String presented = request.getHeader(PartitionClient.SECRET_HEADER);
+        if (presented == null || !MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
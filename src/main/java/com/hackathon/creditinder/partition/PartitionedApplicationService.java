@@ -0,0 +1,712 @@
+package com.hackathon.creditinder.partition;
+
+import com.hackathon.creditinder.journal.Journal;
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.model.VoteBatchRequest;
+import com.hackathon.creditinder.service.ApplicationAnalytics;
+import com.hackathon.creditinder.service.ApplicationCursor;
+import com.hackathon.creditinder.service.ApplicationPage;
+import com.hackathon.creditinder.service.ApplicationSort;
+import com.hackathon.creditinder.service.LoanApplicationService;
+import com.hackathon.creditinder.service.SearchFilter;
+import com.hackathon.creditinder.service.SearchResults;
+import com.hackathon.creditinder.service.TextIndex;
+import com.hackathon.creditinder.service.VoteResult;
+import com.hackathon.creditinder.trending.TrendingTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds one partition of the applications and routes everything else to the
+ * node that owns it.
+ *
+ * Application ids are assigned to nodes by a {@link HashRing}. Submitting,
+ * reading and voting on one application go to its owner, or are served here
+ * when that is this node. Random picks, the full list, pages, search,
+ * analytics, trending and the store version gather from the partitions, at
+ * most {@code fanOut} requests at a time; a partition that is down is left
+ * out of the result rather than failing it. Each partition answers a page
+ * from its own ordered index and the pages are merged by sort key, so a page
+ * costs {@code limit} rows per partition however many applications there are.
+ *
+ * When a node joins, every node swaps in a ring with the newcomer on it and,
+ * after {@code handoffDelay}, hands the applications it no longer owns to
+ * their new owner, tallies and voter history included. An application is
+ * dropped here before it is sent, so a vote routed by a stale ring is
+ * refused rather than counted on a copy about to be discarded; it is put
+ * back if the owner cannot take it.
+ *
+ * The top and range views stay local to each partition.
+ */
+public class PartitionedApplicationService extends LoanApplicationService implements AutoCloseable {
+
+    /** Applications per handoff request. */
+    static final int HANDOFF_BATCH = 512;
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionedApplicationService.class);
+
+    private final PartitionMember self;
+    private final int fanOut;
+    private final Duration handoffDelay;
+    private final PartitionClient client;
+    private final Map<String, PartitionMember> members = new ConcurrentHashMap<>();
+    // Serializes membership changes; lookups read the ring without it.
+    private final ReentrantLock membershipLock = new ReentrantLock();
+    private volatile HashRing ring;
+    private final ScheduledExecutorService rebalancer;
+    private final AtomicBoolean rebalanceScheduled = new AtomicBoolean();
+
+    /**
+     * Starts with {@code self} and {@code members} on the ring; others are
+     * found by {@link #joinCluster()}. No sample data is created, since every
+     * node would make its own. {@code secret} is sent with every call to
+     * another node.
+     */
+    public PartitionedApplicationService(Journal journal, PartitionMember self, Collection<PartitionMember> members,
+                                         int virtualNodes, int fanOut, Duration requestTimeout, Duration handoffDelay,
+                                         String secret) {
+        super(journal, false);
+        if (fanOut <= 0) {
+            throw new IllegalArgumentException("fanOut must be positive");
+        }
+        this.self = self;
+        this.fanOut = fanOut;
+        this.handoffDelay = handoffDelay;
+        this.client = new PartitionClient(requestTimeout, secret);
+        this.members.put(self.id(), self);
+        for (PartitionMember member : members) {
+            this.members.putIfAbsent(member.id(), member);
+        }
+        this.ring = new HashRing(this.members.keySet(), virtualNodes);
+        this.rebalancer = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("partition-rebalance").daemon().factory());
+    }
+
+    public PartitionMember self() {
+        return self;
+    }
+
+    /**
+     * Every node this one knows of, itself included.
+     */
+    public List<PartitionMember> members() {
+        return new ArrayList<>(members.values());
+    }
+
+    /**
+     * Announces this node to every member it knows of, and to every member
+     * they know of in turn, then hands over whatever it holds but no longer
+     * owns. Members that cannot be reached stay on the ring.
+     */
+    public void joinCluster() {
+        Set<String> asked = new HashSet<>(Set.of(self.id()));
+        Deque<PartitionMember> toAsk = new ArrayDeque<>(members.values());
+        while (!toAsk.isEmpty()) {
+            PartitionMember member = toAsk.poll();
+            if (!asked.add(member.id())) {
+                continue;
+            }
+            try {
+                for (PartitionMember known : client.join(member, self)) {
+                    addMember(known);
+                    toAsk.add(known);
+                }
+            } catch (UncheckedIOException e) {
+                log.warn("Could not join partition {} at {}: {}", member.id(), member.url(), e.getCause().toString());
+            }
+        }
+        log.info("Partition {} joined; ring has {}", self.id(), ring.nodes());
+        rebalance();
+    }
+
+    @Override
+    public LoanApplication submitApplication(LoanApplication application) {
+        PartitionMember owner = ownerOf(application.getId());
+        if (owner == self) {
+            return super.submitApplication(application);
+        }
+        return client.submit(owner, application);
+    }
+
+    /**
+     * Submits this node's share of the batch together and sends every other
+     * application on to its owner.
+     */
+    @Override
+    public List<LoanApplication> submitApplications(List<LoanApplication> batch) {
+        List<LoanApplication> local = new ArrayList<>(batch.size());
+        RuntimeException failure = null;
+        for (LoanApplication application : batch) {
+            PartitionMember owner = ownerOf(application.getId());
+            if (owner == self) {
+                local.add(application);
+                continue;
+            }
+            try {
+                client.submit(owner, application);
+            } catch (RuntimeException e) {
+                failure = failure == null ? e : failure;
+            }
+        }
+        if (!local.isEmpty()) {
+            super.submitApplications(local);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return batch;
+    }
+
+    @Override
+    public Optional<LoanApplication> getApplicationById(String id) {
+        PartitionMember owner = ownerOf(id);
+        if (owner == self) {
+            return super.getApplicationById(id);
+        }
+        return client.get(owner, id);
+    }
+
+    @Override
+    public void voteOnApplication(String applicationId, boolean approve) {
+        PartitionMember owner = ownerOf(applicationId);
+        if (owner == self) {
+            super.voteOnApplication(applicationId, approve);
+            return;
+        }
+        PartitionClient.await(client.vote(owner, null, List.of(new VoteBatchRequest.Vote(applicationId, approve))));
+    }
+
+    @Override
+    public VoteResult voteOnApplication(String voterId, String applicationId, boolean approve) {
+        PartitionMember owner = ownerOf(applicationId);
+        if (owner == self) {
+            return super.voteOnApplication(voterId, applicationId, approve);
+        }
+        return PartitionClient.await(
+                client.vote(owner, voterId, List.of(new VoteBatchRequest.Vote(applicationId, approve)))).get(0);
+    }
+
+    /**
+     * Splits the batch by owner and sends each part as one request, all at
+     * once; this node's part is applied while the others are in flight.
+     */
+    @Override
+    public List<VoteResult> voteOnApplications(String voterId, List<VoteBatchRequest.Vote> votes) {
+        Map<PartitionMember, List<Integer>> byOwner = new LinkedHashMap<>();
+        for (int i = 0; i < votes.size(); i++) {
+            byOwner.computeIfAbsent(ownerOf(votes.get(i).applicationId()), owner -> new ArrayList<>()).add(i);
+        }
+        Map<PartitionMember, CompletableFuture<List<VoteResult>>> remote = new HashMap<>();
+        byOwner.forEach((owner, positions) -> {
+            if (owner != self) {
+                remote.put(owner, client.vote(owner, voterId, select(votes, positions)));
+            }
+        });
+
+        VoteResult[] results = new VoteResult[votes.size()];
+        List<Integer> local = byOwner.get(self);
+        if (local != null) {
+            fill(results, local, super.voteOnApplications(voterId, select(votes, local)));
+        }
+        remote.forEach((owner, answer) -> fill(results, byOwner.get(owner), PartitionClient.await(answer)));
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public LoanApplication getRandomApplication() {
+        List<LoanApplication> picks = getRandomApplications(null, 1, List.of());
+        return picks.isEmpty() ? null : picks.get(0);
+    }
+
+    /**
+     * Asks up to {@code fanOut} partitions, chosen at random, for {@code count}
+     * picks each and keeps a random {@code count} of the answers. Only when
+     * they come back short are the next partitions asked, so a voter who has
+     * seen everything on some nodes still gets cards from the rest.
+     */
+    @Override
+    public List<LoanApplication> getRandomApplications(String voterId, int count, Collection<String> excludedIds) {
+        List<PartitionMember> order = members();
+        Collections.shuffle(order);
+        Set<String> skip = new HashSet<>(excludedIds);
+        List<LoanApplication> picks = new ArrayList<>(count);
+        for (int from = 0; from < order.size() && picks.size() < count; from += fanOut) {
+            int wanted = count - picks.size();
+            List<LoanApplication> candidates = gather(order.subList(from, Math.min(from + fanOut, order.size())),
+                    member -> client.random(member, voterId, wanted, skip),
+                    () -> super.getRandomApplications(voterId, wanted, skip));
+            Collections.shuffle(candidates);
+            for (LoanApplication candidate : candidates) {
+                if (picks.size() == count) {
+                    break;
+                }
+                if (skip.add(candidate.getId())) {
+                    picks.add(candidate);
+                }
+            }
+        }
+        return picks;
+    }
+
+    /**
+     * Every application in every partition that answers, {@code fanOut}
+     * partitions at a time.
+     */
+    @Override
+    public List<LoanApplication> getAllApplications() {
+        List<LoanApplication> all = new ArrayList<>();
+        askAll(client::all, super::getAllApplications).values().forEach(all::addAll);
+        return all;
+    }
+
+    /**
+     * Asks every partition for the page after {@code cursor} and keeps the
+     * first {@code limit} rows of their merged answers. Every row a partition
+     * sent but that did not make the page ranks after the new cursor, so the
+     * next page asks for it again.
+     */
+    @Override
+    public ApplicationPage getApplicationPage(ApplicationSort sort, boolean descending, String cursor, int limit) {
+        Map<PartitionMember, ApplicationPage> pages = askAll(
+                member -> client.page(member, sort, descending, cursor, limit),
+                () -> localPage(sort, descending, cursor, limit));
+        List<Map.Entry<ApplicationCursor, LoanApplication>> rows = new ArrayList<>();
+        boolean more = false;
+        int total = 0;
+        for (ApplicationPage page : pages.values()) {
+            for (LoanApplication application : page.applications()) {
+                rows.add(Map.entry(sort.cursorOf(application), application));
+            }
+            more |= page.nextCursor() != null;
+            total += page.total();
+        }
+        Comparator<Map.Entry<ApplicationCursor, LoanApplication>> order = Map.Entry.comparingByKey();
+        rows.sort(descending ? order.reversed() : order);
+        String nextCursor = null;
+        if (rows.size() > limit || (more && rows.size() == limit)) {
+            rows = rows.subList(0, limit);
+            nextCursor = rows.get(limit - 1).getKey().encode(sort);
+        }
+        List<LoanApplication> page = new ArrayList<>(rows.size());
+        for (Map.Entry<ApplicationCursor, LoanApplication> row : rows) {
+            page.add(row.getValue());
+        }
+        return new ApplicationPage(page, nextCursor, total);
+    }
+
+    /**
+     * Searches every partition and merges the matches best first. Equal
+     * scores are ordered by partition id, then as each partition orders them,
+     * which lets the cursor tell each partition where to carry on.
+     */
+    @Override
+    public ApplicationPage searchApplications(String query, SearchFilter filter, String cursor, int limit) {
+        SearchPosition position = SearchPosition.decode(cursor);
+        Map<PartitionMember, SearchResults> answers = askAll(
+                member -> client.search(member,
+                        new PartitionCodec.Search(query, filter, afterFor(position, member)), limit + 1),
+                () -> localSearch(query, filter, afterFor(position, self), limit + 1));
+        List<SearchPosition> positions = new ArrayList<>();
+        List<LoanApplication> found = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<PartitionMember, SearchResults> answer : answers.entrySet()) {
+            SearchResults results = answer.getValue();
+            for (int i = 0; i < results.applications().size(); i++) {
+                TextIndex.Hit hit = results.hits().get(i);
+                positions.add(new SearchPosition(hit.score(), answer.getKey().id(), hit.ordinal()));
+                found.add(results.applications().get(i));
+            }
+            total += results.total();
+        }
+        Integer[] ranked = new Integer[positions.size()];
+        Arrays.setAll(ranked, i -> i);
+        Arrays.sort(ranked, Comparator.comparing(positions::get, SearchPosition.ORDER));
+        int size = Math.min(limit, ranked.length);
+        List<LoanApplication> page = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            page.add(found.get(ranked[i]));
+        }
+        String nextCursor = ranked.length > limit ? positions.get(ranked[limit - 1]).encode() : null;
+        return new ApplicationPage(page, nextCursor, total);
+    }
+
+    /**
+     * Every answering partition's analytics, counted together.
+     */
+    @Override
+    public ApplicationAnalytics.Snapshot getAnalytics() {
+        return ApplicationAnalytics.merge(new ArrayList<>(askAll(client::analytics, super::getAnalytics).values()));
+    }
+
+    /**
+     * A digest of every answering partition's version. It changes whenever
+     * any of them changes, and when one stops or starts answering, so a page
+     * tagged with it is never mistaken for one built from other partitions.
+     */
+    @Override
+    public long getStoreVersion() {
+        long digest = 0;
+        for (Map.Entry<PartitionMember, Long> version : askAll(client::version, super::getStoreVersion).entrySet()) {
+            digest += HashRing.hash(version.getKey().id() + '@' + version.getValue());
+        }
+        return digest;
+    }
+
+    /**
+     * The union of every answering partition's trending list, plus
+     * {@code local}, with votes on the same application added up: an
+     * application handed to a new owner has its earlier votes counted on the
+     * old one. Keeps the {@code top} most voted.
+     */
+    List<TrendingTracker.Trend> gatherTrending(boolean shortWindow, List<TrendingTracker.Trend> local, int top) {
+        Map<String, Long> votes = new HashMap<>();
+        for (List<TrendingTracker.Trend> trends : askAll(member -> client.trending(member, shortWindow),
+                () -> local).values()) {
+            for (TrendingTracker.Trend trend : trends) {
+                votes.merge(trend.applicationId(), trend.votes(), Long::sum);
+            }
+        }
+        return votes.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(top)
+                .map(entry -> new TrendingTracker.Trend(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    // Served to other partitions by PartitionController; never routed again.
+
+    ApplicationPage localPage(ApplicationSort sort, boolean descending, String cursor, int limit) {
+        return super.getApplicationPage(sort, descending, cursor, limit);
+    }
+
+    SearchResults localSearch(String query, SearchFilter filter, TextIndex.Hit after, int limit) {
+        return super.searchResults(query, filter, after, limit);
+    }
+
+    ApplicationAnalytics.Snapshot localAnalytics() {
+        return super.getAnalytics();
+    }
+
+    long localVersion() {
+        return super.getStoreVersion();
+    }
+
+    Optional<LoanApplication> localApplication(String id) {
+        return super.getApplicationById(id);
+    }
+
+    List<LoanApplication> localApplications() {
+        return super.getAllApplications();
+    }
+
+    /**
+     * Takes a submission routed here. A sender with a stale ring may pick the
+     * wrong owner; the application is then kept until the next rebalance
+     * moves it on.
+     */
+    LoanApplication localSubmit(LoanApplication application) {
+        LoanApplication submitted = super.submitApplication(application);
+        if (!owns(application.getId())) {
+            scheduleRebalance();
+        }
+        return submitted;
+    }
+
+    List<VoteResult> localVotes(String voterId, List<VoteBatchRequest.Vote> votes) {
+        return super.voteOnApplications(voterId, votes);
+    }
+
+    List<LoanApplication> localRandom(String voterId, int count, Collection<String> excludedIds) {
+        return super.getRandomApplications(voterId, count, excludedIds);
+    }
+
+    /**
+     * Puts {@code member} on the ring, moving what it now owns over to it
+     * shortly, and returns every member this node knows of.
+     */
+    List<PartitionMember> join(PartitionMember member) {
+        if (addMember(member)) {
+            log.info("Partition {} at {} joined; ring has {}", member.id(), member.url(), ring.nodes());
+            scheduleRebalance();
+        }
+        return members();
+    }
+
+    /**
+     * Adds applications handed over by their previous owner, ignoring any
+     * already here, and returns how many were added.
+     */
+    int acceptHandoff(List<PartitionCodec.Handoff> handoffs) {
+        int added = 0;
+        boolean misplaced = false;
+        for (PartitionCodec.Handoff handoff : handoffs) {
+            if (addHandedOff(handoff.application(), handoff.voters())) {
+                added++;
+            }
+            misplaced |= !owns(handoff.application().getId());
+        }
+        if (misplaced) {
+            scheduleRebalance();
+        }
+        return added;
+    }
+
+    /**
+     * Hands every application held here that another node owns to that node.
+     *
+     * @return how many were handed over
+     */
+    int rebalance() {
+        HashRing current = ring;
+        Map<String, List<LoanApplication>> moving = new HashMap<>();
+        for (LoanApplication application : super.getAllApplications()) {
+            String owner = current.ownerOf(application.getId());
+            if (!owner.equals(self.id())) {
+                moving.computeIfAbsent(owner, id -> new ArrayList<>()).add(application);
+            }
+        }
+        int moved = 0;
+        for (Map.Entry<String, List<LoanApplication>> entry : moving.entrySet()) {
+            PartitionMember owner = members.get(entry.getKey());
+            List<LoanApplication> applications = entry.getValue();
+            for (int from = 0; from < applications.size(); from += HANDOFF_BATCH) {
+                moved += handOff(owner, applications.subList(from, Math.min(from + HANDOFF_BATCH, applications.size())));
+            }
+        }
+        if (moved > 0) {
+            log.info("Partition {} handed {} applications to {}", self.id(), moved, moving.keySet());
+        }
+        return moved;
+    }
+
+    @Override
+    public void close() {
+        rebalancer.shutdownNow();
+        client.close();
+        super.close();
+    }
+
+    private int handOff(PartitionMember owner, List<LoanApplication> batch) {
+        List<PartitionCodec.Handoff> handoffs = new ArrayList<>(batch.size());
+        for (LoanApplication application : batch) {
+            List<String> voters = votersOf(application.getId());
+            LoanApplication removed = removeLocally(application.getId());
+            if (removed != null) {
+                handoffs.add(new PartitionCodec.Handoff(removed, voters));
+            }
+        }
+        try {
+            client.handoff(owner, handoffs);
+            return handoffs.size();
+        } catch (UncheckedIOException e) {
+            log.warn("Could not hand {} applications to partition {}, keeping them: {}",
+                    handoffs.size(), owner.id(), e.getCause().toString());
+            for (PartitionCodec.Handoff handoff : handoffs) {
+                addHandedOff(handoff.application(), handoff.voters());
+            }
+            scheduleRebalance();
+            return 0;
+        }
+    }
+
+    /**
+     * Runs {@link #rebalance()} once {@code handoffDelay} has passed, so
+     * several joins in quick succession move each application once.
+     */
+    private void scheduleRebalance() {
+        if (!rebalanceScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        rebalancer.schedule(() -> {
+            rebalanceScheduled.set(false);
+            try {
+                rebalance();
+            } catch (RuntimeException e) {
+                log.warn("Rebalancing partition {} failed", self.id(), e);
+            }
+        }, handoffDelay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private boolean addMember(PartitionMember member) {
+        membershipLock.lock();
+        try {
+            PartitionMember known = members.get(member.id());
+            if (known != null) {
+                if (!known.equals(member) && !member.id().equals(self.id())) {
+                    // Same node, new address, e.g. after a restart.
+                    members.put(member.id(), member);
+                }
+                return false;
+            }
+            members.put(member.id(), member);
+            ring = ring.withNode(member.id());
+            return true;
+        } finally {
+            membershipLock.unlock();
+        }
+    }
+
+    private PartitionMember ownerOf(String applicationId) {
+        String owner = ring.ownerOf(applicationId);
+        return owner.equals(self.id()) ? self : members.get(owner);
+    }
+
+    private boolean owns(String applicationId) {
+        return self.id().equals(ring.ownerOf(applicationId));
+    }
+
+    private interface RemoteCall<T> {
+        CompletableFuture<T> call(PartitionMember member);
+    }
+
+    private interface LocalCall<T> {
+        T call();
+    }
+
+    /**
+     * Asks every member in {@code wave} at once, answering for this node
+     * while the others are in flight, and returns all the answers together.
+     */
+    private List<LoanApplication> gather(List<PartitionMember> wave, RemoteCall<List<LoanApplication>> remote,
+                                         LocalCall<List<LoanApplication>> local) {
+        List<LoanApplication> answers = new ArrayList<>();
+        ask(wave, remote, local).values().forEach(answers::addAll);
+        return answers;
+    }
+
+    /**
+     * Asks every member, {@code fanOut} at a time, and returns the answers
+     * of those that gave one.
+     */
+    private <T> Map<PartitionMember, T> askAll(RemoteCall<T> remote, LocalCall<T> local) {
+        List<PartitionMember> order = members();
+        Map<PartitionMember, T> answers = new LinkedHashMap<>();
+        for (int from = 0; from < order.size(); from += fanOut) {
+            answers.putAll(ask(order.subList(from, Math.min(from + fanOut, order.size())), remote, local));
+        }
+        return answers;
+    }
+
+    /**
+     * Asks every member in {@code wave} at once, answering for this node
+     * while the others are in flight. A member that fails is left out.
+     */
+    private <T> Map<PartitionMember, T> ask(List<PartitionMember> wave, RemoteCall<T> remote, LocalCall<T> local) {
+        Map<PartitionMember, CompletableFuture<T>> asked = new LinkedHashMap<>();
+        boolean includesSelf = false;
+        for (PartitionMember member : wave) {
+            if (member == self) {
+                includesSelf = true;
+            } else {
+                asked.put(member, remote.call(member));
+            }
+        }
+        Map<PartitionMember, T> answers = new LinkedHashMap<>();
+        if (includesSelf) {
+            answers.put(self, local.call());
+        }
+        asked.forEach((member, answer) -> {
+            try {
+                answers.put(member, PartitionClient.await(answer));
+            } catch (UncheckedIOException e) {
+                log.warn("Leaving out partition {}: {}", member.id(), e.getCause().toString());
+            }
+        });
+        return answers;
+    }
+
+    /**
+     * Where {@code member} carries on from: after the hit itself on the
+     * partition that returned it, after every hit of equal score on the
+     * partitions ordered before it, and before them on the ones after.
+     */
+    private static TextIndex.Hit afterFor(SearchPosition position, PartitionMember member) {
+        if (position == null) {
+            return null;
+        }
+        int order = member.id().compareTo(position.memberId());
+        int ordinal = order == 0 ? position.ordinal() : order > 0 ? Integer.MAX_VALUE : -1;
+        return new TextIndex.Hit(ordinal, position.score());
+    }
+
+    /**
+     * A search match's place across partitions; also the cursor a page of
+     * results continues after.
+     */
+    record SearchPosition(float score, String memberId, int ordinal) {
+
+        static final Comparator<SearchPosition> ORDER = Comparator.comparingDouble(SearchPosition::score).reversed()
+                .thenComparing(SearchPosition::memberId)
+                .thenComparing(Comparator.comparingInt(SearchPosition::ordinal).reversed());
+
+        private static final char SEPARATOR = '|';
+
+        /**
+         * Decodes a token from {@link #encode}, or returns {@code null} when
+         * it is missing or malformed.
+         */
+        static SearchPosition decode(String token) {
+            if (token == null || token.isBlank()) {
+                return null;
+            }
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int first = decoded.indexOf(SEPARATOR);
+                int second = first < 0 ? -1 : decoded.indexOf(SEPARATOR, first + 1);
+                if (second < 0) {
+                    return null;
+                }
+                return new SearchPosition(Float.intBitsToFloat(Integer.parseUnsignedInt(decoded.substring(0, first), 16)),
+                        decoded.substring(second + 1), Integer.parseInt(decoded.substring(first + 1, second)));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        String encode() {
+            // The member id goes last, since it may hold the separator.
+            String raw = Integer.toHexString(Float.floatToIntBits(score)) + SEPARATOR + ordinal + SEPARATOR + memberId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static List<VoteBatchRequest.Vote> select(List<VoteBatchRequest.Vote> votes, List<Integer> positions) {
+        List<VoteBatchRequest.Vote> selected = new ArrayList<>(positions.size());
+        for (int position : positions) {
+            selected.add(votes.get(position));
+        }
+        return selected;
+    }
+
+    private static void fill(VoteResult[] results, List<Integer> positions, List<VoteResult> answers) {
+        for (int i = 0; i < positions.size(); i++) {
+            results[positions.get(i)] = answers.get(i);
+        }
+    }
+}
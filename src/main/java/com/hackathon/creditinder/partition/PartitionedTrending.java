@@ -0,0 +1,42 @@
+package com.hackathon.creditinder.partition;
+
+import com.hackathon.creditinder.trending.Trending;
+import com.hackathon.creditinder.trending.TrendingTracker;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The cluster's trending lists: this node's tracker only hears votes on the
+ * applications it owns, so each list is gathered from every partition.
+ */
+public class PartitionedTrending implements Trending {
+
+    private final TrendingTracker local;
+    private final PartitionedApplicationService service;
+
+    public PartitionedTrending(TrendingTracker local, PartitionedApplicationService service) {
+        this.local = local;
+        this.service = service;
+    }
+
+    @Override
+    public List<TrendingTracker.Trend> shortTrending() {
+        return service.gatherTrending(true, local.shortTrending(), local.top());
+    }
+
+    @Override
+    public List<TrendingTracker.Trend> longTrending() {
+        return service.gatherTrending(false, local.longTrending(), local.top());
+    }
+
+    @Override
+    public Duration shortWindow() {
+        return local.shortWindow();
+    }
+
+    @Override
+    public Duration longWindow() {
+        return local.longWindow();
+    }
+}
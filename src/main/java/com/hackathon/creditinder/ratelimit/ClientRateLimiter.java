@@ -0,0 +1,64 @@
+package com.hackathon.creditinder.ratelimit;
+
+/**
+ * Limits how fast one client may vote or submit: by voter cookie, when the
+ * request carries one, and by remote address, which a script can not shed by
+ * dropping its cookie. The address limit is looser, since many real voters
+ * can share one address behind a NAT.
+ */
+public class ClientRateLimiter implements AutoCloseable {
+
+    private final RateLimiter voters;
+    private final RateLimiter addresses;
+
+    /**
+     * Either limiter may be {@code null} to leave that dimension unlimited.
+     */
+    public ClientRateLimiter(RateLimiter voters, RateLimiter addresses) {
+        this.voters = voters;
+        this.addresses = addresses;
+    }
+
+    public static ClientRateLimiter unlimited() {
+        return new ClientRateLimiter(null, null);
+    }
+
+    /**
+     * Takes {@code permits} from both limits, one per vote or submission the
+     * request carries. Returns 0 when the request may go ahead; otherwise
+     * neither limit is charged and the result is how many nanoseconds the
+     * client should wait.
+     */
+    public long acquire(String voterId, String address, int permits) {
+        boolean voterCharged = voters != null && voterId != null;
+        if (voterCharged) {
+            long wait = voters.acquire(voterId, permits);
+            if (wait > 0) {
+                return wait;
+            }
+        }
+        long wait = addresses == null || address == null ? 0 : addresses.acquire(address, permits);
+        if (wait > 0 && voterCharged) {
+            voters.release(voterId, permits);
+        }
+        return wait;
+    }
+
+    public RateLimiter voters() {
+        return voters;
+    }
+
+    public RateLimiter addresses() {
+        return addresses;
+    }
+
+    @Override
+    public void close() {
+        if (voters != null) {
+            voters.close();
+        }
+        if (addresses != null) {
+            addresses.close();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.hackathon.creditinder.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A token bucket per key, each kept as a single {@link AtomicLong}.
+ *
+ * Rather than a token count and a refill time, a bucket stores the moment it
+ * will be full again (the generic cell rate algorithm): taking a token pushes
+ * that moment one interval later, and a request is refused while it is more
+ * than {@code burst - 1} intervals away. Taking a token is therefore one
+ * compare-and-set, with no lock and no refill arithmetic. Taking several
+ * pushes it that many intervals later; a request for more than a whole
+ * burst is let through only once the bucket is full, and the key then waits
+ * until the excess is paid off.
+ *
+ * A bucket whose full-again moment has passed is indistinguishable from a new
+ * one, so a background sweep drops those, keeping memory in proportion to the
+ * keys active within the last burst window rather than every key ever seen.
+ * Past {@code maxKeys} live buckets, new keys share a single overflow bucket
+ * until the sweep makes room: a flood of distinct keys is then throttled as
+ * one instead of growing the table.
+ */
+public class RateLimiter implements AutoCloseable {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int burst;
+    private final int maxKeys;
+    private final long origin = System.nanoTime();
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong overflow = new AtomicLong();
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final Thread sweeper;
+
+    /**
+     * @param permitsPerSecond sustained rate each key may take tokens at
+     * @param burst            tokens a key that has been idle may take at once
+     * @param maxKeys          buckets kept before new keys share one
+     * @param sweepInterval    how often idle buckets are dropped
+     */
+    public RateLimiter(String name, double permitsPerSecond, int burst, int maxKeys, Duration sweepInterval) {
+        if (permitsPerSecond <= 0 || burst <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond, burst and maxKeys must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.burst = burst;
+        this.maxKeys = maxKeys;
+        long sweepMillis = Math.max(1, sweepInterval.toMillis());
+        this.sweeper = Thread.ofPlatform().name("rate-limit-" + name).daemon().start(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    Thread.sleep(sweepMillis);
+                    sweep();
+                }
+            } catch (InterruptedException e) {
+                // Closed.
+            }
+        });
+    }
+
+    /**
+     * Takes a token from {@code key}'s bucket. Returns 0 when one was taken;
+     * otherwise nothing is taken and the result is how many nanoseconds until
+     * one will be free.
+     */
+    public long acquire(String key) {
+        return acquire(key, 1);
+    }
+
+    /**
+     * Takes {@code permits} tokens from {@code key}'s bucket, all or none.
+     * Returns 0 when they were taken; otherwise nothing is taken and the
+     * result is how many nanoseconds until they will be free.
+     */
+    public long acquire(String key, int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive");
+        }
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.size() < maxKeys
+                    ? buckets.computeIfAbsent(key, k -> new AtomicLong())
+                    : overflow;
+        }
+        // More than a burst can never fit, so it only has to find the bucket full.
+        long needed = intervalNanos * (Math.min(permits, burst) - 1);
+        long cost = intervalNanos * permits;
+        long now = now();
+        for (;;) {
+            long full = bucket.get();
+            long start = Math.max(full, now);
+            long wait = start - now - toleranceNanos + needed;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(full, start + cost)) {
+                allowed.add(permits);
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back {@code permits} tokens taken from {@code key}'s bucket by a
+     * request that then did not go ahead.
+     */
+    public void release(String key, int permits) {
+        AtomicLong bucket = buckets.getOrDefault(key, overflow);
+        long cost = intervalNanos * permits;
+        long now = now();
+        for (;;) {
+            long full = bucket.get();
+            // Never further back than full now: the tokens can not be
+            // returned to a bucket that has already refilled.
+            long refunded = Math.max(now, full - cost);
+            if (refunded >= full || bucket.compareAndSet(full, refunded)) {
+                allowed.add(-permits);
+                return;
+            }
+        }
+    }
+
+    public int keys() {
+        return buckets.size();
+    }
+
+    public Stats stats() {
+        return new Stats(allowed.sum(), rejected.sum(), buckets.size(), evicted.sum());
+    }
+
+    /**
+     * Drops buckets that have filled up again. One in use while it is dropped
+     * may hand its key one extra burst, which the sweep interval bounds.
+     */
+    void sweep() {
+        long now = now();
+        buckets.values().removeIf(bucket -> {
+            if (bucket.get() <= now) {
+                evicted.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @Override
+    public void close() {
+        sweeper.interrupt();
+    }
+
+    private long now() {
+        // Never negative, so a new bucket's 0 is always in the past.
+        return System.nanoTime() - origin;
+    }
+
+    /**
+     * @param allowed  tokens taken
+     * @param rejected requests refused for want of a token
+     * @param keys     buckets currently held
+     * @param evicted  idle buckets dropped by the sweep
+     */
+    public record Stats(long allowed, long rejected, int keys, long evicted) {
+    }
+}
@@ -0,0 +1,223 @@
+package com.hackathon.creditinder.replication;
+
+import com.hackathon.creditinder.model.VoteTally;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Each application's votes as a grow-only counter (G-counter): one slot per
+ * node, holding the approvals and rejections that node took.
+ *
+ * A node only ever adds to its own slot and copies everyone else's from what
+ * they send. Merging keeps the larger value slot by slot, so a slot that
+ * arrives twice, late or out of order changes nothing, and nodes that have
+ * seen the same slots report the same totals whatever order they came in.
+ *
+ * Counting a local vote is an atomic add on the own slot, with no lock. Other
+ * nodes' slots are only written by the one thread applying incoming frames.
+ */
+final class ReplicaCounters {
+
+    private static final VarHandle OWN_APPROVALS;
+    private static final VarHandle OWN_REJECTIONS;
+    private static final VarHandle CHANGED;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            OWN_APPROVALS = lookup.findVarHandle(Counter.class, "ownApprovals", int.class);
+            OWN_REJECTIONS = lookup.findVarHandle(Counter.class, "ownRejections", int.class);
+            CHANGED = lookup.findVarHandle(Counter.class, "changed", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final String self;
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    // Counters whose own slot has grown since it was last drained.
+    private final ConcurrentLinkedQueue<Counter> changed = new ConcurrentLinkedQueue<>();
+    // Other nodes by their position in Counter.remote. Only the applying
+    // thread adds to it, but full syncs read it too.
+    private final List<String> nodes = new ArrayList<>();
+    private final Map<String, Integer> nodeIndexes = new ConcurrentHashMap<>();
+
+    ReplicaCounters(String self) {
+        this.self = self;
+    }
+
+    String self() {
+        return self;
+    }
+
+    /**
+     * Sets the own slot of an application without queueing it to be sent,
+     * for state this node already had when it started.
+     */
+    void seed(String applicationId, int approvals, int rejections) {
+        Counter counter = counter(applicationId);
+        counter.ownApprovals = approvals;
+        counter.ownRejections = rejections;
+    }
+
+    /**
+     * Adds votes this node took to its own slot and queues the slot to be
+     * sent.
+     */
+    void addLocal(String applicationId, int approvals, int rejections) {
+        Counter counter = counter(applicationId);
+        if (approvals != 0) {
+            OWN_APPROVALS.getAndAdd(counter, approvals);
+        }
+        if (rejections != 0) {
+            OWN_REJECTIONS.getAndAdd(counter, rejections);
+        }
+        if (!counter.changed && CHANGED.compareAndSet(counter, false, true)) {
+            changed.add(counter);
+        }
+    }
+
+    /**
+     * Moves up to {@code max} own slots that grew since the last drain into
+     * {@code into}, and returns how many.
+     */
+    int drainChanged(int max, List<ReplicationFrame.Slot> into) {
+        int drained = 0;
+        Counter counter;
+        while (drained < max && (counter = changed.poll()) != null) {
+            // Cleared before reading, so a vote landing now queues the
+            // counter again rather than being missed.
+            CHANGED.setVolatile(counter, false);
+            into.add(new ReplicationFrame.Slot(counter.applicationId, self,
+                    (int) OWN_APPROVALS.getVolatile(counter), (int) OWN_REJECTIONS.getVolatile(counter)));
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Merges {@code node}'s slot for an application and returns how much its
+     * total grew. Only the applying thread may call this.
+     */
+    VoteTally.Counts merge(String applicationId, String node, int approvals, int rejections) {
+        Counter counter = counter(applicationId);
+        if (node.equals(self)) {
+            // Our own slot coming back ahead of us means this node lost its
+            // journal; carry on counting from there.
+            return new VoteTally.Counts(
+                    raise(counter, OWN_APPROVALS, approvals),
+                    raise(counter, OWN_REJECTIONS, rejections));
+        }
+        int slot = indexOf(node) * 2;
+        int[] remote = counter.remote;
+        if (remote.length <= slot) {
+            remote = Arrays.copyOf(remote, nodes.size() * 2);
+        }
+        int addedApprovals = Math.max(0, approvals - remote[slot]);
+        int addedRejections = Math.max(0, rejections - remote[slot + 1]);
+        remote[slot] += addedApprovals;
+        remote[slot + 1] += addedRejections;
+        // Republishes the counts to threads reading a full sync.
+        counter.remote = remote;
+        return new VoteTally.Counts(addedApprovals, addedRejections);
+    }
+
+    /**
+     * Sum over every slot of an application, or zero when none is known.
+     */
+    VoteTally.Counts total(String applicationId) {
+        Counter counter = counters.get(applicationId);
+        if (counter == null) {
+            return new VoteTally.Counts(0, 0);
+        }
+        int approvals = counter.ownApprovals;
+        int rejections = counter.ownRejections;
+        int[] remote = counter.remote;
+        for (int i = 0; i < remote.length; i += 2) {
+            approvals += remote[i];
+            rejections += remote[i + 1];
+        }
+        return new VoteTally.Counts(approvals, rejections);
+    }
+
+    /**
+     * Every non-empty slot, read as the walk reaches it.
+     */
+    Iterator<ReplicationFrame.Slot> slots() {
+        return counters.values().stream().flatMap(counter -> {
+            List<ReplicationFrame.Slot> slots = new ArrayList<>(1 + counter.remote.length / 2);
+            int approvals = counter.ownApprovals;
+            int rejections = counter.ownRejections;
+            if ((approvals | rejections) != 0) {
+                slots.add(new ReplicationFrame.Slot(counter.applicationId, self, approvals, rejections));
+            }
+            int[] remote = counter.remote;
+            for (int i = 0; i < remote.length; i += 2) {
+                if ((remote[i] | remote[i + 1]) != 0) {
+                    slots.add(new ReplicationFrame.Slot(counter.applicationId, nodeAt(i / 2), remote[i], remote[i + 1]));
+                }
+            }
+            return slots.stream();
+        }).iterator();
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    private Counter counter(String applicationId) {
+        Counter counter = counters.get(applicationId);
+        return counter != null ? counter : counters.computeIfAbsent(applicationId, Counter::new);
+    }
+
+    private int indexOf(String node) {
+        Integer index = nodeIndexes.get(node);
+        if (index == null) {
+            synchronized (nodes) {
+                index = nodes.size();
+                nodes.add(node);
+            }
+            nodeIndexes.put(node, index);
+        }
+        return index;
+    }
+
+    private String nodeAt(int index) {
+        synchronized (nodes) {
+            return nodes.get(index);
+        }
+    }
+
+    private static int raise(Counter counter, VarHandle slot, int value) {
+        while (true) {
+            int current = (int) slot.getVolatile(counter);
+            if (value <= current) {
+                return 0;
+            }
+            if (slot.compareAndSet(counter, current, value)) {
+                return value - current;
+            }
+        }
+    }
+
+    private static final class Counter {
+        final String applicationId;
+        volatile int ownApprovals;
+        volatile int ownRejections;
+        volatile boolean changed;
+        // Approvals and rejections per other node, in pairs.
+        volatile int[] remote = new int[0];
+
+        Counter(String applicationId) {
+            this.applicationId = applicationId;
+        }
+    }
+}
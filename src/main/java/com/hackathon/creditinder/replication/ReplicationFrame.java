@@ -0,0 +1,104 @@
+package com.hackathon.creditinder.replication;
+
+import com.hackathon.creditinder.journal.JournalCodec;
+import com.hackathon.creditinder.model.LoanApplication;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One message between nodes: applications to add and counter slots to merge.
+ *
+ * Encoded as {@code [int version]}, a table of the node ids the slots refer
+ * to, the applications in the journal's encoding, then each slot as its
+ * application id, an index into the node table and the two counts.
+ */
+record ReplicationFrame(List<LoanApplication> submissions, List<Slot> slots) {
+
+    private static final int VERSION = 1;
+
+    /**
+     * One node's count of the votes it took on one application.
+     */
+    record Slot(String applicationId, String node, int approvals, int rejections) {
+    }
+
+    boolean isEmpty() {
+        return submissions.isEmpty() && slots.isEmpty();
+    }
+
+    byte[] encode() {
+        Map<String, Integer> nodes = new LinkedHashMap<>();
+        for (Slot slot : slots) {
+            nodes.putIfAbsent(slot.node(), nodes.size());
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + submissions.size() * 256 + slots.size() * 56);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(VERSION);
+            out.writeInt(nodes.size());
+            for (String node : nodes.keySet()) {
+                JournalCodec.writeString(out, node);
+            }
+            out.writeInt(submissions.size());
+            for (LoanApplication application : submissions) {
+                JournalCodec.writeApplication(out, application);
+            }
+            out.writeInt(slots.size());
+            for (Slot slot : slots) {
+                JournalCodec.writeString(out, slot.applicationId());
+                out.writeInt(nodes.get(slot.node()));
+                out.writeInt(slot.approvals());
+                out.writeInt(slot.rejections());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static ReplicationFrame decode(byte[] frame) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported replication frame version " + version);
+        }
+        String[] nodes = new String[count(in, frame)];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = JournalCodec.readString(in);
+        }
+        int submissionCount = count(in, frame);
+        List<LoanApplication> submissions = new ArrayList<>(submissionCount);
+        for (int i = 0; i < submissionCount; i++) {
+            submissions.add(JournalCodec.readApplication(in));
+        }
+        int slotCount = count(in, frame);
+        List<Slot> slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            String applicationId = JournalCodec.readString(in);
+            int node = in.readInt();
+            if (node < 0 || node >= nodes.length) {
+                throw new IOException("Slot refers to unknown node " + node);
+            }
+            slots.add(new Slot(applicationId, nodes[node], in.readInt(), in.readInt()));
+        }
+        return new ReplicationFrame(submissions, slots);
+    }
+
+    private static int count(DataInputStream in, byte[] frame) throws IOException {
+        int count = in.readInt();
+        // Every entry takes at least four bytes, which bounds what a corrupt
+        // count can make us allocate.
+        if (count < 0 || count > frame.length / 4) {
+            throw new IOException("Bad entry count " + count);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,40 @@
+package com.hackathon.creditinder.replication;
+
+/**
+ * Carries replication frames between nodes.
+ *
+ * Delivery is best effort: a frame for a peer that is down, or too far
+ * behind, may be dropped. Nothing is lost by that, because whenever a link to
+ * a peer comes up the peer is first sent the receiver's full state.
+ */
+public interface ReplicationTransport extends AutoCloseable {
+
+    /**
+     * Starts connecting to peers and delivering their frames to
+     * {@code receiver}.
+     */
+    void start(Receiver receiver);
+
+    /**
+     * Queues {@code frame} for every peer that is currently connected.
+     * Must not block.
+     */
+    void broadcast(byte[] frame);
+
+    @Override
+    void close();
+
+    interface Receiver {
+
+        /**
+         * A frame from a peer. May be called from several threads at once.
+         */
+        void onFrame(byte[] frame);
+
+        /**
+         * Frames bringing {@code peer} up to date, sent as soon as its link is
+         * up and before anything broadcast after this call.
+         */
+        Iterable<byte[]> onConnected(String peer);
+    }
+}
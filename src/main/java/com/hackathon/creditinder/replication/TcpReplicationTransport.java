@@ -0,0 +1,293 @@
+package com.hackathon.creditinder.replication;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replication over plain TCP: each node listens on one port and opens one
+ * connection to every peer, used only for sending. Frames are written as
+ * {@code [int length][bytes]}; an empty frame is a heartbeat.
+ *
+ * Each outgoing link has its own thread and a bounded queue. A link that
+ * falls more than {@value #MAX_QUEUED_FRAMES} frames behind is closed rather
+ * than left to buffer without bound; like a link that fails, it reconnects
+ * after {@code reconnectDelay} and starts over with a full sync. Heartbeats
+ * on idle links make a restarted peer show up as a failed write within a
+ * couple of seconds, so it gets its full sync without waiting for traffic.
+ *
+ * Frames are applied without further checks, so the listener binds to one
+ * address, loopback unless configured, and drops connections from anywhere
+ * but a configured peer. A frame's buffer grows as its bytes arrive, so a
+ * length header claiming more than is sent costs no more than what was.
+ *
+ * Sockets block, on platform threads: there are only a handful per peer.
+ */
+public class TcpReplicationTransport implements ReplicationTransport {
+
+    static final int MAX_FRAME_BYTES = 64 << 20;
+    private static final int MAX_QUEUED_FRAMES = 256;
+    private static final long HEARTBEAT_MILLIS = 1_000;
+    private static final int CONNECT_TIMEOUT_MILLIS = 2_000;
+    // A peer silent for this long has gone without closing its socket.
+    private static final int READ_TIMEOUT_MILLIS = 10_000;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private static final Logger log = LoggerFactory.getLogger(TcpReplicationTransport.class);
+
+    private final ServerSocket server;
+    private final List<Link> links = new ArrayList<>();
+    private final long reconnectDelayMillis;
+    private final Set<Socket> inbound = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    /**
+     * Listens on loopback only; see the other constructor.
+     */
+    public TcpReplicationTransport(int port, List<InetSocketAddress> peers, Duration reconnectDelay) {
+        this(InetAddress.getLoopbackAddress(), port, peers, reconnectDelay);
+    }
+
+    /**
+     * Listens on {@code bindAddress} and {@code port} straight away (0 picks
+     * a free port), but only accepts and connects once started.
+     */
+    public TcpReplicationTransport(InetAddress bindAddress, int port, List<InetSocketAddress> peers,
+                                   Duration reconnectDelay) {
+        try {
+            this.server = new ServerSocket(port, 50, bindAddress);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not listen for replication on " + bindAddress + ":" + port, e);
+        }
+        this.reconnectDelayMillis = reconnectDelay.toMillis();
+        for (InetSocketAddress peer : peers) {
+            links.add(new Link(peer));
+        }
+    }
+
+    public int getLocalPort() {
+        return server.getLocalPort();
+    }
+
+    @Override
+    public void start(Receiver receiver) {
+        Thread.ofPlatform().name("replication-accept").daemon().start(() -> accept(receiver));
+        for (Link link : links) {
+            Thread.ofPlatform().name("replication-link-" + link.name).daemon().start(() -> link.run(receiver));
+        }
+    }
+
+    @Override
+    public void broadcast(byte[] frame) {
+        for (Link link : links) {
+            link.offer(frame);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(server);
+        for (Link link : links) {
+            link.close();
+        }
+        for (Socket socket : inbound) {
+            closeQuietly(socket);
+        }
+    }
+
+    private void accept(Receiver receiver) {
+        int accepted = 0;
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (IOException e) {
+                if (!closed) {
+                    log.warn("Stopped accepting replication connections", e);
+                }
+                return;
+            }
+            if (!fromPeer(socket.getInetAddress())) {
+                log.warn("Refused replication connection from {}, which is not a peer", socket.getRemoteSocketAddress());
+                closeQuietly(socket);
+                continue;
+            }
+            inbound.add(socket);
+            Thread.ofPlatform().name("replication-read-" + accepted++).daemon().start(() -> read(socket, receiver));
+        }
+    }
+
+    private void read(Socket socket, Receiver receiver) {
+        try (socket) {
+            socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER_BYTES));
+            while (!closed) {
+                int length = in.readInt();
+                if (length < 0 || length > MAX_FRAME_BYTES) {
+                    throw new IOException("Bad replication frame length " + length);
+                }
+                if (length == 0) {
+                    continue;
+                }
+                receiver.onFrame(readFrame(in, length));
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                log.debug("Replication connection from {} ended: {}", socket.getRemoteSocketAddress(), e.toString());
+            }
+        } finally {
+            inbound.remove(socket);
+        }
+    }
+
+    /**
+     * Whether {@code address} is one a peer resolves to now. Resolved on
+     * every connection, like outgoing links, so a peer that moves is let in.
+     */
+    private boolean fromPeer(InetAddress address) {
+        for (Link link : links) {
+            try {
+                for (InetAddress peer : InetAddress.getAllByName(link.address.getHostString())) {
+                    if (peer.equals(address)) {
+                        return true;
+                    }
+                }
+            } catch (IOException e) {
+                // Unresolvable right now, so it can not be this one.
+            }
+        }
+        return false;
+    }
+
+    private static byte[] readFrame(DataInputStream in, int length) throws IOException {
+        byte[] frame = new byte[Math.min(length, BUFFER_BYTES)];
+        in.readFully(frame);
+        int read = frame.length;
+        while (read < length) {
+            frame = Arrays.copyOf(frame, (int) Math.min(length, 2L * read));
+            in.readFully(frame, read, frame.length - read);
+            read = frame.length;
+        }
+        return frame;
+    }
+
+    private static void write(DataOutputStream out, byte[] frame) throws IOException {
+        out.writeInt(frame.length);
+        out.write(frame);
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+            // Already closed or broken; either way it is gone.
+        }
+    }
+
+    /**
+     * The connection to one peer, and the frames waiting to be sent on it.
+     */
+    private final class Link {
+        final InetSocketAddress address;
+        final String name;
+        final ArrayBlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(MAX_QUEUED_FRAMES);
+        // Set while connected; frames offered while it is null are dropped.
+        volatile Socket socket;
+        volatile Thread thread;
+
+        Link(InetSocketAddress address) {
+            this.address = address;
+            this.name = address.getHostString() + ":" + address.getPort();
+        }
+
+        void offer(byte[] frame) {
+            Socket current = socket;
+            if (current == null) {
+                return;
+            }
+            if (!queue.offer(frame)) {
+                log.warn("Replication link to {} fell {} frames behind; reconnecting", name, MAX_QUEUED_FRAMES);
+                closeQuietly(current);
+            }
+        }
+
+        void run(Receiver receiver) {
+            thread = Thread.currentThread();
+            while (!closed) {
+                Socket current = new Socket();
+                try {
+                    // Resolved on every attempt, so a peer that moves is found again.
+                    current.connect(new InetSocketAddress(address.getHostString(), address.getPort()),
+                            CONNECT_TIMEOUT_MILLIS);
+                    current.setTcpNoDelay(true);
+                    DataOutputStream out = new DataOutputStream(
+                            new BufferedOutputStream(current.getOutputStream(), BUFFER_BYTES));
+                    // Anything dropped or left queued so far is covered by
+                    // the full sync, which reads state only after this point.
+                    queue.clear();
+                    socket = current;
+                    log.info("Replication link to {} is up", name);
+                    for (byte[] frame : receiver.onConnected(name)) {
+                        write(out, frame);
+                    }
+                    out.flush();
+                    while (!closed) {
+                        byte[] frame = queue.poll(HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+                        if (frame == null) {
+                            out.writeInt(0);
+                        } else {
+                            do {
+                                write(out, frame);
+                            } while ((frame = queue.poll()) != null);
+                        }
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    if (!closed) {
+                        log.debug("Replication link to {} is down: {}", name, e.toString());
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                } finally {
+                    socket = null;
+                    closeQuietly(current);
+                }
+                try {
+                    Thread.sleep(reconnectDelayMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        void close() {
+            Socket current = socket;
+            if (current != null) {
+                closeQuietly(current);
+            }
+            Thread running = thread;
+            if (running != null) {
+                running.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.hackathon.creditinder.replication;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.model.VoteTally;
+import com.hackathon.creditinder.service.LoanApplicationService;
+import com.hackathon.creditinder.service.LocalChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps applications and vote tallies in step across nodes.
+ *
+ * Applications are a grow-only set, keyed by id. Votes are counted in
+ * {@link ReplicaCounters}: each node owns one slot per application and every
+ * tally is the sum of the slots. A local vote only adds to the own slot and
+ * marks it changed, without locking or touching the network; once per flush
+ * interval the changed slots and new submissions go out to every peer as one
+ * frame. Incoming frames are applied in order on a single thread, which adds
+ * whatever a slot grew by to the local tally.
+ *
+ * Replicated votes are never journaled, so after replaying its journal each
+ * tally holds exactly the votes this node took, which seeds its own slots;
+ * the other slots come back from peers as soon as the links are up. Voter
+ * history stays per node, so a voter who is sent to two nodes can vote twice.
+ */
+public class VoteReplicator implements LocalChangeListener, ReplicationTransport.Receiver, AutoCloseable {
+
+    /** Applications and slots per frame, keeping each frame to a megabyte or so. */
+    static final int MAX_FRAME_ENTRIES = 4096;
+    // Decoded frames waiting to be applied; past this, peers' reads block.
+    private static final int MAX_PENDING_FRAMES = 64;
+
+    private static final Logger log = LoggerFactory.getLogger(VoteReplicator.class);
+
+    private final LoanApplicationService service;
+    private final ReplicationTransport transport;
+    private final ReplicaCounters counters;
+    private final ConcurrentLinkedQueue<LoanApplication> submitted = new ConcurrentLinkedQueue<>();
+    private final BlockingQueue<ReplicationFrame> pending = new ArrayBlockingQueue<>(MAX_PENDING_FRAMES);
+    private final LongAdder framesSent = new LongAdder();
+    private final LongAdder framesApplied = new LongAdder();
+    private final ScheduledExecutorService flusher;
+    private final Thread applier;
+
+    /**
+     * Seeds this node's slots from the service's current tallies, so it must
+     * be created after the journal is replayed and before any vote is taken.
+     */
+    public VoteReplicator(String nodeId, LoanApplicationService service, ReplicationTransport transport,
+                          Duration flushInterval) {
+        this.service = service;
+        this.transport = transport;
+        this.counters = new ReplicaCounters(nodeId);
+        for (LoanApplication application : service.getAllApplications()) {
+            VoteTally.Counts votes = application.getVoteCounts();
+            counters.seed(application.getId(), votes.approvals(), votes.rejections());
+        }
+        service.addLocalChangeListener(this);
+        this.applier = Thread.ofPlatform().name("replication-apply").daemon().start(this::applyLoop);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("replication-flush").daemon().factory());
+        long interval = flushInterval.toNanos();
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.NANOSECONDS);
+        transport.start(this);
+    }
+
+    public String getNodeId() {
+        return counters.self();
+    }
+
+    @Override
+    public void onSubmitted(LoanApplication application) {
+        submitted.add(application);
+    }
+
+    @Override
+    public void onVotes(LoanApplication application, int approvals, int rejections) {
+        counters.addLocal(application.getId(), approvals, rejections);
+    }
+
+    @Override
+    public void onFrame(byte[] frame) {
+        ReplicationFrame decoded;
+        try {
+            decoded = ReplicationFrame.decode(frame);
+        } catch (IOException e) {
+            log.warn("Dropping malformed replication frame: {}", e.toString());
+            return;
+        }
+        try {
+            pending.put(decoded);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public Iterable<byte[]> onConnected(String peer) {
+        return () -> new FullSync(service.getAllApplications().iterator(), counters.slots());
+    }
+
+    public Stats stats() {
+        return new Stats(framesSent.sum(), framesApplied.sum());
+    }
+
+    /**
+     * Stops replicating, after one last flush of what this node took. The
+     * transport is left for its owner to close.
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        applier.interrupt();
+    }
+
+    /**
+     * Sends everything this node took since the last flush.
+     */
+    void flush() {
+        try {
+            while (true) {
+                List<LoanApplication> submissions = new ArrayList<>();
+                LoanApplication application;
+                while (submissions.size() < MAX_FRAME_ENTRIES && (application = submitted.poll()) != null) {
+                    submissions.add(application);
+                }
+                List<ReplicationFrame.Slot> slots = new ArrayList<>();
+                counters.drainChanged(MAX_FRAME_ENTRIES - submissions.size(), slots);
+                ReplicationFrame frame = new ReplicationFrame(submissions, slots);
+                if (frame.isEmpty()) {
+                    return;
+                }
+                transport.broadcast(frame.encode());
+                framesSent.increment();
+            }
+        } catch (RuntimeException e) {
+            // Keep the flusher scheduled; peers catch up on their next full sync.
+            log.warn("Replication flush failed", e);
+        }
+    }
+
+    private void applyLoop() {
+        while (true) {
+            ReplicationFrame frame;
+            try {
+                frame = pending.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                apply(frame);
+                framesApplied.increment();
+            } catch (RuntimeException e) {
+                log.warn("Could not apply replication frame", e);
+            }
+        }
+    }
+
+    private void apply(ReplicationFrame frame) {
+        for (LoanApplication application : frame.submissions()) {
+            // Slots can arrive before their application does; they are
+            // summed before it is visible, so a local vote on it cannot be
+            // counted twice.
+            VoteTally.Counts earlier = counters.total(application.getId());
+            application.setApprovalVotes(0);
+            application.setRejectionVotes(0);
+            if (service.applyReplicatedSubmission(application) && earlier.total() > 0) {
+                service.applyReplicatedVotes(application.getId(), earlier.approvals(), earlier.rejections());
+            }
+        }
+        for (ReplicationFrame.Slot slot : frame.slots()) {
+            VoteTally.Counts added = counters.merge(slot.applicationId(), slot.node(), slot.approvals(), slot.rejections());
+            if (added.total() > 0) {
+                service.applyReplicatedVotes(slot.applicationId(), added.approvals(), added.rejections());
+            }
+        }
+    }
+
+    /**
+     * Every application and every slot, a frame at a time, read as the link
+     * writes them out.
+     */
+    private final class FullSync implements Iterator<byte[]> {
+        private final Iterator<LoanApplication> applications;
+        private final Iterator<ReplicationFrame.Slot> slots;
+
+        FullSync(Iterator<LoanApplication> applications, Iterator<ReplicationFrame.Slot> slots) {
+            this.applications = applications;
+            this.slots = slots;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return applications.hasNext() || slots.hasNext();
+        }
+
+        @Override
+        public byte[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<LoanApplication> submissions = new ArrayList<>();
+            while (submissions.size() < MAX_FRAME_ENTRIES && applications.hasNext()) {
+                submissions.add(applications.next());
+            }
+            List<ReplicationFrame.Slot> batch = new ArrayList<>();
+            while (submissions.size() + batch.size() < MAX_FRAME_ENTRIES && slots.hasNext()) {
+                batch.add(slots.next());
+            }
+            framesSent.increment();
+            return new ReplicationFrame(submissions, batch).encode();
+        }
+    }
+
+    /**
+     * Frames sent to peers (a broadcast counts once) and frames from peers
+     * applied here.
+     */
+    public record Stats(long framesSent, long framesApplied) {
+    }
+}
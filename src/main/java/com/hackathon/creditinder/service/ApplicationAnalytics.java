@@ -0,0 +1,254 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.model.VoteTally;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Application counts, amounts requested and vote tallies by loan purpose,
+ * credit score band and employment status, kept up to date as applications
+ * and votes arrive instead of recomputed by scanning the store.
+ *
+ * Buckets live in arrays indexed by the purpose and status codes each
+ * application carries from the service's {@link SymbolTable}s, plus one for
+ * values the table had no room for and one for a missing value, so an update
+ * is a few array lookups and adder increments, and a snapshot reads a number
+ * of buckets bounded by the tables' capacity, not by how many applications
+ * there are.
+ *
+ * Each figure is a striped sum, so a snapshot taken while votes are arriving
+ * may mix counts from just before and just after one; figures settle once
+ * updates stop. A vote racing the removal of its application may leave it
+ * counted in its buckets.
+ */
+public class ApplicationAnalytics {
+
+    /** Lowest score of each credit band, best first. */
+    private static final int[] BAND_FLOORS = {800, 740, 670, 580};
+    private static final String[] BAND_LABELS = {"800+", "740-799", "670-739", "580-669", "Below 580", "Not given"};
+    private static final String UNLISTED = "Unlisted";
+    private static final String NOT_GIVEN = "Not given";
+
+    private final SymbolTable loanPurposes;
+    private final SymbolTable employmentStatuses;
+    private final Counters total = new Counters();
+    private final Counters[] byLoanPurpose;
+    private final Counters[] byCreditScore = counters(BAND_LABELS.length);
+    private final Counters[] byEmploymentStatus;
+
+    public ApplicationAnalytics(SymbolTable loanPurposes, SymbolTable employmentStatuses) {
+        this.loanPurposes = loanPurposes;
+        this.employmentStatuses = employmentStatuses;
+        // Two past the codes: unlisted values, then missing ones.
+        this.byLoanPurpose = counters(loanPurposes.capacity() + 2);
+        this.byEmploymentStatus = counters(employmentStatuses.capacity() + 2);
+    }
+
+    /**
+     * Counts a newly stored application, with any votes it already carries.
+     */
+    public void onAdded(LoanApplication application) {
+        VoteTally.Counts votes = application.getVoteCounts();
+        update(application, 1, amountInCents(application), votes.approvals(), votes.rejections());
+    }
+
+    /**
+     * Takes a removed or replaced application, and its votes, back out.
+     */
+    public void onRemoved(LoanApplication application) {
+        VoteTally.Counts votes = application.getVoteCounts();
+        update(application, -1, -amountInCents(application), -votes.approvals(), -votes.rejections());
+    }
+
+    public void onVotes(LoanApplication application, int approvals, int rejections) {
+        update(application, 0, 0, approvals, rejections);
+    }
+
+    public Snapshot snapshot() {
+        List<Bucket> purposes = buckets(byLoanPurpose, loanPurposes);
+        List<Bucket> statuses = buckets(byEmploymentStatus, employmentStatuses);
+        List<Bucket> bands = new ArrayList<>(BAND_LABELS.length);
+        for (int i = 0; i < BAND_LABELS.length; i++) {
+            if (!byCreditScore[i].isEmpty()) {
+                bands.add(byCreditScore[i].toBucket(BAND_LABELS[i]));
+            }
+        }
+        return new Snapshot(total.toBucket("All applications"), purposes, bands, statuses);
+    }
+
+    /**
+     * Adds up snapshots taken of disjoint sets of applications, e.g. one per
+     * partition, into the snapshot of them all.
+     */
+    public static Snapshot merge(List<Snapshot> snapshots) {
+        Bucket total = new Counters().toBucket("All applications");
+        Map<String, Bucket> purposes = new LinkedHashMap<>();
+        Map<String, Bucket> bands = new LinkedHashMap<>();
+        Map<String, Bucket> statuses = new LinkedHashMap<>();
+        for (String label : BAND_LABELS) {
+            // Keeps the bands in order, best first; empty ones are dropped below.
+            bands.put(label, null);
+        }
+        for (Snapshot snapshot : snapshots) {
+            total = total.plus(snapshot.total());
+            add(purposes, snapshot.byLoanPurpose());
+            add(bands, snapshot.byCreditScore());
+            add(statuses, snapshot.byEmploymentStatus());
+        }
+        List<Bucket> mergedBands = new ArrayList<>(bands.values());
+        mergedBands.removeIf(bucket -> bucket == null);
+        return new Snapshot(total, byApplications(purposes.values()), mergedBands, byApplications(statuses.values()));
+    }
+
+    private static void add(Map<String, Bucket> merged, List<Bucket> buckets) {
+        for (Bucket bucket : buckets) {
+            merged.merge(bucket.label(), bucket, Bucket::plus);
+        }
+    }
+
+    private static List<Bucket> byApplications(Collection<Bucket> buckets) {
+        List<Bucket> sorted = new ArrayList<>(buckets);
+        sorted.sort(Comparator.comparingLong(Bucket::applications).reversed());
+        return sorted;
+    }
+
+    /**
+     * Index of the credit band {@code score} falls in.
+     */
+    static int band(Integer score) {
+        if (score == null) {
+            return BAND_LABELS.length - 1;
+        }
+        for (int i = 0; i < BAND_FLOORS.length; i++) {
+            if (score >= BAND_FLOORS[i]) {
+                return i;
+            }
+        }
+        return BAND_FLOORS.length;
+    }
+
+    private void update(LoanApplication application, int count, long cents, int approvals, int rejections) {
+        total.add(count, cents, approvals, rejections);
+        byLoanPurpose[slot(loanPurposes, application.loanPurposeCode(), application.getLoanPurpose())]
+                .add(count, cents, approvals, rejections);
+        byCreditScore[band(application.getCreditScore())].add(count, cents, approvals, rejections);
+        byEmploymentStatus[slot(employmentStatuses, application.employmentStatusCode(),
+                application.getEmploymentStatus())].add(count, cents, approvals, rejections);
+    }
+
+    /**
+     * The counters for {@code code}, looking up {@code value} only when the
+     * application was never stored by the service.
+     */
+    private static int slot(SymbolTable table, int code, String value) {
+        if (code == LoanApplication.UNCODED) {
+            code = table.codeOf(value);
+        }
+        if (code == SymbolTable.NONE) {
+            return table.capacity() + 1;
+        }
+        return code == SymbolTable.OTHER ? table.capacity() : code;
+    }
+
+    private static List<Bucket> buckets(Counters[] counters, SymbolTable table) {
+        List<Bucket> buckets = new ArrayList<>();
+        int codes = table.size();
+        for (int code = 0; code < codes; code++) {
+            if (!counters[code].isEmpty()) {
+                buckets.add(counters[code].toBucket(table.symbol(code)));
+            }
+        }
+        int capacity = table.capacity();
+        if (!counters[capacity].isEmpty()) {
+            buckets.add(counters[capacity].toBucket(UNLISTED));
+        }
+        if (!counters[capacity + 1].isEmpty()) {
+            buckets.add(counters[capacity + 1].toBucket(NOT_GIVEN));
+        }
+        buckets.sort(Comparator.comparingLong(Bucket::applications).reversed());
+        return buckets;
+    }
+
+    private static long amountInCents(LoanApplication application) {
+        BigDecimal amount = application.getLoanAmount();
+        return amount == null ? 0 : amount.movePointRight(2).longValue();
+    }
+
+    private static Counters[] counters(int n) {
+        Counters[] counters = new Counters[n];
+        for (int i = 0; i < n; i++) {
+            counters[i] = new Counters();
+        }
+        return counters;
+    }
+
+    private static final class Counters {
+
+        final LongAdder applications = new LongAdder();
+        final LongAdder cents = new LongAdder();
+        final LongAdder approvals = new LongAdder();
+        final LongAdder rejections = new LongAdder();
+
+        void add(int count, long amount, int approved, int rejected) {
+            if (count != 0) {
+                applications.add(count);
+                cents.add(amount);
+            }
+            if (approved != 0) {
+                approvals.add(approved);
+            }
+            if (rejected != 0) {
+                rejections.add(rejected);
+            }
+        }
+
+        boolean isEmpty() {
+            return applications.sum() == 0 && approvals.sum() == 0 && rejections.sum() == 0;
+        }
+
+        Bucket toBucket(String label) {
+            long approved = approvals.sum();
+            long rejected = rejections.sum();
+            long votes = approved + rejected;
+            return new Bucket(label, applications.sum(), BigDecimal.valueOf(cents.sum(), 2), approved, rejected,
+                    votes == 0 ? 0.0 : (double) approved / votes * 100);
+        }
+    }
+
+    /**
+     * @param total                totals over every application
+     * @param byLoanPurpose        most applications first
+     * @param byCreditScore        best band first
+     * @param byEmploymentStatus   most applications first
+     */
+    public record Snapshot(Bucket total, List<Bucket> byLoanPurpose, List<Bucket> byCreditScore,
+                           List<Bucket> byEmploymentStatus) {
+    }
+
+    /**
+     * @param amountRequested    sum of the loan amounts applied for
+     * @param approvalPercentage share of votes that approve, 0 when there are none
+     */
+    public record Bucket(String label, long applications, BigDecimal amountRequested, long approvals,
+                         long rejections, double approvalPercentage) {
+
+        /**
+         * This bucket and {@code other}, with the same label, counted together.
+         */
+        Bucket plus(Bucket other) {
+            long approved = approvals + other.approvals;
+            long rejected = rejections + other.rejections;
+            long votes = approved + rejected;
+            return new Bucket(label, applications + other.applications, amountRequested.add(other.amountRequested),
+                    approved, rejected, votes == 0 ? 0.0 : (double) approved / votes * 100);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.hackathon.creditinder.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of an application within one {@link ApplicationSort}: its sort
+ * key, with the id breaking ties, so every application has a distinct key.
+ * Unset keys sort first. For {@link ApplicationSort#SUBMITTED_AT} later
+ * submissions never shift earlier positions, which keeps pages stable.
+ *
+ * Also the key type of the indexes in {@link ApplicationIndexes}, and encoded
+ * for URLs as an opaque base64url token. {@code rank} is an order-preserving
+ * {@code long} derived from the value, and {@code idRank} one derived from
+ * the id's first characters, so most comparisons in the index are settled
+ * without dereferencing the boxed value or the id, even among the many
+ * applications sharing a vote count.
+ */
+public record ApplicationCursor(long rank, Comparable<?> value, long idRank, String id)
+        implements Comparable<ApplicationCursor> {
+
+    private static final char SEPARATOR = '|';
+    private static final int ID_RANK_CHARS = 8;
+    private static final int MAX_LONG_DIGITS = 19;
+
+    public ApplicationCursor(Comparable<?> value, String id) {
+        this(rankOf(value), value, idRankOf(id), id);
+    }
+
+    /**
+     * Decodes a token from {@link #encode}, or returns {@code null} when it is
+     * missing or malformed.
+     */
+    public static ApplicationCursor decode(ApplicationSort sort, String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return null;
+            }
+            return new ApplicationCursor(sort.parseKey(decoded.substring(0, separator)), decoded.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    public String encode(ApplicationSort sort) {
+        String raw = sort.formatKey(value) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public int compareTo(ApplicationCursor other) {
+        if (rank != other.rank) {
+            return rank < other.rank ? -1 : 1;
+        }
+        // Equal ranks may still hide different values, e.g. amounts that
+        // differ only in cents. Keys within one index always share a type.
+        if (value != other.value) {
+            if (value == null) {
+                return -1;
+            }
+            if (other.value == null) {
+                return 1;
+            }
+            int byValue = ((Comparable) value).compareTo(other.value);
+            if (byValue != 0) {
+                return byValue;
+            }
+        }
+        if (idRank != other.idRank) {
+            return idRank < other.idRank ? -1 : 1;
+        }
+        return id.compareTo(other.id);
+    }
+
+    /**
+     * Maps a value to a {@code long} that never orders two values the
+     * opposite way from {@link Comparable#compareTo}; unset keys rank lowest.
+     */
+    static long rankOf(Comparable<?> value) {
+        if (value == null) {
+            return Long.MIN_VALUE;
+        }
+        if (value instanceof Integer number) {
+            return number;
+        }
+        if (value instanceof Double number) {
+            // IEEE 754 bit patterns order like the doubles once the
+            // negatives are flipped.
+            long bits = Double.doubleToLongBits(number);
+            return bits < 0 ? bits ^ Long.MAX_VALUE : bits;
+        }
+        if (value instanceof BigDecimal amount) {
+            // Flooring keeps the order; ties fall back to the exact value.
+            // Rescaling a value far from the long range would build a huge
+            // power of ten first, so those saturate without it.
+            int integerDigits = amount.precision() - amount.scale();
+            if (integerDigits > MAX_LONG_DIGITS) {
+                return amount.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE + 1;
+            }
+            if (integerDigits <= 0) {
+                return amount.signum() < 0 ? -1 : 0;
+            }
+            try {
+                return amount.setScale(0, RoundingMode.FLOOR).longValueExact();
+            } catch (ArithmeticException e) {
+                return amount.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE + 1;
+            }
+        }
+        if (value instanceof LocalDateTime time) {
+            return time.toEpochSecond(ZoneOffset.UTC);
+        }
+        return 0;
+    }
+
+    /**
+     * Packs the first characters of {@code id}, seven bits each, into a
+     * {@code long} that never orders two ids the opposite way from
+     * {@link String#compareTo}. Characters past ASCII all pack as the
+     * highest, leaving such ties to the full comparison.
+     */
+    static long idRankOf(String id) {
+        long rank = 0;
+        for (int i = 0; i < ID_RANK_CHARS; i++) {
+            rank = rank << 7 | (i < id.length() ? Math.min(id.charAt(i), 0x7F) : 0);
+        }
+        return rank;
+    }
+}
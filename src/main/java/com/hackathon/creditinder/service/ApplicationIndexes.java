@@ -0,0 +1,259 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.model.VoteTally;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ordered secondary indexes over every open application, one
+ * {@link ConcurrentSkipListMap} per {@link ApplicationSort}, kept up to date
+ * on each submission and vote. Pages, top-k and range reads are
+ * O(log n + k) instead of a sort of the whole store per request.
+ *
+ * A vote does not move its application itself: it marks the application
+ * dirty, queueing it the first time only, and a drainer thread re-keys every
+ * queued application in the vote-dependent indexes once per
+ * {@code drainInterval}. A vote is a map lookup and a flag read, and an
+ * application voted on many times between drains is re-keyed once, so the
+ * vote-dependent orders trail the tallies by up to an interval plus a drain.
+ * The owner is told after each such drain, since a page read between a
+ * vote and its drain shows the old order. Submissions and removals are
+ * indexed straight away. Readers may briefly see an application at both its
+ * old and new position while it moves.
+ */
+public class ApplicationIndexes implements AutoCloseable {
+
+    /** How often votes are folded into the indexes by default. */
+    public static final Duration DRAIN_INTERVAL = Duration.ofMillis(20);
+
+    private static final Logger log = LoggerFactory.getLogger(ApplicationIndexes.class);
+    private static final ApplicationSort[] SORTS = ApplicationSort.values();
+
+    private final Map<ApplicationSort, ConcurrentSkipListMap<ApplicationCursor, LoanApplication>> bySort =
+            new EnumMap<>(ApplicationSort.class);
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> dirty = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService drainer;
+    private final Runnable onDrained;
+
+    public ApplicationIndexes() {
+        this(DRAIN_INTERVAL, () -> { });
+    }
+
+    public ApplicationIndexes(Duration drainInterval) {
+        this(drainInterval, () -> { });
+    }
+
+    /**
+     * @param onDrained run after each drain that re-keyed anything, once the
+     *                  new positions are visible, e.g. to bump a version that
+     *                  cached pages are validated against
+     */
+    public ApplicationIndexes(Duration drainInterval, Runnable onDrained) {
+        this.onDrained = onDrained;
+        for (ApplicationSort sort : SORTS) {
+            bySort.put(sort, new ConcurrentSkipListMap<>());
+        }
+        drainer = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("index-drainer").daemon().factory());
+        long interval = drainInterval.toNanos();
+        drainer.scheduleWithFixedDelay(this::drainQuietly, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Indexes a new application, or re-indexes the replacement for one
+     * already indexed under the same id.
+     */
+    public void put(LoanApplication application) {
+        Entry entry = entries.computeIfAbsent(application.getId(), id -> new Entry());
+        entry.application = application;
+        refresh(entry);
+    }
+
+    /**
+     * Marks an application whose tally changed for re-keying in the
+     * vote-dependent indexes on the next drain.
+     */
+    public void onVote(LoanApplication application) {
+        Entry entry = entries.get(application.getId());
+        if (entry != null && !entry.queued && Entry.QUEUED.compareAndSet(entry, false, true)) {
+            dirty.add(entry);
+        }
+    }
+
+    /**
+     * Re-keys every application voted on since the last drain.
+     */
+    public void drain() {
+        boolean reKeyed = false;
+        for (Entry entry; (entry = dirty.poll()) != null; ) {
+            // Cleared before re-keying, so a vote from here on queues it again.
+            entry.queued = false;
+            refresh(entry);
+            reKeyed = true;
+        }
+        if (reKeyed) {
+            onDrained.run();
+        }
+    }
+
+    public void remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            entry.application = null;
+            refresh(entry);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} index entries strictly after {@code after}
+     * in the requested direction, or from the start when {@code after} is
+     * {@code null}.
+     */
+    public List<Map.Entry<ApplicationCursor, LoanApplication>> page(ApplicationSort sort, boolean descending,
+                                                                     ApplicationCursor after, int limit) {
+        NavigableMap<ApplicationCursor, LoanApplication> index = bySort.get(sort);
+        NavigableMap<ApplicationCursor, LoanApplication> ordered = descending ? index.descendingMap() : index;
+        if (after != null) {
+            ordered = ordered.tailMap(after, false);
+        }
+        List<Map.Entry<ApplicationCursor, LoanApplication>> page = new ArrayList<>(Math.min(limit, 256));
+        for (Map.Entry<ApplicationCursor, LoanApplication> entry : ordered.entrySet()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(entry);
+        }
+        return page;
+    }
+
+    /**
+     * The {@code k} applications with the highest keys, highest first.
+     */
+    public List<LoanApplication> top(ApplicationSort sort, int k) {
+        return values(page(sort, true, null, k));
+    }
+
+    /**
+     * Up to {@code limit} applications whose key lies in
+     * {@code [fromInclusive, toInclusive]}, lowest first.
+     */
+    public List<LoanApplication> range(ApplicationSort sort, Comparable<?> fromInclusive, Comparable<?> toInclusive, int limit) {
+        // Ids are never empty and "\uffff" sorts after any real id, so these
+        // bounds take in every id at the endpoint keys.
+        NavigableMap<ApplicationCursor, LoanApplication> slice = bySort.get(sort).subMap(
+                new ApplicationCursor(fromInclusive, ""), true,
+                new ApplicationCursor(toInclusive, "\uffff"), true);
+        List<LoanApplication> matches = new ArrayList<>(Math.min(limit, 256));
+        for (LoanApplication application : slice.values()) {
+            if (matches.size() == limit) {
+                break;
+            }
+            matches.add(application);
+        }
+        return matches;
+    }
+
+    @Override
+    public void close() {
+        drainer.shutdownNow();
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.warn("Could not re-key voted applications", e);
+        }
+    }
+
+    private static List<LoanApplication> values(List<Map.Entry<ApplicationCursor, LoanApplication>> entries) {
+        List<LoanApplication> applications = new ArrayList<>(entries.size());
+        for (Map.Entry<ApplicationCursor, LoanApplication> entry : entries) {
+            applications.add(entry.getValue());
+        }
+        return applications;
+    }
+
+    private void refresh(Entry entry) {
+        if (entry.pending.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            reindex(entry);
+            missed = entry.pending.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Brings one application's keys up to date. Only ever runs on the thread
+     * that won {@link #refresh}, so the entry's keys need no further locking.
+     */
+    private void reindex(Entry entry) {
+        LoanApplication application = entry.application;
+        boolean replaced = application != entry.indexed;
+        VoteTally.Counts counts = application == null ? null : application.getVoteCounts();
+        for (ApplicationSort sort : SORTS) {
+            int i = sort.ordinal();
+            ApplicationCursor previous = entry.keys[i];
+            if (!replaced && !sort.isVoteDependent()) {
+                continue;
+            }
+            ConcurrentSkipListMap<ApplicationCursor, LoanApplication> index = bySort.get(sort);
+            ApplicationCursor current = application == null ? null
+                    : new ApplicationCursor(sort.keyOf(application, counts), application.getId());
+            if (!replaced && previous != null && current != null && previous.compareTo(current) == 0) {
+                continue;
+            }
+            // Add before removing so readers never miss the application.
+            if (current != null) {
+                index.put(current, application);
+            }
+            if (previous != null && (current == null || previous.compareTo(current) != 0)) {
+                index.remove(previous);
+            }
+            entry.keys[i] = current;
+        }
+        entry.indexed = application;
+    }
+
+    private static final class Entry {
+
+        private static final VarHandle QUEUED;
+
+        static {
+            try {
+                QUEUED = MethodHandles.lookup().findVarHandle(Entry.class, "queued", boolean.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private volatile LoanApplication application;
+        private final AtomicInteger pending = new AtomicInteger();
+        /** Whether the entry waits in the dirty queue. */
+        private volatile boolean queued;
+        // Owned by the draining thread.
+        private final ApplicationCursor[] keys = new ApplicationCursor[SORTS.length];
+        private LoanApplication indexed;
+    }
+}
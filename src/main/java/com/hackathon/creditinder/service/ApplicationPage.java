@@ -0,0 +1,14 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+
+import java.util.List;
+
+/**
+ * One page of applications, newest first.
+ *
+ * @param nextCursor token for the following page, or {@code null} on the last page
+ * @param total      number of open applications across all pages
+ */
+public record ApplicationPage(List<LoanApplication> applications, String nextCursor, int total) {
+}
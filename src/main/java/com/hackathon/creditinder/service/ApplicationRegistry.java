@@ -0,0 +1,215 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory home of every open application.
+ *
+ * Each application gets a stable ordinal when it is first registered.
+ * Ordinals are dense and never reused, so per-voter bitmaps can refer to
+ * applications by ordinal. Applications are indexed by id in a
+ * {@link ConcurrentHashMap} and by ordinal in an array, and the ordinals of
+ * open applications are also kept in a dense array, so {@link #random()} is a
+ * single bounded index: O(1) and allocation-free no matter how many
+ * applications are open. Removal swaps the last element into the freed
+ * position to keep that array dense.
+ *
+ * Writers are serialised by a lock; readers never block. A writer publishes
+ * the arrays before the size, so a reader that observes a size always finds
+ * arrays large enough to hold it. A reader racing a removal may briefly see an
+ * empty slot and simply retries.
+ */
+public class ApplicationRegistry {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ConcurrentHashMap<String, Slot> byId = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile LoanApplication[] byOrdinal = new LoanApplication[INITIAL_CAPACITY];
+    private volatile int[] dense = new int[INITIAL_CAPACITY];
+    private volatile int size;
+    private volatile int ordinalLimit;
+
+    /**
+     * Adds an application, or replaces the one already registered under the
+     * same id in place, keeping its ordinal.
+     */
+    public void put(LoanApplication application) {
+        writeLock.lock();
+        try {
+            Slot existing = byId.get(application.getId());
+            if (existing != null) {
+                byOrdinal[existing.ordinal] = application;
+                existing.application = application;
+                return;
+            }
+            int ordinal = ordinalLimit;
+            LoanApplication[] applications = byOrdinal;
+            if (ordinal == applications.length) {
+                applications = grow(applications);
+                byOrdinal = applications;
+            }
+            applications[ordinal] = application;
+
+            int position = size;
+            int[] ordinals = dense;
+            if (position == ordinals.length) {
+                ordinals = grow(ordinals);
+                dense = ordinals;
+            }
+            ordinals[position] = ordinal;
+
+            byId.put(application.getId(), new Slot(application, ordinal, position));
+            ordinalLimit = ordinal + 1;
+            size = position + 1;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public LoanApplication get(String id) {
+        Slot slot = byId.get(id);
+        return slot == null ? null : slot.application;
+    }
+
+    public boolean contains(String id) {
+        return byId.containsKey(id);
+    }
+
+    /**
+     * Returns the ordinal of an open application, or {@code -1}.
+     */
+    public int ordinalOf(String id) {
+        Slot slot = byId.get(id);
+        return slot == null ? -1 : slot.ordinal;
+    }
+
+    /**
+     * Returns the application with the given ordinal, or {@code null} when it
+     * has been removed or the ordinal was never assigned.
+     */
+    public LoanApplication getByOrdinal(int ordinal) {
+        LoanApplication[] applications = byOrdinal;
+        return ordinal >= 0 && ordinal < applications.length ? applications[ordinal] : null;
+    }
+
+    /**
+     * Upper bound (exclusive) of every ordinal handed out so far.
+     */
+    public int ordinalLimit() {
+        return ordinalLimit;
+    }
+
+    /**
+     * Removes an application, moving the last element of the dense array into
+     * its position. Its ordinal is retired, not reused.
+     */
+    public LoanApplication remove(String id) {
+        writeLock.lock();
+        try {
+            Slot removed = byId.remove(id);
+            if (removed == null) {
+                return null;
+            }
+            LoanApplication[] applications = byOrdinal;
+            int[] ordinals = dense;
+            int last = size - 1;
+            if (removed.position != last) {
+                int movedOrdinal = ordinals[last];
+                ordinals[removed.position] = movedOrdinal;
+                byId.get(applications[movedOrdinal].getId()).position = removed.position;
+            }
+            applications[removed.ordinal] = null;
+            size = last;
+            return removed.application;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Picks a uniformly random application, or {@code null} when empty.
+     */
+    public LoanApplication random() {
+        for (;;) {
+            int ordinal = randomOrdinal();
+            if (ordinal < 0) {
+                return null;
+            }
+            LoanApplication candidate = byOrdinal[ordinal];
+            if (candidate != null) {
+                return candidate;
+            }
+        }
+    }
+
+    /**
+     * Picks the ordinal of a uniformly random open application, or {@code -1}
+     * when empty. Racing a removal, the ordinal may already be retired.
+     */
+    public int randomOrdinal() {
+        int n = size;
+        if (n == 0) {
+            return -1;
+        }
+        return dense[ThreadLocalRandom.current().nextInt(n)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copies the current applications into a new list.
+     */
+    public List<LoanApplication> snapshot() {
+        List<LoanApplication> copy = new ArrayList<>(size);
+        forEach(copy::add);
+        return copy;
+    }
+
+    public void forEach(Consumer<LoanApplication> action) {
+        int n = size;
+        int[] ordinals = dense;
+        LoanApplication[] applications = byOrdinal;
+        for (int i = 0; i < n && i < ordinals.length; i++) {
+            int ordinal = ordinals[i];
+            LoanApplication application = ordinal < applications.length ? applications[ordinal] : null;
+            if (application != null) {
+                action.accept(application);
+            }
+        }
+    }
+
+    private static LoanApplication[] grow(LoanApplication[] array) {
+        LoanApplication[] grown = new LoanApplication[array.length << 1];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    private static int[] grow(int[] array) {
+        int[] grown = new int[array.length << 1];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    private static final class Slot {
+        private volatile LoanApplication application;
+        private final int ordinal;
+        private int position;
+
+        private Slot(LoanApplication application, int ordinal, int position) {
+            this.application = application;
+            this.ordinal = ordinal;
+            this.position = position;
+        }
+    }
+}
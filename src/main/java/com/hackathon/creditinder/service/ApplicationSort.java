@@ -0,0 +1,111 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.model.VoteTally;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Orderings the dashboard can sort by, each backed by a maintained index in
+ * {@link ApplicationIndexes}.
+ */
+public enum ApplicationSort {
+
+    SUBMITTED_AT("submittedAt", false),
+    CREDIT_SCORE("creditScore", false),
+    LOAN_AMOUNT("loanAmount", false),
+    APPROVAL_PERCENTAGE("approvalPercentage", true),
+    TOTAL_VOTES("totalVotes", true);
+
+    private static final int MAX_AMOUNT_DIGITS = 19;
+    private static final int MAX_AMOUNT_SCALE = 19;
+
+    private final String param;
+    private final boolean voteDependent;
+
+    ApplicationSort(String param, boolean voteDependent) {
+        this.param = param;
+        this.voteDependent = voteDependent;
+    }
+
+    /**
+     * Name used in URLs, e.g. {@code ?sort=creditScore}.
+     */
+    public String param() {
+        return param;
+    }
+
+    /**
+     * Whether the sort key changes when the application receives a vote.
+     */
+    public boolean isVoteDependent() {
+        return voteDependent;
+    }
+
+    /**
+     * Looks up a sort by its URL name, or returns {@code null}.
+     */
+    public static ApplicationSort fromParam(String param) {
+        for (ApplicationSort sort : values()) {
+            if (sort.param.equals(param)) {
+                return sort;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sort key of {@code application}, or {@code null} when the field is
+     * unset. {@code counts} is one consistent read of its tallies.
+     */
+    Comparable<?> keyOf(LoanApplication application, VoteTally.Counts counts) {
+        return switch (this) {
+            case SUBMITTED_AT -> application.getSubmittedAt();
+            case CREDIT_SCORE -> application.getCreditScore();
+            case LOAN_AMOUNT -> application.getLoanAmount();
+            case APPROVAL_PERCENTAGE -> counts.approvalPercentage();
+            case TOTAL_VOTES -> counts.total();
+        };
+    }
+
+    /**
+     * Where {@code application} sits in this order, from one read of its
+     * tallies.
+     */
+    public ApplicationCursor cursorOf(LoanApplication application) {
+        return new ApplicationCursor(keyOf(application, application.getVoteCounts()), application.getId());
+    }
+
+    String formatKey(Comparable<?> key) {
+        if (key == null) {
+            return "";
+        }
+        return key instanceof BigDecimal amount ? amount.toPlainString() : key.toString();
+    }
+
+    /**
+     * Inverse of {@link #formatKey}; throws {@link IllegalArgumentException}
+     * or a {@link java.time.format.DateTimeParseException} for malformed text.
+     */
+    Comparable<?> parseKey(String text) {
+        if (text.isEmpty()) {
+            return null;
+        }
+        return switch (this) {
+            case SUBMITTED_AT -> LocalDateTime.parse(text);
+            case CREDIT_SCORE, TOTAL_VOTES -> Integer.valueOf(text);
+            case LOAN_AMOUNT -> parseAmount(text);
+            case APPROVAL_PERCENTAGE -> Double.valueOf(text);
+        };
+    }
+
+    private static BigDecimal parseAmount(String text) {
+        BigDecimal amount = new BigDecimal(text);
+        // No stored amount comes near this; a token that does was made up.
+        if (amount.precision() - amount.scale() > MAX_AMOUNT_DIGITS || amount.scale() > MAX_AMOUNT_SCALE) {
+            throw new IllegalArgumentException("Amount out of range: " + text);
+        }
+        return amount;
+    }
+}
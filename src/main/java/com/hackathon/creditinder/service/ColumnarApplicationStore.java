@@ -0,0 +1,742 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.model.VoteTally;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Compact alternative to {@link ApplicationRegistry} that keeps applications
+ * as columns rather than as objects.
+ *
+ * Numeric fields live in primitive columns: amounts as cents, the submission
+ * time as epoch milliseconds, the credit score as a {@code short}, and both
+ * vote counts packed into one {@code long}. A canonical UUID id is kept as two
+ * longs and found through an open-addressing table of ordinals, so no id
+ * {@code String} is retained; any other id falls back to a map. The loan
+ * purpose and employment status are dictionary encoded as {@code short}
+ * codes from a {@link SymbolTable} per {@link Category}, so filtering and
+ * grouping by them compares ints. The remaining text fields, and any
+ * category value the table had no room for, are appended, UTF-8 encoded and
+ * length-prefixed, to pooled 1 MiB byte chunks. A {@link LoanApplication} is only materialized when a caller asks
+ * for one, and it is a detached copy: votes go through {@link #recordVote}.
+ *
+ * Ordinals follow the same rules as the registry's: dense, stable, never
+ * reused. Columns are cut into fixed pages that are never copied once
+ * allocated, so a vote counted on a page cannot be lost to a concurrent grow.
+ * Writers are serialised by a lock; readers never block. A writer fills an
+ * application's columns before publishing its ordinal, so a reader that finds
+ * an ordinal always finds its columns. A reader racing a replacement of the
+ * same id may see a mix of old and new fields.
+ */
+public class ColumnarApplicationStore {
+
+    /**
+     * Dictionary-encoded fields.
+     */
+    public enum Category {
+        LOAN_PURPOSE,
+        EMPLOYMENT_STATUS
+    }
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Hash slots hold {@code ordinal + 1}; these two mark a free slot. */
+    private static final int EMPTY = 0;
+    private static final int TOMBSTONE = -1;
+
+    /** Text reference of a removed application. */
+    private static final long REMOVED = -1L;
+    private static final long NO_AMOUNT = Long.MIN_VALUE;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final short NO_SCORE = Short.MIN_VALUE;
+    private static final long LOW_MASK = 0xFFFF_FFFFL;
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ConcurrentHashMap<String, Integer> otherIds = new ConcurrentHashMap<>();
+    private final Map<Category, SymbolTable> symbols = new EnumMap<>(Category.class);
+
+    private volatile Page[] pages = new Page[0];
+    private volatile int[] slots = new int[INITIAL_CAPACITY];
+    private volatile int[] dense = new int[INITIAL_CAPACITY];
+    private volatile byte[][] chunks = new byte[0][];
+    private volatile int size;
+    private volatile int ordinalLimit;
+
+    // Only touched under the write lock.
+    private int usedSlots;
+    private int chunkOffset = CHUNK_SIZE;
+    private long textBytes;
+
+    public ColumnarApplicationStore() {
+        for (Category category : Category.values()) {
+            symbols.put(category, new SymbolTable());
+        }
+    }
+
+    /**
+     * Adds an application, or replaces the one already stored under the same
+     * id in place, keeping its ordinal. Amounts are rounded to the cent and the
+     * submission time truncated to the millisecond.
+     *
+     * @return the application's ordinal
+     * @throws IllegalArgumentException if the credit score does not fit a {@code short}
+     */
+    public int put(LoanApplication application) {
+        String id = application.getId();
+        boolean uuid = isCanonicalUuid(id);
+        long idHigh = uuid ? uuidHigh(id) : 0;
+        long idLow = uuid ? uuidLow(id) : 0;
+        long loanAmount = cents(application.getLoanAmount());
+        long annualIncome = cents(application.getAnnualIncome());
+        long submittedAt = millis(application.getSubmittedAt());
+        short creditScore = score(application.getCreditScore());
+        String loanPurpose = application.getLoanPurpose();
+        String employmentStatus = application.getEmploymentStatus();
+        short loanPurposeCode = (short) symbols.get(Category.LOAN_PURPOSE).encode(loanPurpose);
+        short employmentStatusCode = (short) symbols.get(Category.EMPLOYMENT_STATUS).encode(employmentStatus);
+        VoteTally.Counts counts = application.getVoteCounts();
+
+        writeLock.lock();
+        try {
+            int existing = uuid ? find(idHigh, idLow) : otherIds.getOrDefault(id, -1);
+            int ordinal = existing >= 0 ? existing : ordinalLimit;
+            Page page = pageFor(ordinal);
+            int i = ordinal & PAGE_MASK;
+            page.idHigh[i] = idHigh;
+            page.idLow[i] = idLow;
+            page.loanAmountCents[i] = loanAmount;
+            page.annualIncomeCents[i] = annualIncome;
+            page.submittedAtMillis[i] = submittedAt;
+            page.creditScore[i] = creditScore;
+            page.loanPurpose[i] = loanPurposeCode;
+            page.employmentStatus[i] = employmentStatusCode;
+            page.text[i] = appendText(uuid ? null : id, application.getApplicantName(),
+                    loanPurposeCode == SymbolTable.OTHER ? loanPurpose : null,
+                    employmentStatusCode == SymbolTable.OTHER ? employmentStatus : null,
+                    application.getAdditionalNotes());
+            LONGS.setVolatile(page.votes, i, pack(counts.approvals(), counts.rejections()));
+            if (existing >= 0) {
+                return existing;
+            }
+
+            int position = size;
+            int[] ordinals = dense;
+            if (position == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, ordinals.length << 1);
+                dense = ordinals;
+            }
+            ordinals[position] = ordinal;
+            page.position[i] = position;
+
+            if (uuid) {
+                insert(idHigh, idLow, ordinal);
+            } else {
+                otherIds.put(id, ordinal);
+            }
+            ordinalLimit = ordinal + 1;
+            size = position + 1;
+            return ordinal;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Materializes the application stored under {@code id}, or returns
+     * {@code null}.
+     */
+    public LoanApplication get(String id) {
+        return getByOrdinal(ordinalOf(id));
+    }
+
+    public boolean contains(String id) {
+        return ordinalOf(id) >= 0;
+    }
+
+    /**
+     * Returns the ordinal of a stored application, or {@code -1}.
+     */
+    public int ordinalOf(String id) {
+        if (id == null) {
+            return -1;
+        }
+        if (isCanonicalUuid(id)) {
+            return find(uuidHigh(id), uuidLow(id));
+        }
+        return otherIds.getOrDefault(id, -1);
+    }
+
+    /**
+     * Materializes the application with the given ordinal, or returns
+     * {@code null} when it has been removed or the ordinal was never assigned.
+     */
+    public LoanApplication getByOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= ordinalLimit) {
+            return null;
+        }
+        return view(pages[ordinal >>> PAGE_BITS], ordinal & PAGE_MASK);
+    }
+
+    /**
+     * Upper bound (exclusive) of every ordinal handed out so far.
+     */
+    public int ordinalLimit() {
+        return ordinalLimit;
+    }
+
+    /**
+     * Counts one vote, returning {@code false} when no application has the
+     * given ordinal.
+     */
+    public boolean recordVote(int ordinal, boolean approve) {
+        return addVotes(ordinal, approve ? 1 : 0, approve ? 0 : 1);
+    }
+
+    /**
+     * Adds several votes with a single atomic update.
+     */
+    public boolean addVotes(int ordinal, int approvals, int rejections) {
+        if (ordinal < 0 || ordinal >= ordinalLimit) {
+            return false;
+        }
+        Page page = pages[ordinal >>> PAGE_BITS];
+        int i = ordinal & PAGE_MASK;
+        if (page.text[i] == REMOVED) {
+            return false;
+        }
+        LONGS.getAndAdd(page.votes, i, pack(approvals, rejections));
+        return true;
+    }
+
+    /**
+     * Returns the application's vote counts, read together, or {@code null}
+     * when no application has the given ordinal.
+     */
+    public VoteTally.Counts votes(int ordinal) {
+        if (ordinal < 0 || ordinal >= ordinalLimit) {
+            return null;
+        }
+        Page page = pages[ordinal >>> PAGE_BITS];
+        int i = ordinal & PAGE_MASK;
+        if (page.text[i] == REMOVED) {
+            return null;
+        }
+        long packed = (long) LONGS.getVolatile(page.votes, i);
+        return new VoteTally.Counts((int) (packed >>> 32), (int) (packed & LOW_MASK));
+    }
+
+    /**
+     * Removes an application, moving the last element of the dense array into
+     * its position. Its ordinal is retired, not reused, and its text stays in
+     * its chunk.
+     *
+     * @return the removed application, or {@code null} when there was none
+     */
+    public LoanApplication remove(String id) {
+        writeLock.lock();
+        try {
+            int ordinal = ordinalOf(id);
+            if (ordinal < 0) {
+                return null;
+            }
+            Page page = pages[ordinal >>> PAGE_BITS];
+            int i = ordinal & PAGE_MASK;
+            LoanApplication removed = view(page, i);
+            if (isCanonicalUuid(id)) {
+                int[] table = slots;
+                INTS.setRelease(table, slotOf(table, page.idHigh[i], page.idLow[i]), TOMBSTONE);
+            } else {
+                otherIds.remove(id);
+            }
+
+            int[] ordinals = dense;
+            int last = size - 1;
+            int position = page.position[i];
+            if (position != last) {
+                int moved = ordinals[last];
+                ordinals[position] = moved;
+                pages[moved >>> PAGE_BITS].position[moved & PAGE_MASK] = position;
+            }
+            page.text[i] = REMOVED;
+            size = last;
+            return removed;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Materializes a uniformly random application, or returns {@code null}
+     * when empty.
+     */
+    public LoanApplication random() {
+        for (;;) {
+            int ordinal = randomOrdinal();
+            if (ordinal < 0) {
+                return null;
+            }
+            LoanApplication candidate = getByOrdinal(ordinal);
+            if (candidate != null) {
+                return candidate;
+            }
+        }
+    }
+
+    /**
+     * Picks the ordinal of a uniformly random application, or {@code -1}
+     * when empty. Racing a removal, the ordinal may already be retired.
+     */
+    public int randomOrdinal() {
+        int n = size;
+        if (n == 0) {
+            return -1;
+        }
+        return dense[ThreadLocalRandom.current().nextInt(n)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Materializes every application into a new list.
+     */
+    public List<LoanApplication> snapshot() {
+        List<LoanApplication> copy = new ArrayList<>(size);
+        forEach(copy::add);
+        return copy;
+    }
+
+    /**
+     * Materializes each application in turn.
+     */
+    public void forEach(Consumer<LoanApplication> action) {
+        int n = size;
+        int[] ordinals = dense;
+        for (int i = 0; i < n && i < ordinals.length; i++) {
+            LoanApplication application = getByOrdinal(ordinals[i]);
+            if (application != null) {
+                action.accept(application);
+            }
+        }
+    }
+
+    /**
+     * The dictionary {@code category} is encoded with.
+     */
+    public SymbolTable symbols(Category category) {
+        return symbols.get(category);
+    }
+
+    /**
+     * Counts applications whose {@code category} field equals {@code value}.
+     * A value in the dictionary is matched on its code alone; only a value it
+     * had no room for needs the text of the overflow rows.
+     */
+    public int count(Category category, String value) {
+        int code = symbols.get(category).codeOf(value);
+        int matches = 0;
+        int limit = ordinalLimit;
+        Page[] current = pages;
+        for (int ordinal = 0; ordinal < limit; ordinal++) {
+            Page page = current[ordinal >>> PAGE_BITS];
+            int i = ordinal & PAGE_MASK;
+            if (codes(page, category)[i] == code && page.text[i] != REMOVED
+                    && (code != SymbolTable.OTHER || value.equals(overflowText(page, i, category)))) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Counts applications per distinct {@code category} value, leaving out
+     * those without one. Rows are tallied by code into an array and only
+     * turned into strings once per code.
+     */
+    public Map<String, Integer> countBy(Category category) {
+        SymbolTable table = symbols.get(category);
+        int[] byCode = new int[table.capacity()];
+        Map<String, Integer> overflow = new HashMap<>();
+        int limit = ordinalLimit;
+        Page[] current = pages;
+        for (int ordinal = 0; ordinal < limit; ordinal++) {
+            Page page = current[ordinal >>> PAGE_BITS];
+            int i = ordinal & PAGE_MASK;
+            short code = codes(page, category)[i];
+            if (code >= 0) {
+                if (page.text[i] != REMOVED) {
+                    byCode[code]++;
+                }
+            } else if (code == SymbolTable.OTHER && page.text[i] != REMOVED) {
+                overflow.merge(overflowText(page, i, category), 1, Integer::sum);
+            }
+        }
+        Map<String, Integer> counts = new HashMap<>(overflow);
+        for (int code = 0; code < byCode.length; code++) {
+            if (byCode[code] > 0) {
+                counts.put(table.symbol(code), byCode[code]);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Approximate heap held by the columns, the id table and the text chunks.
+     */
+    public long estimatedBytes() {
+        writeLock.lock();
+        try {
+            long bytes = (long) pages.length * Page.BYTES
+                    + 4L * slots.length + 4L * dense.length
+                    + (long) chunks.length * 16;
+            for (byte[] chunk : chunks) {
+                bytes += chunk.length;
+            }
+            // Roughly a map node, the boxed ordinal and the id itself.
+            return bytes + otherIds.size() * 96L;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Bytes of text actually written, as opposed to chunk capacity.
+     */
+    long textBytes() {
+        return textBytes;
+    }
+
+    private LoanApplication view(Page page, int i) {
+        long ref = page.text[i];
+        if (ref == REMOVED) {
+            return null;
+        }
+        TextReader text = new TextReader(chunks[(int) (ref >>> 32)], (int) ref);
+        String otherId = text.next();
+        long submittedAt = page.submittedAtMillis[i];
+        LoanApplication application = new LoanApplication(
+                otherId != null ? otherId : new UUID(page.idHigh[i], page.idLow[i]).toString(),
+                submittedAt == NO_TIME ? null : LocalDateTime.ofEpochSecond(Math.floorDiv(submittedAt, 1_000),
+                        Math.floorMod(submittedAt, 1_000) * 1_000_000, ZoneOffset.UTC));
+        application.setApplicantName(text.next());
+        application.setLoanPurpose(decode(Category.LOAN_PURPOSE, page.loanPurpose[i], text.next()));
+        application.setEmploymentStatus(decode(Category.EMPLOYMENT_STATUS, page.employmentStatus[i], text.next()));
+        application.setAdditionalNotes(text.next());
+        application.setLoanAmount(amount(page.loanAmountCents[i]));
+        application.setAnnualIncome(amount(page.annualIncomeCents[i]));
+        short creditScore = page.creditScore[i];
+        application.setCreditScore(creditScore == NO_SCORE ? null : (int) creditScore);
+        long packed = (long) LONGS.getVolatile(page.votes, i);
+        application.addVotes((int) (packed >>> 32), (int) (packed & LOW_MASK));
+        return application;
+    }
+
+    private String decode(Category category, short code, String overflow) {
+        return code == SymbolTable.OTHER ? overflow : symbols.get(category).symbol(code);
+    }
+
+    private static short[] codes(Page page, Category category) {
+        return category == Category.LOAN_PURPOSE ? page.loanPurpose : page.employmentStatus;
+    }
+
+    /**
+     * Reads the text of a category value the dictionary had no room for.
+     */
+    private String overflowText(Page page, int i, Category category) {
+        long ref = page.text[i];
+        TextReader text = new TextReader(chunks[(int) (ref >>> 32)], (int) ref);
+        text.next();
+        text.next();
+        String loanPurpose = text.next();
+        return category == Category.LOAN_PURPOSE ? loanPurpose : text.next();
+    }
+
+    private Page pageFor(int ordinal) {
+        int index = ordinal >>> PAGE_BITS;
+        Page[] current = pages;
+        if (index < current.length) {
+            return current[index];
+        }
+        Page[] grown = Arrays.copyOf(current, index + 1);
+        grown[index] = new Page();
+        pages = grown;
+        return grown[index];
+    }
+
+    // Id table: open addressing with linear probing, kept at most half full
+    // (tombstones included) so every probe ends at an empty slot.
+
+    private int find(long idHigh, long idLow) {
+        int[] table = slots;
+        int slot = slotOf(table, idHigh, idLow);
+        return slot < 0 ? -1 : (int) INTS.getAcquire(table, slot) - 1;
+    }
+
+    private int slotOf(int[] table, long idHigh, long idLow) {
+        int mask = table.length - 1;
+        for (int i = hash(idHigh, idLow) & mask; ; i = (i + 1) & mask) {
+            int entry = (int) INTS.getAcquire(table, i);
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (entry != TOMBSTONE) {
+                int ordinal = entry - 1;
+                Page page = pages[ordinal >>> PAGE_BITS];
+                int j = ordinal & PAGE_MASK;
+                if (page.idHigh[j] == idHigh && page.idLow[j] == idLow) {
+                    return i;
+                }
+            }
+        }
+    }
+
+    private void insert(long idHigh, long idLow, int ordinal) {
+        int[] table = slots;
+        if ((usedSlots + 1) * 2 > table.length) {
+            table = rehash(table);
+        }
+        int mask = table.length - 1;
+        int i = hash(idHigh, idLow) & mask;
+        while ((int) INTS.getAcquire(table, i) > 0) {
+            i = (i + 1) & mask;
+        }
+        if ((int) INTS.getAcquire(table, i) == EMPTY) {
+            usedSlots++;
+        }
+        INTS.setRelease(table, i, ordinal + 1);
+    }
+
+    /**
+     * Copies the live entries into a new table, dropping tombstones, and
+     * publishes it. Readers still probing the old one finish there.
+     */
+    private int[] rehash(int[] old) {
+        int live = 0;
+        for (int entry : old) {
+            if (entry > 0) {
+                live++;
+            }
+        }
+        int capacity = INITIAL_CAPACITY;
+        while ((live + 1) * 4 > capacity) {
+            capacity <<= 1;
+        }
+        int[] table = new int[capacity];
+        int mask = capacity - 1;
+        for (int entry : old) {
+            if (entry > 0) {
+                int ordinal = entry - 1;
+                Page page = pages[ordinal >>> PAGE_BITS];
+                int j = ordinal & PAGE_MASK;
+                int i = hash(page.idHigh[j], page.idLow[j]) & mask;
+                while (table[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = entry;
+            }
+        }
+        usedSlots = live;
+        slots = table;
+        return table;
+    }
+
+    private static int hash(long idHigh, long idLow) {
+        long h = (idHigh ^ Long.rotateLeft(idLow, 29)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // Text: each application's strings are written back to back, each as an
+    // unsigned varint of (length + 1), 0 meaning null, then its UTF-8 bytes.
+
+    private long appendText(String... values) {
+        byte[][] encoded = new byte[values.length][];
+        int length = 0;
+        for (int v = 0; v < values.length; v++) {
+            int bytes = 0;
+            if (values[v] != null) {
+                encoded[v] = values[v].getBytes(StandardCharsets.UTF_8);
+                bytes = encoded[v].length;
+            }
+            length += varintSize(bytes + (values[v] == null ? 0 : 1)) + bytes;
+        }
+
+        byte[][] current = chunks;
+        if (current.length == 0 || length > CHUNK_SIZE - chunkOffset) {
+            // Oversized records get a chunk of their own.
+            current = Arrays.copyOf(current, current.length + 1);
+            current[current.length - 1] = new byte[Math.max(CHUNK_SIZE, length)];
+            chunks = current;
+            chunkOffset = 0;
+        }
+        int index = current.length - 1;
+        byte[] chunk = current[index];
+        int start = chunkOffset;
+        int offset = start;
+        for (byte[] value : encoded) {
+            offset = writeVarint(chunk, offset, value == null ? 0 : value.length + 1);
+            if (value != null) {
+                System.arraycopy(value, 0, chunk, offset, value.length);
+                offset += value.length;
+            }
+        }
+        chunkOffset = offset;
+        textBytes += length;
+        return ((long) index << 32) | start;
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    private static int writeVarint(byte[] chunk, int offset, int value) {
+        while ((value & ~0x7F) != 0) {
+            chunk[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        chunk[offset++] = (byte) value;
+        return offset;
+    }
+
+    private static final class TextReader {
+        private final byte[] chunk;
+        private int offset;
+
+        private TextReader(byte[] chunk, int offset) {
+            this.chunk = chunk;
+            this.offset = offset;
+        }
+
+        String next() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = chunk[offset++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            if (value == 0) {
+                return null;
+            }
+            String text = new String(chunk, offset, value - 1, StandardCharsets.UTF_8);
+            offset += value - 1;
+            return text;
+        }
+    }
+
+    // Field encodings.
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? NO_AMOUNT : amount.movePointRight(2).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+    }
+
+    private static BigDecimal amount(long cents) {
+        return cents == NO_AMOUNT ? null : BigDecimal.valueOf(cents, 2);
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time == null ? NO_TIME : time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static short score(Integer creditScore) {
+        if (creditScore == null) {
+            return NO_SCORE;
+        }
+        if (creditScore <= NO_SCORE || creditScore > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Credit score out of range: " + creditScore);
+        }
+        return creditScore.shortValue();
+    }
+
+    private static long pack(int approvals, int rejections) {
+        return ((long) approvals << 32) | (rejections & LOW_MASK);
+    }
+
+    /**
+     * Only the lowercase 8-4-4-4-12 form {@link UUID#toString()} produces,
+     * so the id can be rebuilt exactly from its two longs.
+     */
+    private static boolean isCanonicalUuid(String id) {
+        if (id == null || id.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long uuidHigh(String id) {
+        return hex(id, 0, 8) << 32 | hex(id, 9, 13) << 16 | hex(id, 14, 18);
+    }
+
+    private static long uuidLow(String id) {
+        return hex(id, 19, 23) << 48 | hex(id, 24, 36);
+    }
+
+    private static long hex(String id, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value = value << 4 | Character.digit(id.charAt(i), 16);
+        }
+        return value;
+    }
+
+    /**
+     * One page of columns, {@code PAGE_SIZE} applications wide.
+     */
+    private static final class Page {
+        static final long BYTES = (7L * Long.BYTES + 3 * Short.BYTES + Integer.BYTES) * PAGE_SIZE + 11 * 16;
+
+        final long[] idHigh = new long[PAGE_SIZE];
+        final long[] idLow = new long[PAGE_SIZE];
+        final long[] loanAmountCents = new long[PAGE_SIZE];
+        final long[] annualIncomeCents = new long[PAGE_SIZE];
+        final long[] submittedAtMillis = new long[PAGE_SIZE];
+        final long[] votes = new long[PAGE_SIZE];
+        /** Chunk index in the high half, offset in the low half, or {@link #REMOVED}. */
+        final long[] text = new long[PAGE_SIZE];
+        final short[] creditScore = new short[PAGE_SIZE];
+        /** {@link SymbolTable} codes; the text holds the value when a code is {@link SymbolTable#OTHER}. */
+        final short[] loanPurpose = new short[PAGE_SIZE];
+        final short[] employmentStatus = new short[PAGE_SIZE];
+        final int[] position = new int[PAGE_SIZE];
+    }
+}
@@ -0,0 +1,89 @@
+package com.hackathon.creditinder.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A latency histogram cheap enough to record on every vote: a striped
+ * counter per bucket plus a striped total, so threads recording at once land
+ * in different cells instead of contending on one word. Recording takes no
+ * lock, allocates nothing and reads no clock; the cells are only summed when
+ * the histogram is scraped.
+ *
+ * Buckets split each power of two from 512 ns into four, each about a fifth
+ * of its lower bound wide, up to 2^35 ns (about 34 s). Shorter times count
+ * in the first bucket; longer ones only in the total count.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int MIN_EXPONENT = 9;
+    private static final int MAX_EXPONENT = 35;
+
+    /** Finite buckets; one more past them counts everything longer. */
+    static final int BUCKETS = (MAX_EXPONENT - MIN_EXPONENT) << SUB_BUCKET_BITS;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS + 1];
+    private final LongAdder totalNanos = new LongAdder();
+
+    LatencyHistogram() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    void record(long amount, TimeUnit unit) {
+        long nanos = Math.max(0, unit.toNanos(amount));
+        counts[indexOf(nanos)].increment();
+        totalNanos.add(nanos);
+    }
+
+    /**
+     * Recordings per bucket, each including every shorter bucket, with the
+     * total count last.
+     */
+    long[] cumulativeCounts() {
+        long[] cumulative = new long[counts.length];
+        long sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            sum += counts[i].sum();
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+
+    long count() {
+        long sum = 0;
+        for (LongAdder count : counts) {
+            sum += count.sum();
+        }
+        return sum;
+    }
+
+    double totalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * The longest time, inclusive, that bucket {@code index} counts.
+     */
+    static long upperBoundNanos(int index) {
+        int exponent = MIN_EXPONENT + (index >>> SUB_BUCKET_BITS);
+        long subBucket = (index & ((1 << SUB_BUCKET_BITS) - 1)) + 1;
+        return (1L << exponent) + (subBucket << (exponent - SUB_BUCKET_BITS));
+    }
+
+    static int indexOf(long nanos) {
+        // Less one, so a time equal to a bound counts in the bucket it bounds.
+        long value = nanos - 1;
+        if (value < 1L << MIN_EXPONENT) {
+            return 0;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKETS;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+        return (exponent - MIN_EXPONENT) << SUB_BUCKET_BITS | subBucket;
+    }
+}
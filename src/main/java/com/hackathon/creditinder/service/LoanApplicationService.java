@@ -1,52 +1,697 @@
 package com.hackathon.creditinder.service;
 
+import com.hackathon.creditinder.journal.Journal;
+import com.hackathon.creditinder.journal.JournalReplayHandler;
 import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.model.VoteBatchRequest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
-public class LoanApplicationService {
+// In partitioned mode PartitionConfiguration provides a subclass instead.
+@ConditionalOnProperty(prefix = "creditinder.partition", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class LoanApplicationService implements MeterBinder, AutoCloseable {
     
-    private final Map<String, LoanApplication> applications = new ConcurrentHashMap<>();
-    private final Random random = new Random();
+    // Striped, like the tallies, so every vote bumping it does not contend on one word.
+    private final LongAdder storeVersion = new LongAdder();
+    private final ApplicationRegistry applications = new ApplicationRegistry();
+    // Drains bump the version too, so a page cached before a vote-dependent
+    // order caught up with its votes is not revalidated as current.
+    private final ApplicationIndexes indexes =
+            new ApplicationIndexes(ApplicationIndexes.DRAIN_INTERVAL, storeVersion::increment);
+    private final VoterLedger voterLedger = new VoterLedger();
+    private final SymbolTable loanPurposes = new SymbolTable();
+    private final SymbolTable employmentStatuses = new SymbolTable();
+    private final TextIndex textIndex = new TextIndex();
+    private final ApplicationAnalytics analytics = new ApplicationAnalytics(loanPurposes, employmentStatuses);
+    private final List<TallyListener> tallyListeners = new CopyOnWriteArrayList<>();
+    private final List<LocalChangeListener> localChangeListeners = new CopyOnWriteArrayList<>();
+    private final List<VoteListener> voteListeners = new CopyOnWriteArrayList<>();
+    private final Journal journal;
+    private volatile ServiceMetrics metrics = ServiceMetrics.NONE;
     
     public LoanApplicationService() {
-        // Add some sample data for demo purposes
-        createSampleApplications();
+        this(true);
+    }
+    
+    protected LoanApplicationService(boolean withSampleData) {
+        this(Journal.NONE, withSampleData);
+    }
+    
+    /**
+     * Rebuilds state from {@code journal}; sample data is only created (and
+     * journaled) when the journal is empty.
+     */
+    @Autowired
+    public LoanApplicationService(Journal journal) {
+        this(journal, true);
+    }
+    
+    protected LoanApplicationService(Journal journal, boolean withSampleData) {
+        this.journal = journal;
+        long replayed = journal.replay(new Replay());
+        if (withSampleData && replayed == 0) {
+            // Add some sample data for demo purposes
+            createSampleApplications();
+        }
+    }
+    
+    /**
+     * Registers {@code listener} to hear about every tally change from now on.
+     */
+    public void addTallyListener(TallyListener listener) {
+        tallyListeners.add(listener);
+    }
+    
+    /**
+     * Registers {@code listener} to hear about every submission and vote this
+     * node takes from now on.
+     */
+    public void addLocalChangeListener(LocalChangeListener listener) {
+        localChangeListeners.add(listener);
+    }
+    
+    /**
+     * Registers {@code listener} to hear about every vote counted here from
+     * now on, local or replicated.
+     */
+    public void addVoteListener(VoteListener listener) {
+        voteListeners.add(listener);
+    }
+    
+    /**
+     * Publishes hot-path latencies, vote outcomes and store size to
+     * {@code registry}. Spring binds the service once the registry is up;
+     * until then nothing is recorded.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("creditinder.applications", applications, ApplicationRegistry::size)
+                .description("Applications in the store")
+                .register(registry);
+        Gauge.builder("creditinder.voters", voterLedger, VoterLedger::voterCount)
+                .description("Voters who have cast at least one vote")
+                .register(registry);
+        metrics = new ServiceMetrics(registry);
+    }
+    
+    /**
+     * Stops folding votes into the ordered indexes.
+     */
+    @Override
+    public void close() {
+        indexes.close();
     }
     
     public LoanApplication submitApplication(LoanApplication application) {
-        applications.put(application.getId(), application);
-        return application;
+        long start = System.nanoTime();
+        try {
+            journal.appendSubmission(application).join();
+            register(application);
+            for (LocalChangeListener listener : localChangeListeners) {
+                listener.onSubmitted(application);
+            }
+            return application;
+        } finally {
+            metrics.submit.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    /**
+     * Submits several applications at once. Every journal record is appended
+     * before any is awaited, so the batch shares group commits instead of
+     * waiting out one per application. Applications whose record could not
+     * be written are not added; the first such failure is rethrown once the
+     * rest are in.
+     */
+    public List<LoanApplication> submitApplications(List<LoanApplication> batch) {
+        long start = System.nanoTime();
+        try {
+            CompletableFuture<?>[] appended = new CompletableFuture<?>[batch.size()];
+            for (int i = 0; i < appended.length; i++) {
+                appended[i] = journal.appendSubmission(batch.get(i));
+            }
+            RuntimeException failure = null;
+            for (int i = 0; i < appended.length; i++) {
+                try {
+                    appended[i].join();
+                } catch (RuntimeException e) {
+                    failure = failure == null ? e : failure;
+                    continue;
+                }
+                LoanApplication application = batch.get(i);
+                register(application);
+                for (LocalChangeListener listener : localChangeListeners) {
+                    listener.onSubmitted(application);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return batch;
+        } finally {
+            metrics.submitBatch.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    /**
+     * Adds an application first submitted on another node, unless one with
+     * its id is already here. It is journaled like a local submission, so
+     * votes this node takes on it replay after a restart, but local change
+     * listeners are not told. Callers must not race each other for one id.
+     *
+     * @return whether the application was added
+     */
+    public boolean applyReplicatedSubmission(LoanApplication application) {
+        if (applications.get(application.getId()) != null) {
+            return false;
+        }
+        journal.appendSubmission(application).join();
+        register(application);
+        return true;
+    }
+    
+    /**
+     * Adds votes taken on other nodes to an application's tally. They are not
+     * journaled, since the nodes that took them hand them back whenever this
+     * one reconnects, and local change listeners are not told.
+     *
+     * @return whether the application exists here
+     */
+    public boolean applyReplicatedVotes(String applicationId, int approvals, int rejections) {
+        LoanApplication application = applications.get(applicationId);
+        if (application == null) {
+            return false;
+        }
+        application.addVotes(approvals, rejections);
+        votesAdded(application, approvals, rejections);
+        tallyChanged(application);
+        return true;
+    }
+    
+    /**
+     * Counts changes to the store: every submission and every tally change
+     * bumps it once the change is visible, and so does every drain that
+     * moves voted applications in the ordered indexes. It never goes backwards, so a page
+     * rendered after reading version {@code v} is at least as new as the store
+     * was at {@code v}.
+     */
+    public long getStoreVersion() {
+        return storeVersion.sum();
     }
     
     public List<LoanApplication> getAllApplications() {
-        return new ArrayList<>(applications.values());
+        return applications.snapshot();
+    }
+    
+    /**
+     * Returns one page of applications, newest first, starting after the
+     * position encoded in {@code cursor} (or at the newest when it is
+     * {@code null} or malformed).
+     */
+    public ApplicationPage getApplicationPage(String cursor, int limit) {
+        return getApplicationPage(ApplicationSort.SUBMITTED_AT, true, cursor, limit);
+    }
+    
+    /**
+     * Returns one page of applications in {@code sort} order, starting after
+     * the position encoded in {@code cursor}. Cost depends on {@code limit},
+     * not on how many applications exist.
+     */
+    public ApplicationPage getApplicationPage(ApplicationSort sort, boolean descending, String cursor, int limit) {
+        long start = System.nanoTime();
+        try {
+            return page(sort, descending, cursor, limit);
+        } finally {
+            metrics.list.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private ApplicationPage page(ApplicationSort sort, boolean descending, String cursor, int limit) {
+        // One extra row tells us whether another page follows.
+        List<Map.Entry<ApplicationCursor, LoanApplication>> rows =
+                indexes.page(sort, descending, ApplicationCursor.decode(sort, cursor), limit + 1);
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextCursor = rows.get(limit - 1).getKey().encode(sort);
+        }
+        List<LoanApplication> page = new ArrayList<>(rows.size());
+        for (Map.Entry<ApplicationCursor, LoanApplication> row : rows) {
+            page.add(row.getValue());
+        }
+        return new ApplicationPage(page, nextCursor, applications.size());
+    }
+    
+    /**
+     * Returns one page of the applications whose purpose or notes mention any
+     * word of {@code query} and that pass {@code filter}, best match first,
+     * starting after the position encoded in {@code cursor}. The page's total
+     * counts every match. Only applications held on this node are searched.
+     */
+    public ApplicationPage searchApplications(String query, SearchFilter filter, String cursor, int limit) {
+        long start = System.nanoTime();
+        try {
+            SearchResults results = searchResults(query, filter, TextIndex.Hit.decode(cursor), limit + 1);
+            List<LoanApplication> page = results.applications();
+            String nextCursor = null;
+            if (page.size() > limit) {
+                page = page.subList(0, limit);
+                nextCursor = results.hits().get(limit - 1).encode();
+            }
+            return new ApplicationPage(page, nextCursor, results.total());
+        } finally {
+            metrics.search.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    /**
+     * Up to {@code limit} matches held on this node ranking below
+     * {@code after}, best first, with the hits they were ranked by.
+     */
+    protected SearchResults searchResults(String query, SearchFilter filter, TextIndex.Hit after, int limit) {
+        TextIndex.Filter accept = filter.compile(loanPurposes, employmentStatuses, applications::getByOrdinal);
+        TextIndex.Result result = textIndex.search(query, accept, after, limit);
+        List<LoanApplication> found = new ArrayList<>(result.hits().size());
+        List<TextIndex.Hit> hits = new ArrayList<>(result.hits().size());
+        for (TextIndex.Hit hit : result.hits()) {
+            LoanApplication application = applications.getByOrdinal(hit.ordinal());
+            if (application != null) {
+                found.add(application);
+                hits.add(hit);
+            }
+        }
+        return new SearchResults(found, hits, result.total());
+    }
+    
+    /**
+     * Counts, amounts requested and approval rates by loan purpose, credit
+     * band and employment status, read from counters kept up to date on every
+     * submission and vote, so it costs the same however many applications
+     * there are. Covers the applications held on this node.
+     */
+    public ApplicationAnalytics.Snapshot getAnalytics() {
+        return analytics.snapshot();
+    }
+    
+    /**
+     * The {@code k} applications ranking highest by {@code sort}.
+     */
+    public List<LoanApplication> getTopApplications(ApplicationSort sort, int k) {
+        return indexes.top(sort, k);
+    }
+    
+    /**
+     * Up to {@code limit} applications whose {@code sort} key lies between the
+     * bounds (inclusive), lowest first. Bounds must match the sort's key type,
+     * e.g. an {@code Integer} for {@link ApplicationSort#CREDIT_SCORE}.
+     */
+    public List<LoanApplication> getApplicationsInRange(ApplicationSort sort, Comparable<?> fromInclusive,
+                                                        Comparable<?> toInclusive, int limit) {
+        return indexes.range(sort, fromInclusive, toInclusive, limit);
     }
     
     public Optional<LoanApplication> getApplicationById(String id) {
-        return Optional.ofNullable(applications.get(id));
+        long start = System.nanoTime();
+        try {
+            return Optional.ofNullable(applications.get(id));
+        } finally {
+            metrics.detail.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
     
     public LoanApplication getRandomApplication() {
-        List<LoanApplication> allApps = getAllApplications();
-        if (allApps.isEmpty()) {
-            return null;
+        long start = System.nanoTime();
+        try {
+            return applications.random();
+        } finally {
+            metrics.swipeSelection.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    /**
+     * Picks a random application {@code voterId} has not voted on yet, or
+     * {@code null} when there is none left.
+     */
+    public LoanApplication getRandomApplication(String voterId) {
+        List<LoanApplication> picks = getRandomApplications(voterId, 1, List.of());
+        return picks.isEmpty() ? null : picks.get(0);
+    }
+
+    /**
+     * Picks up to {@code count} distinct random applications, skipping any id
+     * in {@code excludedIds} and, when {@code voterId} is not {@code null},
+     * anything that voter has already voted on. Fewer are returned when not
+     * enough applications are left to choose from.
+     */
+    public List<LoanApplication> getRandomApplications(String voterId, int count, Collection<String> excludedIds) {
+        long start = System.nanoTime();
+        try {
+            return pickRandom(voterId, count, excludedIds);
+        } finally {
+            metrics.swipeSelection.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private List<LoanApplication> pickRandom(String voterId, int count, Collection<String> excludedIds) {
+        Set<String> skip = new HashSet<>(excludedIds);
+        List<LoanApplication> picks = new ArrayList<>(Math.min(count, applications.size()));
+        // Bounded random probing keeps this O(count) while most cards are
+        // still unseen; small registries may come back short, which the swipe
+        // page treats as "nothing new yet".
+        int attempts = count * 4 + skip.size();
+        while (picks.size() < count && attempts-- > 0) {
+            int ordinal = applications.randomOrdinal();
+            if (ordinal < 0) {
+                break;
+            }
+            LoanApplication candidate = applications.getByOrdinal(ordinal);
+            if (candidate != null && !voterLedger.hasVoted(voterId, ordinal) && skip.add(candidate.getId())) {
+                picks.add(candidate);
+            }
+        }
+        if (picks.size() < count && voterId != null) {
+            pickUnvotedInOrder(voterId, count, skip, picks);
+        }
+        return picks;
+    }
+    
+    /**
+     * Fallback for voters who have seen most cards: walk the ordinals the
+     * voter has not voted on, starting from a random point and wrapping once.
+     * Cost is bounded by the voter's bitmap, not by a scan of every application.
+     */
+    private void pickUnvotedInOrder(String voterId, int count, Set<String> skip, List<LoanApplication> picks) {
+        int limit = applications.ordinalLimit();
+        if (limit == 0) {
+            return;
+        }
+        int start = ThreadLocalRandom.current().nextInt(limit);
+        int ordinal = voterLedger.nextUnvoted(voterId, start);
+        boolean wrapped = false;
+        while (picks.size() < count) {
+            if (ordinal >= limit) {
+                if (wrapped) {
+                    return;
+                }
+                wrapped = true;
+                ordinal = voterLedger.nextUnvoted(voterId, 0);
+                continue;
+            }
+            if (wrapped && ordinal >= start) {
+                return;
+            }
+            LoanApplication candidate = applications.getByOrdinal(ordinal);
+            if (candidate != null && skip.add(candidate.getId())) {
+                picks.add(candidate);
+            }
+            ordinal = voterLedger.nextUnvoted(voterId, ordinal + 1);
         }
-        return allApps.get(random.nextInt(allApps.size()));
     }
     
     public void voteOnApplication(String applicationId, boolean approve) {
-        LoanApplication application = applications.get(applicationId);
-        if (application != null) {
-            if (approve) {
-                application.addApprovalVote();
+        long start = System.nanoTime();
+        try {
+            LoanApplication application = applications.get(applicationId);
+            if (application == null) {
+                metrics.count(VoteResult.NOT_FOUND);
+                return;
+            }
+            journal.appendVote(applicationId, null, approve).join();
+            recordVote(application, approve);
+            votedLocally(application, approve ? 1 : 0, approve ? 0 : 1);
+            metrics.count(VoteResult.RECORDED);
+        } finally {
+            metrics.vote.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    /**
+     * Votes on behalf of an identified voter, who may vote on each
+     * application at most once.
+     */
+    public VoteResult voteOnApplication(String voterId, String applicationId, boolean approve) {
+        long start = System.nanoTime();
+        try {
+            VoteResult result = castVote(voterId, applicationId, approve);
+            metrics.count(result);
+            return result;
+        } finally {
+            metrics.vote.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private VoteResult castVote(String voterId, String applicationId, boolean approve) {
+        int ordinal = applications.ordinalOf(applicationId);
+        LoanApplication application = applications.getByOrdinal(ordinal);
+        if (application == null) {
+            return VoteResult.NOT_FOUND;
+        }
+        if (!voterLedger.recordVote(voterId, ordinal)) {
+            return VoteResult.DUPLICATE;
+        }
+        try {
+            journal.appendVote(applicationId, voterId, approve).join();
+        } catch (RuntimeException e) {
+            // Not durable, so not counted: let the voter try again.
+            voterLedger.forgetVote(voterId, ordinal);
+            throw e;
+        }
+        recordVote(application, approve);
+        votedLocally(application, approve ? 1 : 0, approve ? 0 : 1);
+        return VoteResult.RECORDED;
+    }
+    
+    /**
+     * Applies a batch of votes by {@code voterId}, or anonymously when it is
+     * {@code null}, and returns one result per vote in order. Every journal
+     * record is appended before any is awaited, so the batch shares group
+     * commits instead of waiting out one per vote, and votes are summed per
+     * application so each tally and index entry is updated once.
+     */
+    public List<VoteResult> voteOnApplications(String voterId, List<VoteBatchRequest.Vote> votes) {
+        long start = System.nanoTime();
+        try {
+            List<VoteResult> results = castVotes(voterId, votes);
+            for (VoteResult result : results) {
+                metrics.count(result);
+            }
+            return results;
+        } finally {
+            metrics.voteBatch.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private List<VoteResult> castVotes(String voterId, List<VoteBatchRequest.Vote> votes) {
+        int n = votes.size();
+        VoteResult[] results = new VoteResult[n];
+        int[] ordinals = new int[n];
+        CompletableFuture<?>[] appended = new CompletableFuture<?>[n];
+        for (int i = 0; i < n; i++) {
+            VoteBatchRequest.Vote vote = votes.get(i);
+            int ordinal = applications.ordinalOf(vote.applicationId());
+            if (applications.getByOrdinal(ordinal) == null) {
+                results[i] = VoteResult.NOT_FOUND;
+            } else if (voterId != null && !voterLedger.recordVote(voterId, ordinal)) {
+                results[i] = VoteResult.DUPLICATE;
             } else {
-                application.addRejectionVote();
+                ordinals[i] = ordinal;
+                appended[i] = journal.appendVote(vote.applicationId(), voterId, vote.approve());
+            }
+        }
+
+        Map<LoanApplication, int[]> tallies = new IdentityHashMap<>();
+        RuntimeException failure = null;
+        for (int i = 0; i < n; i++) {
+            if (appended[i] == null) {
+                continue;
             }
+            try {
+                appended[i].join();
+            } catch (RuntimeException e) {
+                // Not durable, so not counted: let the voter try again.
+                if (voterId != null) {
+                    voterLedger.forgetVote(voterId, ordinals[i]);
+                }
+                failure = failure == null ? e : failure;
+                continue;
+            }
+            LoanApplication application = applications.getByOrdinal(ordinals[i]);
+            if (application == null) {
+                // Withdrawn while the batch was in flight.
+                results[i] = VoteResult.NOT_FOUND;
+                continue;
+            }
+            int[] tally = tallies.computeIfAbsent(application, a -> new int[2]);
+            tally[votes.get(i).approve() ? 0 : 1]++;
+            results[i] = VoteResult.RECORDED;
+        }
+        tallies.forEach((application, tally) -> {
+            application.addVotes(tally[0], tally[1]);
+            votesAdded(application, tally[0], tally[1]);
+            tallyChanged(application);
+            votedLocally(application, tally[0], tally[1]);
+        });
+        if (failure != null) {
+            throw failure;
+        }
+        return Arrays.asList(results);
+    }
+    
+    /**
+     * Drops an application from this node's store, e.g. once it belongs to
+     * another partition. The removal is journaled first, so a restart does
+     * not bring it back.
+     *
+     * @return the application, or {@code null} when it was not here
+     */
+    protected LoanApplication removeLocally(String applicationId) {
+        if (applications.get(applicationId) == null) {
+            return null;
+        }
+        journal.appendRemoval(applicationId).join();
+        return unregister(applicationId);
+    }
+    
+    private LoanApplication unregister(String applicationId) {
+        int ordinal = applications.ordinalOf(applicationId);
+        LoanApplication removed = applications.remove(applicationId);
+        if (removed != null) {
+            indexes.remove(applicationId);
+            textIndex.remove(ordinal, removed.getLoanPurpose(), removed.getAdditionalNotes());
+            analytics.onRemoved(removed);
+            storeVersion.increment();
+        }
+        return removed;
+    }
+    
+    /**
+     * Every voter who has voted on an application held here.
+     */
+    protected List<String> votersOf(String applicationId) {
+        int ordinal = applications.ordinalOf(applicationId);
+        return ordinal < 0 ? List.of() : voterLedger.votersOf(ordinal);
+    }
+    
+    /**
+     * Adds an application handed over by another node, tally included, and
+     * remembers who has voted on it, unless one with its id is already here.
+     * Only the application is journaled; its voters are kept in memory.
+     *
+     * @return whether the application was added
+     */
+    protected boolean addHandedOff(LoanApplication application, Collection<String> voters) {
+        if (applications.get(application.getId()) != null) {
+            return false;
+        }
+        journal.appendSubmission(application).join();
+        register(application);
+        int ordinal = applications.ordinalOf(application.getId());
+        for (String voter : voters) {
+            voterLedger.recordVote(voter, ordinal);
+        }
+        return true;
+    }
+    
+    private void register(LoanApplication application) {
+        // Every application with the same purpose or status then shares one
+        // string instead of holding the copy its request was bound into, and
+        // carries its codes for the analytics and search filters.
+        application.setLoanPurpose(loanPurposes.canonical(application.getLoanPurpose()));
+        application.setEmploymentStatus(employmentStatuses.canonical(application.getEmploymentStatus()));
+        application.assignCodes(loanPurposes.codeOf(application.getLoanPurpose()),
+                employmentStatuses.codeOf(application.getEmploymentStatus()));
+        LoanApplication replaced = applications.get(application.getId());
+        application.nextVersion(replaced == null ? 0 : replaced.getVersion());
+        // Counted with the votes it carries before any more can reach it.
+        analytics.onAdded(application);
+        applications.put(application);
+        indexes.put(application);
+        int ordinal = applications.ordinalOf(application.getId());
+        if (replaced != null) {
+            textIndex.remove(ordinal, replaced.getLoanPurpose(), replaced.getAdditionalNotes());
+            analytics.onRemoved(replaced);
+        }
+        textIndex.add(ordinal, application.getLoanPurpose(), application.getAdditionalNotes(),
+                SearchFilter.attributes(application, application.loanPurposeCode(),
+                        application.employmentStatusCode()));
+        storeVersion.increment();
+    }
+    
+    private void recordVote(LoanApplication application, boolean approve) {
+        if (approve) {
+            application.addApprovalVote();
+        } else {
+            application.addRejectionVote();
+        }
+        votesAdded(application, approve ? 1 : 0, approve ? 0 : 1);
+        tallyChanged(application);
+    }
+    
+    private void votesAdded(LoanApplication application, int approvals, int rejections) {
+        analytics.onVotes(application, approvals, rejections);
+        for (VoteListener listener : voteListeners) {
+            listener.onVotes(application, approvals, rejections);
+        }
+    }
+    
+    private void tallyChanged(LoanApplication application) {
+        application.nextVersion(0);
+        storeVersion.increment();
+        indexes.onVote(application);
+        for (TallyListener listener : tallyListeners) {
+            listener.onTallyChanged(application);
+        }
+    }
+    
+    private void votedLocally(LoanApplication application, int approvals, int rejections) {
+        for (LocalChangeListener listener : localChangeListeners) {
+            listener.onVotes(application, approvals, rejections);
+        }
+    }
+    
+    /**
+     * Applies journal records straight to memory, bypassing the journal.
+     */
+    private class Replay implements JournalReplayHandler {
+        @Override
+        public void onSubmission(LoanApplication application) {
+            register(application);
+        }
+
+        @Override
+        public void onVote(String applicationId, String voterId, boolean approve) {
+            int ordinal = applications.ordinalOf(applicationId);
+            LoanApplication application = applications.getByOrdinal(ordinal);
+            if (application == null || (voterId != null && !voterLedger.recordVote(voterId, ordinal))) {
+                return;
+            }
+            recordVote(application, approve);
+        }
+
+        @Override
+        public void onPriorVote(String applicationId, String voterId) {
+            int ordinal = applications.ordinalOf(applicationId);
+            if (ordinal >= 0) {
+                voterLedger.recordVote(voterId, ordinal);
+            }
+        }
+
+        @Override
+        public void onRemoval(String applicationId) {
+            unregister(applicationId);
         }
     }
     
@@ -60,7 +705,7 @@ public class LoanApplicationService {
         app1.setCreditScore(720);
         app1.setEmploymentStatus("Full-time");
         app1.setAdditionalNotes("Looking to renovate kitchen and bathroom. Stable employment for 5 years.");
-        applications.put(app1.getId(), app1);
+        submitApplication(app1);
         
         // Sample application 2
         LoanApplication app2 = new LoanApplication();
@@ -71,7 +716,7 @@ public class LoanApplicationService {
         app2.setCreditScore(680);
         app2.setEmploymentStatus("Full-time");
         app2.setAdditionalNotes("Want to consolidate credit card debt to lower interest rate.");
-        applications.put(app2.getId(), app2);
+        submitApplication(app2);
         
         // Sample application 3
         LoanApplication app3 = new LoanApplication();
@@ -82,7 +727,7 @@ public class LoanApplicationService {
         app3.setCreditScore(750);
         app3.setEmploymentStatus("Full-time");
         app3.setAdditionalNotes("Need reliable transportation for work. Current car is 15 years old.");
-        applications.put(app3.getId(), app3);
+        submitApplication(app3);
         
         // Sample application 4
         LoanApplication app4 = new LoanApplication();
@@ -93,6 +738,6 @@ public class LoanApplicationService {
         app4.setCreditScore(650);
         app4.setEmploymentStatus("Part-time");
         app4.setAdditionalNotes("Pursuing certification program to advance career. Currently working part-time while studying.");
-        applications.put(app4.getId(), app4);
+        submitApplication(app4);
     }
 }
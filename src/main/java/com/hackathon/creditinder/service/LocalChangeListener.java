@@ -0,0 +1,16 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+
+/**
+ * Told about submissions and votes taken by this node, as opposed to ones
+ * replicated from another node or replayed from the journal. Called on the
+ * submitting or voting thread once the change is applied, so implementations
+ * must be cheap and must not block.
+ */
+public interface LocalChangeListener {
+
+    void onSubmitted(LoanApplication application);
+
+    void onVotes(LoanApplication application, int approvals, int rejections);
+}
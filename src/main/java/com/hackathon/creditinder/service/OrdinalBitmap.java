@@ -0,0 +1,238 @@
+package com.hackathon.creditinder.service;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of non-negative ints, used to remember which application
+ * ordinals a voter has already voted on.
+ *
+ * The ordinal space is cut into chunks of 65,536 values keyed by the high 16
+ * bits, roaring-bitmap style. A chunk starts as a sorted {@code char[]} of low
+ * bits (2 bytes per member) and switches to a fixed 8 KiB bitmap once that
+ * would be smaller, so a voter who has cast a handful of votes costs a few
+ * dozen bytes while even a voter who has seen everything is capped at
+ * 8 KiB per 65,536 applications.
+ *
+ * Not thread-safe; {@link VoterLedger} guards each bitmap.
+ */
+public class OrdinalBitmap {
+
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+    /** Above this many members a chunk is cheaper as a bitmap (4096 x 2 bytes = 8 KiB). */
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = (1 << CHUNK_BITS) / Long.SIZE;
+
+    private Chunk[] chunks = new Chunk[0];
+    private int cardinality;
+
+    /**
+     * Adds a value, returning {@code false} when it was already present.
+     */
+    public boolean add(int value) {
+        int key = value >>> CHUNK_BITS;
+        if (key >= chunks.length) {
+            chunks = Arrays.copyOf(chunks, key + 1);
+        }
+        Chunk chunk = chunks[key];
+        if (chunk == null) {
+            chunk = new ArrayChunk();
+            chunks[key] = chunk;
+        }
+        char low = (char) (value & CHUNK_MASK);
+        if (!chunk.add(low)) {
+            return false;
+        }
+        if (chunk instanceof ArrayChunk array && array.size > ARRAY_LIMIT) {
+            chunks[key] = array.toBitmap();
+        }
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * Removes a value, returning {@code false} when it was not present.
+     * Bitmap chunks are not converted back to arrays.
+     */
+    public boolean remove(int value) {
+        int key = value >>> CHUNK_BITS;
+        if (value < 0 || key >= chunks.length || chunks[key] == null) {
+            return false;
+        }
+        if (!chunks[key].remove((char) (value & CHUNK_MASK))) {
+            return false;
+        }
+        cardinality--;
+        return true;
+    }
+
+    public boolean contains(int value) {
+        int key = value >>> CHUNK_BITS;
+        if (value < 0 || key >= chunks.length || chunks[key] == null) {
+            return false;
+        }
+        return chunks[key].contains((char) (value & CHUNK_MASK));
+    }
+
+    /**
+     * Returns the smallest value {@code >= from} that is not in the set.
+     */
+    public int nextAbsent(int from) {
+        int value = Math.max(from, 0);
+        while (true) {
+            int key = value >>> CHUNK_BITS;
+            if (key >= chunks.length || chunks[key] == null) {
+                return value;
+            }
+            int low = chunks[key].nextAbsent(value & CHUNK_MASK);
+            if (low <= CHUNK_MASK) {
+                return (key << CHUNK_BITS) | low;
+            }
+            // Chunk is full from here on; continue with the next one.
+            value = (key + 1) << CHUNK_BITS;
+        }
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Approximate retained heap size, for footprint reporting.
+     */
+    public long estimatedBytes() {
+        long bytes = 16 + 16 + 4L * chunks.length;
+        for (Chunk chunk : chunks) {
+            if (chunk != null) {
+                bytes += chunk.estimatedBytes();
+            }
+        }
+        return bytes;
+    }
+
+    private interface Chunk {
+        boolean add(char low);
+
+        boolean remove(char low);
+
+        boolean contains(char low);
+
+        /** Smallest absent low value {@code >= from}, or 65,536 when there is none. */
+        int nextAbsent(int from);
+
+        long estimatedBytes();
+    }
+
+    private static final class ArrayChunk implements Chunk {
+        private char[] values = new char[4];
+        private int size;
+
+        @Override
+        public boolean add(char low) {
+            int index = Arrays.binarySearch(values, 0, size, low);
+            if (index >= 0) {
+                return false;
+            }
+            int insertAt = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(values.length * 2, ARRAY_LIMIT + 1));
+            }
+            System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+            values[insertAt] = low;
+            size++;
+            return true;
+        }
+
+        @Override
+        public boolean remove(char low) {
+            int index = Arrays.binarySearch(values, 0, size, low);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        @Override
+        public boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, size, low) >= 0;
+        }
+
+        @Override
+        public int nextAbsent(int from) {
+            int index = Arrays.binarySearch(values, 0, size, (char) from);
+            if (index < 0) {
+                return from;
+            }
+            int candidate = from;
+            while (index < size && values[index] == candidate) {
+                index++;
+                candidate++;
+            }
+            return candidate;
+        }
+
+        @Override
+        public long estimatedBytes() {
+            return 16 + 16 + 2L * values.length;
+        }
+
+        private BitmapChunk toBitmap() {
+            BitmapChunk bitmap = new BitmapChunk();
+            for (int i = 0; i < size; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapChunk implements Chunk {
+        private final long[] words = new long[BITMAP_WORDS];
+
+        @Override
+        public boolean add(char low) {
+            int word = low >>> 6;
+            long mask = 1L << low;
+            if ((words[word] & mask) != 0) {
+                return false;
+            }
+            words[word] |= mask;
+            return true;
+        }
+
+        @Override
+        public boolean remove(char low) {
+            int word = low >>> 6;
+            long mask = 1L << low;
+            if ((words[word] & mask) == 0) {
+                return false;
+            }
+            words[word] &= ~mask;
+            return true;
+        }
+
+        @Override
+        public boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        public int nextAbsent(int from) {
+            int word = from >>> 6;
+            long absent = ~words[word] & (-1L << from);
+            while (absent == 0) {
+                if (++word == BITMAP_WORDS) {
+                    return CHUNK_MASK + 1;
+                }
+                absent = ~words[word];
+            }
+            return (word << 6) + Long.numberOfTrailingZeros(absent);
+        }
+
+        @Override
+        public long estimatedBytes() {
+            return 16 + 16 + 8L * BITMAP_WORDS;
+        }
+    }
+}
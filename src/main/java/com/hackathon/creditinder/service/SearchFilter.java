@@ -0,0 +1,103 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+
+import java.util.function.IntFunction;
+
+/**
+ * Narrows a text search to applications with the given attributes. A
+ * {@code null} field places no restriction.
+ *
+ * The search index keeps each application's purpose and employment status
+ * codes and credit score packed into one int, so a compiled filter compares
+ * ints instead of loading every match. Values too rare to have a code are
+ * compared as strings.
+ *
+ * @param loanPurpose      exact loan purpose
+ * @param employmentStatus exact employment status
+ * @param minCreditScore   lowest credit score, inclusive
+ * @param maxCreditScore   highest credit score, inclusive
+ */
+public record SearchFilter(String loanPurpose, String employmentStatus,
+                           Integer minCreditScore, Integer maxCreditScore) {
+
+    public static final SearchFilter NONE = new SearchFilter(null, null, null, null);
+
+    // Slots hold a code + 2, leaving 0 for OTHER (or a code too large to
+    // pack) and 1 for NONE.
+    private static final int CODE_BITS = 9;
+    private static final int CODE_MASK = (1 << CODE_BITS) - 1;
+    private static final int OTHER_SLOT = 0;
+    private static final int SCORE_BITS = 10;
+    private static final int SCORE_MASK = (1 << SCORE_BITS) - 1;
+    private static final int NO_SCORE = SCORE_MASK;
+    private static final int EMPLOYMENT_SHIFT = CODE_BITS;
+    private static final int SCORE_SHIFT = 2 * CODE_BITS;
+
+    public boolean matches(LoanApplication application) {
+        if (loanPurpose != null && !loanPurpose.equals(application.getLoanPurpose())) {
+            return false;
+        }
+        if (employmentStatus != null && !employmentStatus.equals(application.getEmploymentStatus())) {
+            return false;
+        }
+        Integer score = application.getCreditScore();
+        if (minCreditScore != null && (score == null || score < minCreditScore)) {
+            return false;
+        }
+        return maxCreditScore == null || (score != null && score <= maxCreditScore);
+    }
+
+    /**
+     * Packs what a filter tests of {@code application}, given the codes of
+     * its purpose and employment status.
+     */
+    static int attributes(LoanApplication application, int loanPurposeCode, int employmentStatusCode) {
+        Integer score = application.getCreditScore();
+        int scoreSlot = score == null ? NO_SCORE : Math.max(0, Math.min(score, NO_SCORE - 1));
+        return slot(loanPurposeCode) | slot(employmentStatusCode) << EMPLOYMENT_SHIFT | scoreSlot << SCORE_SHIFT;
+    }
+
+    /**
+     * This filter as a test of packed attributes, falling back to loading the
+     * application through {@code byOrdinal} only for a value without a code.
+     */
+    TextIndex.Filter compile(SymbolTable loanPurposes, SymbolTable employmentStatuses,
+                             IntFunction<LoanApplication> byOrdinal) {
+        if (equals(NONE)) {
+            return TextIndex.Filter.ALL;
+        }
+        int purposeSlot = loanPurpose == null ? -1 : slot(loanPurposes.codeOf(loanPurpose));
+        int employmentSlot = employmentStatus == null ? -1 : slot(employmentStatuses.codeOf(employmentStatus));
+        int min = minCreditScore == null ? Integer.MIN_VALUE : minCreditScore;
+        int max = maxCreditScore == null ? Integer.MAX_VALUE : maxCreditScore;
+        boolean scored = minCreditScore != null || maxCreditScore != null;
+        boolean uncoded = purposeSlot == OTHER_SLOT || employmentSlot == OTHER_SLOT;
+        return (ordinal, attributes) -> {
+            if (purposeSlot >= 0 && (attributes & CODE_MASK) != purposeSlot) {
+                return false;
+            }
+            if (employmentSlot >= 0 && (attributes >>> EMPLOYMENT_SHIFT & CODE_MASK) != employmentSlot) {
+                return false;
+            }
+            if (scored) {
+                int score = attributes >>> SCORE_SHIFT & SCORE_MASK;
+                if (score == NO_SCORE || score < min || score > max) {
+                    return false;
+                }
+            }
+            if (uncoded) {
+                LoanApplication application = byOrdinal.apply(ordinal);
+                return application != null && matches(application);
+            }
+            return true;
+        };
+    }
+
+    private static int slot(int code) {
+        if (code == SymbolTable.NONE) {
+            return 1;
+        }
+        return code < 0 || code + 2 > CODE_MASK ? OTHER_SLOT : code + 2;
+    }
+}
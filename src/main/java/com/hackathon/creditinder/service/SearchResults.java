@@ -0,0 +1,15 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+
+import java.util.List;
+
+/**
+ * Search matches with the hits they were ranked by, for merging the results
+ * of several partitions.
+ *
+ * @param hits  one per application, in the same order, best first
+ * @param total accepted matches across all pages
+ */
+public record SearchResults(List<LoanApplication> applications, List<TextIndex.Hit> hits, int total) {
+}
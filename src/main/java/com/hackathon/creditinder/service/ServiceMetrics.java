@@ -0,0 +1,122 @@
+package com.hackathon.creditinder.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.Collector;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency timers and vote counters for the service's hot paths.
+ *
+ * Each timer is a {@link LatencyHistogram}, recorded with a couple of
+ * striped adder increments, since a Micrometer timer's percentile histogram
+ * costs more than the vote it times. On a Prometheus registry the
+ * histograms are read at scrape time into the
+ * {@code creditinder_operation_seconds} histogram, buckets included, and
+ * percentiles are left to whoever scrapes it. Any other registry sees the
+ * count and total time only.
+ */
+final class ServiceMetrics {
+
+    /** Records nothing, until the service is bound to a registry. */
+    static final ServiceMetrics NONE = new ServiceMetrics(new CompositeMeterRegistry());
+
+    private static final String TIMER = "creditinder.operation";
+    private static final String TIMER_DESCRIPTION = "Time spent in a service hot path";
+
+    final LatencyHistogram submit;
+    final LatencyHistogram submitBatch;
+    final LatencyHistogram vote;
+    final LatencyHistogram voteBatch;
+    final LatencyHistogram swipeSelection;
+    final LatencyHistogram list;
+    final LatencyHistogram detail;
+    final LatencyHistogram search;
+    final Counter votesRecorded;
+    final Counter votesDuplicate;
+    final Counter votesNotFound;
+
+    private final Map<String, LatencyHistogram> timers = new LinkedHashMap<>();
+
+    ServiceMetrics(MeterRegistry registry) {
+        submit = timer("submit");
+        submitBatch = timer("submit-batch");
+        vote = timer("vote");
+        voteBatch = timer("vote-batch");
+        swipeSelection = timer("swipe-selection");
+        list = timer("list");
+        detail = timer("detail");
+        search = timer("search");
+        if (registry instanceof PrometheusMeterRegistry prometheus) {
+            new HistogramCollector().register(prometheus.getPrometheusRegistry());
+        } else {
+            timers.forEach((operation, histogram) -> FunctionTimer.builder(TIMER, histogram,
+                            LatencyHistogram::count, LatencyHistogram::totalNanos, TimeUnit.NANOSECONDS)
+                    .description(TIMER_DESCRIPTION)
+                    .tag("operation", operation)
+                    .register(registry));
+        }
+        votesRecorded = votes(registry, VoteResult.RECORDED);
+        votesDuplicate = votes(registry, VoteResult.DUPLICATE);
+        votesNotFound = votes(registry, VoteResult.NOT_FOUND);
+    }
+
+    void count(VoteResult result) {
+        switch (result) {
+            case RECORDED -> votesRecorded.increment();
+            case DUPLICATE -> votesDuplicate.increment();
+            case NOT_FOUND -> votesNotFound.increment();
+        }
+    }
+
+    private LatencyHistogram timer(String operation) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        timers.put(operation, histogram);
+        return histogram;
+    }
+
+    private static Counter votes(MeterRegistry registry, VoteResult result) {
+        return Counter.builder("creditinder.votes")
+                .description("Votes cast, by outcome")
+                .tag("result", result.name().toLowerCase().replace('_', '-'))
+                .register(registry);
+    }
+
+    /**
+     * Every timer as one Prometheus histogram, labelled by operation.
+     */
+    private class HistogramCollector extends Collector {
+
+        private static final String NAME = "creditinder_operation_seconds";
+        private static final List<String> LABELS = List.of("operation");
+        private static final List<String> BUCKET_LABELS = List.of("operation", "le");
+
+        @Override
+        public List<MetricFamilySamples> collect() {
+            List<MetricFamilySamples.Sample> samples = new ArrayList<>();
+            timers.forEach((operation, histogram) -> {
+                long[] cumulative = histogram.cumulativeCounts();
+                for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+                    samples.add(new MetricFamilySamples.Sample(NAME + "_bucket", BUCKET_LABELS,
+                            List.of(operation, doubleToGoString(LatencyHistogram.upperBoundNanos(i) / NANOSECONDS_PER_SECOND)),
+                            cumulative[i]));
+                }
+                long count = cumulative[LatencyHistogram.BUCKETS];
+                samples.add(new MetricFamilySamples.Sample(NAME + "_bucket", BUCKET_LABELS,
+                        List.of(operation, "+Inf"), count));
+                samples.add(new MetricFamilySamples.Sample(NAME + "_count", LABELS, List.of(operation), count));
+                samples.add(new MetricFamilySamples.Sample(NAME + "_sum", LABELS, List.of(operation),
+                        histogram.totalNanos() / NANOSECONDS_PER_SECOND));
+            });
+            return List.of(new MetricFamilySamples(NAME, Type.HISTOGRAM, TIMER_DESCRIPTION, samples));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.hackathon.creditinder.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Dictionary for a low-cardinality text field such as the loan purpose.
+ *
+ * Each distinct value gets a small, dense, never reused code the first time
+ * it is encoded, and one shared {@code String} instance, so records can hold
+ * the code (or the shared instance) instead of their own copy, and equality
+ * filters and group-bys compare ints. Codes index plain arrays, which makes
+ * them cheap per-bucket keys.
+ *
+ * The form offers a fixed list, but a request can carry any text, so the
+ * table stops admitting values at {@code capacity}: later unseen values are
+ * encoded as {@link #OTHER} and left as they were, rather than letting
+ * arbitrary input grow the table without bound.
+ *
+ * Encoding a known value and decoding never block; admitting a new value takes
+ * a lock.
+ */
+public final class SymbolTable {
+
+    /** Code of a {@code null} value. */
+    public static final int NONE = -1;
+
+    /** Code of a value the table had no room left to admit. */
+    public static final int OTHER = -2;
+
+    /** Ample for a field picked from a list on the form. */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final int capacity;
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private final ReentrantLock admitLock = new ReentrantLock();
+    private volatile String[] symbols = new String[8];
+    private volatile int size;
+
+    public SymbolTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SymbolTable(int capacity) {
+        if (capacity < 1 || capacity > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacity must be between 1 and " + Short.MAX_VALUE);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the code for {@code value}, admitting it when it is new and
+     * there is room, otherwise {@link #OTHER}.
+     */
+    public int encode(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        admitLock.lock();
+        try {
+            code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            int next = size;
+            if (next == capacity) {
+                return OTHER;
+            }
+            String[] current = symbols;
+            if (next == current.length) {
+                current = Arrays.copyOf(current, Math.min(current.length << 1, capacity));
+                symbols = current;
+            }
+            current[next] = value;
+            // The symbol is in place before the code can be found.
+            size = next + 1;
+            codes.put(value, next);
+            return next;
+        } finally {
+            admitLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the code for {@code value} without admitting it: {@link #NONE}
+     * for {@code null} and {@link #OTHER} when it is not in the table.
+     */
+    public int codeOf(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        Integer code = codes.get(value);
+        return code == null ? OTHER : code;
+    }
+
+    /**
+     * Returns the value a code stands for, or {@code null} for {@link #NONE}.
+     *
+     * @throws IllegalArgumentException for {@link #OTHER} or a code never handed out
+     */
+    public String symbol(int code) {
+        if (code == NONE) {
+            return null;
+        }
+        if (code < 0 || code >= size) {
+            throw new IllegalArgumentException("Unknown symbol code " + code);
+        }
+        return symbols[code];
+    }
+
+    /**
+     * Returns the table's shared instance of {@code value}, admitting it when
+     * there is room, or {@code value} itself when there is not.
+     */
+    public String canonical(String value) {
+        int code = encode(value);
+        return code >= 0 ? symbols[code] : value;
+    }
+
+    /**
+     * Number of codes handed out, so every code lies in {@code [0, size())}.
+     */
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,13 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+
+/**
+ * Told when an application's tally changes. Called on the voting thread, so
+ * implementations must be cheap and must not block.
+ */
+@FunctionalInterface
+public interface TallyListener {
+
+    void onTallyChanged(LoanApplication application);
+}
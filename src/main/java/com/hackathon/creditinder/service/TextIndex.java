@@ -0,0 +1,501 @@
+package com.hackathon.creditinder.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Inverted index over the words of each application's loan purpose and
+ * notes, for ranked keyword search.
+ *
+ * Text is split into lower-case words, common stop words dropped and a
+ * trailing plural {@code s} stripped, so "Kitchens" finds "kitchen". Each
+ * word maps to a posting list of the application ordinals containing it,
+ * kept sorted. A posting is a single {@code int}: the ordinal in the high
+ * bits and the word's weight in that application, capped at 15, in the low
+ * four, counting each occurrence in the notes once and in the purpose twice.
+ * Ordering postings by their packed value is ordering them by ordinal.
+ *
+ * A query scores only the applications on its words' posting lists, with
+ * BM25: rarer words and applications mentioning them more, relative to their
+ * length, rank higher. It takes the lists a window of ordinals at a time,
+ * adding each word's share into a small score array and marking the slots it
+ * touched in a bitmap, then filters the marked applications and keeps the
+ * best in a heap of the page size. Each step is a plain array loop, so a
+ * query costs the length of its words' posting lists, not the size of the
+ * store. Filters are handed an int of attributes stored with each
+ * application, so they need not load it.
+ *
+ * Writers are serialised by a lock; readers never block. Appending a posting
+ * writes it before publishing the larger size, as in
+ * {@link ApplicationRegistry}. Inserting or removing one in the middle, which
+ * only happens when an application is replaced or removed, copies the list
+ * and publishes the copy before the new size. A reader racing that may miss
+ * the posting being moved.
+ */
+public class TextIndex {
+
+    private static final int WEIGHT_BITS = 4;
+    private static final int MAX_WEIGHT = (1 << WEIGHT_BITS) - 1;
+    /** Largest ordinal whose postings fit an {@code int}. */
+    static final int MAX_ORDINAL = Integer.MAX_VALUE >>> WEIGHT_BITS;
+    private static final int PURPOSE_WEIGHT = 2;
+    static final int MAX_QUERY_WORDS = 16;
+    // Ordinals scored together; their scores fit in L2.
+    private static final int WINDOW = 1 << 14;
+    private static final int MIN_WORD_LENGTH = 2;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int INITIAL_CAPACITY = 4;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have", "i", "in",
+            "is", "it", "its", "me", "my", "of", "on", "or", "so", "that", "the", "this", "to", "was", "we",
+            "were", "will", "with");
+
+    // Best first: higher score, then the newer application.
+    private static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::score)
+            .thenComparingInt(Hit::ordinal)
+            .reversed();
+
+    private final ConcurrentHashMap<String, Postings> postings = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Per ordinal: the caller's attributes in the high half, the indexed
+    // length (0 when not indexed) in the low half.
+    private volatile long[] documents = new long[INITIAL_CAPACITY];
+    private volatile int documentCount;
+    private volatile long totalLength;
+
+    /**
+     * Indexes the text of the application with the given ordinal, along with
+     * {@code attributes}, an int of the caller's choosing that search filters
+     * are handed, so they can test an application without loading it. An
+     * application already indexed must be {@linkplain #remove removed} first.
+     */
+    public void add(int ordinal, String loanPurpose, String additionalNotes, int attributes) {
+        if (ordinal < 0 || ordinal > MAX_ORDINAL) {
+            throw new IllegalArgumentException("Ordinal out of range: " + ordinal);
+        }
+        Map<String, Integer> weights = weights(loanPurpose, additionalNotes);
+        if (weights.isEmpty()) {
+            return;
+        }
+        int length = 0;
+        for (int weight : weights.values()) {
+            length += weight;
+        }
+        writeLock.lock();
+        try {
+            // In place before any posting leads a reader to it.
+            long[] byOrdinal = documents;
+            if (ordinal >= byOrdinal.length) {
+                byOrdinal = Arrays.copyOf(byOrdinal, Math.max(ordinal + 1, byOrdinal.length << 1));
+                documents = byOrdinal;
+            }
+            byOrdinal[ordinal] = (long) attributes << Integer.SIZE | length;
+            totalLength += length;
+            documentCount++;
+            for (Map.Entry<String, Integer> word : weights.entrySet()) {
+                postings.computeIfAbsent(word.getKey(), w -> new Postings())
+                        .add(ordinal << WEIGHT_BITS | word.getValue());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the postings of an application indexed with this text.
+     */
+    public void remove(int ordinal, String loanPurpose, String additionalNotes) {
+        Map<String, Integer> weights = weights(loanPurpose, additionalNotes);
+        if (weights.isEmpty() || ordinal < 0) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            long[] byOrdinal = documents;
+            int length = ordinal < byOrdinal.length ? (int) byOrdinal[ordinal] : 0;
+            if (length == 0) {
+                return;
+            }
+            for (String word : weights.keySet()) {
+                Postings list = postings.get(word);
+                if (list != null && list.remove(ordinal) && list.size == 0) {
+                    postings.remove(word);
+                }
+            }
+            totalLength -= length;
+            documentCount--;
+            // The attributes stay for a reader still walking an old list.
+            byOrdinal[ordinal] &= ~0xFFFF_FFFFL;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Distinct words indexed.
+     */
+    public int words() {
+        return postings.size();
+    }
+
+    /**
+     * Ranks the applications containing any word of {@code query} and
+     * returns up to {@code limit} of those {@code filter} accepts, best
+     * first, starting after {@code after} when it is not {@code null}.
+     */
+    public Result search(String query, Filter filter, Hit after, int limit) {
+        List<String> words = tokenize(query).stream().distinct().limit(MAX_QUERY_WORDS).toList();
+        int n = documentCount;
+        if (words.isEmpty() || n == 0 || limit <= 0) {
+            return new Result(List.of(), 0);
+        }
+        int[][] entries = new int[words.size()][];
+        int[] sizes = new int[words.size()];
+        float[] idf = new float[words.size()];
+        int lists = 0;
+        for (String word : words) {
+            Postings list = postings.get(word);
+            if (list == null) {
+                continue;
+            }
+            // Size first: the array read after it holds at least that many.
+            int size = list.size;
+            entries[lists] = list.entries;
+            sizes[lists] = size;
+            idf[lists] = (float) Math.log(1 + (n - size + 0.5) / (size + 0.5)) * (K1 + 1);
+            lists++;
+        }
+        // Read after the postings, so it holds every ordinal they lead to.
+        long[] byOrdinal = documents;
+        float averageLength = Math.max(1f, (float) totalLength / n);
+
+        // Norm of a document is a + b * length.
+        float a = K1 * (1 - B);
+        float b = K1 * B / averageLength;
+        // Newest first, so a hit tied with the worst kept one never displaces it.
+        int[] position = new int[lists];
+        for (int i = 0; i < lists; i++) {
+            position[i] = sizes[i] - 1;
+        }
+        float[] scores = new float[WINDOW];
+        long[] touched = new long[WINDOW / Long.SIZE];
+        TopHits best = new TopHits(limit);
+        int total = 0;
+        for (;;) {
+            // The window holding the highest ordinal any list is at.
+            int base = -1;
+            for (int i = 0; i < lists; i++) {
+                if (position[i] >= 0) {
+                    base = Math.max(base, entries[i][position[i]] >>> WEIGHT_BITS);
+                }
+            }
+            if (base < 0) {
+                break;
+            }
+            base &= -WINDOW;
+            // Each word's share of the score of every application it is in.
+            for (int i = 0; i < lists; i++) {
+                int[] list = entries[i];
+                int at = position[i];
+                for (; at >= 0; at--) {
+                    int ordinal = list[at] >>> WEIGHT_BITS;
+                    if (ordinal < base) {
+                        break;
+                    }
+                    int weight = list[at] & MAX_WEIGHT;
+                    int length = ordinal < byOrdinal.length ? (int) byOrdinal[ordinal] : 0;
+                    int slot = ordinal - base;
+                    scores[slot] += idf[i] * weight / (weight + a + b * length);
+                    touched[slot >>> 6] |= 1L << slot;
+                }
+                position[i] = at;
+            }
+            for (int word = touched.length - 1; word >= 0; word--) {
+                long bits = touched[word];
+                touched[word] = 0;
+                while (bits != 0) {
+                    int bit = Long.SIZE - 1 - Long.numberOfLeadingZeros(bits);
+                    bits &= ~(1L << bit);
+                    int slot = word << 6 | bit;
+                    float score = scores[slot];
+                    scores[slot] = 0;
+                    int ordinal = base + slot;
+                    long document = ordinal < byOrdinal.length ? byOrdinal[ordinal] : 0;
+                    // Removed since the lists were read.
+                    if ((int) document == 0 || !filter.accept(ordinal, (int) (document >>> Integer.SIZE))) {
+                        continue;
+                    }
+                    total++;
+                    if (after == null || after.ranksAbove(score, ordinal)) {
+                        best.offer(score, ordinal);
+                    }
+                }
+            }
+        }
+        return new Result(best.hits(), total);
+    }
+
+    /**
+     * Splits text into the words it is indexed and searched by.
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> words = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String word = stem(lower.substring(start, i));
+                if (word.length() >= MIN_WORD_LENGTH && !STOP_WORDS.contains(word)) {
+                    words.add(word);
+                }
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static String stem(String word) {
+        if (word.length() > 4 && word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    private static Map<String, Integer> weights(String loanPurpose, String additionalNotes) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String word : tokenize(loanPurpose)) {
+            weights.merge(word, PURPOSE_WEIGHT, (a, b) -> Math.min(MAX_WEIGHT, a + b));
+        }
+        for (String word : tokenize(additionalNotes)) {
+            weights.merge(word, 1, (a, b) -> Math.min(MAX_WEIGHT, a + b));
+        }
+        return weights;
+    }
+
+    /**
+     * A ranked match; also the position a page of results continues after.
+     */
+    public record Hit(int ordinal, float score) {
+
+        private static final char SEPARATOR = '|';
+
+        /**
+         * Decodes a token from {@link #encode}, or returns {@code null} when
+         * it is missing or malformed.
+         */
+        public static Hit decode(String token) {
+            if (token == null || token.isBlank()) {
+                return null;
+            }
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = decoded.indexOf(SEPARATOR);
+                if (separator < 0) {
+                    return null;
+                }
+                return new Hit(Integer.parseInt(decoded.substring(separator + 1)),
+                        Float.intBitsToFloat(Integer.parseUnsignedInt(decoded.substring(0, separator), 16)));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Whether a hit with this score and ordinal ranks below this one.
+         */
+        boolean ranksAbove(float otherScore, int otherOrdinal) {
+            return otherScore < score || (otherScore == score && otherOrdinal < ordinal);
+        }
+
+        public String encode() {
+            String raw = Integer.toHexString(Float.floatToIntBits(score)) + SEPARATOR + ordinal;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Decides whether a matching application is returned, given its ordinal
+     * and the attributes it was {@linkplain #add added} with.
+     */
+    @FunctionalInterface
+    public interface Filter {
+
+        Filter ALL = (ordinal, attributes) -> true;
+
+        boolean accept(int ordinal, int attributes);
+    }
+
+    /**
+     * @param hits  best first, at most the requested limit
+     * @param total accepted matches across all pages
+     */
+    public record Result(List<Hit> hits, int total) {
+    }
+
+    /**
+     * The best hits seen so far, in a min-heap of parallel arrays with the
+     * worst at the root, so a search allocates nothing per match.
+     */
+    private static final class TopHits {
+
+        private final float[] scores;
+        private final int[] ordinals;
+        private int size;
+
+        TopHits(int limit) {
+            scores = new float[limit];
+            ordinals = new int[limit];
+        }
+
+        void offer(float score, int ordinal) {
+            if (size < scores.length) {
+                int at = size++;
+                // Sift up while the parent ranks above the new hit.
+                while (at > 0) {
+                    int parent = (at - 1) >>> 1;
+                    if (!below(score, ordinal, scores[parent], ordinals[parent])) {
+                        break;
+                    }
+                    scores[at] = scores[parent];
+                    ordinals[at] = ordinals[parent];
+                    at = parent;
+                }
+                scores[at] = score;
+                ordinals[at] = ordinal;
+            } else if (below(scores[0], ordinals[0], score, ordinal)) {
+                siftDown(score, ordinal);
+            }
+        }
+
+        private void siftDown(float score, int ordinal) {
+            int at = 0;
+            for (;;) {
+                int child = 2 * at + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && below(scores[child + 1], ordinals[child + 1], scores[child], ordinals[child])) {
+                    child++;
+                }
+                if (!below(scores[child], ordinals[child], score, ordinal)) {
+                    break;
+                }
+                scores[at] = scores[child];
+                ordinals[at] = ordinals[child];
+                at = child;
+            }
+            scores[at] = score;
+            ordinals[at] = ordinal;
+        }
+
+        List<Hit> hits() {
+            List<Hit> hits = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                hits.add(new Hit(ordinals[i], scores[i]));
+            }
+            hits.sort(RANKING);
+            return hits;
+        }
+
+        private static boolean below(float score, int ordinal, float otherScore, int otherOrdinal) {
+            return score < otherScore || (score == otherScore && ordinal < otherOrdinal);
+        }
+    }
+
+    /**
+     * Packed postings of one word, sorted.
+     */
+    private static final class Postings {
+
+        volatile int[] entries = new int[INITIAL_CAPACITY];
+        volatile int size;
+
+        void add(int posting) {
+            int[] current = entries;
+            int n = size;
+            if (n > 0 && current[n - 1] >>> WEIGHT_BITS >= posting >>> WEIGHT_BITS) {
+                insert(current, n, posting);
+                return;
+            }
+            if (n == current.length) {
+                current = Arrays.copyOf(current, n << 1);
+                entries = current;
+            }
+            current[n] = posting;
+            size = n + 1;
+        }
+
+        /**
+         * An ordinal at or before the end, from a replaced application.
+         */
+        private void insert(int[] current, int n, int posting) {
+            int at = find(current, n, posting >>> WEIGHT_BITS);
+            if (at >= 0) {
+                current[at] = posting;
+                return;
+            }
+            at = -at - 1;
+            int[] copy = new int[n == current.length ? n << 1 : current.length];
+            System.arraycopy(current, 0, copy, 0, at);
+            copy[at] = posting;
+            System.arraycopy(current, at, copy, at + 1, n - at);
+            entries = copy;
+            size = n + 1;
+        }
+
+        boolean remove(int ordinal) {
+            int[] current = entries;
+            int n = size;
+            int at = find(current, n, ordinal);
+            if (at < 0) {
+                return false;
+            }
+            // Same length, so a reader still holding the old size can read
+            // it; the freed slot is past every ordinal.
+            int[] copy = new int[current.length];
+            System.arraycopy(current, 0, copy, 0, at);
+            System.arraycopy(current, at + 1, copy, at, n - at - 1);
+            copy[n - 1] = Integer.MAX_VALUE;
+            entries = copy;
+            size = n - 1;
+            return true;
+        }
+
+        private static int find(int[] entries, int n, int ordinal) {
+            int low = 0;
+            int high = n - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int at = entries[mid] >>> WEIGHT_BITS;
+                if (at < ordinal) {
+                    low = mid + 1;
+                } else if (at > ordinal) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
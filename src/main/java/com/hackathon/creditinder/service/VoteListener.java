@@ -0,0 +1,16 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+
+/**
+ * Told how many votes an application has just gained, whether cast here,
+ * singly or in a batch, or replicated from another node. Unlike
+ * {@link TallyListener} it hears the size of each change, not just that the
+ * tally moved. Called on the voting thread, so implementations must be cheap
+ * and must not block.
+ */
+@FunctionalInterface
+public interface VoteListener {
+
+    void onVotes(LoanApplication application, int approvals, int rejections);
+}
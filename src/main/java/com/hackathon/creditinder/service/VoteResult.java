@@ -0,0 +1,10 @@
+package com.hackathon.creditinder.service;
+
+/**
+ * Outcome of a vote cast by an identified voter.
+ */
+public enum VoteResult {
+    RECORDED,
+    DUPLICATE,
+    NOT_FOUND
+}
@@ -0,0 +1,109 @@
+package com.hackathon.creditinder.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which applications each voter has already voted on, as an
+ * {@link OrdinalBitmap} of application ordinals per voter.
+ *
+ * A voter's bitmap is only touched by that voter's own requests, so the
+ * per-bitmap monitor is effectively uncontended. Nothing blocks while holding
+ * it, so it never pins a virtual thread's carrier.
+ */
+public class VoterLedger {
+
+    private final ConcurrentHashMap<String, OrdinalBitmap> votedBy = new ConcurrentHashMap<>();
+
+    /**
+     * Records that {@code voterId} voted on {@code ordinal}. Returns
+     * {@code false} when that voter had already voted on it.
+     */
+    public boolean recordVote(String voterId, int ordinal) {
+        OrdinalBitmap voted = votedBy.computeIfAbsent(voterId, id -> new OrdinalBitmap());
+        synchronized (voted) {
+            return voted.add(ordinal);
+        }
+    }
+
+    /**
+     * Undoes {@link #recordVote} when the vote could not be persisted.
+     */
+    public void forgetVote(String voterId, int ordinal) {
+        OrdinalBitmap voted = votedBy.get(voterId);
+        if (voted != null) {
+            synchronized (voted) {
+                voted.remove(ordinal);
+            }
+        }
+    }
+
+    public boolean hasVoted(String voterId, int ordinal) {
+        OrdinalBitmap voted = voterId == null ? null : votedBy.get(voterId);
+        if (voted == null) {
+            return false;
+        }
+        synchronized (voted) {
+            return voted.contains(ordinal);
+        }
+    }
+
+    /**
+     * Returns the smallest ordinal {@code >= from} the voter has not voted on.
+     */
+    public int nextUnvoted(String voterId, int from) {
+        OrdinalBitmap voted = voterId == null ? null : votedBy.get(voterId);
+        if (voted == null) {
+            return from;
+        }
+        synchronized (voted) {
+            return voted.nextAbsent(from);
+        }
+    }
+
+    public int votesCast(String voterId) {
+        OrdinalBitmap voted = votedBy.get(voterId);
+        if (voted == null) {
+            return 0;
+        }
+        synchronized (voted) {
+            return voted.cardinality();
+        }
+    }
+
+    /**
+     * Every voter who has voted on {@code ordinal}. Walks every voter, so it
+     * is for moving an application elsewhere, not for the vote path.
+     */
+    public List<String> votersOf(int ordinal) {
+        List<String> voters = new ArrayList<>();
+        for (Map.Entry<String, OrdinalBitmap> entry : votedBy.entrySet()) {
+            OrdinalBitmap voted = entry.getValue();
+            synchronized (voted) {
+                if (voted.contains(ordinal)) {
+                    voters.add(entry.getKey());
+                }
+            }
+        }
+        return voters;
+    }
+
+    public int voterCount() {
+        return votedBy.size();
+    }
+
+    /**
+     * Approximate heap held by all voter bitmaps.
+     */
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (OrdinalBitmap voted : votedBy.values()) {
+            synchronized (voted) {
+                bytes += voted.estimatedBytes();
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,24 @@
+package com.hackathon.creditinder.trending;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The applications taking the most votes over a short and a long window.
+ */
+public interface Trending {
+
+    /**
+     * The most voted applications over the short window, most votes first.
+     */
+    List<TrendingTracker.Trend> shortTrending();
+
+    /**
+     * The most voted applications over the long window, most votes first.
+     */
+    List<TrendingTracker.Trend> longTrending();
+
+    Duration shortWindow();
+
+    Duration longWindow();
+}
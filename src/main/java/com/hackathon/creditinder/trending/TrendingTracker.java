@@ -0,0 +1,373 @@
+package com.hackathon.creditinder.trending;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.service.VoteListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * The applications taking the most votes over a short and a long sliding
+ * window, five minutes and an hour by default.
+ *
+ * Each application voted on recently has a ring of per-step vote counts
+ * spanning the long window, one slot per {@code resolution}. A slot packs
+ * the step it counts with its count, so a slot left over from a step that
+ * has since wrapped round is recognised as stale instead of cleared ahead of
+ * time. A vote is a map lookup, a read of the current step and a
+ * compare-and-set on the ring's current count; it marks its application
+ * dirty the first time only. Memory per application is its ring, whatever
+ * its vote rate, and at most {@code maxTracked} applications are followed;
+ * votes for others are counted as dropped until an idle one is evicted.
+ *
+ * Ranking happens on a refresher thread, once per {@code refreshInterval}.
+ * It re-counts only the applications that were voted on since the last
+ * refresh, plus, when a step ends, those whose votes in the step now falling
+ * out of either window made them move down. Both are looked up, not found by
+ * scanning: the refresher remembers which applications were voted on in each
+ * step. Each window's ranking is a sorted set of every application with
+ * votes in it, so its top entries are read off the front. Applications with
+ * no votes left in the long window are evicted.
+ *
+ * Rankings are up to a refresh interval behind the votes, and windows move
+ * in whole steps, so the short window covers between its length less one
+ * step and its length. A vote racing the eviction of its application's idle
+ * ring may go uncounted.
+ */
+public class TrendingTracker implements Trending, VoteListener, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingTracker.class);
+
+    private static final Comparator<Ring> BY_SHORT = Comparator.<Ring>comparingLong(r -> -r.rankedShort)
+            .thenComparing(r -> r.applicationId);
+    private static final Comparator<Ring> BY_LONG = Comparator.<Ring>comparingLong(r -> -r.rankedLong)
+            .thenComparing(r -> r.applicationId);
+
+    private final ConcurrentHashMap<String, Ring> rings = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Ring> dirty = new ConcurrentLinkedQueue<>();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    private final Duration shortWindow;
+    private final Duration longWindow;
+    private final int top;
+    private final int maxTracked;
+    private final long resolutionNanos;
+    private final int shortSteps;
+    private final int steps;
+    private final LongSupplier clock;
+    private final long origin;
+    private final ScheduledExecutorService refresher;
+
+    /** Step votes are counted in; advanced by the refresher. */
+    private volatile long step;
+    private volatile List<Trend> shortTrending = List.of();
+    private volatile List<Trend> longTrending = List.of();
+
+    // Refresher thread only.
+    private final TreeSet<Ring> shortRanking = new TreeSet<>(BY_SHORT);
+    private final TreeSet<Ring> longRanking = new TreeSet<>(BY_LONG);
+    private final List<List<Ring>> votedIn;
+    private final long[] votedInStep;
+
+    public TrendingTracker(Duration shortWindow, Duration longWindow, Duration resolution, int top, int maxTracked,
+                           Duration refreshInterval) {
+        this(shortWindow, longWindow, resolution, top, maxTracked, System::nanoTime);
+        long interval = refreshInterval.toNanos();
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * A tracker on {@code clock} that refreshes only when {@link #refresh()}
+     * is called.
+     */
+    TrendingTracker(Duration shortWindow, Duration longWindow, Duration resolution, int top, int maxTracked,
+                    LongSupplier clock) {
+        if (shortWindow.compareTo(longWindow) > 0 || resolution.compareTo(shortWindow) > 0) {
+            throw new IllegalArgumentException("Expected resolution <= short window <= long window");
+        }
+        this.shortWindow = shortWindow;
+        this.longWindow = longWindow;
+        this.top = top;
+        this.maxTracked = maxTracked;
+        this.resolutionNanos = resolution.toNanos();
+        this.shortSteps = (int) Math.ceilDiv(shortWindow.toNanos(), resolutionNanos);
+        this.steps = (int) Math.ceilDiv(longWindow.toNanos(), resolutionNanos);
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        this.votedIn = new ArrayList<>(steps);
+        for (int i = 0; i < steps; i++) {
+            votedIn.add(new ArrayList<>());
+        }
+        this.votedInStep = new long[steps];
+        this.refresher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("trending-refresher").daemon().factory());
+    }
+
+    @Override
+    public void onVotes(LoanApplication application, int approvals, int rejections) {
+        int votes = approvals + rejections;
+        if (votes <= 0) {
+            return;
+        }
+        Ring ring = rings.get(application.getId());
+        if (ring == null) {
+            if (rings.size() >= maxTracked) {
+                dropped.add(votes);
+                return;
+            }
+            ring = rings.computeIfAbsent(application.getId(), id -> new Ring(id, steps));
+        }
+        ring.add(step, votes);
+        if (!ring.queued) {
+            ring.queued = true;
+            dirty.add(ring);
+        }
+    }
+
+    @Override
+    public List<Trend> shortTrending() {
+        return shortTrending;
+    }
+
+    @Override
+    public List<Trend> longTrending() {
+        return longTrending;
+    }
+
+    @Override
+    public Duration shortWindow() {
+        return shortWindow;
+    }
+
+    @Override
+    public Duration longWindow() {
+        return longWindow;
+    }
+
+    /**
+     * How many applications each ranking holds at most.
+     */
+    public int top() {
+        return top;
+    }
+
+    /**
+     * Applications currently followed.
+     */
+    public int tracked() {
+        return rings.size();
+    }
+
+    public Stats stats() {
+        return new Stats(rings.size(), dropped.sum(), evicted.sum());
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Moves to the current step and re-ranks every application whose counts
+     * changed since the last refresh, then publishes both top lists.
+     */
+    void refresh() {
+        long now = Math.max(step, (clock.getAsLong() - origin) / resolutionNanos);
+        List<Ring> changed = new ArrayList<>();
+        if (now - step >= steps) {
+            // Not refreshed for a whole long window: every vote listed has expired.
+            for (List<Ring> list : votedIn) {
+                changed.addAll(list);
+                list.clear();
+            }
+        } else {
+            for (long s = step + 1; s <= now; s++) {
+                // Votes from step s - shortSteps have just left the short window;
+                // those from s - steps, whose list s reuses, have left the long one.
+                collectVotedIn(s - shortSteps, changed);
+                collectVotedIn(s - steps, changed);
+                votedIn.get(slot(s)).clear();
+            }
+        }
+        step = now;
+        for (Ring ring; (ring = dirty.poll()) != null; ) {
+            // Cleared before counting, so a vote from here on queues it again.
+            ring.queued = false;
+            changed.add(ring);
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        for (Ring ring : changed) {
+            rerank(ring, now);
+        }
+        shortTrending = top(shortRanking, true);
+        longTrending = top(longRanking, false);
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh trending applications", e);
+        }
+    }
+
+    private void collectVotedIn(long s, List<Ring> into) {
+        if (s >= 0 && votedInStep[slot(s)] == s) {
+            into.addAll(votedIn.get(slot(s)));
+        }
+    }
+
+    private void rerank(Ring ring, long now) {
+        if (ring.evicted) {
+            return;
+        }
+        long shortCount = 0;
+        long longCount = 0;
+        for (int i = 0; i <= steps; i++) {
+            long packed = i < steps ? ring.slots.get(i) : ring.head;
+            long age = now - (packed >>> 32);
+            long count = packed & 0xFFFF_FFFFL;
+            if (count == 0 || age < 0 || age >= steps) {
+                continue;
+            }
+            longCount += count;
+            if (age < shortSteps) {
+                shortCount += count;
+            }
+            long s = packed >>> 32;
+            if (s > ring.listedThrough) {
+                listVotedIn(ring, s);
+            }
+        }
+        if (shortCount != ring.rankedShort) {
+            if (ring.rankedShort > 0) {
+                shortRanking.remove(ring);
+            }
+            ring.rankedShort = shortCount;
+            if (shortCount > 0) {
+                shortRanking.add(ring);
+            }
+        }
+        if (longCount != ring.rankedLong) {
+            if (ring.rankedLong > 0) {
+                longRanking.remove(ring);
+            }
+            ring.rankedLong = longCount;
+            if (longCount > 0) {
+                longRanking.add(ring);
+            }
+        }
+        if (longCount == 0 && rings.remove(ring.applicationId, ring)) {
+            ring.evicted = true;
+            evicted.increment();
+        }
+    }
+
+    private void listVotedIn(Ring ring, long s) {
+        int slot = slot(s);
+        if (votedInStep[slot] != s) {
+            votedIn.get(slot).clear();
+            votedInStep[slot] = s;
+        }
+        votedIn.get(slot).add(ring);
+        ring.listedThrough = Math.max(ring.listedThrough, s);
+    }
+
+    private List<Trend> top(TreeSet<Ring> ranking, boolean shortWindow) {
+        List<Trend> trends = new ArrayList<>(Math.min(top, ranking.size()));
+        Iterator<Ring> it = ranking.iterator();
+        while (it.hasNext() && trends.size() < top) {
+            Ring ring = it.next();
+            trends.add(new Trend(ring.applicationId, shortWindow ? ring.rankedShort : ring.rankedLong));
+        }
+        return List.copyOf(trends);
+    }
+
+    private int slot(long s) {
+        return (int) (s % steps);
+    }
+
+    /**
+     * One application's vote counts per step over the long window. The
+     * current step is counted in {@code head}, next to the other fields, so a
+     * vote touches no other memory; the first vote of a new step moves the
+     * finished one into {@code slots}.
+     */
+    private static final class Ring {
+
+        private static final VarHandle HEAD;
+
+        static {
+            try {
+                HEAD = MethodHandles.lookup().findVarHandle(Ring.class, "head", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        final String applicationId;
+        /** Earlier steps, each packed like {@code head}, at the step modulo their length. */
+        final AtomicLongArray slots;
+        /** Latest step in the high 32 bits, votes in that step in the low 32. */
+        volatile long head;
+        volatile boolean queued;
+
+        // Refresher thread only.
+        long rankedShort;
+        long rankedLong;
+        long listedThrough = -1;
+        boolean evicted;
+
+        Ring(String applicationId, int steps) {
+            this.applicationId = applicationId;
+            this.slots = new AtomicLongArray(steps);
+        }
+
+        void add(long step, int votes) {
+            for (;;) {
+                long current = head;
+                long currentStep = current >>> 32;
+                if (currentStep >= step) {
+                    // A vote that read the step just before the refresher
+                    // moved on is counted in the newer one.
+                    if (HEAD.compareAndSet(this, current, current + votes)) {
+                        return;
+                    }
+                } else if (HEAD.compareAndSet(this, current, step << 32 | votes)) {
+                    slots.set((int) (currentStep % slots.length()), current);
+                    return;
+                }
+            }
+        }
+    }
+
+    public record Trend(String applicationId, long votes) {
+    }
+
+    /**
+     * Applications followed, votes not counted because {@code maxTracked}
+     * applications were already followed, and applications evicted after
+     * going a whole long window without a vote.
+     */
+    public record Stats(int tracked, long dropped, long evicted) {
+    }
+}
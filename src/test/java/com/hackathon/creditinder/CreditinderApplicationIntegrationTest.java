@@ -1,30 +1,51 @@
 package com.hackathon.creditinder;
 
 import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.model.SwipeResponse;
+import com.hackathon.creditinder.model.VoteBatchResponse;
 import com.hackathon.creditinder.service.LoanApplicationService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+// Each run starts from the sample data rather than a previous run's journal.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "creditinder.journal.enabled=false")
+@AutoConfigureObservability(tracing = false)
 @DisplayName("Creditinder Application Integration Tests")
 class CreditinderApplicationIntegrationTest {
 
     @LocalServerPort
     private int port;
 
+    @LocalManagementPort
+    private int managementPort;
+
     @Autowired
     private TestRestTemplate restTemplate;
 
@@ -87,7 +108,7 @@ class CreditinderApplicationIntegrationTest {
 
     @Test
     @DisplayName("Should submit loan application successfully via HTTP")
-    void shouldSubmitLoanApplicationSuccessfullyViaHttp() {
+    void shouldSubmitLoanApplicationSuccessfullyViaHttp() throws InterruptedException {
         int initialCount = loanApplicationService.getAllApplications().size();
 
         MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
@@ -106,7 +127,11 @@ class CreditinderApplicationIntegrationTest {
         assertEquals(HttpStatus.FOUND, response.getStatusCode());
         assertTrue(response.getHeaders().getLocation().toString().contains("/"));
 
-        // Verify application was actually saved
+        // Verify application was actually saved, once the intake queue has written it
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (loanApplicationService.getAllApplications().size() == initialCount && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
         assertEquals(initialCount + 1, loanApplicationService.getAllApplications().size());
         
         // Find the submitted application
@@ -159,6 +184,99 @@ class CreditinderApplicationIntegrationTest {
         assertEquals(100.0, updated.getApprovalPercentage());
     }
 
+    @Test
+    @DisplayName("Should vote and fetch next cards through the swipe API")
+    void shouldVoteAndFetchNextCardsThroughSwipeApi() {
+        LoanApplication testApp = new LoanApplication();
+        testApp.setApplicantName("Swipe API User");
+        testApp.setLoanAmount(new BigDecimal("12000.00"));
+        testApp.setLoanPurpose("Education");
+        testApp.setAnnualIncome(new BigDecimal("40000.00"));
+        testApp.setCreditScore(690);
+        testApp.setEmploymentStatus("Part-time");
+        String applicationId = loanApplicationService.submitApplication(testApp).getId();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        String body = "{\"applicationId\":\"" + applicationId + "\",\"approve\":false,\"count\":3}";
+
+        ResponseEntity<SwipeResponse> response = restTemplate.postForEntity(
+                "http://localhost:" + port + "/api/swipe", new HttpEntity<>(body, headers), SwipeResponse.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertFalse(response.getBody().cards().isEmpty());
+        assertTrue(response.getBody().cards().size() <= 3);
+        assertEquals(1, loanApplicationService.getApplicationById(applicationId).orElseThrow().getRejectionVotes());
+    }
+
+    @Test
+    @DisplayName("Should apply a batch of votes through the vote batch API")
+    void shouldApplyVoteBatchThroughApi() {
+        LoanApplication testApp = new LoanApplication();
+        testApp.setApplicantName("Batch API User");
+        testApp.setLoanAmount(new BigDecimal("8000.00"));
+        testApp.setLoanPurpose("Car");
+        testApp.setAnnualIncome(new BigDecimal("52000.00"));
+        testApp.setCreditScore(710);
+        testApp.setEmploymentStatus("Full-time");
+        String applicationId = loanApplicationService.submitApplication(testApp).getId();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        String body = "{\"votes\":[{\"applicationId\":\"" + applicationId + "\",\"approve\":true},"
+                + "{\"applicationId\":\"" + applicationId + "\",\"approve\":false},"
+                + "{\"applicationId\":\"missing\",\"approve\":true}]}";
+
+        ResponseEntity<VoteBatchResponse> response = restTemplate.postForEntity(
+                "http://localhost:" + port + "/api/votes", new HttpEntity<>(body, headers), VoteBatchResponse.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of("recorded", "recorded", "not-found"), response.getBody().results());
+        LoanApplication updated = loanApplicationService.getApplicationById(applicationId).orElseThrow();
+        assertEquals(1, updated.getApprovalVotes());
+        assertEquals(1, updated.getRejectionVotes());
+    }
+
+    @Test
+    @DisplayName("Should push live tally changes over Server-Sent Events")
+    void shouldPushLiveTallyChanges() throws IOException {
+        LoanApplication testApp = new LoanApplication();
+        testApp.setApplicantName("Live Tally User");
+        testApp.setLoanAmount(new BigDecimal("9000.00"));
+        testApp.setLoanPurpose("Travel");
+        testApp.setAnnualIncome(new BigDecimal("48000.00"));
+        testApp.setCreditScore(705);
+        testApp.setEmploymentStatus("Full-time");
+        String applicationId = loanApplicationService.submitApplication(testApp).getId();
+
+        HttpURLConnection connection = (HttpURLConnection) URI.create(
+                "http://localhost:" + port + "/api/applications/" + applicationId + "/tally").toURL().openConnection();
+        connection.setReadTimeout(5_000);
+        try (BufferedReader events = new BufferedReader(
+                new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            assertTrue(connection.getContentType().startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+            assertTrue(nextData(events).contains("\"totalVotes\":0"));
+
+            loanApplicationService.voteOnApplication(applicationId, true);
+
+            String update = nextData(events);
+            assertTrue(update.contains("\"id\":\"" + applicationId + "\""));
+            assertTrue(update.contains("\"approvalVotes\":1"));
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static String nextData(BufferedReader events) throws IOException {
+        for (String line = events.readLine(); line != null; line = events.readLine()) {
+            if (line.startsWith("data:")) {
+                return line;
+            }
+        }
+        throw new EOFException("stream ended");
+    }
+
     @Test
     @DisplayName("Should handle form validation errors properly")
     void shouldHandleFormValidationErrorsProperly() {
@@ -317,4 +435,20 @@ class CreditinderApplicationIntegrationTest {
         assertEquals(2, updated.getRejectionVotes()); // 1, 3 are odd (reject)
         assertEquals(60.0, updated.getApprovalPercentage());
     }
+
+    @Test
+    @DisplayName("Should publish latency histograms and store gauges on the management port")
+    void shouldPublishMetricsOnManagementPort() {
+        restTemplate.getForEntity("http://localhost:" + port + "/applications", String.class);
+
+        ResponseEntity<String> scrape = restTemplate.getForEntity(
+                "http://localhost:" + managementPort + "/internal/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, scrape.getStatusCode());
+        assertTrue(scrape.getBody().contains("creditinder_operation_seconds_bucket{operation=\"list\""));
+        assertTrue(scrape.getBody().contains("creditinder_applications"));
+        assertTrue(scrape.getBody().contains("creditinder_votes_total"));
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity(
+                "http://localhost:" + port + "/internal/prometheus", String.class).getStatusCode());
+    }
 }
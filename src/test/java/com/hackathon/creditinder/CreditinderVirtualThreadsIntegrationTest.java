@@ -0,0 +1,81 @@
+package com.hackathon.creditinder;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.service.LoanApplicationService;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"creditinder.journal.enabled=false", "spring.threads.virtual.enabled=true"})
+@DisplayName("Creditinder Virtual Threads Integration Tests")
+class CreditinderVirtualThreadsIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private LoanApplicationService loanApplicationService;
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Test
+    @DisplayName("Should hand requests to virtual threads")
+    void shouldHandRequestsToVirtualThreads() {
+        TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+
+        assertInstanceOf(VirtualThreadExecutor.class,
+                webServer.getTomcat().getConnector().getProtocolHandler().getExecutor());
+    }
+
+    @Test
+    @DisplayName("Should record every vote from concurrent clients")
+    void shouldServeConcurrentVotes() throws Exception {
+        LoanApplication application = new LoanApplication();
+        loanApplicationService.submitApplication(application);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("applicationId", application.getId());
+        form.add("approve", "true");
+        HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(form, headers);
+
+        List<Future<ResponseEntity<String>>> responses = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 300; i++) {
+                responses.add(clients.submit(() ->
+                        restTemplate.postForEntity("http://localhost:" + port + "/vote", request, String.class)));
+            }
+            for (Future<ResponseEntity<String>> response : responses) {
+                assertEquals(HttpStatus.OK, response.get().getStatusCode());
+            }
+        }
+
+        assertEquals(300, application.getApprovalVotes());
+    }
+}
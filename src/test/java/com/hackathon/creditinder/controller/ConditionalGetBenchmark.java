@@ -0,0 +1,92 @@
+package com.hackathon.creditinder.controller;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.service.LoanApplicationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * What a client polling the dashboard and a details page costs when nothing
+ * has changed: a full render against a 304 revalidated by ETag, one client
+ * polling back to back. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"creditinder.journal.enabled=false", "logging.level.com.hackathon.creditinder=INFO"})
+@DisplayName("Conditional GET Benchmark")
+class ConditionalGetBenchmark {
+
+    private static final Duration RUN_TIME = Duration.ofSeconds(3);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private LoanApplicationService loanApplicationService;
+
+    @Test
+    @DisplayName("Polling an idle store with and without revalidation")
+    void pollingIdleStore() throws Exception {
+        String id = null;
+        for (int i = 0; i < 1_000; i++) {
+            LoanApplication application = new LoanApplication();
+            application.setApplicantName("Seeded Applicant " + i);
+            application.setLoanAmount(BigDecimal.valueOf(5_000 + i));
+            application.setLoanPurpose("Education");
+            application.setAnnualIncome(BigDecimal.valueOf(60_000));
+            application.setCreditScore(600 + i % 250);
+            application.setEmploymentStatus("Full-time");
+            application.setAdditionalNotes("Seeded for the conditional GET benchmark.");
+            id = loanApplicationService.submitApplication(application).getId();
+        }
+
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            System.out.printf("%-22s %12s %12s %10s %12s%n", "page", "200 req/s", "304 req/s", "speedup", "body bytes");
+            for (String path : new String[] {"/applications", "/application/" + id}) {
+                URI uri = URI.create("http://localhost:" + port + path);
+                HttpResponse<byte[]> first = client.send(HttpRequest.newBuilder(uri).build(),
+                        HttpResponse.BodyHandlers.ofByteArray());
+                String etag = first.headers().firstValue("ETag").orElseThrow();
+
+                HttpRequest full = HttpRequest.newBuilder(uri).build();
+                HttpRequest revalidate = HttpRequest.newBuilder(uri).header("If-None-Match", etag).build();
+                double rendered = poll(client, full, 200);
+                double notModified = poll(client, revalidate, 304);
+
+                System.out.printf("%-22s %,12.0f %,12.0f %9.1fx %,12d%n", path.startsWith("/application/")
+                        ? "/application/{id}" : path, rendered, notModified, notModified / rendered, first.body().length);
+                assertTrue(notModified > rendered);
+            }
+        }
+    }
+
+    private static double poll(HttpClient client, HttpRequest request, int expectedStatus)
+            throws IOException, InterruptedException {
+        // Warm up the JIT and the template cache first.
+        for (int i = 0; i < 500; i++) {
+            assertEquals(expectedStatus, client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+        }
+        long requests = 0;
+        long start = System.nanoTime();
+        long end = start + RUN_TIME.toNanos();
+        while (System.nanoTime() < end) {
+            assertEquals(expectedStatus, client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+            requests++;
+        }
+        return requests / ((System.nanoTime() - start) / 1e9);
+    }
+}
@@ -1,21 +1,47 @@
 package com.hackathon.creditinder.controller;
 
+import com.hackathon.creditinder.idempotency.IdempotencyCache;
+import com.hackathon.creditinder.intake.SubmissionPipeline;
+import com.hackathon.creditinder.live.TallyBroadcaster;
 import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.model.SwipeCard;
+import com.hackathon.creditinder.model.VoteBatchRequest;
+import com.hackathon.creditinder.ratelimit.ClientRateLimiter;
+import com.hackathon.creditinder.service.ApplicationAnalytics;
+import com.hackathon.creditinder.service.ApplicationPage;
+import com.hackathon.creditinder.service.ApplicationSort;
 import com.hackathon.creditinder.service.LoanApplicationService;
+import com.hackathon.creditinder.service.SearchFilter;
+import com.hackathon.creditinder.service.VoteResult;
+import com.hackathon.creditinder.trending.TrendingTracker;
+import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -31,9 +57,31 @@ class CreditinderControllerTest {
     @MockBean
     private LoanApplicationService loanApplicationService;
 
+    @MockBean
+    private TallyBroadcaster tallyBroadcaster;
+
+    @MockBean
+    private SubmissionPipeline submissionPipeline;
+
+    // Answers 0, letting every request through, unless stubbed.
+    @MockBean
+    private ClientRateLimiter clientRateLimiter;
+
+    @MockBean
+    private TrendingTracker trendingTracker;
+
     private LoanApplication testApplication;
     private List<LoanApplication> testApplications;
 
+    @TestConfiguration
+    static class IdempotencyConfig {
+
+        @Bean
+        IdempotencyCache idempotencyCache() {
+            return new IdempotencyCache(100, Duration.ofMinutes(1));
+        }
+    }
+
     @BeforeEach
     void setUp() {
         testApplication = new LoanApplication();
@@ -70,14 +118,14 @@ class CreditinderControllerTest {
         mockMvc.perform(get("/apply"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("apply"))
-                .andExpect(model().attributeExists("loanApplication"));
+                .andExpect(model().attributeExists("loanApplication"))
+                .andExpect(content().string(containsString("name=\"idempotencyKey\"")));
     }
 
     @Test
     @DisplayName("Should submit valid application successfully")
     void shouldSubmitValidApplicationSuccessfully() throws Exception {
-        when(loanApplicationService.submitApplication(any(LoanApplication.class)))
-                .thenReturn(testApplication);
+        when(submissionPipeline.offer(any(LoanApplication.class))).thenReturn(true);
 
         mockMvc.perform(post("/apply")
                 .contentType(MediaType.APPLICATION_FORM_URLENCODED)
@@ -92,7 +140,135 @@ class CreditinderControllerTest {
                 .andExpect(redirectedUrl("/"))
                 .andExpect(flash().attributeExists("message"));
 
-        verify(loanApplicationService, times(1)).submitApplication(any(LoanApplication.class));
+        verify(submissionPipeline, times(1)).offer(any(LoanApplication.class));
+    }
+
+    @Test
+    @DisplayName("Should file a resubmitted form once and redirect to the same application")
+    void shouldFileResubmittedFormOnce() throws Exception {
+        when(submissionPipeline.offer(any(LoanApplication.class))).thenReturn(true);
+        String[] ids = new String[2];
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            ids[attempt] = (String) mockMvc.perform(post("/apply")
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                    .param("idempotencyKey", "form-1")
+                    .param("applicantName", "John Doe")
+                    .param("loanAmount", "25000.00")
+                    .param("loanPurpose", "Home Improvement")
+                    .param("annualIncome", "65000.00")
+                    .param("creditScore", "720")
+                    .param("employmentStatus", "Full-time"))
+                    .andExpect(status().is3xxRedirection())
+                    .andReturn().getFlashMap().get("applicationId");
+        }
+
+        assertNotNull(ids[0]);
+        assertEquals(ids[0], ids[1]);
+        verify(submissionPipeline, times(1)).offer(any(LoanApplication.class));
+    }
+
+    @Test
+    @DisplayName("Should keep the form with 429 when submissions come too fast")
+    void shouldRefuseSubmissionsOverRateLimit() throws Exception {
+        when(clientRateLimiter.acquire(any(), eq("127.0.0.1"), anyInt())).thenReturn(TimeUnit.SECONDS.toNanos(3));
+
+        mockMvc.perform(post("/apply")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("applicantName", "John Doe")
+                .param("loanAmount", "25000.00")
+                .param("loanPurpose", "Home Improvement")
+                .param("annualIncome", "65000.00")
+                .param("creditScore", "720")
+                .param("employmentStatus", "Full-time"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "3"))
+                .andExpect(view().name("apply"))
+                .andExpect(model().attributeExists("busyMessage"));
+        mockMvc.perform(post("/api/applications")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"applicantName": "John Doe", "loanAmount": 25000, "loanPurpose": "Home Improvement",
+                         "annualIncome": 65000, "creditScore": 720, "employmentStatus": "Full-time"}
+                        """))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "3"));
+
+        verify(submissionPipeline, never()).offer(any(LoanApplication.class));
+    }
+
+    @Test
+    @DisplayName("Should answer 429 with Retry-After and keep the form when the intake queue is full")
+    void shouldAnswerTooManyRequestsWhenIntakeIsFull() throws Exception {
+        when(submissionPipeline.offer(any(LoanApplication.class))).thenReturn(false);
+        when(submissionPipeline.retryAfter()).thenReturn(Duration.ofMillis(1500));
+
+        mockMvc.perform(post("/apply")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("applicantName", "John Doe")
+                .param("loanAmount", "25000.00")
+                .param("loanPurpose", "Home Improvement")
+                .param("annualIncome", "65000.00")
+                .param("creditScore", "720")
+                .param("employmentStatus", "Full-time"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(view().name("apply"))
+                .andExpect(model().attributeExists("busyMessage"))
+                .andExpect(model().attribute("loanApplication", hasProperty("applicantName", is("John Doe"))));
+    }
+
+    @Test
+    @DisplayName("Should accept a JSON submission with a fresh id")
+    void shouldAcceptJsonSubmissionWithFreshId() throws Exception {
+        when(submissionPipeline.offer(any(LoanApplication.class))).thenReturn(true);
+
+        mockMvc.perform(post("/api/applications")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"id": "chosen-id", "approvalVotes": 99, "applicantName": "John Doe",
+                         "loanAmount": 25000, "loanPurpose": "Home Improvement", "annualIncome": 65000,
+                         "creditScore": 720, "employmentStatus": "Full-time"}
+                        """))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").isString())
+                .andExpect(jsonPath("$.id").value(not("chosen-id")))
+                .andExpect(header().string("Location", startsWith("/application/")));
+
+        ArgumentCaptor<LoanApplication> queued = ArgumentCaptor.forClass(LoanApplication.class);
+        verify(submissionPipeline).offer(queued.capture());
+        assertNotEquals("chosen-id", queued.getValue().getId());
+        assertEquals(0, queued.getValue().getApprovalVotes());
+        assertEquals("John Doe", queued.getValue().getApplicantName());
+    }
+
+    @Test
+    @DisplayName("Should answer a JSON submission with 429 when the intake queue is full, and 400 when invalid")
+    void shouldRefuseJsonSubmissionWhenFullOrInvalid() throws Exception {
+        when(submissionPipeline.offer(any(LoanApplication.class))).thenReturn(false);
+        when(submissionPipeline.retryAfter()).thenReturn(Duration.ofSeconds(1));
+
+        mockMvc.perform(post("/api/applications")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"applicantName": "John Doe", "loanAmount": 25000, "loanPurpose": "Home Improvement",
+                         "annualIncome": 65000, "creditScore": 720, "employmentStatus": "Full-time"}
+                        """))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+
+        mockMvc.perform(post("/api/applications")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"applicantName\": \"\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/applications")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"applicantName": "John Doe", "loanAmount": 25000, "loanPurpose": "junk-4711",
+                         "annualIncome": 65000, "creditScore": 720, "employmentStatus": "Full-time"}
+                        """))
+                .andExpect(status().isBadRequest());
+        verify(submissionPipeline, times(1)).offer(any(LoanApplication.class));
     }
 
     @Test
@@ -110,7 +286,7 @@ class CreditinderControllerTest {
                 .andExpect(view().name("apply"))
                 .andExpect(model().hasErrors());
 
-        verify(loanApplicationService, never()).submitApplication(any(LoanApplication.class));
+        verify(submissionPipeline, never()).offer(any(LoanApplication.class));
     }
 
     @Test
@@ -122,7 +298,8 @@ class CreditinderControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(view().name("swipe"))
                 .andExpect(model().attributeExists("application"))
-                .andExpect(model().attribute("application", testApplication));
+                .andExpect(model().attribute("application", testApplication))
+                .andExpect(model().attribute("swipeCard", SwipeCard.from(testApplication)));
     }
 
     @Test
@@ -184,15 +361,452 @@ class CreditinderControllerTest {
     }
 
     @Test
-    @DisplayName("Should display all applications")
+    @DisplayName("Should return a batch of swipe cards as JSON")
+    void shouldReturnBatchOfSwipeCardsAsJson() throws Exception {
+        when(loanApplicationService.getRandomApplications(isNull(), eq(2), eq(List.of("queued-id"))))
+                .thenReturn(testApplications);
+
+        mockMvc.perform(get("/api/swipe")
+                .param("count", "2")
+                .param("queued", "queued-id"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.cards.length()").value(2))
+                .andExpect(jsonPath("$.cards[0].id").value(testApplication.getId()))
+                .andExpect(jsonPath("$.cards[0].applicantName").value("John Doe"))
+                .andExpect(jsonPath("$.cards[0].approvalVotes").value(0));
+    }
+
+    @Test
+    @DisplayName("Should clamp the swipe batch size")
+    void shouldClampSwipeBatchSize() throws Exception {
+        when(loanApplicationService.getRandomApplications(any(), anyInt(), anyCollection()))
+                .thenReturn(List.of());
+
+        mockMvc.perform(get("/api/swipe").param("count", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cards.length()").value(0));
+
+        verify(loanApplicationService).getRandomApplications(isNull(), eq(CreditinderController.MAX_SWIPE_BATCH), anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should ignore queued ids past the cap")
+    void shouldCapQueuedIds() throws Exception {
+        when(loanApplicationService.getRandomApplications(any(), anyInt(), anyCollection()))
+                .thenReturn(List.of());
+        String[] queued = new String[CreditinderController.MAX_SWIPE_QUEUED + 500];
+        Arrays.setAll(queued, i -> "queued-" + i);
+
+        mockMvc.perform(get("/api/swipe").param("queued", queued))
+                .andExpect(status().isOk());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> excluded = ArgumentCaptor.forClass(List.class);
+        verify(loanApplicationService).getRandomApplications(isNull(), anyInt(), excluded.capture());
+        assertEquals(Arrays.asList(queued).subList(0, CreditinderController.MAX_SWIPE_QUEUED), excluded.getValue());
+    }
+
+    @Test
+    @DisplayName("Should refuse swipe card requests over the rate limit")
+    void shouldRateLimitSwipeCards() throws Exception {
+        when(clientRateLimiter.acquire(eq("voter-1"), anyString(), anyInt())).thenReturn(TimeUnit.SECONDS.toNanos(1));
+
+        mockMvc.perform(get("/api/swipe").cookie(new Cookie(CreditinderController.VOTER_COOKIE, "voter-1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+
+        verify(loanApplicationService, never()).getRandomApplications(any(), anyInt(), anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should record swipe vote and return next cards in one round trip")
+    void shouldRecordSwipeVoteAndReturnNextCards() throws Exception {
+        when(loanApplicationService.getRandomApplications(isNull(), eq(3), eq(List.of("a", "b"))))
+                .thenReturn(List.of(testApplication));
+
+        mockMvc.perform(post("/api/swipe")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"applicationId\":\"test-id\",\"approve\":true,\"count\":3,\"queued\":[\"a\",\"b\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cards.length()").value(1))
+                .andExpect(jsonPath("$.cards[0].id").value(testApplication.getId()));
+
+        verify(loanApplicationService, times(1)).voteOnApplication("test-id", true);
+    }
+
+    @Test
+    @DisplayName("Should reject swipe vote without a decision")
+    void shouldRejectSwipeVoteWithoutDecision() throws Exception {
+        mockMvc.perform(post("/api/swipe")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"applicationId\":\"test-id\"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(loanApplicationService, never()).voteOnApplication(anyString(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Should count a retried vote once and answer it like the first attempt")
+    void shouldReplayVoteRetriedWithSameKey() throws Exception {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/vote")
+                    .header(CreditinderController.IDEMPOTENCY_HEADER, "vote-key-1")
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                    .param("applicationId", "test-id")
+                    .param("approve", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("success"));
+        }
+        mockMvc.perform(post("/vote")
+                .header(CreditinderController.IDEMPOTENCY_HEADER, "vote-key-2")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("applicationId", "test-id")
+                .param("approve", "true"))
+                .andExpect(status().isOk());
+
+        verify(loanApplicationService, times(2)).voteOnApplication("test-id", true);
+    }
+
+    @Test
+    @DisplayName("Should run a vote again when its first attempt failed, and refuse over-long keys")
+    void shouldRetryFailedVoteAndRefuseLongKeys() throws Exception {
+        doThrow(new RuntimeException("Database error")).doNothing()
+                .when(loanApplicationService).voteOnApplication("test-id", true);
+
+        mockMvc.perform(post("/vote")
+                .header(CreditinderController.IDEMPOTENCY_HEADER, "failing-key")
+                .param("applicationId", "test-id")
+                .param("approve", "true"))
+                .andExpect(status().isInternalServerError());
+        mockMvc.perform(post("/vote")
+                .header(CreditinderController.IDEMPOTENCY_HEADER, "failing-key")
+                .param("applicationId", "test-id")
+                .param("approve", "true"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/vote")
+                .header(CreditinderController.IDEMPOTENCY_HEADER, "k".repeat(256))
+                .param("applicationId", "test-id")
+                .param("approve", "true"))
+                .andExpect(status().isBadRequest());
+
+        verify(loanApplicationService, times(2)).voteOnApplication("test-id", true);
+    }
+
+    @Test
+    @DisplayName("Should replay a resent vote batch, keyed per voter, with the key as a parameter too")
+    void shouldReplayVoteBatchPerVoter() throws Exception {
+        when(loanApplicationService.voteOnApplications(anyString(), anyList()))
+                .thenReturn(List.of(VoteResult.RECORDED))
+                .thenReturn(List.of(VoteResult.DUPLICATE));
+        String batch = "{\"votes\":[{\"applicationId\":\"a\",\"approve\":true}]}";
+
+        mockMvc.perform(post("/api/votes")
+                .cookie(new Cookie(CreditinderController.VOTER_COOKIE, "voter-1"))
+                .header(CreditinderController.IDEMPOTENCY_HEADER, "batch-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batch))
+                .andExpect(jsonPath("$.results[0]").value("recorded"));
+        // A beacon resending the same batch.
+        mockMvc.perform(post("/api/votes?idempotencyKey=batch-1")
+                .cookie(new Cookie(CreditinderController.VOTER_COOKIE, "voter-1"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batch))
+                .andExpect(jsonPath("$.results[0]").value("recorded"));
+        mockMvc.perform(post("/api/votes")
+                .cookie(new Cookie(CreditinderController.VOTER_COOKIE, "voter-2"))
+                .header(CreditinderController.IDEMPOTENCY_HEADER, "batch-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batch))
+                .andExpect(jsonPath("$.results[0]").value("duplicate"));
+
+        verify(loanApplicationService).voteOnApplications(eq("voter-1"), anyList());
+        verify(loanApplicationService).voteOnApplications(eq("voter-2"), anyList());
+    }
+
+    @Test
+    @DisplayName("Should refuse votes over the rate limit with 429 and Retry-After")
+    void shouldRefuseVotesOverRateLimit() throws Exception {
+        when(clientRateLimiter.acquire(eq("voter-1"), anyString(), anyInt())).thenReturn(TimeUnit.MILLISECONDS.toNanos(1500));
+        when(loanApplicationService.voteOnApplication("voter-2", "test-id", true)).thenReturn(VoteResult.RECORDED);
+
+        mockMvc.perform(post("/vote")
+                .cookie(new Cookie(CreditinderController.VOTER_COOKIE, "voter-1"))
+                .param("applicationId", "test-id")
+                .param("approve", "true"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(content().string("rate-limited"));
+        mockMvc.perform(post("/api/votes")
+                .cookie(new Cookie(CreditinderController.VOTER_COOKIE, "voter-1"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"votes\":[{\"applicationId\":\"a\",\"approve\":true}]}"))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(post("/api/swipe")
+                .cookie(new Cookie(CreditinderController.VOTER_COOKIE, "voter-1"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"applicationId\":\"a\",\"approve\":true}"))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(post("/vote")
+                .cookie(new Cookie(CreditinderController.VOTER_COOKIE, "voter-2"))
+                .param("applicationId", "test-id")
+                .param("approve", "true"))
+                .andExpect(status().isOk());
+
+        verify(clientRateLimiter).acquire("voter-2", "127.0.0.1", 1);
+        verify(loanApplicationService, never()).voteOnApplication(eq("voter-1"), anyString(), anyBoolean());
+        verify(loanApplicationService, never()).voteOnApplications(any(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should record a vote batch and report each result")
+    void shouldRecordVoteBatchAndReportEachResult() throws Exception {
+        when(loanApplicationService.voteOnApplications(eq("voter-1"), anyList()))
+                .thenReturn(List.of(VoteResult.RECORDED, VoteResult.DUPLICATE, VoteResult.NOT_FOUND));
+
+        mockMvc.perform(post("/api/votes")
+                .cookie(new Cookie(CreditinderController.VOTER_COOKIE, "voter-1"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"votes\":[{\"applicationId\":\"a\",\"approve\":true},"
+                        + "{\"applicationId\":\"b\",\"approve\":false},{\"applicationId\":\"c\",\"approve\":true}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0]").value("recorded"))
+                .andExpect(jsonPath("$.results[1]").value("duplicate"))
+                .andExpect(jsonPath("$.results[2]").value("not-found"));
+
+        verify(loanApplicationService).voteOnApplications("voter-1", List.of(
+                new VoteBatchRequest.Vote("a", true),
+                new VoteBatchRequest.Vote("b", false),
+                new VoteBatchRequest.Vote("c", true)));
+
+        verify(clientRateLimiter).acquire("voter-1", "127.0.0.1", 3);
+    }
+
+    @Test
+    @DisplayName("Should reject a vote batch with a malformed vote")
+    void shouldRejectMalformedVoteBatch() throws Exception {
+        mockMvc.perform(post("/api/votes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"votes\":[{\"applicationId\":\"a\",\"approve\":true},{\"applicationId\":\"b\"}]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(loanApplicationService, never()).voteOnApplications(any(), anyList());
+        verify(clientRateLimiter, never()).acquire(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should open a live tally stream for an existing application")
+    void shouldOpenLiveTallyStream() throws Exception {
+        when(loanApplicationService.getApplicationById("test-id")).thenReturn(Optional.of(testApplication));
+        when(tallyBroadcaster.subscribe(eq(List.of(testApplication)), any()))
+                .thenReturn(mock(TallyBroadcaster.Subscription.class));
+
+        mockMvc.perform(get("/api/applications/test-id/tally"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    @DisplayName("Should answer 404 for a live tally stream of an unknown application")
+    void shouldRejectLiveTallyStreamForUnknownApplication() throws Exception {
+        when(loanApplicationService.getApplicationById("missing")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/applications/missing/tally"))
+                .andExpect(status().isNotFound());
+
+        verify(tallyBroadcaster, never()).subscribe(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should follow only known applications on the dashboard stream")
+    void shouldFollowKnownApplicationsOnDashboardStream() throws Exception {
+        when(loanApplicationService.getApplicationById("test-id")).thenReturn(Optional.of(testApplication));
+        when(loanApplicationService.getApplicationById("gone")).thenReturn(Optional.empty());
+        when(tallyBroadcaster.subscribe(eq(List.of(testApplication)), any()))
+                .thenReturn(mock(TallyBroadcaster.Subscription.class));
+
+        mockMvc.perform(get("/api/tallies").param("ids", "test-id", "gone"))
+                .andExpect(request().asyncStarted());
+
+        verify(tallyBroadcaster).subscribe(eq(List.of(testApplication)), any());
+    }
+
+    @Test
+    @DisplayName("Should assign a voter cookie on the first swipe visit")
+    void shouldAssignVoterCookieOnFirstSwipeVisit() throws Exception {
+        when(loanApplicationService.getRandomApplication()).thenReturn(testApplication);
+
+        mockMvc.perform(get("/swipe"))
+                .andExpect(status().isOk())
+                .andExpect(cookie().exists(CreditinderController.VOTER_COOKIE))
+                .andExpect(cookie().httpOnly(CreditinderController.VOTER_COOKIE, true));
+    }
+
+    @Test
+    @DisplayName("Should serve unseen cards to a returning voter")
+    void shouldServeUnseenCardsToReturningVoter() throws Exception {
+        when(loanApplicationService.getRandomApplication("voter-1")).thenReturn(testApplication);
+
+        mockMvc.perform(get("/swipe").cookie(new Cookie(CreditinderController.VOTER_COOKIE, "voter-1")))
+                .andExpect(status().isOk())
+                .andExpect(cookie().doesNotExist(CreditinderController.VOTER_COOKIE))
+                .andExpect(model().attribute("application", testApplication));
+
+        verify(loanApplicationService, never()).getRandomApplication();
+    }
+
+    @Test
+    @DisplayName("Should reject a duplicate vote from the same voter")
+    void shouldRejectDuplicateVoteFromSameVoter() throws Exception {
+        when(loanApplicationService.voteOnApplication("voter-1", "test-id", true)).thenReturn(VoteResult.DUPLICATE);
+
+        mockMvc.perform(post("/vote")
+                .cookie(new Cookie(CreditinderController.VOTER_COOKIE, "voter-1"))
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("applicationId", "test-id")
+                .param("approve", "true"))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("duplicate"));
+
+        verify(loanApplicationService, never()).voteOnApplication(anyString(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Should still return next cards when a swipe vote is a duplicate")
+    void shouldReturnNextCardsWhenSwipeVoteIsDuplicate() throws Exception {
+        when(loanApplicationService.voteOnApplication("voter-1", "test-id", false)).thenReturn(VoteResult.DUPLICATE);
+        when(loanApplicationService.getRandomApplications(eq("voter-1"), anyInt(), anyCollection()))
+                .thenReturn(List.of(testApplication));
+
+        mockMvc.perform(post("/api/swipe")
+                .cookie(new Cookie(CreditinderController.VOTER_COOKIE, "voter-1"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"applicationId\":\"test-id\",\"approve\":false}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.cards[0].id").value(testApplication.getId()));
+    }
+
+    @Test
+    @DisplayName("Should search applications with filters and keep them in the page links")
+    void shouldSearchApplications() throws Exception {
+        SearchFilter filter = new SearchFilter("Education", null, 700, null);
+        when(loanApplicationService.searchApplications("nursing degree", filter, null,
+                CreditinderController.DEFAULT_PAGE_SIZE))
+                .thenReturn(new ApplicationPage(testApplications, "next-hit", 40));
+
+        mockMvc.perform(get("/applications")
+                .param("q", " nursing degree ")
+                .param("purpose", "Education")
+                .param("employment", "")
+                .param("minScore", "700"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("applications"))
+                .andExpect(model().attribute("searching", true))
+                .andExpect(model().attribute("q", "nursing degree"))
+                .andExpect(model().attribute("applications", testApplications))
+                .andExpect(model().attribute("totalApplications", 40))
+                .andExpect(content().string(containsString("after=next-hit")))
+                .andExpect(content().string(containsString("q=nursing%20degree")))
+                .andExpect(content().string(containsString("40 matching applications")));
+
+        verify(loanApplicationService, never()).getApplicationPage(any(), anyBoolean(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should say when no applications match a search")
+    void shouldShowNoMatches() throws Exception {
+        when(loanApplicationService.searchApplications(eq("skateboard"), eq(SearchFilter.NONE), isNull(), anyInt()))
+                .thenReturn(new ApplicationPage(List.of(), null, 0));
+
+        mockMvc.perform(get("/applications").param("q", "skateboard"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("No applications match")))
+                .andExpect(content().string(not(containsString("No Applications Yet"))));
+    }
+
+    @Test
+    @DisplayName("Should show analytics by purpose, credit band and employment status")
+    void shouldShowAnalytics() throws Exception {
+        ApplicationAnalytics.Bucket education = new ApplicationAnalytics.Bucket(
+                "Education", 3, new BigDecimal("45000.00"), 6, 2, 75.0);
+        ApplicationAnalytics.Snapshot snapshot = new ApplicationAnalytics.Snapshot(
+                new ApplicationAnalytics.Bucket("All applications", 3, new BigDecimal("45000.00"), 6, 2, 75.0),
+                List.of(education), List.of(), List.of());
+        when(loanApplicationService.getAnalytics()).thenReturn(snapshot);
+
+        mockMvc.perform(get("/analytics"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("analytics"))
+                .andExpect(model().attribute("analytics", snapshot))
+                .andExpect(content().string(containsString("$45,000.00")))
+                .andExpect(content().string(containsString("75.0%")));
+
+        mockMvc.perform(get("/api/analytics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total.applications").value(3))
+                .andExpect(jsonPath("$.byLoanPurpose[0].label").value("Education"))
+                .andExpect(jsonPath("$.byLoanPurpose[0].approvalPercentage").value(75.0));
+    }
+
+    @Test
+    @DisplayName("Should show trending applications, leaving out removed ones")
+    void shouldShowTrending() throws Exception {
+        when(trendingTracker.shortWindow()).thenReturn(Duration.ofMinutes(5));
+        when(trendingTracker.longWindow()).thenReturn(Duration.ofHours(1));
+        String id = testApplication.getId();
+        when(trendingTracker.shortTrending()).thenReturn(List.of(new TrendingTracker.Trend(id, 7)));
+        when(trendingTracker.longTrending()).thenReturn(List.of(
+                new TrendingTracker.Trend(id, 12), new TrendingTracker.Trend("removed-id", 3)));
+        when(loanApplicationService.getApplicationById(id)).thenReturn(Optional.of(testApplication));
+        when(loanApplicationService.getApplicationById("removed-id")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/trending"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("trending"))
+                .andExpect(content().string(containsString("Last 5 minutes")))
+                .andExpect(content().string(containsString("Last hour")))
+                .andExpect(content().string(containsString("John Doe")));
+
+        mockMvc.perform(get("/api/trending"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shortWindow[0].id").value(id))
+                .andExpect(jsonPath("$.shortWindow[0].recentVotes").value(7))
+                .andExpect(jsonPath("$.longWindow.length()").value(1))
+                .andExpect(jsonPath("$.longWindow[0].recentVotes").value(12));
+    }
+
+    @Test
+    @DisplayName("Should display the first page of applications")
     void shouldDisplayAllApplications() throws Exception {
-        when(loanApplicationService.getAllApplications()).thenReturn(testApplications);
+        when(loanApplicationService.getApplicationPage(eq(ApplicationSort.SUBMITTED_AT), eq(true), isNull(),
+                eq(CreditinderController.DEFAULT_PAGE_SIZE)))
+                .thenReturn(new ApplicationPage(testApplications, "next-token", 30));
 
         mockMvc.perform(get("/applications"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("applications"))
                 .andExpect(model().attributeExists("applications"))
-                .andExpect(model().attribute("applications", testApplications));
+                .andExpect(model().attribute("applications", testApplications))
+                .andExpect(model().attribute("nextCursor", "next-token"))
+                .andExpect(model().attribute("totalApplications", 30))
+                .andExpect(content().string(containsString("after=next-token")));
+    }
+
+    @Test
+    @DisplayName("Should pass the sort and cursor through and cap the page size")
+    void shouldPassCursorAndCapPageSize() throws Exception {
+        when(loanApplicationService.getApplicationPage(ApplicationSort.CREDIT_SCORE, false, "cursor",
+                CreditinderController.MAX_PAGE_SIZE))
+                .thenReturn(new ApplicationPage(testApplications, null, 30));
+
+        mockMvc.perform(get("/applications").param("after", "cursor").param("size", "5000")
+                        .param("sort", "creditScore").param("dir", "asc"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("sort", "creditScore"))
+                .andExpect(model().attribute("dir", "asc"))
+                .andExpect(model().attribute("pageSize", CreditinderController.MAX_PAGE_SIZE))
+                .andExpect(model().attribute("firstPage", false))
+                .andExpect(content().string(not(containsString("after="))));
     }
 
     @Test
@@ -208,6 +822,51 @@ class CreditinderControllerTest {
                 .andExpect(model().attribute("application", testApplication));
     }
 
+    @Test
+    @DisplayName("Should answer 304 for an unchanged dashboard without rendering it")
+    void shouldAnswerNotModifiedForUnchangedDashboard() throws Exception {
+        when(loanApplicationService.getStoreVersion()).thenReturn(41L);
+        when(loanApplicationService.getApplicationPage(any(), anyBoolean(), any(), anyInt()))
+                .thenReturn(new ApplicationPage(testApplications, null, 2));
+
+        String etag = mockMvc.perform(get("/applications"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+        clearInvocations(loanApplicationService);
+
+        mockMvc.perform(get("/applications").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        verify(loanApplicationService, never()).getApplicationPage(any(), anyBoolean(), any(), anyInt());
+
+        when(loanApplicationService.getStoreVersion()).thenReturn(42L);
+        mockMvc.perform(get("/applications").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    @DisplayName("Should answer 304 for unchanged application details until it is voted on")
+    void shouldAnswerNotModifiedForUnchangedDetails() throws Exception {
+        when(loanApplicationService.getApplicationById("test-id")).thenReturn(Optional.of(testApplication));
+
+        String etag = mockMvc.perform(get("/application/test-id"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/application/test-id").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        testApplication.addApprovalVote();
+        testApplication.nextVersion(0);
+        mockMvc.perform(get("/application/test-id").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(view().name("application-details"));
+    }
+
     @Test
     @DisplayName("Should redirect to applications list for non-existent application")
     void shouldRedirectToApplicationsListForNonExistentApplication() throws Exception {
@@ -254,14 +913,31 @@ class CreditinderControllerTest {
                 .andExpect(view().name("apply"))
                 .andExpect(model().hasErrors()); // Just check that there are errors
 
-        verify(loanApplicationService, never()).submitApplication(any(LoanApplication.class));
+        verify(submissionPipeline, never()).offer(any(LoanApplication.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a loan purpose that is not a listed option")
+    void shouldRejectUnlistedLoanPurpose() throws Exception {
+        mockMvc.perform(post("/apply")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("applicantName", "John Doe")
+                .param("loanAmount", "25000.00")
+                .param("loanPurpose", "junk-4711")
+                .param("annualIncome", "65000.00")
+                .param("creditScore", "720")
+                .param("employmentStatus", "Full-time"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("apply"))
+                .andExpect(model().attributeHasFieldErrors("loanApplication", "loanPurpose"));
+
+        verify(submissionPipeline, never()).offer(any(LoanApplication.class));
     }
 
     @Test
     @DisplayName("Should accept valid credit score range")
     void shouldAcceptValidCreditScoreRange() throws Exception {
-        when(loanApplicationService.submitApplication(any(LoanApplication.class)))
-                .thenReturn(testApplication);
+        when(submissionPipeline.offer(any(LoanApplication.class))).thenReturn(true);
 
         // Test minimum valid credit score
         mockMvc.perform(post("/apply")
@@ -287,6 +963,6 @@ class CreditinderControllerTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/"));
 
-        verify(loanApplicationService, times(2)).submitApplication(any(LoanApplication.class));
+        verify(submissionPipeline, times(2)).offer(any(LoanApplication.class));
     }
 }
@@ -0,0 +1,87 @@
+package com.hackathon.creditinder.controller;
+
+import com.hackathon.creditinder.load.LoadDriver;
+import com.hackathon.creditinder.load.LoadMix;
+import com.hackathon.creditinder.load.LoadReport;
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.service.LoanApplicationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Synthetic production traffic through every page and endpoint members,
+ * applicants and dashboards use, offered at a fixed rate against the app on a
+ * random port with its journal on disk. Prints throughput and latency
+ * percentiles per endpoint. Tune it with {@code ./gradlew benchmark
+ * --tests '*SwipeLoadBenchmark' -Pload.rate=400 -Pload.duration=60s
+ * -Pload.mix=vote:80,swipe-cards:20}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"logging.level.com.hackathon.creditinder=INFO", "creditinder.rate-limit.enabled=false"})
+@DisplayName("Swipe Load Benchmark")
+class SwipeLoadBenchmark {
+
+    private static final double RATE = Double.parseDouble(System.getProperty("load.rate", "100"));
+    private static final Duration DURATION = DurationStyle.detectAndParse(System.getProperty("load.duration", "20s"));
+    private static final String MIX = System.getProperty("load.mix", LoadMix.DEFAULT);
+    private static final int MEMBERS = Integer.getInteger("load.members", 1_000);
+    private static final int APPLICATIONS = Integer.getInteger("load.applications", 1_000);
+    private static final int MAX_IN_FLIGHT = Integer.getInteger("load.max-in-flight", 5_000);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private LoanApplicationService loanApplicationService;
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) throws IOException {
+        registry.add("creditinder.journal.directory", Files.createTempDirectory("swipe-load-benchmark")::toString);
+    }
+
+    @Test
+    @DisplayName("Mixed swipe traffic at a fixed arrival rate")
+    void mixedSwipeTraffic() throws InterruptedException {
+        for (int i = 0; i < APPLICATIONS; i++) {
+            LoanApplication application = new LoanApplication();
+            application.setApplicantName("Seeded Applicant " + i);
+            application.setLoanAmount(BigDecimal.valueOf(5_000 + i));
+            application.setLoanPurpose("Education");
+            application.setAnnualIncome(BigDecimal.valueOf(60_000));
+            application.setCreditScore(600 + i % 250);
+            application.setEmploymentStatus("Full-time");
+            loanApplicationService.submitApplication(application);
+        }
+        List<String> ids = loanApplicationService.getAllApplications().stream().map(LoanApplication::getId).toList();
+        LoadMix mix = LoadMix.parse(MIX);
+        LoadDriver driver = new LoadDriver(URI.create("http://localhost:" + port), ids, MEMBERS, MAX_IN_FLIGHT);
+
+        // Warm the JIT and connection pool before the measured run.
+        driver.run(mix, RATE, Duration.ofSeconds(5));
+        System.out.printf("mix %s, %,d members, %,d applications%n", mix, MEMBERS, ids.size());
+        LoadReport report = driver.run(mix, RATE, DURATION);
+        report.print(System.out);
+
+        assertEquals(0, report.errors(), "no request should fail");
+        for (LoadReport.Endpoint endpoint : report.endpoints()) {
+            assertTrue(endpoint.count() > 0, endpoint.operation().endpoint() + " should be exercised");
+        }
+    }
+}
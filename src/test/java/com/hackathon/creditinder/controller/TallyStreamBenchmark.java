@@ -0,0 +1,156 @@
+package com.hackathon.creditinder.controller;
+
+import com.hackathon.creditinder.live.TallyBroadcaster;
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.service.LoanApplicationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Thousands of real SSE connections following one card while it is voted on
+ * as fast as the service allows: frames per subscriber per second, how long
+ * every subscriber takes to see the final tally once voting stops, and vote
+ * throughput with and without the subscribers. Run with
+ * {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "creditinder.journal.enabled=false")
+@DisplayName("Tally Stream Benchmark")
+class TallyStreamBenchmark {
+
+    private static final int CARD_SUBSCRIBERS = 2_000;
+    private static final int DASHBOARD_SUBSCRIBERS = 500;
+    private static final int VOTERS = 8;
+    private static final Duration RUN_TIME = Duration.ofSeconds(5);
+    private static final Pattern TOTAL_VOTES = Pattern.compile("\"totalVotes\":(\\d+)");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private LoanApplicationService loanApplicationService;
+
+    @Autowired
+    private TallyBroadcaster tallyBroadcaster;
+
+    @Test
+    @DisplayName("Coalesced fan-out to thousands of subscribers")
+    void coalescedFanOut() throws InterruptedException {
+        LoanApplication hot = loanApplicationService.submitApplication(new LoanApplication());
+        long unobserved = vote(hot);
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        List<Follower> followers = new ArrayList<>();
+        for (int i = 0; i < CARD_SUBSCRIBERS + DASHBOARD_SUBSCRIBERS; i++) {
+            String path = i < CARD_SUBSCRIBERS ? "/api/applications/" + hot.getId() + "/tally" : "/api/tallies";
+            Follower follower = new Follower();
+            client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                    HttpResponse.BodyHandlers.fromLineSubscriber(follower));
+            followers.add(follower);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (tallyBroadcaster.stats().subscribers() < followers.size() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(followers.size(), tallyBroadcaster.stats().subscribers(), "every subscriber connected");
+        followers.forEach(follower -> follower.frames.reset());
+
+        long observed = vote(hot);
+        int finalTotal = hot.getTotalVotes();
+        long stopped = System.nanoTime();
+        long convergedNanos = -1;
+        while (System.nanoTime() - stopped < TimeUnit.SECONDS.toNanos(30)) {
+            if (followers.stream().allMatch(follower -> follower.lastTotal.get() == finalTotal)) {
+                convergedNanos = System.nanoTime() - stopped;
+                break;
+            }
+            Thread.sleep(5);
+        }
+
+        double seconds = RUN_TIME.toMillis() / 1_000.0;
+        double meanRate = followers.stream().mapToLong(follower -> follower.frames.sum()).average().orElse(0) / seconds;
+        double maxRate = followers.stream().mapToLong(follower -> follower.frames.sum()).max().orElse(0) / seconds;
+        System.out.printf("%-36s %,14d%n", "subscribers", followers.size());
+        System.out.printf("%-36s %,14d%n", "votes/s, no subscribers", unobserved);
+        System.out.printf("%-36s %,14d%n", "votes/s, all subscribed", observed);
+        System.out.printf("%-36s %14.1f%n", "frames/s per subscriber (mean)", meanRate);
+        System.out.printf("%-36s %14.1f%n", "frames/s per subscriber (max)", maxRate);
+        System.out.printf("%-36s %14.1f%n", "ms until all see the final tally", convergedNanos / 1e6);
+        System.out.printf("%-36s %,14d%n", "subscribers dropped", tallyBroadcaster.stats().dropped());
+        assertTrue(convergedNanos >= 0, "every subscriber should see the final tally");
+        assertTrue(maxRate <= 10, "updates should be coalesced");
+    }
+
+    private long vote(LoanApplication application) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder votes = new LongAdder();
+        CountDownLatch done = new CountDownLatch(VOTERS);
+        for (int t = 0; t < VOTERS; t++) {
+            Thread.ofPlatform().start(() -> {
+                while (running.get()) {
+                    loanApplicationService.voteOnApplication(application.getId(), true);
+                    votes.increment();
+                }
+                done.countDown();
+            });
+        }
+        Thread.sleep(RUN_TIME.toMillis());
+        running.set(false);
+        done.await();
+        return votes.sum() * 1_000 / RUN_TIME.toMillis();
+    }
+
+    private static final class Follower implements Flow.Subscriber<String> {
+        private final LongAdder frames = new LongAdder();
+        private final AtomicInteger lastTotal = new AtomicInteger(-1);
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.startsWith("data:")) {
+                frames.increment();
+                Matcher total = TOTAL_VOTES.matcher(line);
+                int last = -1;
+                while (total.find()) {
+                    last = Integer.parseInt(total.group(1));
+                }
+                lastTotal.set(last);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.hackathon.creditinder.controller;
+
+import com.hackathon.creditinder.CreditinderApplication;
+import com.hackathon.creditinder.journal.Journal;
+import com.hackathon.creditinder.journal.JournalReplayHandler;
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.service.LoanApplicationService;
+import jakarta.servlet.Filter;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * One vote per request through {@code POST /vote} at rising client counts,
+ * served first from Tomcat's platform thread pool and then from virtual
+ * threads. Each vote waits on the journal's group commit, then again with
+ * {@link #SLOW_IO} added to every append to stand in for a slow disk or a
+ * notification call. Reports throughput, p50 and p99 latency, the most
+ * requests the server had in flight at once, and virtual threads pinned to
+ * their carrier. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Virtual Thread Benchmark")
+class VirtualThreadBenchmark {
+
+    private static final int[] CLIENTS = {100, 400, 1_600};
+    private static final int PLATFORM_THREADS = 200;
+    private static final Duration SLOW_IO = Duration.ofMillis(500);
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+    private static final Duration RUN_TIME = Duration.ofSeconds(4);
+
+    @Test
+    @DisplayName("Virtual threads against the platform thread pool")
+    void virtualThreadsAgainstPlatformPool() throws Exception {
+        System.out.printf("%-9s %8s %8s %10s %10s %10s %10s %8s%n",
+                "threads", "io ms", "clients", "votes/s", "p50 ms", "p99 ms", "in flight", "pinned");
+        run(false, Duration.ZERO);
+        run(true, Duration.ZERO);
+        int[] platformPeaks = run(false, SLOW_IO);
+        int[] virtualPeaks = run(true, SLOW_IO);
+
+        int last = CLIENTS.length - 1;
+        assertTrue(platformPeaks[last] <= PLATFORM_THREADS, "platform threads cap requests in flight");
+        assertTrue(virtualPeaks[last] > PLATFORM_THREADS, "virtual threads should lift that cap");
+    }
+
+    /**
+     * Starts the application in one threading mode, with {@code ioWait} added
+     * to every journal append, and drives each client count against it.
+     * Returns the peak requests in flight per count.
+     */
+    private static int[] run(boolean virtual, Duration ioWait) throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        Filter counting = (request, response, chain) -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        };
+        String journal = Files.createTempDirectory("virtual-thread-benchmark").toString();
+        // Arguments, so they win over application.properties.
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CreditinderApplication.class)
+                .initializers(ctx -> {
+                    ctx.getBeanFactory().registerSingleton("inFlightFilter", counting);
+                    ctx.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                        @Override
+                        public Object postProcessAfterInitialization(Object bean, String name) {
+                            return bean instanceof Journal journal && !ioWait.isZero() ? slow(journal, ioWait) : bean;
+                        }
+                    });
+                })
+                .run("--server.port=0", "--management.server.port=0",
+                        "--server.tomcat.threads.max=" + PLATFORM_THREADS,
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--creditinder.journal.directory=" + journal,
+                        "--creditinder.rate-limit.enabled=false",
+                        "--logging.level.com.hackathon.creditinder=INFO");
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build();
+             RecordingStream pinning = new RecordingStream()) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            List<String> ids = context.getBean(LoanApplicationService.class).getAllApplications().stream()
+                    .map(LoanApplication::getId).toList();
+            URI vote = URI.create("http://localhost:" + port + "/vote");
+
+            LongAdder pinned = new LongAdder();
+            pinning.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            pinning.onEvent("jdk.VirtualThreadPinned", event -> pinned.increment());
+            pinning.startAsync();
+
+            drive(client, vote, ids, CLIENTS[1], WARM_UP);
+            int[] peaks = new int[CLIENTS.length];
+            for (int i = 0; i < CLIENTS.length; i++) {
+                pinned.reset();
+                peak.set(0);
+                long[] latencies = drive(client, vote, ids, CLIENTS[i], RUN_TIME);
+                peaks[i] = peak.get();
+                System.out.printf("%-9s %,8d %,8d %,10d %10.1f %10.1f %,10d %,8d%n",
+                        virtual ? "virtual" : "platform", ioWait.toMillis(), CLIENTS[i],
+                        latencies.length * 1_000L / RUN_TIME.toMillis(),
+                        latencies[latencies.length / 2] / 1e6,
+                        latencies[latencies.length * 99 / 100] / 1e6,
+                        peaks[i], pinned.sum());
+            }
+            return peaks;
+        }
+    }
+
+    /**
+     * Completes each append {@code ioWait} after the journal does.
+     */
+    private static Journal slow(Journal journal, Duration ioWait) {
+        Executor later = CompletableFuture.delayedExecutor(ioWait.toNanos(), TimeUnit.NANOSECONDS);
+        return new Journal() {
+            @Override
+            public long replay(JournalReplayHandler handler) {
+                return journal.replay(handler);
+            }
+
+            @Override
+            public CompletableFuture<Void> appendSubmission(LoanApplication application) {
+                return journal.appendSubmission(application).thenRunAsync(() -> { }, later);
+            }
+
+            @Override
+            public CompletableFuture<Void> appendVote(String applicationId, String voterId, boolean approve) {
+                return journal.appendVote(applicationId, voterId, approve).thenRunAsync(() -> { }, later);
+            }
+
+            @Override
+            public CompletableFuture<Void> appendRemoval(String applicationId) {
+                return journal.appendRemoval(applicationId).thenRunAsync(() -> { }, later);
+            }
+
+            @Override
+            public void close() {
+                journal.close();
+            }
+        };
+    }
+
+    /**
+     * Keeps {@code clients} votes outstanding for {@code runTime} and returns
+     * every request's latency in nanoseconds, sorted.
+     */
+    private static long[] drive(HttpClient client, URI vote, List<String> ids, int clients, Duration runTime)
+            throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        ConcurrentLinkedQueue<long[]> results = new ConcurrentLinkedQueue<>();
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int c = 0; c < clients; c++) {
+            Thread.ofVirtual().start(() -> {
+                long[] latencies = new long[256];
+                int count = 0;
+                while (running.get()) {
+                    String id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                    HttpRequest request = HttpRequest.newBuilder(vote)
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .POST(HttpRequest.BodyPublishers.ofString("applicationId=" + id + "&approve=true"))
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        assertEquals(200, response.statusCode());
+                    } catch (IOException | InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                results.add(Arrays.copyOf(latencies, count));
+                done.countDown();
+            });
+        }
+        Thread.sleep(runTime.toMillis());
+        running.set(false);
+        done.await();
+        long[] all = results.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        assertTrue(all.length > 0, "some votes should complete");
+        return all;
+    }
+}
@@ -0,0 +1,130 @@
+package com.hackathon.creditinder.controller;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.service.LoanApplicationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Votes per second over HTTP through {@code POST /vote}, one request per
+ * vote, against {@code POST /api/votes} at a few batch sizes, with the
+ * journal fsyncing in batch mode as it does by default. Run with
+ * {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "creditinder.rate-limit.enabled=false")
+@DisplayName("Vote Batch Benchmark")
+class VoteBatchBenchmark {
+
+    private static final int CLIENTS = 16;
+    private static final Duration RUN_TIME = Duration.ofSeconds(3);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private LoanApplicationService loanApplicationService;
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) throws IOException {
+        registry.add("creditinder.journal.directory", Files.createTempDirectory("vote-batch-benchmark")::toString);
+    }
+
+    @Test
+    @DisplayName("Batched votes against one request per vote")
+    void batchedVotesAgainstSingleVotes() throws InterruptedException {
+        for (int i = 0; i < 1_000; i++) {
+            loanApplicationService.submitApplication(new LoanApplication());
+        }
+        List<String> ids = loanApplicationService.getAllApplications().stream().map(LoanApplication::getId).toList();
+
+        System.out.printf("%-14s %14s%n", "path", "votes/s");
+        long single = run(() -> {
+            String id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+            post("/vote", "application/x-www-form-urlencoded", "applicationId=" + id + "&approve=true");
+            return 1;
+        });
+        System.out.printf("%-14s %,14d%n", "/vote", single);
+
+        for (int batch : new int[] {10, 50, 200}) {
+            long batched = run(() -> {
+                StringBuilder body = new StringBuilder("{\"votes\":[");
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < batch; i++) {
+                    body.append(i == 0 ? "" : ",").append("{\"applicationId\":\"")
+                            .append(ids.get(random.nextInt(ids.size()))).append("\",\"approve\":")
+                            .append(random.nextBoolean()).append('}');
+                }
+                post("/api/votes", "application/json", body.append("]}").toString());
+                return batch;
+            });
+            System.out.printf("%-14s %,14d%n", "/api/votes x" + batch, batched);
+            assertTrue(batched > single);
+        }
+    }
+
+    /**
+     * Posts over one of HttpURLConnection's pooled keep-alive connections and
+     * drains the response so the connection can be reused.
+     */
+    private void post(String path, String contentType, String body) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) URI.create("http://localhost:" + port + path)
+                    .toURL().openConnection();
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", contentType);
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+            assertEquals(200, connection.getResponseCode());
+            try (InputStream in = connection.getInputStream()) {
+                in.readAllBytes();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long run(IntSupplier request) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder votes = new LongAdder();
+        CountDownLatch done = new CountDownLatch(CLIENTS);
+        for (int t = 0; t < CLIENTS; t++) {
+            Thread.ofPlatform().start(() -> {
+                while (running.get()) {
+                    votes.add(request.getAsInt());
+                }
+                done.countDown();
+            });
+        }
+        Thread.sleep(RUN_TIME.toMillis());
+        running.set(false);
+        done.await();
+        return votes.sum() * 1_000 / RUN_TIME.toMillis();
+    }
+}
@@ -0,0 +1,103 @@
+package com.hackathon.creditinder.idempotency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IdempotencyCache Tests")
+class IdempotencyCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Test
+    @DisplayName("Should run a request once per key and replay its result")
+    void shouldRunOncePerKey() {
+        IdempotencyCache cache = new IdempotencyCache(10, Duration.ofMinutes(1), now::get);
+
+        assertEquals(1, cache.execute("a", runs::incrementAndGet));
+        assertEquals(1, cache.execute("a", runs::incrementAndGet));
+        assertEquals(2, cache.execute("b", runs::incrementAndGet));
+
+        assertEquals(2, runs.get());
+        assertEquals(new IdempotencyCache.Stats(2, 1, 0), cache.stats());
+    }
+
+    @Test
+    @DisplayName("Should forget a request that failed or returned null")
+    void shouldForgetFailedRequests() {
+        IdempotencyCache cache = new IdempotencyCache(10, Duration.ofMinutes(1), now::get);
+
+        assertThrows(IllegalStateException.class, () -> cache.execute("a", () -> {
+            throw new IllegalStateException("down");
+        }));
+        assertNull(cache.execute("b", () -> null));
+
+        assertEquals("ran", cache.execute("a", () -> "ran"));
+        assertEquals("ran", cache.execute("b", () -> "ran"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should run a request again once its key has expired")
+    void shouldExpireKeys() {
+        IdempotencyCache cache = new IdempotencyCache(10, Duration.ofSeconds(10), now::get);
+        cache.execute("a", runs::incrementAndGet);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        cache.execute("b", runs::incrementAndGet);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(6));
+        assertEquals(2, cache.execute("b", runs::incrementAndGet));
+        assertEquals(3, cache.execute("a", runs::incrementAndGet));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should keep no more than its maximum, dropping the oldest key first")
+    void shouldStayBounded() {
+        IdempotencyCache cache = new IdempotencyCache(3, Duration.ofHours(1), now::get);
+        for (int i = 0; i < 1000; i++) {
+            cache.execute("key-" + i, runs::incrementAndGet);
+            assertTrue(cache.size() <= 3);
+        }
+
+        assertEquals(1000, cache.execute("key-999", runs::incrementAndGet));
+        assertEquals(1001, cache.execute("key-0", runs::incrementAndGet));
+        assertEquals(998, cache.stats().evicted());
+    }
+
+    @Test
+    @DisplayName("Should make a concurrent retry wait for the first attempt's result")
+    void shouldWaitForAttemptInFlight() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(10, Duration.ofMinutes(1));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> cache.execute("a", () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return runs.incrementAndGet();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Integer> retry = CompletableFuture.supplyAsync(() -> cache.execute("a", runs::incrementAndGet));
+        Thread.sleep(50);
+        assertFalse(retry.isDone());
+        release.countDown();
+
+        assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, retry.get(5, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+    }
+}
@@ -0,0 +1,135 @@
+package com.hackathon.creditinder.intake;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.service.TestLoanApplicationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SubmissionPipeline Tests")
+class SubmissionPipelineTest {
+
+    @Test
+    @DisplayName("Should write queued submissions in batches no larger than the limit")
+    void shouldWriteInBatches() throws InterruptedException {
+        GatedService service = new GatedService();
+        try (SubmissionPipeline pipeline = new SubmissionPipeline(service, 100, 8, Duration.ofSeconds(1))) {
+            // The first batch holds the intake thread while the rest queue up.
+            assertTrue(pipeline.offer(application("first")));
+            assertTrue(service.entered.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 20; i++) {
+                assertTrue(pipeline.offer(application("Applicant " + i)));
+            }
+            service.gate.countDown();
+
+            awaitStored(service, 21);
+            assertEquals(List.of(1, 8, 8, 4), service.batchSizes);
+            assertEquals(new SubmissionPipeline.Stats(21, 0, 4, 0), pipeline.stats());
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse submissions once the queue is full")
+    void shouldRefuseWhenFull() throws InterruptedException {
+        GatedService service = new GatedService();
+        try (SubmissionPipeline pipeline = new SubmissionPipeline(service, 2, 8, Duration.ofSeconds(3))) {
+            assertTrue(pipeline.offer(application("first")));
+            assertTrue(service.entered.await(5, TimeUnit.SECONDS));
+            assertTrue(pipeline.offer(application("second")));
+            assertTrue(pipeline.offer(application("third")));
+
+            assertFalse(pipeline.offer(application("fourth")));
+            assertEquals(2, pipeline.queued());
+            assertEquals(Duration.ofSeconds(3), pipeline.retryAfter());
+
+            service.gate.countDown();
+            awaitStored(service, 3);
+            assertTrue(pipeline.offer(application("fifth")), "room again once the queue drains");
+            assertEquals(1, pipeline.stats().rejected());
+        }
+    }
+
+    @Test
+    @DisplayName("Should write everything queued before closing and refuse after")
+    void shouldDrainOnClose() throws InterruptedException {
+        GatedService service = new GatedService();
+        SubmissionPipeline pipeline = new SubmissionPipeline(service, 100, 8, Duration.ofSeconds(1));
+        assertTrue(pipeline.offer(application("first")));
+        assertTrue(service.entered.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            pipeline.offer(application("Applicant " + i));
+        }
+
+        service.gate.countDown();
+        pipeline.close();
+
+        assertEquals(11, service.getAllApplications().size());
+        assertFalse(pipeline.offer(application("late")));
+    }
+
+    @Test
+    @DisplayName("Should count accepted submissions the service could not write")
+    void shouldCountFailedWrites() throws InterruptedException {
+        TestLoanApplicationService service = new TestLoanApplicationService() {
+            @Override
+            public List<LoanApplication> submitApplications(List<LoanApplication> batch) {
+                throw new IllegalStateException("disk full");
+            }
+        };
+        SubmissionPipeline pipeline = new SubmissionPipeline(service, 10, 8, Duration.ofSeconds(1));
+        assertTrue(pipeline.offer(application("first")));
+        pipeline.close();
+
+        assertEquals(1, pipeline.stats().failed());
+        assertTrue(service.getAllApplications().isEmpty());
+    }
+
+    private static LoanApplication application(String applicant) {
+        LoanApplication application = new LoanApplication();
+        application.setApplicantName(applicant);
+        application.setLoanAmount(new BigDecimal("10000"));
+        application.setLoanPurpose("Education");
+        application.setAnnualIncome(new BigDecimal("50000"));
+        application.setCreditScore(700);
+        application.setEmploymentStatus("Full-time");
+        return application;
+    }
+
+    private static void awaitStored(TestLoanApplicationService service, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.getAllApplications().size() < count) {
+            assertTrue(System.nanoTime() < deadline, "only " + service.getAllApplications().size() + " written");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Holds the first batch until {@link #gate} opens.
+     */
+    private static class GatedService extends TestLoanApplicationService {
+
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        @Override
+        public List<LoanApplication> submitApplications(List<LoanApplication> batch) {
+            entered.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batchSizes.add(batch.size());
+            return super.submitApplications(batch);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.hackathon.creditinder.journal;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.service.LoanApplicationService;
+import com.hackathon.creditinder.service.VoteResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FileJournal Tests")
+class FileJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should replay submissions and votes in append order")
+    void shouldReplaySubmissionsAndVotesInOrder() {
+        LoanApplication application = sampleApplication();
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 64 * 1024)) {
+            assertEquals(0, journal.replay(new Recorder()));
+            journal.appendSubmission(application).join();
+            journal.appendVote(application.getId(), "voter-1", true).join();
+            journal.appendVote(application.getId(), null, false).join();
+        }
+
+        Recorder recorder = new Recorder();
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 64 * 1024)) {
+            assertEquals(3, journal.replay(recorder));
+        }
+
+        LoanApplication replayed = recorder.submissions.get(0);
+        assertEquals(application.getId(), replayed.getId());
+        assertEquals("Jane Doe", replayed.getApplicantName());
+        assertEquals(new BigDecimal("12500.50"), replayed.getLoanAmount());
+        assertEquals(new BigDecimal("58000"), replayed.getAnnualIncome());
+        assertEquals(705, replayed.getCreditScore());
+        assertEquals("Home Improvement", replayed.getLoanPurpose());
+        assertEquals("Full-time", replayed.getEmploymentStatus());
+        assertNull(replayed.getAdditionalNotes());
+        assertEquals(application.getSubmittedAt(), replayed.getSubmittedAt());
+        assertEquals(List.of(
+                application.getId() + "/voter-1/true",
+                application.getId() + "/null/false"), recorder.votes);
+    }
+
+    @Test
+    @DisplayName("Should write everything appended under each fsync policy by close")
+    void shouldWriteEverythingUnderEachPolicy() {
+        for (FsyncPolicy policy : FsyncPolicy.values()) {
+            Path policyDirectory = directory.resolve(policy.name());
+            try (FileJournal journal = new FileJournal(policyDirectory, policy, Duration.ofMillis(5), 16, 64 * 1024, 0)) {
+                journal.replay(new Recorder());
+                for (int i = 0; i < 100; i++) {
+                    journal.appendVote("app", "voter-" + i, i % 2 == 0);
+                }
+            }
+
+            Recorder recorder = new Recorder();
+            try (FileJournal journal = new FileJournal(policyDirectory, policy, Duration.ofMillis(5), 16, 64 * 1024, 0)) {
+                assertEquals(100, journal.replay(recorder), policy.name());
+            }
+            assertEquals("app/voter-99/false", recorder.votes.get(99));
+        }
+    }
+
+    @Test
+    @DisplayName("Should roll segments and replay across all of them")
+    void shouldRollSegmentsAndReplayAcrossThem() throws IOException {
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 256)) {
+            journal.replay(new Recorder());
+            for (int i = 0; i < 50; i++) {
+                journal.appendVote("app", "voter-" + i, true).join();
+            }
+        }
+
+        assertTrue(segments().size() > 1);
+        Recorder recorder = new Recorder();
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 256)) {
+            assertEquals(50, journal.replay(recorder));
+        }
+        assertEquals("app/voter-0/true", recorder.votes.get(0));
+        assertEquals("app/voter-49/true", recorder.votes.get(49));
+    }
+
+    @Test
+    @DisplayName("Should drop a torn tail and keep appending after it")
+    void shouldDropTornTailAndKeepAppending() throws IOException {
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 64 * 1024)) {
+            journal.replay(new Recorder());
+            journal.appendVote("app", "voter-1", true).join();
+            journal.appendVote("app", "voter-2", true).join();
+        }
+        // Simulate a crash halfway through writing the second record.
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 64 * 1024)) {
+            assertEquals(1, journal.replay(new Recorder()));
+            journal.appendVote("app", "voter-3", false).join();
+        }
+
+        Recorder recorder = new Recorder();
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 64 * 1024)) {
+            assertEquals(2, journal.replay(recorder));
+        }
+        assertEquals(List.of("app/voter-1/true", "app/voter-3/false"), recorder.votes);
+    }
+
+    @Test
+    @DisplayName("Should refuse to replay past a corrupt record in an earlier segment")
+    void shouldRefuseToReplayPastCorruptEarlierSegment() throws IOException {
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 256)) {
+            journal.replay(new Recorder());
+            for (int i = 0; i < 50; i++) {
+                journal.appendVote("app", "voter-" + i, true).join();
+            }
+        }
+        List<Path> before = segments();
+        corrupt(before.get(0));
+
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 256)) {
+            assertThrows(UncheckedIOException.class, () -> journal.replay(new Recorder()));
+        }
+        assertEquals(before, segments(), "no segment is truncated or deleted");
+    }
+
+    @Test
+    @DisplayName("Should refuse to replay across a missing segment")
+    void shouldRefuseToReplayAcrossMissingSegment() throws IOException {
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 256)) {
+            journal.replay(new Recorder());
+            for (int i = 0; i < 50; i++) {
+                journal.appendVote("app", "voter-" + i, true).join();
+            }
+        }
+        List<Path> before = segments();
+        assertTrue(before.size() > 2);
+        Files.delete(before.get(1));
+
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 256)) {
+            assertThrows(UncheckedIOException.class, () -> journal.replay(new Recorder()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should abort compaction and keep a damaged segment")
+    void shouldAbortCompactionAndKeepDamagedSegment() throws IOException {
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 256)) {
+            journal.replay(new Recorder());
+            for (int i = 0; i < 50; i++) {
+                journal.appendVote("app", "voter-" + i, true).join();
+            }
+            List<Path> closed = segments();
+            corrupt(closed.get(0));
+
+            assertThrows(CompletionException.class, () -> journal.snapshot().join());
+            assertTrue(files("snapshot-").isEmpty());
+            assertTrue(segments().containsAll(closed), "the segments are kept for repair");
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject appends before replay")
+    void shouldRejectAppendsBeforeReplay() {
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 64 * 1024)) {
+            assertThrows(IllegalStateException.class, () -> journal.appendVote("app", null, true));
+        }
+    }
+
+    @Test
+    @DisplayName("Should restore applications, tallies and voter history after a restart")
+    void shouldRestoreServiceStateAfterRestart() {
+        LoanApplication application = sampleApplication();
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 64 * 1024)) {
+            LoanApplicationService service = new LoanApplicationService(journal);
+            assertEquals(4, service.getAllApplications().size());
+            service.submitApplication(application);
+            service.voteOnApplication(application.getId(), true);
+            assertEquals(VoteResult.RECORDED, service.voteOnApplication("voter-1", application.getId(), false));
+        }
+
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 64 * 1024)) {
+            LoanApplicationService service = new LoanApplicationService(journal);
+
+            // Sample data comes back from the journal instead of being added again.
+            assertEquals(5, service.getAllApplications().size());
+            LoanApplication restored = service.getApplicationById(application.getId()).orElseThrow();
+            assertEquals(1, restored.getApprovalVotes());
+            assertEquals(1, restored.getRejectionVotes());
+            assertEquals(VoteResult.DUPLICATE, service.voteOnApplication("voter-1", application.getId(), true));
+        }
+    }
+
+    @Test
+    @DisplayName("Should restore from a snapshot plus the journal tail written after it")
+    void shouldRestoreFromSnapshotPlusTail() throws IOException {
+        LoanApplication application = sampleApplication();
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 64 * 1024)) {
+            LoanApplicationService service = new LoanApplicationService(journal);
+            service.submitApplication(application);
+            service.voteOnApplication("voter-1", application.getId(), true);
+            service.voteOnApplication(application.getId(), true);
+            journal.snapshot().join();
+            service.voteOnApplication("voter-2", application.getId(), false);
+        }
+
+        assertEquals(1, files("snapshot-").size());
+        assertEquals(1, segments().size(), "segments covered by the snapshot are deleted");
+
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 64 * 1024)) {
+            LoanApplicationService service = new LoanApplicationService(journal);
+
+            assertEquals(5, service.getAllApplications().size());
+            LoanApplication restored = service.getApplicationById(application.getId()).orElseThrow();
+            assertEquals(2, restored.getApprovalVotes());
+            assertEquals(1, restored.getRejectionVotes());
+            assertEquals(VoteResult.DUPLICATE, service.voteOnApplication("voter-1", application.getId(), false));
+            assertEquals(VoteResult.DUPLICATE, service.voteOnApplication("voter-2", application.getId(), false));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep a removed application out after replay and after a snapshot")
+    void shouldKeepRemovedApplicationOut() {
+        LoanApplication removed = sampleApplication();
+        LoanApplication kept = sampleApplication();
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 64 * 1024)) {
+            journal.replay(new Recorder());
+            journal.appendSubmission(removed).join();
+            journal.appendSubmission(kept).join();
+            journal.appendVote(removed.getId(), "voter-1", true).join();
+            journal.appendVote(kept.getId(), "voter-1", true).join();
+            journal.appendRemoval(removed.getId()).join();
+        }
+
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 64 * 1024)) {
+            LoanApplicationService service = new LoanApplicationService(journal);
+            assertTrue(service.getApplicationById(removed.getId()).isEmpty());
+            assertEquals(VoteResult.DUPLICATE, service.voteOnApplication("voter-1", kept.getId(), false));
+            journal.snapshot().join();
+        }
+
+        // The snapshot leaves the removed application out and renumbers the
+        // voter's history around it.
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 64 * 1024)) {
+            LoanApplicationService service = new LoanApplicationService(journal);
+            assertEquals(1, service.getAllApplications().size());
+            assertTrue(service.getApplicationById(removed.getId()).isEmpty());
+            assertEquals(1, service.getApplicationById(kept.getId()).orElseThrow().getApprovalVotes());
+            assertEquals(VoteResult.DUPLICATE, service.voteOnApplication("voter-1", kept.getId(), false));
+        }
+    }
+
+    @Test
+    @DisplayName("Should snapshot automatically and keep only the tail on disk")
+    void shouldSnapshotAutomaticallyAndKeepOnlyTheTail() throws Exception {
+        try (FileJournal journal = new FileJournal(directory, FsyncPolicy.BATCH, Duration.ofMillis(10), 1024, 512, 100)) {
+            journal.replay(new Recorder());
+            journal.appendSubmission(sampleApplication()).join();
+            for (int i = 0; i < 1_000; i++) {
+                journal.appendVote("app", "voter-" + i, true).join();
+            }
+        }
+
+        assertEquals(1, files("snapshot-").size());
+        Recorder recorder = new Recorder();
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 512)) {
+            // One application from the snapshot plus fewer than 100 tail records.
+            assertTrue(journal.replay(recorder) <= 100);
+        }
+        assertEquals(1, recorder.submissions.size());
+    }
+
+    @Test
+    @DisplayName("Should not lose votes cast while snapshots are taken")
+    void shouldNotLoseVotesCastWhileSnapshotting() throws InterruptedException {
+        List<String> ids;
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 4 * 1024)) {
+            LoanApplicationService service = new LoanApplicationService(journal);
+            ids = service.getAllApplications().stream().map(LoanApplication::getId).toList();
+            Thread[] voters = new Thread[4];
+            for (int t = 0; t < voters.length; t++) {
+                int thread = t;
+                voters[t] = new Thread(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        service.voteOnApplication(ids.get(i % ids.size()), thread % 2 == 0);
+                    }
+                });
+                voters[t].start();
+            }
+            for (int i = 0; i < 5; i++) {
+                journal.snapshot().join();
+            }
+            for (Thread voter : voters) {
+                voter.join();
+            }
+        }
+
+        try (FileJournal journal = open(FsyncPolicy.BATCH, 4 * 1024)) {
+            LoanApplicationService service = new LoanApplicationService(journal);
+            int approvals = 0;
+            int rejections = 0;
+            for (String id : ids) {
+                LoanApplication restored = service.getApplicationById(id).orElseThrow();
+                approvals += restored.getApprovalVotes();
+                rejections += restored.getRejectionVotes();
+            }
+            assertEquals(1_000, approvals);
+            assertEquals(1_000, rejections);
+        }
+    }
+
+    /**
+     * Flips a byte inside the first record's body, so its checksum fails.
+     */
+    private static void corrupt(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, 20);
+            one.put(0, (byte) (one.get(0) ^ 0xFF)).rewind();
+            channel.write(one, 20);
+        }
+    }
+
+    private FileJournal open(FsyncPolicy policy, long segmentBytes) {
+        return new FileJournal(directory, policy, Duration.ofMillis(10), 1024, segmentBytes, 0);
+    }
+
+    private List<Path> segments() throws IOException {
+        return files("journal-");
+    }
+
+    private List<Path> files(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix)).sorted().toList();
+        }
+    }
+
+    private static LoanApplication sampleApplication() {
+        LoanApplication application = new LoanApplication();
+        application.setApplicantName("Jane Doe");
+        application.setLoanAmount(new BigDecimal("12500.50"));
+        application.setLoanPurpose("Home Improvement");
+        application.setAnnualIncome(new BigDecimal("58000"));
+        application.setCreditScore(705);
+        application.setEmploymentStatus("Full-time");
+        application.setSubmittedAt(LocalDateTime.of(2024, 3, 1, 9, 30, 15, 123_000_000));
+        return application;
+    }
+
+    private static class Recorder implements JournalReplayHandler {
+        final List<LoanApplication> submissions = new ArrayList<>();
+        final List<String> votes = new ArrayList<>();
+
+        @Override
+        public void onSubmission(LoanApplication application) {
+            submissions.add(application);
+        }
+
+        @Override
+        public void onVote(String applicationId, String voterId, boolean approve) {
+            votes.add(applicationId + "/" + voterId + "/" + approve);
+        }
+
+        @Override
+        public void onPriorVote(String applicationId, String voterId) {
+            votes.add(applicationId + "/" + voterId + "/prior");
+        }
+
+        @Override
+        public void onRemoval(String applicationId) {
+            votes.add(applicationId + "/removed");
+        }
+    }
+}
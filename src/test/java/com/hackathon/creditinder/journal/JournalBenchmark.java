@@ -0,0 +1,124 @@
+package com.hackathon.creditinder.journal;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.service.LoanApplicationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vote throughput through the service path behind {@code /vote} with the
+ * journal disabled and under each fsync policy, and restart time with and
+ * without a snapshot. Run with {@code ./gradlew benchmark}.
+ *
+ * Many request threads vote at once, as Tomcat's worker pool would, so group
+ * commit has concurrent votes to batch behind each fsync.
+ */
+@Tag("benchmark")
+@DisplayName("Journal Benchmark")
+class JournalBenchmark {
+
+    private static final int THREADS = 64;
+    private static final Duration RUN_TIME = Duration.ofSeconds(3);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Vote throughput per fsync policy")
+    void voteThroughputPerFsyncPolicy() throws InterruptedException {
+        System.out.printf("%-14s %14s %14s %12s%n", "policy", "votes/s", "votes/batch", "fsyncs");
+
+        long inMemory = run(Journal.NONE);
+        System.out.printf("%-14s %,14d %14s %12s%n", "no journal", inMemory, "-", "-");
+
+        for (FsyncPolicy policy : FsyncPolicy.values()) {
+            FileJournal journal = new FileJournal(directory.resolve(policy.name()), policy,
+                    Duration.ofMillis(100), 1024, 64L * 1024 * 1024, 0);
+            long votesPerSecond;
+            try (journal) {
+                votesPerSecond = run(journal);
+            }
+            FileJournal.Stats stats = journal.stats();
+            System.out.printf("%-14s %,14d %14.1f %,12d%n", policy.name().toLowerCase(), votesPerSecond,
+                    (double) stats.records() / Math.max(1, stats.batches()), stats.fsyncs());
+            assertTrue(votesPerSecond > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Restart time with and without a snapshot")
+    void restartTimeWithAndWithoutSnapshot() {
+        Path journalDirectory = directory.resolve("restart");
+        int applications = 10_000;
+        int votes = 2_000_000;
+        try (FileJournal journal = open(journalDirectory)) {
+            LoanApplicationService service = new LoanApplicationService(journal);
+            for (int i = 0; i < applications; i++) {
+                service.submitApplication(new LoanApplication());
+            }
+            List<String> ids = service.getAllApplications().stream().map(LoanApplication::getId).toList();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < votes; i++) {
+                service.voteOnApplication("voter-" + random.nextInt(20_000), ids.get(random.nextInt(ids.size())), random.nextBoolean());
+            }
+        }
+
+        long fullReplayMillis = timeRestart(journalDirectory);
+        try (FileJournal journal = open(journalDirectory)) {
+            new LoanApplicationService(journal);
+            journal.snapshot().join();
+        }
+        long snapshotMillis = timeRestart(journalDirectory);
+
+        System.out.printf("%n%-28s %,10d ms%n", "replay " + votes / 1_000_000 + "M-vote journal", fullReplayMillis);
+        System.out.printf("%-28s %,10d ms%n", "load snapshot", snapshotMillis);
+        assertTrue(snapshotMillis < fullReplayMillis);
+    }
+
+    private static FileJournal open(Path directory) {
+        return new FileJournal(directory, FsyncPolicy.NONE, Duration.ofMillis(100), 1024, 64L * 1024 * 1024, 0);
+    }
+
+    private static long timeRestart(Path directory) {
+        long start = System.nanoTime();
+        try (FileJournal journal = open(directory)) {
+            new LoanApplicationService(journal);
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private long run(Journal journal) throws InterruptedException {
+        LoanApplicationService service = new LoanApplicationService(journal);
+        List<String> ids = service.getAllApplications().stream().map(LoanApplication::getId).toList();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder votes = new LongAdder();
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            Thread.ofPlatform().start(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    service.voteOnApplication(ids.get(random.nextInt(ids.size())), random.nextBoolean());
+                    votes.increment();
+                }
+                done.countDown();
+            });
+        }
+        Thread.sleep(RUN_TIME.toMillis());
+        running.set(false);
+        done.await();
+        return votes.sum() * 1_000 / RUN_TIME.toMillis();
+    }
+}
@@ -0,0 +1,270 @@
+package com.hackathon.creditinder.live;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.model.TallyUpdate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TallyBroadcaster Tests")
+class TallyBroadcasterTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private TallyBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new TallyBroadcaster(Duration.ofMillis(20), 2, Duration.ofHours(1), 40, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.close();
+    }
+
+    @Test
+    @DisplayName("Should start a stream with the current tally")
+    void shouldStartWithCurrentTally() throws InterruptedException {
+        LoanApplication application = new LoanApplication();
+        application.addApprovalVote();
+        RecordingSink sink = new RecordingSink();
+
+        broadcaster.subscribe(List.of(application), sink);
+
+        TallyUpdate first = sink.awaitFrame().get(0);
+        assertEquals(application.getId(), first.id());
+        assertEquals(1, first.approvalVotes());
+        assertEquals(100.0, first.approvalPercentage());
+    }
+
+    @Test
+    @DisplayName("Should coalesce a burst of votes into a few frames carrying the final tally")
+    void shouldCoalesceBurstOfVotes() throws InterruptedException {
+        LoanApplication application = new LoanApplication();
+        RecordingSink sink = new RecordingSink();
+        broadcaster.subscribe(List.of(application), sink);
+        sink.awaitFrame();
+
+        for (int i = 0; i < 10_000; i++) {
+            application.addApprovalVote();
+            broadcaster.onTallyChanged(application);
+        }
+        Thread.sleep(200);
+
+        assertTrue(sink.frames.size() < 20, "expected coalesced frames, got " + sink.frames.size());
+        assertEquals(10_000, sink.last().get(0).approvalVotes());
+    }
+
+    @Test
+    @DisplayName("Should only send followed applications, or every change to subscribers of all")
+    void shouldRouteChangesToFollowers() throws InterruptedException {
+        LoanApplication followed = new LoanApplication();
+        LoanApplication other = new LoanApplication();
+        RecordingSink one = new RecordingSink();
+        RecordingSink all = new RecordingSink();
+        broadcaster.subscribe(List.of(followed), one);
+        broadcaster.subscribeAll(all);
+        one.awaitFrame();
+
+        other.addRejectionVote();
+        broadcaster.onTallyChanged(other);
+        followed.addApprovalVote();
+        broadcaster.onTallyChanged(followed);
+
+        List<TallyUpdate> everything = all.awaitFrame();
+        Thread.sleep(100);
+        assertTrue(one.frames.stream().flatMap(List::stream).noneMatch(update -> update.id().equals(other.getId())));
+        assertEquals(1, one.last().get(0).approvalVotes());
+        assertEquals(2, all.frames.stream().mapToInt(List::size).sum(), "changes seen by all: " + everything);
+    }
+
+    @Test
+    @DisplayName("Should drop a subscriber whose connection fails")
+    void shouldDropFailedSubscriber() throws InterruptedException {
+        LoanApplication application = new LoanApplication();
+        RecordingSink sink = new RecordingSink();
+        sink.failing = true;
+
+        broadcaster.subscribe(List.of(application), sink);
+
+        assertTrue(sink.closed.await(1, TimeUnit.SECONDS));
+        assertEquals(0, broadcaster.stats().subscribers());
+        assertEquals(1, broadcaster.stats().dropped());
+    }
+
+    @Test
+    @DisplayName("Should keep serving others while one subscriber is stuck")
+    void shouldNotLetSlowSubscriberBlockOthers() throws InterruptedException {
+        LoanApplication application = new LoanApplication();
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink stuck = new RecordingSink() {
+            @Override
+            public void send(String event, String data) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        RecordingSink healthy = new RecordingSink();
+        broadcaster.subscribe(List.of(application), stuck);
+        broadcaster.subscribe(List.of(application), healthy);
+        healthy.awaitFrame();
+
+        application.addApprovalVote();
+        broadcaster.onTallyChanged(application);
+
+        assertEquals(1, healthy.awaitFrames(2).get(0).approvalVotes());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should drop subscribers stuck in a write and keep the pool serving others")
+    void shouldDropSubscribersStuckInWrite() throws IOException, InterruptedException {
+        // Parsed once up front, so the healthy sink's first write is not slow
+        // enough to pass for a stuck one.
+        new RecordingSink().send(TallyBroadcaster.EVENT, "[]");
+        TallyBroadcaster oneThread = new TallyBroadcaster(
+                Duration.ofMillis(20), 1, Duration.ofHours(1), 40, Duration.ofMillis(200));
+        try {
+            LoanApplication application = new LoanApplication();
+            CountDownLatch release = new CountDownLatch(1);
+            List<RecordingSink> stuck = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                RecordingSink sink = new RecordingSink() {
+                    @Override
+                    public void send(String event, String data) {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                };
+                stuck.add(sink);
+                oneThread.subscribe(List.of(application), sink);
+            }
+            RecordingSink healthy = new RecordingSink();
+            oneThread.subscribe(List.of(application), healthy);
+
+            healthy.awaitFrame();
+            application.addApprovalVote();
+            oneThread.onTallyChanged(application);
+
+            assertEquals(1, healthy.awaitFrames(2).get(0).approvalVotes());
+            assertEquals(1, oneThread.stats().subscribers());
+            assertEquals(3, oneThread.stats().dropped());
+            release.countDown();
+            for (RecordingSink sink : stuck) {
+                assertTrue(sink.closed.await(1, TimeUnit.SECONDS));
+            }
+        } finally {
+            oneThread.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should catch a lagging subscriber up with the latest tally in one frame")
+    void shouldMergeBacklogOfLaggingSubscriber() throws InterruptedException {
+        LoanApplication application = new LoanApplication();
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink lagging = new RecordingSink() {
+            @Override
+            public void send(String event, String data) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(event, data);
+            }
+        };
+        broadcaster.subscribe(List.of(application), lagging);
+
+        // Three separate ticks queue up behind the blocked initial frame.
+        for (int i = 0; i < 3; i++) {
+            application.addApprovalVote();
+            broadcaster.onTallyChanged(application);
+            Thread.sleep(60);
+        }
+        release.countDown();
+
+        assertEquals(3, lagging.awaitFrames(2).get(0).approvalVotes());
+        Thread.sleep(100);
+        assertEquals(2, lagging.frames.size());
+    }
+
+    @Test
+    @DisplayName("Should unsubscribe and end the stream on close")
+    void shouldUnsubscribeOnClose() throws InterruptedException {
+        LoanApplication application = new LoanApplication();
+        RecordingSink sink = new RecordingSink();
+        TallyBroadcaster.Subscription subscription = broadcaster.subscribe(List.of(application), sink);
+        sink.awaitFrame();
+
+        subscription.close();
+        application.addApprovalVote();
+        broadcaster.onTallyChanged(application);
+        Thread.sleep(100);
+
+        assertEquals(1, sink.frames.size());
+        assertEquals(0, sink.closed.getCount());
+        assertEquals(0, broadcaster.stats().subscribers());
+    }
+
+    private static class RecordingSink implements TallySink {
+        final List<List<TallyUpdate>> frames = new CopyOnWriteArrayList<>();
+        final CountDownLatch closed = new CountDownLatch(1);
+        volatile boolean failing;
+
+        @Override
+        public void send(String event, String data) throws IOException {
+            if (failing) {
+                throw new IOException("connection reset");
+            }
+            assertEquals(TallyBroadcaster.EVENT, event);
+            frames.add(JSON.readValue(data, new TypeReference<List<TallyUpdate>>() { }));
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+
+        List<TallyUpdate> last() {
+            return frames.get(frames.size() - 1);
+        }
+
+        List<TallyUpdate> awaitFrame() throws InterruptedException {
+            return awaitFrames(1);
+        }
+
+        List<TallyUpdate> awaitFrames(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (frames.size() < count) {
+                assertTrue(System.nanoTime() < deadline, "timed out waiting for " + count + " frame(s)");
+                Thread.sleep(5);
+            }
+            return last();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.hackathon.creditinder.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackathon.creditinder.model.SwipeCard;
+import com.hackathon.creditinder.model.SwipeResponse;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP load against a running Creditinder.
+ *
+ * Requests arrive as a Poisson process at the target rate whether or not
+ * earlier ones have finished, the way independent members arrive in
+ * production. Each runs on its own virtual thread, and its latency is taken
+ * from the moment it was due, so queueing in the server is not hidden by a
+ * client that politely waits for it. Arrivals beyond {@code maxInFlight}
+ * outstanding requests are shed and counted rather than queued without
+ * limit.
+ *
+ * Members carry a voter cookie and keep a small queue of cards fetched by
+ * {@link Operation#SWIPE_CARDS}, which {@link Operation#VOTE} draws from, as
+ * the swipe page does. A member whose queue is empty votes on any known
+ * application, which may answer 409 if they already voted on it.
+ */
+public final class LoadDriver {
+
+    private static final String VOTER_COOKIE = "creditinder_voter";
+    private static final int CARDS_PER_FETCH = 10;
+    private static final String[] PURPOSES = {"Home Improvement", "Debt Consolidation", "Education", "Vehicle Purchase", "Business"};
+    private static final String[] EMPLOYMENT = {"Full-time", "Part-time", "Self-employed", "Contract"};
+
+    private final URI base;
+    private final List<String> applicationIds;
+    private final Member[] members;
+    private final int maxInFlight;
+    private final ObjectMapper json = new ObjectMapper();
+
+    /**
+     * @param applicationIds applications that exist when the run starts
+     */
+    public LoadDriver(URI base, List<String> applicationIds, int members, int maxInFlight) {
+        this.base = base;
+        this.applicationIds = List.copyOf(applicationIds);
+        this.members = new Member[members];
+        for (int i = 0; i < members; i++) {
+            this.members[i] = new Member(UUID.randomUUID().toString());
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Offers {@code mix} at {@code ratePerSecond} for {@code duration}, then
+     * waits for outstanding requests to finish.
+     */
+    public LoadReport run(LoadMix mix, double ratePerSecond, Duration duration) throws InterruptedException {
+        Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        Map<Operation, Map<Integer, LongAdder>> statuses = new EnumMap<>(Operation.class);
+        for (Operation operation : mix.operations()) {
+            latencies.put(operation, new ConcurrentHistogram(3));
+            statuses.put(operation, new ConcurrentHashMap<>());
+        }
+        AtomicInteger inFlight = new AtomicInteger();
+        long shed = 0;
+        long start = System.nanoTime();
+
+        // Closing the executor first waits for outstanding requests.
+        try (HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .followRedirects(HttpClient.Redirect.NEVER)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build();
+             ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+            long end = start + duration.toNanos();
+            long due = start;
+            while (true) {
+                // Exponential gaps between arrivals make a Poisson process.
+                due += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+                if (due >= end) {
+                    break;
+                }
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (inFlight.incrementAndGet() > maxInFlight) {
+                    inFlight.decrementAndGet();
+                    shed++;
+                    continue;
+                }
+                Operation operation = mix.pick(random.nextDouble());
+                long dueAt = due;
+                requests.execute(() -> {
+                    try {
+                        int status = send(client, operation);
+                        statuses.get(operation).computeIfAbsent(status, s -> new LongAdder()).increment();
+                        latencies.get(operation).recordValue((System.nanoTime() - dueAt) / 1_000);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        List<LoadReport.Endpoint> endpoints = new ArrayList<>();
+        for (Operation operation : mix.operations()) {
+            Map<Integer, Long> counts = new TreeMap<>();
+            statuses.get(operation).forEach((status, count) -> counts.put(status, count.sum()));
+            endpoints.add(new LoadReport.Endpoint(operation, latencies.get(operation), counts));
+        }
+        return new LoadReport(ratePerSecond, duration, elapsed, shed, endpoints);
+    }
+
+    /**
+     * Sends one request and returns its status, or {@code -1} when it could
+     * not be sent or answered.
+     */
+    private int send(HttpClient client, Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Member member = members[random.nextInt(members.length)];
+        try {
+            return switch (operation) {
+                case SWIPE_PAGE -> client.send(member.get(base.resolve("/swipe")),
+                        HttpResponse.BodyHandlers.discarding()).statusCode();
+                case SWIPE_CARDS -> fetchCards(client, member);
+                case VOTE -> {
+                    String card = member.cards.poll();
+                    if (card == null) {
+                        card = anyApplication();
+                    }
+                    yield client.send(member.post(base.resolve("/vote"),
+                                    "applicationId=" + card + "&approve=" + random.nextBoolean()),
+                            HttpResponse.BodyHandlers.discarding()).statusCode();
+                }
+                case APPLY -> client.send(member.post(base.resolve("/apply"), applicationForm(random)),
+                        HttpResponse.BodyHandlers.discarding()).statusCode();
+                case DASHBOARD -> client.send(member.get(base.resolve("/applications")),
+                        HttpResponse.BodyHandlers.discarding()).statusCode();
+                case DETAILS -> client.send(member.get(base.resolve("/application/" + anyApplication())),
+                        HttpResponse.BodyHandlers.discarding()).statusCode();
+            };
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private int fetchCards(HttpClient client, Member member) throws IOException, InterruptedException {
+        StringBuilder uri = new StringBuilder("/api/swipe?count=").append(CARDS_PER_FETCH);
+        for (String queued : member.cards) {
+            uri.append("&queued=").append(queued);
+        }
+        HttpResponse<byte[]> response = client.send(member.get(base.resolve(uri.toString())),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() == 200) {
+            for (SwipeCard card : json.readValue(response.body(), SwipeResponse.class).cards()) {
+                member.cards.add(card.id());
+            }
+        }
+        return response.statusCode();
+    }
+
+    private String anyApplication() {
+        return applicationIds.get(ThreadLocalRandom.current().nextInt(applicationIds.size()));
+    }
+
+    private static String applicationForm(ThreadLocalRandom random) {
+        return "applicantName=Load+Applicant+" + random.nextInt(1_000_000)
+                + "&loanAmount=" + random.nextInt(1_000, 500_000)
+                + "&loanPurpose=" + PURPOSES[random.nextInt(PURPOSES.length)].replace(' ', '+')
+                + "&annualIncome=" + random.nextInt(20_000, 250_000)
+                + "&creditScore=" + random.nextInt(300, 851)
+                + "&employmentStatus=" + EMPLOYMENT[random.nextInt(EMPLOYMENT.length)]
+                + "&additionalNotes=";
+    }
+
+    private record Member(String voterId, ConcurrentLinkedQueue<String> cards) {
+
+        Member(String voterId) {
+            this(voterId, new ConcurrentLinkedQueue<>());
+        }
+
+        HttpRequest get(URI uri) {
+            return HttpRequest.newBuilder(uri).header("Cookie", VOTER_COOKIE + "=" + voterId).GET().build();
+        }
+
+        HttpRequest post(URI uri, String form) {
+            return HttpRequest.newBuilder(uri)
+                    .header("Cookie", VOTER_COOKIE + "=" + voterId)
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form))
+                    .build();
+        }
+    }
+}
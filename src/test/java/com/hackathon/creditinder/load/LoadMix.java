@@ -0,0 +1,79 @@
+package com.hackathon.creditinder.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Relative weights of each {@link Operation} in the offered load, written as
+ * {@code vote:55,swipe-cards:15,dashboard:10}. Operations left out are not
+ * sent.
+ */
+public final class LoadMix {
+
+    /** Mostly swiping, a trickle of submissions and dashboards polling. */
+    public static final String DEFAULT =
+            "swipe-page:5,swipe-cards:15,vote:60,apply:2,dashboard:10,details:8";
+
+    private final Operation[] operations;
+    private final double[] cumulative;
+
+    private LoadMix(Map<Operation, Integer> weights) {
+        operations = weights.keySet().toArray(new Operation[0]);
+        cumulative = new double[operations.length];
+        double total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        double running = 0;
+        for (int i = 0; i < operations.length; i++) {
+            running += weights.get(operations[i]);
+            cumulative[i] = running / total;
+        }
+    }
+
+    public static LoadMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but got '" + entry + "'");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + parts[0]);
+            }
+            if (weight > 0) {
+                weights.merge(Operation.ofKey(parts[0].trim()), weight, Integer::sum);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Load mix '" + spec + "' sends nothing");
+        }
+        return new LoadMix(weights);
+    }
+
+    /**
+     * Maps a uniform draw in {@code [0, 1)} to an operation.
+     */
+    public Operation pick(double draw) {
+        for (int i = 0; i < cumulative.length - 1; i++) {
+            if (draw < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    public Operation[] operations() {
+        return operations.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner spec = new StringJoiner(",");
+        double previous = 0;
+        for (int i = 0; i < operations.length; i++) {
+            spec.add(operations[i].key() + ":" + Math.round((cumulative[i] - previous) * 100) + "%");
+            previous = cumulative[i];
+        }
+        return spec.toString();
+    }
+}
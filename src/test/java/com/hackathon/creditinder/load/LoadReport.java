@@ -0,0 +1,65 @@
+package com.hackathon.creditinder.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-endpoint outcome of a {@link LoadDriver} run. Latencies are in
+ * microseconds, measured from when each request was due rather than when it
+ * was sent, so a server that falls behind shows up in the percentiles.
+ *
+ * @param elapsed    from the first arrival until the last request finished;
+ *                   longer than {@code duration} when the server fell behind
+ */
+public record LoadReport(double offeredRate, Duration duration, Duration elapsed, long shed,
+                         List<Endpoint> endpoints) {
+
+    /**
+     * @param statuses HTTP status counts; {@code -1} counts transport failures
+     */
+    public record Endpoint(Operation operation, Histogram latencies, Map<Integer, Long> statuses) {
+
+        public long count() {
+            return latencies.getTotalCount();
+        }
+
+        /**
+         * Transport failures and 5xx answers. A duplicate vote's 409 is an
+         * expected answer, not an error.
+         */
+        public long errors() {
+            return statuses.entrySet().stream()
+                    .filter(status -> status.getKey() < 0 || status.getKey() >= 500)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+        }
+    }
+
+    public long errors() {
+        return endpoints.stream().mapToLong(Endpoint::errors).sum();
+    }
+
+    public long count() {
+        return endpoints.stream().mapToLong(Endpoint::count).sum();
+    }
+
+    public void print(PrintStream out) {
+        double seconds = elapsed.toMillis() / 1_000.0;
+        out.printf("offered %,.0f req/s for %.1fs, completed %,.0f req/s over %.1fs, shed %,d%n",
+                offeredRate, duration.toMillis() / 1_000.0, count() / seconds, seconds, shed);
+        out.printf("%-24s %9s %9s %9s %9s %9s %9s %9s  %s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "statuses");
+        for (Endpoint endpoint : endpoints) {
+            Histogram latencies = endpoint.latencies();
+            out.printf("%-24s %,9d %,9.0f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    endpoint.operation().endpoint(), endpoint.count(), endpoint.count() / seconds,
+                    latencies.getValueAtPercentile(50) / 1e3, latencies.getValueAtPercentile(90) / 1e3,
+                    latencies.getValueAtPercentile(99) / 1e3, latencies.getValueAtPercentile(99.9) / 1e3,
+                    latencies.getMaxValue() / 1e3, endpoint.statuses());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.hackathon.creditinder.load;
+
+import java.util.Locale;
+
+/**
+ * One kind of request in the synthetic workload.
+ */
+public enum Operation {
+
+    /** A member opening the swipe page. */
+    SWIPE_PAGE("GET /swipe"),
+    /** A member's swipe queue fetching its next cards. */
+    SWIPE_CARDS("GET /api/swipe"),
+    /** A member voting on the next card in their queue. */
+    VOTE("POST /vote"),
+    /** An applicant submitting the application form. */
+    APPLY("POST /apply"),
+    /** A dashboard polling the applications list. */
+    DASHBOARD("GET /applications"),
+    /** A dashboard polling one application's results. */
+    DETAILS("GET /application/{id}");
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+
+    /**
+     * The name used in a mix specification, e.g. {@code swipe-cards}.
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    public static Operation ofKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key().equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + key + "'");
+    }
+}
@@ -87,6 +87,36 @@ class LoanApplicationTest {
         assertTrue(violations.stream().anyMatch(v -> v.getPropertyPath().toString().equals("applicantName")));
     }
 
+    @Test
+    @DisplayName("Should fail validation when loan purpose is not a listed option")
+    void shouldFailValidationWhenLoanPurposeIsNotListed() {
+        loanApplication.setLoanPurpose("Yacht");
+        
+        Set<ConstraintViolation<LoanApplication>> violations = validator.validate(loanApplication);
+        assertEquals(1, violations.size());
+        assertEquals("loanPurpose", violations.iterator().next().getPropertyPath().toString());
+    }
+
+    @Test
+    @DisplayName("Should fail validation when employment status is not a listed option")
+    void shouldFailValidationWhenEmploymentStatusIsNotListed() {
+        loanApplication.setEmploymentStatus("full-time");
+        
+        Set<ConstraintViolation<LoanApplication>> violations = validator.validate(loanApplication);
+        assertEquals(1, violations.size());
+        assertEquals("employmentStatus", violations.iterator().next().getPropertyPath().toString());
+    }
+
+    @Test
+    @DisplayName("Should report a blank loan purpose only as missing")
+    void shouldReportBlankLoanPurposeOnlyAsMissing() {
+        loanApplication.setLoanPurpose("");
+        
+        Set<ConstraintViolation<LoanApplication>> violations = validator.validate(loanApplication);
+        assertEquals(1, violations.size());
+        assertEquals("Loan purpose is required", violations.iterator().next().getMessage());
+    }
+
     @Test
     @DisplayName("Should fail validation when loan amount is null")
     void shouldFailValidationWhenLoanAmountIsNull() {
@@ -107,6 +137,18 @@ class LoanApplicationTest {
         assertTrue(violations.stream().anyMatch(v -> v.getPropertyPath().toString().equals("loanAmount")));
     }
 
+    @Test
+    @DisplayName("Should fail validation when amounts are too large or finer than cents")
+    void shouldFailValidationWhenAmountsAreOutOfBounds() {
+        loanApplication.setLoanAmount(new BigDecimal("1e9999999"));
+        loanApplication.setAnnualIncome(new BigDecimal("65000.001"));
+        
+        Set<ConstraintViolation<LoanApplication>> violations = validator.validate(loanApplication);
+        assertEquals(2, violations.size());
+        assertTrue(violations.stream().anyMatch(v -> v.getPropertyPath().toString().equals("loanAmount")));
+        assertTrue(violations.stream().anyMatch(v -> v.getPropertyPath().toString().equals("annualIncome")));
+    }
+
     @Test
     @DisplayName("Should fail validation when annual income is null")
     void shouldFailValidationWhenAnnualIncomeIsNull() {
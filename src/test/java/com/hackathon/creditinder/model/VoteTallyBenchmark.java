@@ -0,0 +1,91 @@
+package com.hackathon.creditinder.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contention benchmark for a single hot card. Run with {@code ./gradlew benchmark}.
+ *
+ * Every thread hammers the same {@link LoanApplication} for a fixed window;
+ * the table printed at the end shows votes/second per thread count and the
+ * test fails if a single vote was lost.
+ */
+@Tag("benchmark")
+@DisplayName("VoteTally Contention Benchmark")
+class VoteTallyBenchmark {
+
+    private static final long WARMUP_MILLIS = 300;
+    private static final long MEASURE_MILLIS = 1_000;
+
+    @Test
+    @DisplayName("Throughput scales with threads and no votes are lost")
+    void throughputScalesWithThreadsAndNoVotesAreLost() throws InterruptedException {
+        int maxThreads = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
+        run(1, WARMUP_MILLIS);
+        System.out.printf("%-8s %15s %15s%n", "threads", "votes/sec", "lost votes");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            Result result = run(threads, MEASURE_MILLIS);
+            System.out.printf("%-8d %,15.0f %15d%n", threads, result.votesPerSecond(), result.lostVotes());
+            assertEquals(0, result.lostVotes(), "Lost votes with " + threads + " threads");
+        }
+    }
+
+    private Result run(int threads, long millis) throws InterruptedException {
+        LoanApplication hotCard = new LoanApplication();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] issued = new long[threads];
+        Thread[] workers = new Thread[threads];
+
+        for (int t = 0; t < threads; t++) {
+            final int slot = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long count = 0;
+                while (running.get()) {
+                    if ((count & 1) == 0) {
+                        hotCard.addApprovalVote();
+                    } else {
+                        hotCard.addRejectionVote();
+                    }
+                    count++;
+                }
+                issued[slot] = count;
+            });
+            workers[t].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        Thread.sleep(millis);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        long totalIssued = 0;
+        for (long count : issued) {
+            totalIssued += count;
+        }
+        long recorded = hotCard.getVoteCounts().total();
+        double perSecond = totalIssued / (elapsed / (double) TimeUnit.SECONDS.toNanos(1));
+        return new Result(perSecond, totalIssued - recorded);
+    }
+
+    private record Result(double votesPerSecond, long lostVotes) {
+    }
+}
@@ -0,0 +1,136 @@
+package com.hackathon.creditinder.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("VoteTally Tests")
+class VoteTallyTest {
+
+    @Test
+    @DisplayName("Should start empty")
+    void shouldStartEmpty() {
+        VoteTally tally = new VoteTally();
+
+        VoteTally.Counts counts = tally.snapshot();
+        assertEquals(0, counts.approvals());
+        assertEquals(0, counts.rejections());
+        assertEquals(0.0, counts.approvalPercentage());
+    }
+
+    @Test
+    @DisplayName("Should keep approvals and rejections independent")
+    void shouldKeepApprovalsAndRejectionsIndependent() {
+        VoteTally tally = new VoteTally();
+
+        tally.recordApproval();
+        tally.recordApproval();
+        tally.recordRejection();
+        tally.record(true);
+
+        VoteTally.Counts counts = tally.snapshot();
+        assertEquals(3, counts.approvals());
+        assertEquals(1, counts.rejections());
+        assertEquals(4, counts.total());
+        assertEquals(75.0, counts.approvalPercentage());
+    }
+
+    @Test
+    @DisplayName("Should add several votes at once")
+    void shouldAddSeveralVotesAtOnce() {
+        VoteTally tally = new VoteTally(1, 1);
+
+        tally.record(3, 2);
+        tally.record(0, 4);
+
+        VoteTally.Counts counts = tally.snapshot();
+        assertEquals(4, counts.approvals());
+        assertEquals(7, counts.rejections());
+    }
+
+    @Test
+    @DisplayName("Should restore counts on reset")
+    void shouldRestoreCountsOnReset() {
+        VoteTally tally = new VoteTally();
+        tally.recordRejection();
+
+        tally.reset(7, 3);
+
+        assertEquals(new VoteTally.Counts(7, 3), tally.snapshot());
+    }
+
+    @Test
+    @DisplayName("Should not lose votes under heavy contention")
+    void shouldNotLoseVotesUnderHeavyContention() throws InterruptedException {
+        VoteTally tally = new VoteTally();
+        int threads = 16;
+        int votesPerThread = 20_000;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+
+        for (int t = 0; t < threads; t++) {
+            final boolean approve = t % 2 == 0;
+            workers[t] = new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < votesPerThread; i++) {
+                    tally.record(approve);
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        VoteTally.Counts counts = tally.snapshot();
+        assertEquals(threads / 2 * votesPerThread, counts.approvals());
+        assertEquals(threads / 2 * votesPerThread, counts.rejections());
+    }
+
+    @Test
+    @DisplayName("Should never observe a snapshot with mismatched counts while voting")
+    void shouldNeverObserveMismatchedSnapshotWhileVoting() throws InterruptedException {
+        // Every writer records an approval followed by a rejection, so any
+        // consistent snapshot has approvals >= rejections and the gap is at
+        // most one per writer.
+        VoteTally tally = new VoteTally();
+        int writers = 4;
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread[] workers = new Thread[writers];
+        for (int t = 0; t < writers; t++) {
+            workers[t] = new Thread(() -> {
+                while (running.get()) {
+                    tally.recordApproval();
+                    tally.recordRejection();
+                }
+            });
+            workers[t].start();
+        }
+
+        try {
+            for (int i = 0; i < 50_000; i++) {
+                VoteTally.Counts counts = tally.snapshot();
+                int gap = counts.approvals() - counts.rejections();
+                assertTrue(gap >= 0 && gap <= writers, "Inconsistent snapshot: " + counts);
+            }
+        } finally {
+            running.set(false);
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.hackathon.creditinder.partition;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HashRing Tests")
+class HashRingTest {
+
+    private static final List<String> KEYS = keys(20_000);
+
+    @Test
+    @DisplayName("Should give every key the same owner whatever order nodes are listed in")
+    void shouldAgreeWhateverNodeOrder() {
+        HashRing one = new HashRing(List.of("a", "b", "c"), 64);
+        HashRing other = new HashRing(List.of("c", "a", "b"), 64);
+
+        for (String key : KEYS) {
+            assertEquals(one.ownerOf(key), other.ownerOf(key));
+        }
+    }
+
+    @Test
+    @DisplayName("Should spread keys near evenly across nodes")
+    void shouldSpreadKeysEvenly() {
+        HashRing ring = new HashRing(List.of("a", "b", "c", "d"), HashRing.DEFAULT_VIRTUAL_NODES);
+
+        Map<String, Integer> owned = new HashMap<>();
+        for (String key : KEYS) {
+            owned.merge(ring.ownerOf(key), 1, Integer::sum);
+        }
+
+        assertEquals(4, owned.size());
+        int fair = KEYS.size() / 4;
+        for (int count : owned.values()) {
+            assertTrue(Math.abs(count - fair) < fair / 4, "owned " + owned);
+        }
+    }
+
+    @Test
+    @DisplayName("Should only move keys to a node that joins, about its share of them")
+    void shouldOnlyMoveKeysToJoiningNode() {
+        HashRing before = new HashRing(List.of("a", "b", "c"), HashRing.DEFAULT_VIRTUAL_NODES);
+        HashRing after = before.withNode("d");
+
+        int moved = 0;
+        for (String key : KEYS) {
+            String owner = after.ownerOf(key);
+            if (!owner.equals(before.ownerOf(key))) {
+                assertEquals("d", owner);
+                moved++;
+            }
+        }
+        int fair = KEYS.size() / 4;
+        assertTrue(Math.abs(moved - fair) < fair / 4, "moved " + moved);
+    }
+
+    @Test
+    @DisplayName("Should keep its nodes and return itself when a node is already on")
+    void shouldKeepNodes() {
+        HashRing ring = new HashRing(List.of("b", "a"), 8);
+
+        assertEquals(List.of("a", "b"), ring.nodes());
+        assertTrue(ring.contains("a"));
+        assertFalse(ring.contains("c"));
+        assertSame(ring, ring.withNode("b"));
+        assertNull(new HashRing(List.of(), 8).ownerOf("app-1"));
+    }
+
+    private static List<String> keys(int count) {
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            keys.add(UUID.nameUUIDFromBytes(("app-" + i).getBytes()).toString());
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,311 @@
+package com.hackathon.creditinder.partition;
+
+import com.hackathon.creditinder.CreditinderApplication;
+import com.hackathon.creditinder.journal.Journal;
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.model.VoteTally;
+import com.hackathon.creditinder.service.ApplicationAnalytics;
+import com.hackathon.creditinder.service.ApplicationPage;
+import com.hackathon.creditinder.service.ApplicationSort;
+import com.hackathon.creditinder.service.SearchFilter;
+import com.hackathon.creditinder.trending.TrendingTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Partitioned nodes, each a full application in its own JVM on this
+ * machine, talking over HTTP on the loopback interface.
+ */
+@DisplayName("Partition Cluster Tests")
+class PartitionClusterTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+    private static final int APPLICATIONS = 40;
+    private static final String SECRET = "cluster-test-secret";
+
+    private final List<Process> processes = new ArrayList<>();
+    private final HttpClient http = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+    private final PartitionClient client = new PartitionClient(Duration.ofSeconds(5), SECRET);
+
+    @AfterEach
+    void tearDown() {
+        for (Process process : processes) {
+            process.destroyForcibly();
+        }
+        client.close();
+    }
+
+    @Test
+    @DisplayName("Should route, gather and rebalance across JVMs when a node joins")
+    void shouldRouteGatherAndRebalance() throws Exception {
+        int[] ports = freePorts(3);
+        PartitionMember a = member("a", ports[0]);
+        PartitionMember b = member("b", ports[1]);
+        PartitionMember c = member("c", ports[2]);
+        start(a, List.of());
+        start(b, List.of(a));
+
+        // Submitted and voted on through either node's public endpoints,
+        // whichever owns each application.
+        for (int i = 0; i < APPLICATIONS; i++) {
+            submit(i % 2 == 0 ? a : b, "Applicant " + i);
+        }
+        // Written by each node's intake thread shortly after being accepted.
+        await(() -> union(holdings(a, b)).size() == APPLICATIONS);
+        Map<String, Set<String>> held = holdings(a, b);
+        Set<String> ids = union(held);
+        assertEquals(APPLICATIONS, ids.size());
+        assertFalse(held.get("a").isEmpty());
+        assertFalse(held.get("b").isEmpty());
+        for (String id : ids) {
+            assertEquals(200, post(a, "/vote?applicationId=" + id + "&approve=true"));
+            assertEquals(200, post(b, "/vote?applicationId=" + id + "&approve=false"));
+        }
+        String cards = get(a, "/api/swipe?count=20").body();
+        long seen = ids.stream().filter(cards::contains).count();
+        assertEquals(20, seen, "a swipe batch holds 20 distinct cards from both partitions");
+
+        // A third node joins through a alone, learns of b from it, and takes
+        // over its share from both.
+        start(c, List.of(a));
+        HashRing ring = new HashRing(List.of("a", "b", "c"), HashRing.DEFAULT_VIRTUAL_NODES);
+        await(() -> {
+            Map<String, Set<String>> now = holdings(a, b, c);
+            int total = now.values().stream().mapToInt(Set::size).sum();
+            return total == APPLICATIONS && union(now).equals(ids)
+                    && now.entrySet().stream().allMatch(entry ->
+                            entry.getValue().stream().allMatch(id -> ring.ownerOf(id).equals(entry.getKey())));
+        });
+        assertFalse(holdings(c).get("c").isEmpty());
+
+        for (String id : ids) {
+            assertEquals(200, get(b, "/application/" + id).statusCode(), "detail page of " + id);
+            PartitionMember owner = Map.of("a", a, "b", b, "c", c).get(ring.ownerOf(id));
+            LoanApplication application = client.get(owner, id).orElseThrow();
+            assertEquals(new VoteTally.Counts(1, 1), application.getVoteCounts());
+        }
+        assertGathered(ids, a, b, c);
+        assertEquals(200, post(c, "/vote?applicationId=" + ids.iterator().next() + "&approve=true"));
+
+        // Nobody without the secret can join the ring, and a body claiming a
+        // huge string is refused without allocating it.
+        byte[] hostile = {0, 0, 0, 1, 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff};
+        assertEquals(403, internal(a, "/members", hostile, null));
+        assertEquals(403, internal(a, "/members", hostile, "wrong-secret"));
+        assertEquals(400, internal(a, "/members", hostile, SECRET));
+    }
+
+    /**
+     * Pages, search, analytics, trending and the version, read through a
+     * node that holds nothing and that no member knows of.
+     */
+    private void assertGathered(Set<String> ids, PartitionMember... members) {
+        try (PartitionedApplicationService reader = new PartitionedApplicationService(Journal.NONE,
+                new PartitionMember("reader", "http://127.0.0.1:1"), List.of(members),
+                HashRing.DEFAULT_VIRTUAL_NODES, 2, Duration.ofSeconds(5), Duration.ofMinutes(1), SECRET)) {
+            List<String> paged = new ArrayList<>();
+            LocalDateTime previous = null;
+            String cursor = null;
+            do {
+                ApplicationPage page = reader.getApplicationPage(ApplicationSort.SUBMITTED_AT, true, cursor, 7);
+                assertEquals(APPLICATIONS, page.total());
+                for (LoanApplication application : page.applications()) {
+                    assertTrue(previous == null || !application.getSubmittedAt().isAfter(previous), "newest first");
+                    previous = application.getSubmittedAt();
+                    paged.add(application.getId());
+                }
+                cursor = page.nextCursor();
+            } while (cursor != null);
+            assertEquals(APPLICATIONS, paged.size(), "each application on exactly one page");
+            assertEquals(ids, new HashSet<>(paged));
+
+            List<String> found = new ArrayList<>();
+            cursor = null;
+            do {
+                ApplicationPage page = reader.searchApplications("education", SearchFilter.NONE, cursor, 7);
+                assertEquals(APPLICATIONS, page.total());
+                page.applications().forEach(application -> found.add(application.getId()));
+                cursor = page.nextCursor();
+            } while (cursor != null);
+            assertEquals(APPLICATIONS, found.size(), "each match on exactly one page");
+            assertEquals(ids, new HashSet<>(found));
+
+            ApplicationAnalytics.Bucket total = reader.getAnalytics().total();
+            assertEquals(APPLICATIONS, total.applications());
+            assertEquals(APPLICATIONS, total.approvals());
+            assertEquals(APPLICATIONS, total.rejections());
+
+            assertEquals(reader.getStoreVersion(), reader.getStoreVersion());
+            // Each node keeps its own top 10, ranked in the background; every
+            // application took one approval and one rejection.
+            await(() -> reader.gatherTrending(false, List.of(), 10).size() == 10);
+            for (TrendingTracker.Trend trend : reader.gatherTrending(false, List.of(), 10)) {
+                assertTrue(ids.contains(trend.applicationId()));
+                assertEquals(2, trend.votes());
+            }
+        }
+    }
+
+    private static PartitionMember member(String id, int port) {
+        return new PartitionMember(id, "http://127.0.0.1:" + port);
+    }
+
+    private void start(PartitionMember member, List<PartitionMember> members) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                CreditinderApplication.class.getName(),
+                "--server.port=" + URI.create(member.url()).getPort(),
+                "--management.server.port=-1",
+                "--spring.main.banner-mode=off",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.com.hackathon.creditinder=INFO",
+                "--creditinder.journal.enabled=false",
+                "--creditinder.partition.enabled=true",
+                "--creditinder.partition.node-id=" + member.id(),
+                "--creditinder.partition.url=" + member.url(),
+                "--creditinder.partition.handoff-delay=100ms",
+                "--creditinder.partition.secret=" + SECRET));
+        if (!members.isEmpty()) {
+            command.add("--creditinder.partition.members=" + String.join(",",
+                    members.stream().map(m -> m.id() + "=" + m.url()).toList()));
+        }
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        processes.add(process);
+
+        // Ready once it has announced itself; the log is drained from then on
+        // so the node never blocks writing it.
+        CountDownLatch joined = new CountDownLatch(1);
+        Thread.ofPlatform().daemon().start(() -> {
+            try (BufferedReader out = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = out.readLine()) != null) {
+                    if (line.contains("Partition " + member.id() + " joined")) {
+                        joined.countDown();
+                    }
+                }
+            } catch (IOException ignored) {
+                // The node was stopped.
+            }
+        });
+        assertTrue(joined.await(TIMEOUT.toSeconds(), TimeUnit.SECONDS), "node " + member.id() + " did not start");
+    }
+
+    private void submit(PartitionMember node, String applicant) throws IOException, InterruptedException {
+        String form = "applicantName=" + applicant.replace(' ', '+')
+                + "&loanAmount=10000&loanPurpose=Education&annualIncome=50000&creditScore=700"
+                + "&employmentStatus=Full-time&additionalNotes=";
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(node.url() + "/apply"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(302, response.statusCode(), "a valid submission redirects home");
+    }
+
+    private int post(PartitionMember node, String path) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(node.url() + path))
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int internal(PartitionMember node, String path, byte[] body, String secret)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(node.url() + PartitionClient.BASE_PATH + path))
+                .header("Content-Type", "application/octet-stream")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        if (secret != null) {
+            request.header(PartitionClient.SECRET_HEADER, secret);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpResponse<String> get(PartitionMember node, String path) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(node.url() + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Ids of the applications each node holds in its own partition.
+     */
+    private Map<String, Set<String>> holdings(PartitionMember... nodes) {
+        Map<String, Set<String>> held = new HashMap<>();
+        for (PartitionMember node : nodes) {
+            Set<String> ids = new HashSet<>();
+            for (LoanApplication application : PartitionClient.await(client.all(node))) {
+                ids.add(application.getId());
+            }
+            held.put(node.id(), ids);
+        }
+        return held;
+    }
+
+    private static Set<String> union(Map<String, Set<String>> held) {
+        Set<String> all = new HashSet<>();
+        held.values().forEach(all::addAll);
+        return all;
+    }
+
+    private static int[] freePorts(int count) {
+        int[] ports = new int[count];
+        List<ServerSocket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < count; i++) {
+                ServerSocket socket = new ServerSocket(0);
+                sockets.add(socket);
+                ports[i] = socket.getLocalPort();
+            }
+            for (ServerSocket socket : sockets) {
+                socket.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ports;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Partitions did not settle within " + TIMEOUT);
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted");
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.hackathon.creditinder.ratelimit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RateLimiter Tests")
+class RateLimiterTest {
+
+    private final List<RateLimiter> limiters = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        limiters.forEach(RateLimiter::close);
+    }
+
+    @Test
+    @DisplayName("Should allow a burst, then refuse with the wait until the next token")
+    void shouldAllowBurstThenRefuse() {
+        RateLimiter limiter = limiter(1, 3, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.acquire("voter-1"));
+        }
+        long wait = limiter.acquire("voter-1");
+
+        assertTrue(wait > TimeUnit.MILLISECONDS.toNanos(900) && wait <= TimeUnit.SECONDS.toNanos(1), "wait " + wait);
+        assertEquals(0, limiter.acquire("voter-2"), "keys have their own buckets");
+        assertEquals(new RateLimiter.Stats(4, 1, 2, 0), limiter.stats());
+    }
+
+    @Test
+    @DisplayName("Should hand out tokens again at the sustained rate")
+    void shouldRefillAtRate() throws InterruptedException {
+        RateLimiter limiter = limiter(50, 1, 100);
+        assertEquals(0, limiter.acquire("voter-1"));
+        assertTrue(limiter.acquire("voter-1") > 0);
+
+        Thread.sleep(25);
+
+        assertEquals(0, limiter.acquire("voter-1"));
+    }
+
+    @Test
+    @DisplayName("Should let exactly a burst through when many threads race for one key")
+    void shouldGrantExactlyBurstUnderContention() throws InterruptedException {
+        RateLimiter limiter = limiter(0.001, 100, 100);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (limiter.acquire("script") == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(100, granted.get());
+        assertEquals(7900, limiter.stats().rejected());
+    }
+
+    @Test
+    @DisplayName("Should forget buckets once they have filled up again")
+    void shouldSweepIdleBuckets() throws InterruptedException {
+        RateLimiter limiter = limiter(1000, 1, 100);
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire("voter-" + i);
+        }
+        assertEquals(50, limiter.keys());
+
+        Thread.sleep(5);
+        limiter.sweep();
+
+        assertEquals(0, limiter.keys());
+        assertEquals(50, limiter.stats().evicted());
+    }
+
+    @Test
+    @DisplayName("Should make new keys share one bucket once the table is full")
+    void shouldShareOverflowBucketWhenFull() {
+        RateLimiter limiter = limiter(0.001, 2, 3);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.acquire("voter-" + i));
+        }
+
+        assertEquals(0, limiter.acquire("new-1"));
+        assertEquals(0, limiter.acquire("new-2"));
+        assertTrue(limiter.acquire("new-3") > 0);
+        assertEquals(3, limiter.keys());
+        assertEquals(0, limiter.acquire("voter-0"), "tracked keys keep their own bucket");
+    }
+
+    @Test
+    @DisplayName("Should charge every permit a request asks for")
+    void shouldChargeEveryPermit() {
+        RateLimiter limiter = limiter(1, 10, 100);
+
+        assertEquals(0, limiter.acquire("voter-1", 8));
+        assertTrue(limiter.acquire("voter-1", 3) > 0, "only two of the burst are left");
+        assertEquals(0, limiter.acquire("voter-1", 2));
+        assertTrue(limiter.acquire("voter-1") > 0);
+        assertEquals(10, limiter.stats().allowed());
+    }
+
+    @Test
+    @DisplayName("Should let a request larger than the burst through only from a full bucket, then make the key wait")
+    void shouldLetOversizedRequestsRunIntoDebt() {
+        RateLimiter limiter = limiter(1, 10, 100);
+
+        assertEquals(0, limiter.acquire("voter-1", 500));
+        long wait = limiter.acquire("voter-1");
+
+        assertTrue(wait > TimeUnit.SECONDS.toNanos(480), "wait " + wait);
+        assertEquals(0, limiter.acquire("voter-2", 1));
+        assertTrue(limiter.acquire("voter-2", 500) > 0, "a bucket not full can not take more than a burst");
+    }
+
+    @Test
+    @DisplayName("Should give back released permits")
+    void shouldReleasePermits() {
+        RateLimiter limiter = limiter(0.001, 5, 100);
+        assertEquals(0, limiter.acquire("voter-1", 5));
+        assertTrue(limiter.acquire("voter-1") > 0);
+
+        limiter.release("voter-1", 2);
+
+        assertEquals(0, limiter.acquire("voter-1", 2));
+        assertTrue(limiter.acquire("voter-1") > 0);
+    }
+
+    @Test
+    @DisplayName("Should not charge the voter when the address limit refuses")
+    void shouldNotChargeVoterWhenAddressRefuses() {
+        RateLimiter voters = limiter(0.001, 10, 100);
+        RateLimiter addresses = limiter(0.001, 4, 100);
+        ClientRateLimiter limiter = new ClientRateLimiter(voters, addresses);
+
+        assertEquals(0, limiter.acquire("voter-1", "10.0.0.1", 3));
+        assertTrue(limiter.acquire("voter-1", "10.0.0.1", 3) > 0);
+
+        assertEquals(0, limiter.acquire("voter-1", "10.0.0.2", 7), "the refused request left voter-1 seven permits");
+        assertTrue(limiter.acquire("voter-1", "10.0.0.3", 1) > 0);
+    }
+
+    private RateLimiter limiter(double permitsPerSecond, int burst, int maxKeys) {
+        RateLimiter limiter = new RateLimiter("test", permitsPerSecond, burst, maxKeys, Duration.ofHours(1));
+        limiters.add(limiter);
+        return limiter;
+    }
+}
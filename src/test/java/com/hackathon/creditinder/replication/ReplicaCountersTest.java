@@ -0,0 +1,132 @@
+package com.hackathon.creditinder.replication;
+
+import com.hackathon.creditinder.model.VoteTally;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ReplicaCounters Tests")
+class ReplicaCountersTest {
+
+    @Test
+    @DisplayName("Should queue a changed own slot once until it is drained")
+    void shouldQueueChangedOwnSlotOnce() {
+        ReplicaCounters counters = new ReplicaCounters("a");
+        counters.addLocal("app-1", 1, 0);
+        counters.addLocal("app-1", 0, 1);
+        counters.addLocal("app-1", 2, 0);
+
+        List<ReplicationFrame.Slot> drained = new ArrayList<>();
+        assertEquals(1, counters.drainChanged(10, drained));
+        assertEquals(List.of(new ReplicationFrame.Slot("app-1", "a", 3, 1)), drained);
+        assertEquals(0, counters.drainChanged(10, drained));
+
+        counters.addLocal("app-1", 1, 0);
+        assertEquals(1, counters.drainChanged(10, drained));
+        assertEquals(new ReplicationFrame.Slot("app-1", "a", 4, 1), drained.get(1));
+    }
+
+    @Test
+    @DisplayName("Should not queue seeded slots")
+    void shouldNotQueueSeededSlots() {
+        ReplicaCounters counters = new ReplicaCounters("a");
+        counters.seed("app-1", 5, 2);
+
+        assertEquals(0, counters.drainChanged(10, new ArrayList<>()));
+        assertEquals(new VoteTally.Counts(5, 2), counters.total("app-1"));
+    }
+
+    @Test
+    @DisplayName("Should keep the larger count per slot and report how much the total grew")
+    void shouldKeepLargerCountPerSlot() {
+        ReplicaCounters counters = new ReplicaCounters("a");
+        counters.addLocal("app-1", 1, 1);
+
+        assertEquals(new VoteTally.Counts(4, 2), counters.merge("app-1", "b", 4, 2));
+        assertEquals(new VoteTally.Counts(0, 0), counters.merge("app-1", "b", 4, 2), "a repeat changes nothing");
+        assertEquals(new VoteTally.Counts(0, 0), counters.merge("app-1", "b", 3, 1), "a stale slot changes nothing");
+        assertEquals(new VoteTally.Counts(1, 0), counters.merge("app-1", "b", 5, 1));
+        assertEquals(new VoteTally.Counts(2, 0), counters.merge("app-1", "c", 2, 0));
+
+        assertEquals(new VoteTally.Counts(8, 3), counters.total("app-1"));
+        assertEquals(new VoteTally.Counts(0, 0), counters.total("app-2"));
+    }
+
+    @Test
+    @DisplayName("Should adopt its own slot when it comes back ahead")
+    void shouldAdoptOwnSlotComingBackAhead() {
+        ReplicaCounters counters = new ReplicaCounters("a");
+        counters.addLocal("app-1", 1, 0);
+
+        assertEquals(new VoteTally.Counts(6, 2), counters.merge("app-1", "a", 7, 2));
+        assertEquals(new VoteTally.Counts(0, 0), counters.merge("app-1", "a", 3, 1));
+        counters.addLocal("app-1", 1, 0);
+
+        assertEquals(new VoteTally.Counts(8, 2), counters.total("app-1"));
+    }
+
+    @Test
+    @DisplayName("Should converge whatever order slots are merged in")
+    void shouldConvergeWhateverOrder() {
+        // Three nodes' slot histories, each growing over time.
+        List<ReplicationFrame.Slot> updates = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(3);
+        for (String node : List.of("a", "b", "c")) {
+            for (String app : List.of("app-1", "app-2")) {
+                int approvals = 0;
+                int rejections = 0;
+                for (int i = 0; i < 20; i++) {
+                    approvals += random.nextInt(3);
+                    rejections += random.nextInt(3);
+                    updates.add(new ReplicationFrame.Slot(app, node, approvals, rejections));
+                }
+            }
+        }
+
+        Set<List<VoteTally.Counts>> outcomes = new HashSet<>();
+        for (int trial = 0; trial < 5; trial++) {
+            List<ReplicationFrame.Slot> shuffled = new ArrayList<>(updates);
+            Collections.shuffle(shuffled, new Random(trial));
+            ReplicaCounters counters = new ReplicaCounters("d");
+            int[] applied = new int[2];
+            for (ReplicationFrame.Slot slot : shuffled) {
+                VoteTally.Counts added = counters.merge(slot.applicationId(), slot.node(), slot.approvals(), slot.rejections());
+                applied[0] += added.approvals();
+                applied[1] += added.rejections();
+            }
+            VoteTally.Counts one = counters.total("app-1");
+            VoteTally.Counts two = counters.total("app-2");
+            assertEquals(one.approvals() + two.approvals(), applied[0], "growth reported adds up to the total");
+            assertEquals(one.rejections() + two.rejections(), applied[1]);
+            outcomes.add(List.of(one, two));
+        }
+        assertEquals(1, outcomes.size());
+    }
+
+    @Test
+    @DisplayName("Should walk every non-empty slot")
+    void shouldWalkEveryNonEmptySlot() {
+        ReplicaCounters counters = new ReplicaCounters("a");
+        counters.addLocal("app-1", 1, 0);
+        counters.seed("app-2", 0, 0);
+        counters.merge("app-2", "b", 0, 3);
+        counters.merge("app-1", "c", 2, 2);
+
+        Set<ReplicationFrame.Slot> slots = new HashSet<>();
+        counters.slots().forEachRemaining(slots::add);
+
+        assertEquals(Set.of(
+                new ReplicationFrame.Slot("app-1", "a", 1, 0),
+                new ReplicationFrame.Slot("app-1", "c", 2, 2),
+                new ReplicationFrame.Slot("app-2", "b", 0, 3)), slots);
+    }
+}
@@ -0,0 +1,85 @@
+package com.hackathon.creditinder.replication;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.model.VoteTally;
+import com.hackathon.creditinder.service.LoanApplicationService;
+import com.hackathon.creditinder.service.TestLoanApplicationService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One replicating node in its own JVM, driven over stdin for
+ * {@link ReplicationConvergenceTest}:
+ * {@code java ReplicaNode <node-id> <port> <peer-port>...}.
+ *
+ * Commands are {@code submit}, {@code vote <id> <approvals> <rejections>},
+ * {@code tally <id>} and {@code exit}; each is answered with one line
+ * starting {@value #REPLY}, so log output on stdout can be told apart.
+ */
+public final class ReplicaNode {
+
+    static final String REPLY = "reply ";
+
+    private ReplicaNode() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        String nodeId = args[0];
+        int port = Integer.parseInt(args[1]);
+        List<InetSocketAddress> peers = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            peers.add(new InetSocketAddress("127.0.0.1", Integer.parseInt(args[i])));
+        }
+        LoanApplicationService service = new TestLoanApplicationService();
+        TcpReplicationTransport transport = new TcpReplicationTransport(port, peers, Duration.ofMillis(100));
+        VoteReplicator replicator = new VoteReplicator(nodeId, service, transport, Duration.ofMillis(20));
+        reply("ready");
+
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] command = line.trim().split(" ");
+            switch (command[0]) {
+                case "submit" -> reply(service.submitApplication(new LoanApplication()).getId());
+                case "vote" -> {
+                    int approvals = Integer.parseInt(command[2]);
+                    int rejections = Integer.parseInt(command[3]);
+                    for (int i = 0; i < approvals; i++) {
+                        service.voteOnApplication(command[1], true);
+                    }
+                    for (int i = 0; i < rejections; i++) {
+                        service.voteOnApplication(command[1], false);
+                    }
+                    reply("ok");
+                }
+                case "tally" -> reply(service.getApplicationById(command[1])
+                        .map(LoanApplication::getVoteCounts)
+                        .map(ReplicaNode::format)
+                        .orElse("missing"));
+                case "exit" -> {
+                    replicator.close();
+                    transport.close();
+                    reply("bye");
+                    return;
+                }
+                default -> reply("unknown command " + command[0]);
+            }
+        }
+    }
+
+    static String format(VoteTally.Counts counts) {
+        return counts.approvals() + " " + counts.rejections();
+    }
+
+    private static void reply(String message) {
+        System.out.println(REPLY + message);
+        System.out.flush();
+    }
+}
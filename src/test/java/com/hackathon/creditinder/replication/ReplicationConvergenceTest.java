@@ -0,0 +1,135 @@
+package com.hackathon.creditinder.replication;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Three nodes, each in its own JVM on this machine, replicating over TCP on
+ * the loopback interface. Each runs {@link ReplicaNode}.
+ */
+@DisplayName("Replication Convergence Tests")
+class ReplicationConvergenceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Replica replica : replicas) {
+            replica.process.destroyForcibly();
+        }
+    }
+
+    @Test
+    @DisplayName("Should converge across JVMs, including after a node is killed and restarted")
+    void shouldConvergeAcrossJvms() throws Exception {
+        int[] ports = VoteReplicatorTest.freePorts(3);
+        Replica a = start("a", ports, 0);
+        Replica b = start("b", ports, 1);
+        Replica c = start("c", ports, 2);
+
+        String id = a.call("submit");
+        awaitTally("0 0", id, a, b, c);
+
+        // Every node takes votes at once; all must end up with the sum.
+        for (Replica replica : List.of(a, b, c)) {
+            replica.send("vote " + id + " 200 100");
+        }
+        for (Replica replica : List.of(a, b, c)) {
+            assertEquals("ok", replica.reply());
+        }
+        awaitTally("600 300", id, a, b, c);
+
+        // Kill c outright, so nothing is flushed or closed cleanly, and vote on
+        // without it.
+        c.process.destroyForcibly().waitFor(10, TimeUnit.SECONDS);
+        replicas.remove(c);
+        a.call("vote " + id + " 10 0");
+        awaitTally("610 300", id, a, b);
+
+        // A fresh JVM under the same node id starts empty, then gets every
+        // slot back from its peers, its own included, and counts on from there.
+        Replica restarted = start("c", ports, 2);
+        awaitTally("610 300", id, restarted);
+        restarted.call("vote " + id + " 0 5");
+        awaitTally("610 305", id, a, b, restarted);
+    }
+
+    private Replica start(String nodeId, int[] ports, int index) throws IOException {
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                ReplicaNode.class.getName(), nodeId, String.valueOf(ports[index])));
+        for (int i = 0; i < ports.length; i++) {
+            if (i != index) {
+                command.add(String.valueOf(ports[i]));
+            }
+        }
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        Replica replica = new Replica(process);
+        replicas.add(replica);
+        assertEquals("ready", replica.reply());
+        return replica;
+    }
+
+    private static void awaitTally(String expected, String id, Replica... replicas) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        for (Replica replica : replicas) {
+            String tally;
+            while (!expected.equals(tally = replica.call("tally " + id))) {
+                if (System.nanoTime() > deadline) {
+                    fail("Expected tally " + expected + " but a node still has " + tally);
+                }
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    private static final class Replica {
+        final Process process;
+        final PrintWriter in;
+        final BufferedReader out;
+
+        Replica(Process process) {
+            this.process = process;
+            this.in = new PrintWriter(process.outputWriter(StandardCharsets.UTF_8), true);
+            this.out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        String call(String command) throws IOException {
+            send(command);
+            return reply();
+        }
+
+        void send(String command) {
+            in.println(command);
+        }
+
+        String reply() throws IOException {
+            String line;
+            while ((line = out.readLine()) != null) {
+                if (line.startsWith(ReplicaNode.REPLY)) {
+                    return line.substring(ReplicaNode.REPLY.length());
+                }
+            }
+            throw new IOException("Replica exited before replying");
+        }
+    }
+}
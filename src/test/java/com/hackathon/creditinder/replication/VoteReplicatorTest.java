@@ -0,0 +1,209 @@
+package com.hackathon.creditinder.replication;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.model.VoteTally;
+import com.hackathon.creditinder.service.LoanApplicationService;
+import com.hackathon.creditinder.service.TestLoanApplicationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Nodes in one JVM, replicating over TCP on the loopback interface.
+ */
+@DisplayName("VoteReplicator Tests")
+class VoteReplicatorTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(20);
+
+    private final List<Node> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Node node : nodes) {
+            node.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should converge on the same tallies when every node takes votes")
+    void shouldConvergeWhenEveryNodeTakesVotes() throws InterruptedException {
+        int[] ports = freePorts(3);
+        Node a = start("a", ports, 0);
+        Node b = start("b", ports, 1);
+        Node c = start("c", ports, 2);
+
+        LoanApplication application = a.service.submitApplication(new LoanApplication());
+        String id = application.getId();
+        await(() -> b.tally(id) != null && c.tally(id) != null);
+
+        CountDownLatch done = new CountDownLatch(3);
+        for (Node node : List.of(a, b, c)) {
+            Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 300; i++) {
+                    node.service.voteOnApplication(id, i % 3 != 0);
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+
+        VoteTally.Counts expected = new VoteTally.Counts(600, 300);
+        await(() -> expected.equals(a.tally(id)) && expected.equals(b.tally(id)) && expected.equals(c.tally(id)));
+    }
+
+    @Test
+    @DisplayName("Should bring a node that starts late up to date")
+    void shouldBringLateNodeUpToDate() {
+        int[] ports = freePorts(2);
+        Node a = start("a", ports, 0);
+        LoanApplication application = a.service.submitApplication(new LoanApplication());
+        for (int i = 0; i < 5; i++) {
+            a.service.voteOnApplication(application.getId(), true);
+        }
+
+        Node b = start("b", ports, 1);
+
+        await(() -> new VoteTally.Counts(5, 0).equals(b.tally(application.getId())));
+        b.service.voteOnApplication(application.getId(), false);
+        await(() -> new VoteTally.Counts(5, 1).equals(a.tally(application.getId())));
+    }
+
+    @Test
+    @DisplayName("Should get back the votes a node took after it restarts without its state")
+    void shouldRecoverVotesAfterRestartWithoutState() {
+        int[] ports = freePorts(2);
+        Node a = start("a", ports, 0);
+        Node b = start("b", ports, 1);
+        LoanApplication application = a.service.submitApplication(new LoanApplication());
+        String id = application.getId();
+        await(() -> b.tally(id) != null);
+        for (int i = 0; i < 4; i++) {
+            b.service.voteOnApplication(id, false);
+        }
+        await(() -> new VoteTally.Counts(0, 4).equals(a.tally(id)));
+
+        b.close();
+        nodes.remove(b);
+        Node restarted = start("b", ports, 1);
+
+        await(() -> new VoteTally.Counts(0, 4).equals(restarted.tally(id)));
+        restarted.service.voteOnApplication(id, false);
+        await(() -> new VoteTally.Counts(0, 5).equals(a.tally(id)));
+        assertEquals(new VoteTally.Counts(0, 5), restarted.tally(id));
+    }
+
+    @Test
+    @DisplayName("Should drop connections from addresses that are not peers")
+    void shouldDropConnectionsFromStrangers() throws Exception {
+        List<byte[]> received = new CopyOnWriteArrayList<>();
+        try (TcpReplicationTransport transport = new TcpReplicationTransport(0,
+                List.of(new InetSocketAddress("192.0.2.1", 7070)), Duration.ofHours(1))) {
+            transport.start(new ReplicationTransport.Receiver() {
+                @Override
+                public void onFrame(byte[] frame) {
+                    received.add(frame);
+                }
+
+                @Override
+                public Iterable<byte[]> onConnected(String peer) {
+                    return List.of();
+                }
+            });
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), transport.getLocalPort())) {
+                socket.setSoTimeout((int) TIMEOUT.toMillis());
+                int read;
+                try {
+                    DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                    out.writeInt(1);
+                    out.write(0);
+                    out.flush();
+                    read = socket.getInputStream().read();
+                } catch (SocketException e) {
+                    // Closed before the frame was written: reset or broken pipe.
+                    read = -1;
+                }
+
+                assertEquals(-1, read, "the connection is closed straight away");
+            }
+        }
+        assertTrue(received.isEmpty());
+    }
+
+    private Node start(String nodeId, int[] ports, int index) {
+        List<InetSocketAddress> peers = new ArrayList<>();
+        for (int i = 0; i < ports.length; i++) {
+            if (i != index) {
+                peers.add(new InetSocketAddress("127.0.0.1", ports[i]));
+            }
+        }
+        LoanApplicationService service = new TestLoanApplicationService();
+        TcpReplicationTransport transport = new TcpReplicationTransport(ports[index], peers, Duration.ofMillis(50));
+        VoteReplicator replicator = new VoteReplicator(nodeId, service, transport, Duration.ofMillis(20));
+        Node node = new Node(service, transport, replicator);
+        nodes.add(node);
+        return node;
+    }
+
+    static int[] freePorts(int count) {
+        int[] ports = new int[count];
+        List<ServerSocket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < count; i++) {
+                ServerSocket socket = new ServerSocket(0);
+                sockets.add(socket);
+                ports[i] = socket.getLocalPort();
+            }
+            for (ServerSocket socket : sockets) {
+                socket.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ports;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Nodes did not converge within " + TIMEOUT);
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted");
+            }
+        }
+    }
+
+    private record Node(LoanApplicationService service, TcpReplicationTransport transport, VoteReplicator replicator) {
+
+        VoteTally.Counts tally(String applicationId) {
+            return service.getApplicationById(applicationId).map(LoanApplication::getVoteCounts).orElse(null);
+        }
+
+        void close() {
+            replicator.close();
+            transport.close();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ApplicationAnalytics Tests")
+class ApplicationAnalyticsTest {
+
+    private final SymbolTable purposes = new SymbolTable(2);
+    private final SymbolTable statuses = new SymbolTable();
+    private final ApplicationAnalytics analytics = new ApplicationAnalytics(purposes, statuses);
+
+    @Test
+    @DisplayName("Should total applications, amounts and votes per bucket")
+    void shouldTotalPerBucket() {
+        LoanApplication car = add("Vehicle Purchase", "Full-time", 720, "15000.50");
+        add("Vehicle Purchase", "Part-time", 810, "9000");
+        LoanApplication school = add("Education", "Full-time", 560, "4000");
+        analytics.onVotes(car, 3, 1);
+        analytics.onVotes(school, 0, 2);
+
+        ApplicationAnalytics.Snapshot snapshot = analytics.snapshot();
+
+        assertEquals(new ApplicationAnalytics.Bucket("All applications", 3, new BigDecimal("28000.50"), 3, 3, 50.0),
+                snapshot.total());
+        assertEquals(new ApplicationAnalytics.Bucket("Vehicle Purchase", 2, new BigDecimal("24000.50"), 3, 1, 75.0),
+                snapshot.byLoanPurpose().get(0));
+        assertEquals(List.of("800+", "670-739", "Below 580"), labels(snapshot.byCreditScore()));
+        assertEquals(List.of("Full-time", "Part-time"), labels(snapshot.byEmploymentStatus()));
+        assertEquals(0.0, snapshot.byEmploymentStatus().get(1).approvalPercentage());
+    }
+
+    @Test
+    @DisplayName("Should take removed applications and their votes back out")
+    void shouldTakeRemovedApplicationsOut() {
+        LoanApplication kept = add("Business", "Self-employed", 700, "50000");
+        LoanApplication removed = add("Business", "Self-employed", 700, "20000");
+        removed.addVotes(4, 0);
+        analytics.onVotes(removed, 4, 0);
+
+        analytics.onRemoved(removed);
+
+        ApplicationAnalytics.Bucket business = analytics.snapshot().byLoanPurpose().get(0);
+        assertEquals(1, business.applications());
+        assertEquals(new BigDecimal("50000.00"), business.amountRequested());
+        assertEquals(0, business.approvals());
+        assertEquals(kept.getLoanPurpose(), business.label());
+    }
+
+    @Test
+    @DisplayName("Should bucket values without a code and missing values separately")
+    void shouldBucketUnlistedAndMissingValues() {
+        add("Education", null, null, "1000");
+        add("Business", "Full-time", 650, "1000");
+        // The purpose table holds two values, so a third is unlisted.
+        add("Wedding", "Full-time", 650, "1000");
+        add("Boat", "Full-time", 650, "1000");
+
+        ApplicationAnalytics.Snapshot snapshot = analytics.snapshot();
+
+        assertEquals(List.of("Unlisted", "Education", "Business"), labels(snapshot.byLoanPurpose()));
+        assertEquals(List.of("580-669", "Not given"), labels(snapshot.byCreditScore()));
+        assertEquals(List.of("Full-time", "Not given"), labels(snapshot.byEmploymentStatus()));
+    }
+
+    @Test
+    @DisplayName("Should place credit scores in bands at their boundaries")
+    void shouldPlaceScoresInBands() {
+        assertEquals(0, ApplicationAnalytics.band(800));
+        assertEquals(1, ApplicationAnalytics.band(799));
+        assertEquals(2, ApplicationAnalytics.band(670));
+        assertEquals(3, ApplicationAnalytics.band(580));
+        assertEquals(4, ApplicationAnalytics.band(579));
+        assertEquals(5, ApplicationAnalytics.band(null));
+    }
+
+    private LoanApplication add(String purpose, String status, Integer score, String amount) {
+        LoanApplication application = new LoanApplication();
+        // Admitted the way the service admits them on submission.
+        application.setLoanPurpose(purposes.canonical(purpose));
+        application.setEmploymentStatus(statuses.canonical(status));
+        application.setCreditScore(score);
+        application.setLoanAmount(new BigDecimal(amount));
+        analytics.onAdded(application);
+        return application;
+    }
+
+    private static List<String> labels(List<ApplicationAnalytics.Bucket> buckets) {
+        return buckets.stream().map(ApplicationAnalytics.Bucket::label).toList();
+    }
+}
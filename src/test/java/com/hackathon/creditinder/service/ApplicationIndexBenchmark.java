@@ -0,0 +1,102 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sorted dashboard reads from the maintained indexes against sorting every
+ * application per request, and vote throughput with the indexes kept up to
+ * date. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Application Index Benchmark")
+class ApplicationIndexBenchmark {
+
+    private static final int PAGE_SIZE = 25;
+    private static final int THREADS = 16;
+
+    @Test
+    @DisplayName("Sorted pages from the index versus sort per request")
+    void sortedPagesFromIndexVersusSortPerRequest() {
+        System.out.printf("%-14s %16s %16s %16s%n", "applications", "index p50 us", "top-10 p50 us", "full sort p50 us");
+        for (int applications : new int[] {100_000, 1_000_000}) {
+            TestLoanApplicationService service = populated(applications);
+            Comparator<LoanApplication> byScore = Comparator.comparing(LoanApplication::getCreditScore).reversed();
+
+            long[] index = time(2_000, () -> service.getApplicationPage(ApplicationSort.CREDIT_SCORE, true, null, PAGE_SIZE));
+            long[] top = time(2_000, () -> service.getTopApplications(ApplicationSort.TOTAL_VOTES, 10));
+            long[] fullSort = time(10, () -> service.getAllApplications().stream().sorted(byScore).limit(PAGE_SIZE).toList());
+
+            System.out.printf("%,-14d %16.1f %16.1f %16.1f%n", applications,
+                    median(index) / 1_000.0, median(top) / 1_000.0, median(fullSort) / 1_000.0);
+            assertTrue(median(index) < median(fullSort));
+        }
+    }
+
+    @Test
+    @DisplayName("Vote throughput with the indexes maintained")
+    void voteThroughputWithIndexes() throws InterruptedException {
+        TestLoanApplicationService service = populated(100_000);
+        List<String> ids = service.getAllApplications().stream().map(LoanApplication::getId).toList();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder votes = new LongAdder();
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            Thread.ofPlatform().start(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    service.voteOnApplication(ids.get(random.nextInt(ids.size())), random.nextBoolean());
+                    votes.increment();
+                }
+                done.countDown();
+            });
+        }
+        Thread.sleep(3_000);
+        running.set(false);
+        done.await();
+
+        System.out.printf("%nvotes/s with indexes %,14d%n", votes.sum() / 3);
+        assertTrue(votes.sum() > 0);
+    }
+
+    private static TestLoanApplicationService populated(int applications) {
+        TestLoanApplicationService service = new TestLoanApplicationService();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < applications; i++) {
+            LoanApplication application = new LoanApplication();
+            application.setCreditScore(300 + random.nextInt(551));
+            application.setLoanAmount(BigDecimal.valueOf(1_000 + random.nextInt(99_000)));
+            service.submitApplication(application);
+        }
+        return service;
+    }
+
+    private static long[] time(int samples, Runnable read) {
+        long[] nanos = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            read.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static long median(long[] sorted) {
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,252 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ApplicationIndexes Tests")
+class ApplicationIndexesTest {
+
+    private ApplicationIndexes indexes;
+
+    @BeforeEach
+    void setUp() {
+        // Drained by hand, so each test sees votes exactly when it asks to.
+        indexes = new ApplicationIndexes(Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        indexes.close();
+    }
+
+    @Test
+    @DisplayName("Should return the top applications by credit score")
+    void shouldReturnTopApplicationsByCreditScore() {
+        for (int score : new int[] {610, 790, 700, 550, 820}) {
+            indexes.put(application(score, 10_000));
+        }
+
+        List<Integer> top = indexes.top(ApplicationSort.CREDIT_SCORE, 3).stream()
+                .map(LoanApplication::getCreditScore).toList();
+
+        assertEquals(List.of(820, 790, 700), top);
+    }
+
+    @Test
+    @DisplayName("Should return applications within an inclusive key range")
+    void shouldReturnApplicationsWithinRange() {
+        for (int amount : new int[] {5_000, 10_000, 20_000, 20_000, 50_000}) {
+            indexes.put(application(700, amount));
+        }
+
+        List<LoanApplication> inRange = indexes.range(ApplicationSort.LOAN_AMOUNT,
+                new BigDecimal("10000"), new BigDecimal("20000"), 10);
+
+        assertEquals(3, inRange.size());
+        assertTrue(inRange.stream().allMatch(a -> a.getLoanAmount().intValue() >= 10_000
+                && a.getLoanAmount().intValue() <= 20_000));
+        assertEquals(2, indexes.range(ApplicationSort.LOAN_AMOUNT,
+                new BigDecimal("10000"), new BigDecimal("20000"), 2).size());
+    }
+
+    @Test
+    @DisplayName("Should order loan amounts that differ only in cents")
+    void shouldOrderAmountsDifferingInCents() {
+        for (String amount : new String[] {"1000.50", "1000.05", "999.99", "1000"}) {
+            LoanApplication application = application(700, 0);
+            application.setLoanAmount(new BigDecimal(amount));
+            indexes.put(application);
+        }
+
+        List<String> ascending = indexes.range(ApplicationSort.LOAN_AMOUNT,
+                        BigDecimal.ZERO, new BigDecimal("5000"), 10).stream()
+                .map(a -> a.getLoanAmount().toPlainString()).toList();
+
+        assertEquals(List.of("999.99", "1000", "1000.05", "1000.50"), ascending);
+    }
+
+    @Test
+    @DisplayName("Should rank amounts far outside the long range without expanding them")
+    void shouldRankExtremeAmountsCheaply() {
+        assertEquals(Long.MAX_VALUE, ApplicationCursor.rankOf(new BigDecimal("1e99999999")));
+        assertEquals(Long.MIN_VALUE + 1, ApplicationCursor.rankOf(new BigDecimal("-1e99999999")));
+        assertEquals(0, ApplicationCursor.rankOf(new BigDecimal("1e-99999999")));
+        assertEquals(-1, ApplicationCursor.rankOf(new BigDecimal("-1e-99999999")));
+        assertEquals(1000, ApplicationCursor.rankOf(new BigDecimal("1000.50")));
+        assertEquals(-1001, ApplicationCursor.rankOf(new BigDecimal("-1000.50")));
+    }
+
+    @Test
+    @DisplayName("Should refuse a cursor whose amount is out of range")
+    void shouldRefuseOutOfRangeAmountCursor() {
+        ApplicationCursor cursor = new ApplicationCursor(new BigDecimal("25000.00"), "id");
+        String token = cursor.encode(ApplicationSort.LOAN_AMOUNT);
+        String huge = Base64.getUrlEncoder().encodeToString("1e99999999|x".getBytes());
+        String tiny = Base64.getUrlEncoder().encodeToString("1e-99999999|x".getBytes());
+
+        assertEquals(cursor, ApplicationCursor.decode(ApplicationSort.LOAN_AMOUNT, token));
+        assertNull(ApplicationCursor.decode(ApplicationSort.LOAN_AMOUNT, huge));
+        assertNull(ApplicationCursor.decode(ApplicationSort.LOAN_AMOUNT, tiny));
+    }
+
+    @Test
+    @DisplayName("Should page in both directions without repeats")
+    void shouldPageInBothDirectionsWithoutRepeats() {
+        for (int i = 0; i < 7; i++) {
+            indexes.put(application(600 + i, 1_000));
+        }
+
+        for (boolean descending : new boolean[] {true, false}) {
+            List<Integer> seen = new ArrayList<>();
+            ApplicationCursor after = null;
+            List<Map.Entry<ApplicationCursor, LoanApplication>> page;
+            do {
+                page = indexes.page(ApplicationSort.CREDIT_SCORE, descending, after, 3);
+                page.forEach(entry -> seen.add(entry.getValue().getCreditScore()));
+                after = page.isEmpty() ? null : page.get(page.size() - 1).getKey();
+            } while (page.size() == 3);
+
+            List<Integer> expected = new ArrayList<>(List.of(600, 601, 602, 603, 604, 605, 606));
+            if (descending) {
+                expected.sort(Comparator.reverseOrder());
+            }
+            assertEquals(expected, seen);
+        }
+    }
+
+    @Test
+    @DisplayName("Should move an application when a vote changes its tally")
+    void shouldReorderOnVote() {
+        LoanApplication quiet = application(700, 1_000);
+        LoanApplication popular = application(700, 1_000);
+        indexes.put(quiet);
+        indexes.put(popular);
+        quiet.addApprovalVote();
+        indexes.onVote(quiet);
+        indexes.drain();
+
+        assertSame(quiet, indexes.top(ApplicationSort.TOTAL_VOTES, 1).get(0));
+
+        popular.addApprovalVote();
+        popular.addApprovalVote();
+        indexes.onVote(popular);
+        indexes.drain();
+
+        assertSame(popular, indexes.top(ApplicationSort.TOTAL_VOTES, 1).get(0));
+        assertEquals(2, indexes.top(ApplicationSort.TOTAL_VOTES, 10).size());
+    }
+
+    @Test
+    @DisplayName("Should leave a voted application in place until the next drain")
+    void shouldDeferReKeyingToDrain() {
+        LoanApplication quiet = application(700, 1_000);
+        LoanApplication popular = application(700, 1_000);
+        indexes.put(quiet);
+        indexes.put(popular);
+        popular.addApprovalVote();
+        indexes.onVote(popular);
+        popular.addApprovalVote();
+        indexes.onVote(popular);
+
+        List<LoanApplication> before = indexes.range(ApplicationSort.TOTAL_VOTES, 0, 0, 10);
+        assertEquals(2, before.size());
+
+        indexes.drain();
+
+        assertEquals(List.of(quiet), indexes.range(ApplicationSort.TOTAL_VOTES, 0, 0, 10));
+        assertEquals(List.of(popular), indexes.range(ApplicationSort.TOTAL_VOTES, 2, 2, 10));
+    }
+
+    @Test
+    @DisplayName("Should re-key a replacement and drop removed applications")
+    void shouldReplaceAndRemove() {
+        LoanApplication original = application(500, 1_000);
+        LoanApplication replacement = application(800, 1_000);
+        replacement.setId(original.getId());
+
+        indexes.put(original);
+        indexes.put(replacement);
+
+        List<LoanApplication> all = indexes.top(ApplicationSort.CREDIT_SCORE, 10);
+        assertEquals(List.of(replacement), all);
+
+        indexes.remove(original.getId());
+        for (ApplicationSort sort : ApplicationSort.values()) {
+            assertTrue(indexes.top(sort, 10).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Should converge on the final tallies under concurrent votes and drains")
+    void shouldConvergeUnderConcurrentVotes() throws InterruptedException {
+        List<LoanApplication> applications = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            LoanApplication application = application(700, 1_000);
+            applications.add(application);
+            indexes.put(application);
+        }
+
+        int threads = 8;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    LoanApplication application = applications.get(random.nextInt(applications.size()));
+                    if (random.nextBoolean()) {
+                        application.addApprovalVote();
+                    } else {
+                        application.addRejectionVote();
+                    }
+                    indexes.onVote(application);
+                }
+                done.countDown();
+            }).start();
+        }
+        Thread drainer = new Thread(() -> {
+            while (done.getCount() > 0) {
+                indexes.drain();
+            }
+        });
+        drainer.start();
+        done.await();
+        drainer.join();
+        indexes.drain();
+
+        for (ApplicationSort sort : List.of(ApplicationSort.TOTAL_VOTES, ApplicationSort.APPROVAL_PERCENTAGE)) {
+            List<LoanApplication> indexed = indexes.top(sort, 100);
+            assertEquals(applications.size(), indexed.size(), "each application indexed exactly once");
+            for (int i = 1; i < indexed.size(); i++) {
+                Comparable<Object> before = key(sort, indexed.get(i - 1));
+                assertTrue(before.compareTo(key(sort, indexed.get(i))) >= 0, sort + " out of order");
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> key(ApplicationSort sort, LoanApplication application) {
+        return (Comparable<Object>) sort.keyOf(application, application.getVoteCounts());
+    }
+
+    private static LoanApplication application(int creditScore, int loanAmount) {
+        LoanApplication application = new LoanApplication();
+        application.setCreditScore(creditScore);
+        application.setLoanAmount(BigDecimal.valueOf(loanAmount));
+        return application;
+    }
+}
@@ -0,0 +1,58 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dashboard page latency at 100, 10,000 and 1,000,000 applications, for the
+ * newest page and for a page deep into the history. Run with
+ * {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Application Page Benchmark")
+class ApplicationPageBenchmark {
+
+    private static final int PAGE_SIZE = 25;
+    private static final int SAMPLES = 20_000;
+
+    @Test
+    @DisplayName("Page latency stays flat as applications grow")
+    void pageLatencyStaysFlat() {
+        System.out.printf("%-14s %14s %14s %14s%n", "applications", "newest p50 us", "deep p50 us", "deep p99 us");
+        for (int applications : new int[] {100, 10_000, 1_000_000}) {
+            TestLoanApplicationService service = new TestLoanApplicationService();
+            for (int i = 0; i < applications; i++) {
+                service.submitApplication(new LoanApplication());
+            }
+            // Walk halfway down to get a cursor deep into the history.
+            String deepCursor = null;
+            for (int walked = 0; walked < applications / 2; walked += PAGE_SIZE) {
+                deepCursor = service.getApplicationPage(deepCursor, PAGE_SIZE).nextCursor();
+            }
+
+            long[] newest = time(service, null);
+            long[] deep = time(service, deepCursor);
+            System.out.printf("%,-14d %14.1f %14.1f %14.1f%n", applications,
+                    newest[SAMPLES / 2] / 1_000.0, deep[SAMPLES / 2] / 1_000.0, deep[SAMPLES * 99 / 100] / 1_000.0);
+            assertTrue(deep[SAMPLES * 99 / 100] < 1_000_000, "p99 page latency should stay sub-millisecond");
+        }
+    }
+
+    private static long[] time(LoanApplicationService service, String cursor) {
+        long[] nanos = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            ApplicationPage page = service.getApplicationPage(cursor, PAGE_SIZE);
+            nanos[i] = System.nanoTime() - start;
+            assertEquals(PAGE_SIZE, page.applications().size());
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+}
@@ -0,0 +1,163 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ApplicationRegistry Tests")
+class ApplicationRegistryTest {
+
+    private ApplicationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ApplicationRegistry();
+    }
+
+    @Test
+    @DisplayName("Should return null when picking from an empty registry")
+    void shouldReturnNullWhenEmpty() {
+        assertNull(registry.random());
+        assertEquals(0, registry.size());
+        assertTrue(registry.snapshot().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should index applications by id and position")
+    void shouldIndexApplicationsByIdAndPosition() {
+        LoanApplication first = new LoanApplication();
+        LoanApplication second = new LoanApplication();
+
+        registry.put(first);
+        registry.put(second);
+
+        assertEquals(2, registry.size());
+        assertSame(first, registry.get(first.getId()));
+        assertSame(second, registry.get(second.getId()));
+        assertTrue(registry.snapshot().containsAll(List.of(first, second)));
+    }
+
+    @Test
+    @DisplayName("Should replace an application with the same id in place")
+    void shouldReplaceApplicationWithSameIdInPlace() {
+        LoanApplication original = new LoanApplication();
+        LoanApplication replacement = new LoanApplication();
+        replacement.setId(original.getId());
+
+        registry.put(original);
+        registry.put(replacement);
+
+        assertEquals(1, registry.size());
+        assertSame(replacement, registry.get(original.getId()));
+        assertSame(replacement, registry.random());
+    }
+
+    @Test
+    @DisplayName("Should keep the array dense after swap-remove")
+    void shouldKeepArrayDenseAfterSwapRemove() {
+        LoanApplication[] apps = new LoanApplication[5];
+        for (int i = 0; i < apps.length; i++) {
+            apps[i] = new LoanApplication();
+            registry.put(apps[i]);
+        }
+
+        assertSame(apps[1], registry.remove(apps[1].getId()));
+        assertSame(apps[4], registry.remove(apps[4].getId()));
+        assertNull(registry.remove("missing"));
+
+        assertEquals(3, registry.size());
+        assertNull(registry.get(apps[1].getId()));
+        assertEquals(Set.of(apps[0], apps[2], apps[3]), new HashSet<>(registry.snapshot()));
+
+        // The element moved into the freed slot must still be removable.
+        assertSame(apps[3], registry.remove(apps[3].getId()));
+        assertEquals(Set.of(apps[0], apps[2]), new HashSet<>(registry.snapshot()));
+    }
+
+    @Test
+    @DisplayName("Should assign stable ordinals that survive removals")
+    void shouldAssignStableOrdinalsThatSurviveRemovals() {
+        LoanApplication first = new LoanApplication();
+        LoanApplication second = new LoanApplication();
+        LoanApplication third = new LoanApplication();
+        registry.put(first);
+        registry.put(second);
+        registry.put(third);
+
+        registry.remove(first.getId());
+        LoanApplication fourth = new LoanApplication();
+        registry.put(fourth);
+
+        assertEquals(-1, registry.ordinalOf(first.getId()));
+        assertEquals(1, registry.ordinalOf(second.getId()));
+        assertEquals(2, registry.ordinalOf(third.getId()));
+        assertEquals(3, registry.ordinalOf(fourth.getId()));
+        assertNull(registry.getByOrdinal(0));
+        assertSame(third, registry.getByOrdinal(2));
+        assertEquals(4, registry.ordinalLimit());
+    }
+
+    @Test
+    @DisplayName("Should eventually pick every registered application")
+    void shouldEventuallyPickEveryApplication() {
+        for (int i = 0; i < 10; i++) {
+            registry.put(new LoanApplication());
+        }
+
+        Set<LoanApplication> seen = new HashSet<>();
+        for (int i = 0; i < 2_000 && seen.size() < 10; i++) {
+            seen.add(registry.random());
+        }
+
+        assertEquals(10, seen.size());
+    }
+
+    @Test
+    @DisplayName("Should never return null while submissions happen concurrently")
+    void shouldNeverReturnNullWhileSubmissionsHappenConcurrently() throws InterruptedException {
+        registry.put(new LoanApplication());
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger nullPicks = new AtomicInteger();
+        CountDownLatch readersDone = new CountDownLatch(4);
+
+        for (int r = 0; r < 4; r++) {
+            new Thread(() -> {
+                while (writing.get()) {
+                    if (registry.random() == null) {
+                        nullPicks.incrementAndGet();
+                    }
+                }
+                readersDone.countDown();
+            }).start();
+        }
+
+        Thread[] writers = new Thread[4];
+        for (int w = 0; w < writers.length; w++) {
+            writers[w] = new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    registry.put(new LoanApplication());
+                }
+            });
+            writers[w].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        writing.set(false);
+        readersDone.await();
+
+        assertEquals(0, nullPicks.get());
+        assertEquals(20_001, registry.size());
+        assertEquals(20_001, registry.snapshot().size());
+    }
+}
@@ -0,0 +1,122 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Retained heap per application in {@link ApplicationRegistry} against
+ * {@link ColumnarApplicationStore}, and what looking one up by id costs in
+ * each. Run with {@code ./gradlew benchmark}.
+ *
+ * Text fields are separate strings per application, as form binding produces
+ * them. They still share their bytes with the literals they are copied from,
+ * so the registry's figure is if anything low.
+ */
+@Tag("benchmark")
+@DisplayName("Application Store Footprint Benchmark")
+class ApplicationStoreFootprintBenchmark {
+
+    private static final int APPLICATIONS = 500_000;
+    private static final int LOOKUPS = 2_000_000;
+    private static final String[] FIRST_NAMES = {"John", "Sarah", "Mike", "Emily", "Priya", "Tomás", "Aisha", "Wei"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Davis", "Chen", "Patel", "García", "Okafor", "Nguyen"};
+    private static final String[] PURPOSES = {"Home Improvement", "Debt Consolidation", "Education", "Auto", "Business"};
+    private static final String[] EMPLOYMENT = {"Full-time", "Part-time", "Self-employed", "Contract"};
+    private static final String[] NOTES = {
+            "",
+            "Looking to renovate kitchen and bathroom. Stable employment for 5 years.",
+            "Want to consolidate credit card debt to lower interest rate.",
+            "Need reliable transportation for work. Current car is 15 years old.",
+    };
+
+    @Test
+    @DisplayName("Bytes per application and lookup cost")
+    void bytesPerApplicationAndLookupCost() {
+        String[] ids = new String[APPLICATIONS];
+
+        long before = usedHeap();
+        ApplicationRegistry registry = new ApplicationRegistry();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < APPLICATIONS; i++) {
+            LoanApplication application = application(random);
+            ids[i] = application.getId();
+            registry.put(application);
+        }
+        long registryBytes = usedHeap() - before;
+        double registryLookup = lookupNanos(ids, registry::get);
+        Reference.reachabilityFence(registry);
+        registry = null;
+
+        before = usedHeap();
+        ColumnarApplicationStore columnar = new ColumnarApplicationStore();
+        random = new SplittableRandom(42);
+        for (int i = 0; i < APPLICATIONS; i++) {
+            LoanApplication application = application(random);
+            application.setId(ids[i]);
+            columnar.put(application);
+        }
+        long columnarBytes = usedHeap() - before;
+        double columnarLookup = lookupNanos(ids, columnar::get);
+        Reference.reachabilityFence(columnar);
+
+        System.out.printf("%,d applications, %,d bytes of text in the columnar store%n",
+                APPLICATIONS, columnar.textBytes());
+        System.out.printf("%-12s %14s %12s %18s%n", "store", "retained MiB", "bytes/app", "get(id) ns/op");
+        System.out.printf("%-12s %,14.1f %,12d %,18.0f%n", "registry",
+                registryBytes / 1048576.0, registryBytes / APPLICATIONS, registryLookup);
+        System.out.printf("%-12s %,14.1f %,12d %,18.0f%n", "columnar",
+                columnarBytes / 1048576.0, columnarBytes / APPLICATIONS, columnarLookup);
+        System.out.printf("columnar estimate %,d bytes/app, %.1fx smaller measured%n",
+                columnar.estimatedBytes() / APPLICATIONS, (double) registryBytes / columnarBytes);
+
+        assertTrue(columnarBytes * 2 < registryBytes, "columnar store should be at least 2x smaller");
+    }
+
+    private static double lookupNanos(String[] ids, Function<String, LoanApplication> get) {
+        SplittableRandom random = new SplittableRandom(7);
+        long sink = 0;
+        // The first pass warms the JIT.
+        for (int pass = 0; pass < 2; pass++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                sink += get.apply(ids[random.nextInt(ids.length)]).getCreditScore();
+            }
+            if (pass == 1) {
+                assertNotEquals(0, sink);
+                return (System.nanoTime() - start) / (double) LOOKUPS;
+            }
+        }
+        throw new AssertionError();
+    }
+
+    private static LoanApplication application(SplittableRandom random) {
+        LoanApplication application = new LoanApplication();
+        application.setApplicantName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+        application.setLoanAmount(BigDecimal.valueOf(random.nextInt(1_000, 500_000)));
+        application.setLoanPurpose(new String(PURPOSES[random.nextInt(PURPOSES.length)]));
+        application.setAnnualIncome(BigDecimal.valueOf(random.nextInt(20_000, 250_000)));
+        application.setCreditScore(random.nextInt(300, 851));
+        application.setEmploymentStatus(new String(EMPLOYMENT[random.nextInt(EMPLOYMENT.length)]));
+        application.setAdditionalNotes(new String(NOTES[random.nextInt(NOTES.length)]));
+        application.addVotes(random.nextInt(50), random.nextInt(50));
+        return application;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
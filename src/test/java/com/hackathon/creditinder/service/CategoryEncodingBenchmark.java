@@ -0,0 +1,147 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.service.ColumnarApplicationStore.Category;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dictionary-encoded loan purpose and employment status over 1,000,000
+ * applications: what sharing one string per value saves in the registry,
+ * and an equality filter and a group-by on codes in the columnar store
+ * against the same queries comparing strings on every application. Run with
+ * {@code ./gradlew benchmark}.
+ *
+ * Each application's text is freshly allocated, as form binding does.
+ */
+@Tag("benchmark")
+@DisplayName("Category Encoding Benchmark")
+class CategoryEncodingBenchmark {
+
+    private static final int APPLICATIONS = 1_000_000;
+    private static final int RUNS = 15;
+    private static final String[] PURPOSES = {"Home Improvement", "Debt Consolidation", "Vehicle Purchase",
+            "Education", "Medical Expenses", "Business", "Other"};
+    private static final String[] EMPLOYMENT = {"Full-time", "Part-time", "Self-employed", "Contract",
+            "Unemployed", "Retired", "Student"};
+
+    @Test
+    @DisplayName("Registry memory, and filter and group-by on codes versus strings")
+    void filterAndGroupByOnCodesVersusStrings() {
+        long plain = registryBytes(UnaryOperator.identity());
+        SymbolTable purposes = new SymbolTable();
+        SymbolTable statuses = new SymbolTable();
+        long before = usedHeap();
+        ApplicationRegistry registry = populate(purposes::canonical, statuses::canonical);
+        long shared = usedHeap() - before;
+        System.out.printf("registry bytes/app: %,d with a copy per application, %,d sharing dictionary strings%n",
+                plain / APPLICATIONS, shared / APPLICATIONS);
+
+        ColumnarApplicationStore columnar = new ColumnarApplicationStore();
+        registry.forEach(columnar::put);
+
+        long[] stringFilter = time(() -> {
+            AtomicInteger matches = new AtomicInteger();
+            registry.forEach(application -> {
+                if ("Education".equals(application.getLoanPurpose())) {
+                    matches.incrementAndGet();
+                }
+            });
+            return matches.get();
+        });
+        long[] codeFilter = time(() -> columnar.count(Category.LOAN_PURPOSE, "Education"));
+        long[] stringGroupBy = time(() -> {
+            Map<String, Integer> counts = new HashMap<>();
+            registry.forEach(application -> counts.merge(application.getEmploymentStatus(), 1, Integer::sum));
+            return counts.size();
+        });
+        long[] codeGroupBy = time(() -> columnar.countBy(Category.EMPLOYMENT_STATUS).size());
+
+        System.out.printf("%-34s %12s %12s%n", "query over 1,000,000 applications", "strings ms", "codes ms");
+        System.out.printf("%-34s %12.1f %12.1f%n", "loanPurpose = 'Education'",
+                median(stringFilter) / 1e6, median(codeFilter) / 1e6);
+        System.out.printf("%-34s %12.1f %12.1f%n", "count group by employmentStatus",
+                median(stringGroupBy) / 1e6, median(codeGroupBy) / 1e6);
+
+        int expected = 0;
+        for (LoanApplication application : registry.snapshot()) {
+            expected += "Education".equals(application.getLoanPurpose()) ? 1 : 0;
+        }
+        assertEquals(expected, columnar.count(Category.LOAN_PURPOSE, "Education"));
+        assertEquals(EMPLOYMENT.length, columnar.countBy(Category.EMPLOYMENT_STATUS).size());
+        assertTrue(shared < plain);
+        Reference.reachabilityFence(registry);
+    }
+
+    private static long registryBytes(UnaryOperator<String> intern) {
+        long before = usedHeap();
+        ApplicationRegistry registry = populate(intern, intern);
+        long bytes = usedHeap() - before;
+        Reference.reachabilityFence(registry);
+        return bytes;
+    }
+
+    private static ApplicationRegistry populate(Function<String, String> purposes, Function<String, String> statuses) {
+        ApplicationRegistry registry = new ApplicationRegistry();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < APPLICATIONS; i++) {
+            LoanApplication application = new LoanApplication();
+            application.setApplicantName("Applicant " + i);
+            application.setLoanAmount(BigDecimal.valueOf(random.nextInt(1_000, 500_000)));
+            application.setLoanPurpose(purposes.apply(fresh(PURPOSES[random.nextInt(PURPOSES.length)])));
+            application.setAnnualIncome(BigDecimal.valueOf(random.nextInt(20_000, 250_000)));
+            application.setCreditScore(random.nextInt(300, 851));
+            application.setEmploymentStatus(statuses.apply(fresh(EMPLOYMENT[random.nextInt(EMPLOYMENT.length)])));
+            registry.put(application);
+        }
+        return registry;
+    }
+
+    /** A copy with its own bytes, unlike {@code new String(String)}. */
+    private static String fresh(String value) {
+        return new String(value.toCharArray());
+    }
+
+    private static long[] time(IntSupplier query) {
+        long[] samples = new long[RUNS];
+        long sink = 0;
+        for (int warmup = 0; warmup < 5; warmup++) {
+            sink += query.getAsInt();
+        }
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            sink += query.getAsInt();
+            samples[i] = System.nanoTime() - start;
+        }
+        assertNotEquals(0, sink);
+        return samples;
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,310 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.model.VoteTally;
+import com.hackathon.creditinder.service.ColumnarApplicationStore.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ColumnarApplicationStore Tests")
+class ColumnarApplicationStoreTest {
+
+    private ColumnarApplicationStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ColumnarApplicationStore();
+    }
+
+    @Test
+    @DisplayName("Should materialize every field as it was stored")
+    void shouldMaterializeEveryField() {
+        LoanApplication application = application("Zoë Ångström", "Débt Consolidation");
+        application.addVotes(3, 2);
+
+        int ordinal = store.put(application);
+        LoanApplication view = store.get(application.getId());
+
+        assertEquals(0, ordinal);
+        assertNotSame(application, view);
+        assertEquals(application.getId(), view.getId());
+        assertEquals("Zoë Ångström", view.getApplicantName());
+        assertEquals("Débt Consolidation", view.getLoanPurpose());
+        assertEquals("Full-time", view.getEmploymentStatus());
+        assertEquals("Notes", view.getAdditionalNotes());
+        assertEquals(0, new BigDecimal("12345.67").compareTo(view.getLoanAmount()));
+        assertEquals(0, new BigDecimal("65000").compareTo(view.getAnnualIncome()));
+        assertEquals(712, view.getCreditScore());
+        assertEquals(LocalDateTime.of(2024, 3, 1, 9, 30, 15, 123_000_000), view.getSubmittedAt());
+        assertEquals(new VoteTally.Counts(3, 2), view.getVoteCounts());
+    }
+
+    @Test
+    @DisplayName("Should keep missing fields missing")
+    void shouldKeepMissingFieldsMissing() {
+        LoanApplication empty = new LoanApplication();
+        empty.setSubmittedAt(null);
+
+        store.put(empty);
+        LoanApplication view = store.get(empty.getId());
+
+        assertEquals(empty.getId(), view.getId());
+        assertNull(view.getApplicantName());
+        assertNull(view.getLoanAmount());
+        assertNull(view.getAnnualIncome());
+        assertNull(view.getCreditScore());
+        assertNull(view.getAdditionalNotes());
+        assertNull(view.getSubmittedAt());
+    }
+
+    @Test
+    @DisplayName("Should round amounts to the cent and truncate time to the millisecond")
+    void shouldRoundAmountsAndTruncateTime() {
+        LoanApplication application = application("Test User", "Auto");
+        application.setLoanAmount(new BigDecimal("100.005"));
+        application.setSubmittedAt(LocalDateTime.of(2024, 3, 1, 9, 30, 15, 123_456_789));
+
+        LoanApplication view = store.getByOrdinal(store.put(application));
+
+        assertEquals(new BigDecimal("100.00"), view.getLoanAmount());
+        assertEquals(LocalDateTime.of(2024, 3, 1, 9, 30, 15, 123_000_000), view.getSubmittedAt());
+    }
+
+    @Test
+    @DisplayName("Should reject a credit score that does not fit a short")
+    void shouldRejectCreditScoreOutOfRange() {
+        LoanApplication application = application("Test User", "Auto");
+        application.setCreditScore(100_000);
+
+        assertThrows(IllegalArgumentException.class, () -> store.put(application));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @DisplayName("Should find applications whose ids are not UUIDs")
+    void shouldFindApplicationsWithOtherIds() {
+        LoanApplication plain = application("Plain", "Auto");
+        plain.setId("app-1");
+        LoanApplication upper = application("Upper", "Auto");
+        upper.setId(upper.getId().toUpperCase());
+
+        store.put(plain);
+        store.put(upper);
+
+        assertEquals("Plain", store.get("app-1").getApplicantName());
+        assertEquals("app-1", store.get("app-1").getId());
+        assertEquals(upper.getId(), store.get(upper.getId()).getId());
+        assertNull(store.get(upper.getId().toLowerCase()));
+        assertNull(store.get("app-2"));
+        assertNull(store.get(null));
+    }
+
+    @Test
+    @DisplayName("Should replace an application with the same id in place")
+    void shouldReplaceApplicationWithSameIdInPlace() {
+        LoanApplication original = application("Original", "Auto");
+        LoanApplication replacement = application("Replacement", "Education");
+        replacement.setId(original.getId());
+
+        int ordinal = store.put(original);
+        assertEquals(ordinal, store.put(replacement));
+
+        assertEquals(1, store.size());
+        assertEquals("Replacement", store.get(original.getId()).getApplicantName());
+        assertEquals("Replacement", store.random().getApplicantName());
+    }
+
+    @Test
+    @DisplayName("Should count votes against the stored application")
+    void shouldCountVotes() {
+        LoanApplication application = application("Test User", "Auto");
+        int ordinal = store.put(application);
+
+        assertTrue(store.recordVote(ordinal, true));
+        assertTrue(store.recordVote(ordinal, false));
+        assertTrue(store.addVotes(ordinal, 4, 1));
+        assertFalse(store.recordVote(ordinal + 1, true));
+        assertFalse(store.recordVote(-1, true));
+
+        assertEquals(new VoteTally.Counts(5, 2), store.votes(ordinal));
+        assertEquals(7, store.get(application.getId()).getTotalVotes());
+        // Views are copies: voting on one does not reach the store.
+        store.get(application.getId()).addApprovalVote();
+        assertEquals(7, store.get(application.getId()).getTotalVotes());
+    }
+
+    @Test
+    @DisplayName("Should keep the array dense after swap-remove and retire ordinals")
+    void shouldKeepArrayDenseAfterSwapRemove() {
+        String[] ids = new String[5];
+        for (int i = 0; i < ids.length; i++) {
+            LoanApplication application = application("Applicant " + i, "Auto");
+            ids[i] = application.getId();
+            store.put(application);
+        }
+
+        assertEquals("Applicant 1", store.remove(ids[1]).getApplicantName());
+        assertEquals("Applicant 4", store.remove(ids[4]).getApplicantName());
+        assertNull(store.remove("missing"));
+        assertNull(store.remove(ids[1]));
+
+        assertEquals(3, store.size());
+        assertNull(store.get(ids[1]));
+        assertEquals(-1, store.ordinalOf(ids[1]));
+        assertNull(store.getByOrdinal(1));
+        assertNull(store.votes(1));
+        assertFalse(store.recordVote(1, true));
+        assertEquals(Set.of("Applicant 0", "Applicant 2", "Applicant 3"), names(store.snapshot()));
+
+        // The element moved into the freed slot must still be removable.
+        assertNotNull(store.remove(ids[3]));
+        assertEquals(Set.of("Applicant 0", "Applicant 2"), names(store.snapshot()));
+
+        // Re-adding a removed id takes a fresh ordinal.
+        LoanApplication again = application("Again", "Auto");
+        again.setId(ids[1]);
+        assertEquals(5, store.put(again));
+        assertEquals(6, store.ordinalLimit());
+    }
+
+    @Test
+    @DisplayName("Should find every application across pages, table growth and text chunks")
+    void shouldFindEveryApplicationAtScale() {
+        String notes = "x".repeat(3_000);
+        String[] ids = new String[5_000];
+        for (int i = 0; i < ids.length; i++) {
+            LoanApplication application = application("Applicant " + i, "Auto");
+            application.setAdditionalNotes(i % 1_000 == 0 ? "y".repeat(2_000_000) : notes);
+            ids[i] = application.getId();
+            assertEquals(i, store.put(application));
+        }
+
+        for (int i = 0; i < ids.length; i += 7) {
+            assertEquals(i, store.ordinalOf(ids[i]));
+            assertEquals("Applicant " + i, store.get(ids[i]).getApplicantName());
+        }
+        assertEquals(2_000_000, store.get(ids[3_000]).getAdditionalNotes().length());
+        assertEquals(notes, store.get(ids[3_001]).getAdditionalNotes());
+        assertTrue(store.estimatedBytes() > store.textBytes());
+    }
+
+    @Test
+    @DisplayName("Should eventually pick every stored application")
+    void shouldEventuallyPickEveryApplication() {
+        for (int i = 0; i < 10; i++) {
+            store.put(application("Applicant " + i, "Auto"));
+        }
+
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 2_000 && seen.size() < 10; i++) {
+            seen.add(store.random().getId());
+        }
+
+        assertEquals(10, seen.size());
+        assertNull(new ColumnarApplicationStore().random());
+    }
+
+    @Test
+    @DisplayName("Should find every application while submissions happen concurrently")
+    void shouldFindApplicationsWhileSubmissionsHappenConcurrently() throws InterruptedException {
+        LoanApplication first = application("First", "Auto");
+        int firstOrdinal = store.put(first);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger misses = new AtomicInteger();
+        CountDownLatch readersDone = new CountDownLatch(4);
+
+        for (int r = 0; r < 4; r++) {
+            new Thread(() -> {
+                while (writing.get()) {
+                    if (store.random() == null || store.get(first.getId()) == null) {
+                        misses.incrementAndGet();
+                    }
+                    store.recordVote(firstOrdinal, true);
+                }
+                readersDone.countDown();
+            }).start();
+        }
+        for (int i = 0; i < 20_000; i++) {
+            store.put(application("Applicant " + i, "Auto"));
+        }
+        writing.set(false);
+        readersDone.await();
+
+        assertEquals(0, misses.get());
+        assertEquals(20_001, store.size());
+        assertEquals(store.votes(firstOrdinal).approvals(), store.get(first.getId()).getApprovalVotes());
+    }
+
+    @Test
+    @DisplayName("Should filter and group by dictionary-encoded categories")
+    void shouldFilterAndGroupByCategory() {
+        store.put(application("A", "Education"));
+        store.put(application("B", "Education"));
+        LoanApplication auto = application("C", "Auto");
+        auto.setEmploymentStatus("Part-time");
+        store.put(auto);
+        LoanApplication removed = application("D", "Education");
+        store.put(removed);
+        store.remove(removed.getId());
+
+        assertEquals(2, store.count(Category.LOAN_PURPOSE, "Education"));
+        assertEquals(0, store.count(Category.LOAN_PURPOSE, "Boat"));
+        assertEquals(1, store.count(Category.EMPLOYMENT_STATUS, "Part-time"));
+        assertEquals(Map.of("Education", 2, "Auto", 1),
+                store.countBy(Category.LOAN_PURPOSE));
+        assertEquals(Map.of("Full-time", 2, "Part-time", 1),
+                store.countBy(Category.EMPLOYMENT_STATUS));
+        assertEquals(2, store.symbols(Category.LOAN_PURPOSE).size());
+    }
+
+    @Test
+    @DisplayName("Should keep category values the dictionary has no room for as text")
+    void shouldKeepOverflowValuesAsText() {
+        SymbolTable purposes = store.symbols(Category.LOAN_PURPOSE);
+        for (int i = 0; i < purposes.capacity(); i++) {
+            purposes.encode("Purpose " + i);
+        }
+        LoanApplication overflow = application("Overflow", "Something else entirely");
+        store.put(overflow);
+        store.put(application("Another", "Something else entirely"));
+        store.put(application("Known", "Purpose 3"));
+
+        assertEquals("Something else entirely", store.get(overflow.getId()).getLoanPurpose());
+        assertEquals("Full-time", store.get(overflow.getId()).getEmploymentStatus());
+        assertEquals(2, store.count(Category.LOAN_PURPOSE, "Something else entirely"));
+        assertEquals(Map.of("Something else entirely", 2, "Purpose 3", 1),
+                store.countBy(Category.LOAN_PURPOSE));
+    }
+
+    private static LoanApplication application(String name, String purpose) {
+        LoanApplication application = new LoanApplication();
+        application.setApplicantName(name);
+        application.setLoanAmount(new BigDecimal("12345.67"));
+        application.setLoanPurpose(purpose);
+        application.setAnnualIncome(new BigDecimal("65000"));
+        application.setCreditScore(712);
+        application.setEmploymentStatus("Full-time");
+        application.setAdditionalNotes("Notes");
+        application.setSubmittedAt(LocalDateTime.of(2024, 3, 1, 9, 30, 15, 123_000_000));
+        return application;
+    }
+
+    private static Set<String> names(List<LoanApplication> applications) {
+        Set<String> names = new HashSet<>();
+        applications.forEach(application -> names.add(application.getApplicantName()));
+        return names;
+    }
+}
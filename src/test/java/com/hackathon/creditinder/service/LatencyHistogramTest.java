@@ -0,0 +1,97 @@
+package com.hackathon.creditinder.service;
+
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LatencyHistogram Tests")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Should count a time in the first bucket whose bound it does not exceed")
+    void shouldCountTimesAgainstInclusiveBounds() {
+        assertEquals(0, LatencyHistogram.indexOf(0));
+        assertEquals(0, LatencyHistogram.indexOf(640));
+        assertEquals(1, LatencyHistogram.indexOf(641));
+        for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+            long bound = LatencyHistogram.upperBoundNanos(i);
+            assertEquals(i, LatencyHistogram.indexOf(bound), "at the bound of bucket " + i);
+            assertEquals(i + 1, LatencyHistogram.indexOf(bound + 1), "just past the bound of bucket " + i);
+        }
+        assertEquals(LatencyHistogram.BUCKETS, LatencyHistogram.indexOf(TimeUnit.MINUTES.toNanos(1)));
+    }
+
+    @Test
+    @DisplayName("Should keep buckets within a fifth of their lower bound wide")
+    void shouldKeepBucketsNarrow() {
+        for (int i = 1; i < LatencyHistogram.BUCKETS; i++) {
+            long lower = LatencyHistogram.upperBoundNanos(i - 1);
+            long upper = LatencyHistogram.upperBoundNanos(i);
+            assertTrue(upper > lower);
+            assertTrue(upper - lower <= lower / 4 + 1, "bucket " + i + " is too wide");
+        }
+        assertTrue(LatencyHistogram.upperBoundNanos(LatencyHistogram.BUCKETS - 1) >= TimeUnit.SECONDS.toNanos(30));
+    }
+
+    @Test
+    @DisplayName("Should report cumulative counts, the total count and the total time")
+    void shouldReportCumulativeCounts() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100, TimeUnit.NANOSECONDS);
+        histogram.record(2, TimeUnit.MICROSECONDS);
+        histogram.record(2, TimeUnit.MICROSECONDS);
+        histogram.record(1, TimeUnit.MINUTES);
+
+        long[] cumulative = histogram.cumulativeCounts();
+
+        assertEquals(1, cumulative[0]);
+        assertEquals(3, cumulative[LatencyHistogram.indexOf(2_000)]);
+        assertEquals(3, cumulative[LatencyHistogram.BUCKETS - 1]);
+        assertEquals(4, cumulative[LatencyHistogram.BUCKETS]);
+        assertEquals(4, histogram.count());
+        assertEquals(100 + 4_000 + TimeUnit.MINUTES.toNanos(1), histogram.totalNanos());
+    }
+
+    @Test
+    @DisplayName("Should count every recording made from many threads")
+    void shouldCountConcurrentRecordings() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(1_000 + i, TimeUnit.NANOSECONDS);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40_000, histogram.count());
+    }
+
+    @Test
+    @DisplayName("Should publish the timers as one Prometheus histogram")
+    void shouldPublishPrometheusHistogram() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        ServiceMetrics metrics = new ServiceMetrics(registry);
+        metrics.vote.record(3, TimeUnit.MICROSECONDS);
+        metrics.vote.record(1, TimeUnit.MILLISECONDS);
+
+        String scrape = registry.scrape();
+
+        assertTrue(scrape.contains("# TYPE creditinder_operation_seconds histogram"));
+        assertTrue(scrape.contains("creditinder_operation_seconds_bucket{operation=\"vote\",le=\"+Inf\",} 2.0"));
+        assertTrue(scrape.contains("creditinder_operation_seconds_count{operation=\"vote\",} 2.0"));
+        assertTrue(scrape.contains("creditinder_operation_seconds_sum{operation=\"vote\",} 0.001003"));
+        assertTrue(scrape.contains("creditinder_operation_seconds_count{operation=\"search\",} 0.0"));
+    }
+}
@@ -1,13 +1,21 @@
 package com.hackathon.creditinder.service;
 
 import com.hackathon.creditinder.model.LoanApplication;
+import com.hackathon.creditinder.model.VoteBatchRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -31,6 +39,11 @@ class LoanApplicationServiceTest {
         testApplication.setAdditionalNotes("Test notes");
     }
 
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
     @Test
     @DisplayName("Should initialize with sample applications")
     void shouldInitializeWithSampleApplications() {
@@ -105,6 +118,27 @@ class LoanApplicationServiceTest {
         assertNull(randomApp);
     }
 
+    @Test
+    @DisplayName("Should return distinct random applications skipping excluded ids")
+    void shouldReturnDistinctRandomApplicationsSkippingExcludedIds() {
+        List<LoanApplication> all = service.getAllApplications();
+        String excluded = all.get(0).getId();
+
+        List<LoanApplication> picks = service.getRandomApplications(null, 10, List.of(excluded));
+
+        assertEquals(all.size() - 1, picks.size());
+        assertEquals(picks.size(), picks.stream().map(LoanApplication::getId).distinct().count());
+        assertTrue(picks.stream().noneMatch(app -> excluded.equals(app.getId())));
+    }
+
+    @Test
+    @DisplayName("Should return no random applications when empty")
+    void shouldReturnNoRandomApplicationsWhenEmpty() {
+        TestLoanApplicationService emptyService = new TestLoanApplicationService();
+
+        assertTrue(emptyService.getRandomApplications(null, 5, List.of()).isEmpty());
+    }
+
     @Test
     @DisplayName("Should vote on application successfully - approval")
     void shouldVoteOnApplicationSuccessfullyApproval() {
@@ -155,6 +189,100 @@ class LoanApplicationServiceTest {
         assertEquals(66.66666666666666, updated.get().getApprovalPercentage(), 0.01);
     }
 
+    @Test
+    @DisplayName("Should reject a second vote by the same voter")
+    void shouldRejectSecondVoteBySameVoter() {
+        service.submitApplication(testApplication);
+        String applicationId = testApplication.getId();
+
+        assertEquals(VoteResult.RECORDED, service.voteOnApplication("voter-1", applicationId, true));
+        assertEquals(VoteResult.DUPLICATE, service.voteOnApplication("voter-1", applicationId, false));
+        assertEquals(VoteResult.RECORDED, service.voteOnApplication("voter-2", applicationId, false));
+        assertEquals(VoteResult.NOT_FOUND, service.voteOnApplication("voter-1", "non-existent-id", true));
+
+        LoanApplication updated = service.getApplicationById(applicationId).orElseThrow();
+        assertEquals(1, updated.getApprovalVotes());
+        assertEquals(1, updated.getRejectionVotes());
+    }
+
+    @Test
+    @DisplayName("Should apply a vote batch with a result per vote")
+    void shouldApplyVoteBatchWithResultPerVote() {
+        service.submitApplication(testApplication);
+        String applicationId = testApplication.getId();
+
+        List<VoteResult> results = service.voteOnApplications("voter-1", List.of(
+                new VoteBatchRequest.Vote(applicationId, true),
+                new VoteBatchRequest.Vote("non-existent-id", true),
+                new VoteBatchRequest.Vote(applicationId, false)));
+
+        assertEquals(List.of(VoteResult.RECORDED, VoteResult.NOT_FOUND, VoteResult.DUPLICATE), results);
+        assertEquals(List.of(VoteResult.DUPLICATE),
+                service.voteOnApplications("voter-1", List.of(new VoteBatchRequest.Vote(applicationId, true))));
+
+        LoanApplication updated = service.getApplicationById(applicationId).orElseThrow();
+        assertEquals(1, updated.getApprovalVotes());
+        assertEquals(0, updated.getRejectionVotes());
+    }
+
+    @Test
+    @DisplayName("Should sum anonymous batch votes per application")
+    void shouldSumAnonymousBatchVotesPerApplication() throws InterruptedException {
+        service.submitApplication(testApplication);
+        String applicationId = testApplication.getId();
+
+        List<VoteResult> results = service.voteOnApplications(null, List.of(
+                new VoteBatchRequest.Vote(applicationId, true),
+                new VoteBatchRequest.Vote(applicationId, true),
+                new VoteBatchRequest.Vote(applicationId, false)));
+
+        assertEquals(List.of(VoteResult.RECORDED, VoteResult.RECORDED, VoteResult.RECORDED), results);
+        LoanApplication updated = service.getApplicationById(applicationId).orElseThrow();
+        assertEquals(2, updated.getApprovalVotes());
+        assertEquals(1, updated.getRejectionVotes());
+        // Votes reach the ordered indexes on the next drain.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.getTopApplications(ApplicationSort.TOTAL_VOTES, 1).get(0) != updated
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertSame(updated, service.getTopApplications(ApplicationSort.TOTAL_VOTES, 1).get(0));
+    }
+
+    @Test
+    @DisplayName("Should only serve applications the voter has not voted on")
+    void shouldOnlyServeApplicationsVoterHasNotVotedOn() {
+        TestLoanApplicationService emptyService = new TestLoanApplicationService();
+        for (int i = 0; i < 50; i++) {
+            LoanApplication app = new LoanApplication();
+            app.setApplicantName("Applicant " + i);
+            emptyService.submitApplication(app);
+        }
+
+        Set<String> served = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            LoanApplication next = emptyService.getRandomApplication("voter-1");
+            assertNotNull(next, "Voter should still have unseen applications");
+            assertTrue(served.add(next.getId()), "Served an application the voter already voted on");
+            assertEquals(VoteResult.RECORDED, emptyService.voteOnApplication("voter-1", next.getId(), true));
+        }
+
+        assertNull(emptyService.getRandomApplication("voter-1"));
+        assertNotNull(emptyService.getRandomApplication("voter-2"));
+    }
+
+    @Test
+    @DisplayName("Should return every unseen application in a batch near the end of the deck")
+    void shouldReturnEveryUnseenApplicationNearEndOfDeck() {
+        List<LoanApplication> all = service.getAllApplications();
+        service.voteOnApplication("voter-1", all.get(0).getId(), true);
+        service.voteOnApplication("voter-1", all.get(1).getId(), false);
+
+        List<LoanApplication> picks = service.getRandomApplications("voter-1", 10, List.of());
+
+        assertEquals(Set.of(all.get(2), all.get(3)), new HashSet<>(picks));
+    }
+
     @Test
     @DisplayName("Should handle voting on non-existent application gracefully")
     void shouldHandleVotingOnNonExistentApplicationGracefully() {
@@ -232,4 +360,289 @@ class LoanApplicationServiceTest {
             assertTrue(app.getCreditScore() >= 300 && app.getCreditScore() <= 850);
         }
     }
+    @Test
+    @DisplayName("Should page through applications newest first with stable cursors")
+    void shouldPageThroughApplicationsNewestFirst() {
+        TestLoanApplicationService paged = new TestLoanApplicationService();
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < 7; i++) {
+            LoanApplication application = new LoanApplication();
+            application.setId("app-" + i);
+            // Two applications share each timestamp, so ids must break ties.
+            application.setSubmittedAt(base.plusMinutes(i / 2));
+            paged.submitApplication(application);
+        }
+
+        ApplicationPage first = paged.getApplicationPage(null, 3);
+        assertEquals(List.of("app-6", "app-5", "app-4"), ids(first));
+        assertEquals(7, first.total());
+
+        // A submission between page loads must not shift the next page.
+        LoanApplication newer = new LoanApplication();
+        newer.setSubmittedAt(base.plusDays(1));
+        paged.submitApplication(newer);
+
+        ApplicationPage second = paged.getApplicationPage(first.nextCursor(), 3);
+        assertEquals(List.of("app-3", "app-2", "app-1"), ids(second));
+        ApplicationPage last = paged.getApplicationPage(second.nextCursor(), 3);
+        assertEquals(List.of("app-0"), ids(last));
+        assertNull(last.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Should start from the newest page for a malformed cursor")
+    void shouldStartFromNewestPageForMalformedCursor() {
+        ApplicationPage page = service.getApplicationPage("not a cursor!", 2);
+
+        assertEquals(2, page.applications().size());
+        assertNotNull(page.nextCursor());
+        assertEquals(service.getApplicationPage(null, 2).applications(), page.applications());
+    }
+
+    @Test
+    @DisplayName("Should search purpose and notes, filtered and paged, and forget removed applications")
+    void shouldSearchApplications() {
+        TestLoanApplicationService searched = new TestLoanApplicationService();
+        for (int i = 0; i < 5; i++) {
+            LoanApplication application = copyOf(testApplication);
+            application.setLoanPurpose("Vehicle Purchase");
+            application.setAdditionalNotes("Replacing an old car");
+            application.setCreditScore(600 + i * 50);
+            searched.submitApplication(application);
+        }
+        LoanApplication kitchen = copyOf(testApplication);
+        kitchen.setLoanPurpose("Home Improvement");
+        kitchen.setAdditionalNotes("New kitchen, the old one is falling apart");
+        searched.submitApplication(kitchen);
+
+        ApplicationPage cars = searched.searchApplications("cars", SearchFilter.NONE, null, 10);
+        assertEquals(5, cars.total());
+        assertNull(cars.nextCursor());
+
+        SearchFilter goodCredit = new SearchFilter("Vehicle Purchase", null, 700, null);
+        ApplicationPage first = searched.searchApplications("old", goodCredit, null, 2);
+        assertEquals(3, first.total());
+        assertEquals(2, first.applications().size());
+        ApplicationPage second = searched.searchApplications("old", goodCredit, first.nextCursor(), 2);
+        assertEquals(1, second.applications().size());
+        assertNull(second.nextCursor());
+        assertTrue(second.applications().get(0).getCreditScore() >= 700);
+        assertEquals(0, searched.searchApplications("old",
+                new SearchFilter("Boat Purchase", null, null, null), null, 10).total());
+
+        assertEquals(List.of(kitchen.getId()), ids(searched.searchApplications("Kitchen", SearchFilter.NONE, null, 10)));
+        searched.removeLocally(kitchen.getId());
+        assertEquals(0, searched.searchApplications("kitchen", SearchFilter.NONE, null, 10).total());
+    }
+
+    @Test
+    @DisplayName("Should keep analytics in step with submissions, votes and removals")
+    void shouldKeepAnalyticsInStep() {
+        TestLoanApplicationService counted = new TestLoanApplicationService();
+        LoanApplication first = counted.submitApplication(copyOf(testApplication));
+        LoanApplication second = copyOf(testApplication);
+        second.setLoanPurpose("Education");
+        second.setLoanAmount(new BigDecimal("2500.25"));
+        counted.submitApplication(second);
+        LoanApplication third = counted.submitApplication(copyOf(testApplication));
+
+        counted.voteOnApplication(first.getId(), true);
+        counted.voteOnApplication("voter-1", second.getId(), false);
+        counted.voteOnApplications("voter-1", List.of(
+                new VoteBatchRequest.Vote(first.getId(), true), new VoteBatchRequest.Vote(third.getId(), false)));
+        counted.applyReplicatedVotes(third.getId(), 2, 1);
+        counted.removeLocally(third.getId());
+
+        ApplicationAnalytics.Snapshot analytics = counted.getAnalytics();
+        assertEquals(new ApplicationAnalytics.Bucket("All applications", 2, new BigDecimal("12500.25"), 2, 1,
+                2.0 / 3 * 100), analytics.total());
+        assertEquals(new ApplicationAnalytics.Bucket("Test Purpose", 1, new BigDecimal("10000.00"), 2, 0, 100.0),
+                analytics.byLoanPurpose().get(0));
+        assertEquals(2, analytics.byCreditScore().get(0).applications());
+    }
+
+    @Test
+    @DisplayName("Should carry purpose and status codes on stored applications")
+    void shouldCarryCodesOnStoredApplications() {
+        assertEquals(LoanApplication.UNCODED, testApplication.loanPurposeCode());
+        LoanApplication first = service.submitApplication(copyOf(testApplication));
+        LoanApplication second = service.submitApplication(copyOf(testApplication));
+
+        assertTrue(first.loanPurposeCode() >= 0);
+        assertEquals(first.loanPurposeCode(), second.loanPurposeCode());
+        assertEquals(first.employmentStatusCode(), second.employmentStatusCode());
+        assertSame(first.getLoanPurpose(), second.getLoanPurpose(), "one shared string per purpose");
+
+        LoanApplication retyped = copyOf(first);
+        retyped.assignCodes(first.loanPurposeCode(), first.employmentStatusCode());
+        retyped.setLoanPurpose("Education");
+        assertEquals(LoanApplication.UNCODED, retyped.loanPurposeCode(), "a new purpose drops the old code");
+        assertEquals(first.employmentStatusCode(), retyped.employmentStatusCode());
+    }
+
+    @Test
+    @DisplayName("Should time operations and count votes by outcome once bound to a registry")
+    void shouldRecordMetricsOnceBound() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service.bindTo(registry);
+        String applicationId = service.submitApplication(testApplication).getId();
+
+        assertEquals(VoteResult.RECORDED, service.voteOnApplication("voter-1", applicationId, true));
+        assertEquals(VoteResult.DUPLICATE, service.voteOnApplication("voter-1", applicationId, false));
+        assertEquals(VoteResult.NOT_FOUND, service.voteOnApplication("voter-1", "missing", true));
+        service.getApplicationById(applicationId);
+
+        assertEquals(1, registry.get("creditinder.operation").tag("operation", "submit").functionTimer().count());
+        assertEquals(3, registry.get("creditinder.operation").tag("operation", "vote").functionTimer().count());
+        assertEquals(1, registry.get("creditinder.operation").tag("operation", "detail").functionTimer().count());
+        assertEquals(1, registry.get("creditinder.votes").tag("result", "recorded").counter().count());
+        assertEquals(1, registry.get("creditinder.votes").tag("result", "duplicate").counter().count());
+        assertEquals(1, registry.get("creditinder.votes").tag("result", "not-found").counter().count());
+        assertEquals(5, registry.get("creditinder.applications").gauge().value());
+        assertEquals(1, registry.get("creditinder.voters").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should share one string per loan purpose and employment status")
+    void shouldShareCategoryStrings() {
+        LoanApplication first = service.submitApplication(copyOf(testApplication));
+        LoanApplication second = service.submitApplication(copyOf(testApplication));
+
+        assertSame(first.getLoanPurpose(), second.getLoanPurpose());
+        assertSame(first.getEmploymentStatus(), second.getEmploymentStatus());
+        assertEquals("Test Purpose", second.getLoanPurpose());
+    }
+
+    @Test
+    @DisplayName("Should bump the store version again once a vote has moved its application")
+    void shouldBumpStoreVersionAfterDrain() throws InterruptedException {
+        service.submitApplication(testApplication);
+        long beforeVote = service.getStoreVersion();
+        service.voteOnApplication(testApplication.getId(), true);
+
+        // Once for the vote, once for the drain that re-keys it.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.getStoreVersion() < beforeVote + 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(beforeVote + 2, service.getStoreVersion());
+    }
+
+    @Test
+    @DisplayName("Should bump the store and application versions on submissions and votes")
+    void shouldBumpVersionsOnChanges() {
+        long initial = service.getStoreVersion();
+        LoanApplication submitted = service.submitApplication(testApplication);
+        long afterSubmit = service.getStoreVersion();
+        long submittedVersion = submitted.getVersion();
+
+        service.voteOnApplication(submitted.getId(), true);
+        service.voteOnApplication("voter-1", submitted.getId(), false);
+        service.voteOnApplication("voter-1", submitted.getId(), false);
+
+        assertTrue(afterSubmit > initial);
+        // A drain of the two votes may have bumped it once more.
+        assertTrue(service.getStoreVersion() >= afterSubmit + 2);
+        assertEquals(submittedVersion + 2, submitted.getVersion());
+
+        // A replacement carries on from the version it replaces.
+        LoanApplication replacement = new LoanApplication();
+        replacement.setId(submitted.getId());
+        service.submitApplication(replacement);
+        assertTrue(replacement.getVersion() > submitted.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should tell vote listeners about votes cast here and replicated")
+    void shouldTellVoteListenersAboutEveryVote() {
+        List<String> votes = new ArrayList<>();
+        service.addVoteListener((application, approvals, rejections) ->
+                votes.add(application.getApplicantName() + " " + approvals + "/" + rejections));
+        LoanApplication local = service.submitApplication(testApplication);
+
+        service.voteOnApplication(local.getId(), true);
+        service.voteOnApplication("voter-1", local.getId(), false);
+        service.voteOnApplication("voter-1", local.getId(), false);
+        service.voteOnApplications("voter-2", List.of(new VoteBatchRequest.Vote(local.getId(), true)));
+        service.applyReplicatedVotes(local.getId(), 3, 1);
+
+        assertEquals(List.of("Test User 1/0", "Test User 0/1", "Test User 1/0", "Test User 3/1"), votes);
+    }
+
+    @Test
+    @DisplayName("Should tell local change listeners only about changes taken here")
+    void shouldTellLocalChangeListenersOnlyAboutLocalChanges() {
+        List<String> changes = new ArrayList<>();
+        service.addLocalChangeListener(new LocalChangeListener() {
+            @Override
+            public void onSubmitted(LoanApplication application) {
+                changes.add("submitted " + application.getApplicantName());
+            }
+
+            @Override
+            public void onVotes(LoanApplication application, int approvals, int rejections) {
+                changes.add("votes " + approvals + "/" + rejections);
+            }
+        });
+
+        LoanApplication local = service.submitApplication(testApplication);
+        service.voteOnApplication(local.getId(), true);
+        service.voteOnApplication("voter-1", local.getId(), false);
+        service.voteOnApplications("voter-2", List.of(
+                new VoteBatchRequest.Vote(local.getId(), true),
+                new VoteBatchRequest.Vote(local.getId(), true)));
+
+        LoanApplication remote = copyOf(testApplication);
+        remote.setApplicantName("Remote User");
+        assertTrue(service.applyReplicatedSubmission(remote));
+        LoanApplication again = copyOf(remote);
+        again.setId(remote.getId());
+        assertFalse(service.applyReplicatedSubmission(again), "a known id is not added twice");
+        assertTrue(service.applyReplicatedVotes(remote.getId(), 3, 1));
+        assertFalse(service.applyReplicatedVotes("no-such-id", 1, 0));
+
+        assertEquals(List.of("submitted Test User", "votes 1/0", "votes 0/1", "votes 1/0"), changes);
+        assertEquals(3, remote.getApprovalVotes());
+        assertEquals(1, remote.getRejectionVotes());
+        assertSame(remote, service.getApplicationById(remote.getId()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should move an application out and back in with its voters")
+    void shouldMoveApplicationWithVoters() {
+        LoanApplication application = service.submitApplication(testApplication);
+        service.voteOnApplication("voter-1", application.getId(), true);
+        service.voteOnApplication("voter-2", application.getId(), false);
+        long version = service.getStoreVersion();
+
+        List<String> voters = service.votersOf(application.getId());
+        assertSame(application, service.removeLocally(application.getId()));
+        assertNull(service.removeLocally(application.getId()));
+        assertTrue(service.getApplicationById(application.getId()).isEmpty());
+        assertTrue(service.getStoreVersion() > version);
+        assertEquals(Set.of("voter-1", "voter-2"), new HashSet<>(voters));
+
+        LoanApplicationService owner = new TestLoanApplicationService();
+        assertTrue(owner.addHandedOff(application, voters));
+        assertFalse(owner.addHandedOff(application, voters), "a known id is not added twice");
+        assertEquals(1, owner.getApplicationById(application.getId()).orElseThrow().getApprovalVotes());
+        assertEquals(VoteResult.DUPLICATE, owner.voteOnApplication("voter-1", application.getId(), true));
+        assertEquals(VoteResult.RECORDED, owner.voteOnApplication("voter-3", application.getId(), true));
+    }
+
+    private static LoanApplication copyOf(LoanApplication original) {
+        LoanApplication copy = new LoanApplication();
+        copy.setApplicantName(original.getApplicantName());
+        copy.setLoanAmount(original.getLoanAmount());
+        copy.setLoanPurpose(new String(original.getLoanPurpose()));
+        copy.setAnnualIncome(original.getAnnualIncome());
+        copy.setCreditScore(original.getCreditScore());
+        copy.setEmploymentStatus(new String(original.getEmploymentStatus()));
+        return copy;
+    }
+
+    private static List<String> ids(ApplicationPage page) {
+        return page.applications().stream().map(LoanApplication::getId).toList();
+    }
 }
@@ -0,0 +1,107 @@
+package com.hackathon.creditinder.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OrdinalBitmap Tests")
+class OrdinalBitmapTest {
+
+    @Test
+    @DisplayName("Should report whether a value was newly added")
+    void shouldReportWhetherValueWasNewlyAdded() {
+        OrdinalBitmap bitmap = new OrdinalBitmap();
+
+        assertTrue(bitmap.add(42));
+        assertFalse(bitmap.add(42));
+        assertTrue(bitmap.add(70_000));
+
+        assertTrue(bitmap.contains(42));
+        assertTrue(bitmap.contains(70_000));
+        assertFalse(bitmap.contains(43));
+        assertFalse(bitmap.contains(1_000_000));
+        assertEquals(2, bitmap.cardinality());
+    }
+
+    @Test
+    @DisplayName("Should remove values from array and bitmap chunks")
+    void shouldRemoveValuesFromArrayAndBitmapChunks() {
+        OrdinalBitmap bitmap = new OrdinalBitmap();
+        for (int i = 0; i < 5_000; i++) {
+            bitmap.add(i);
+        }
+        bitmap.add(70_000);
+
+        assertTrue(bitmap.remove(1_234));
+        assertFalse(bitmap.remove(1_234));
+        assertTrue(bitmap.remove(70_000));
+        assertFalse(bitmap.remove(80_000));
+
+        assertFalse(bitmap.contains(1_234));
+        assertFalse(bitmap.contains(70_000));
+        assertEquals(1_234, bitmap.nextAbsent(0));
+        assertEquals(4_999, bitmap.cardinality());
+    }
+
+    @Test
+    @DisplayName("Should find the next absent value across runs and chunks")
+    void shouldFindNextAbsentValueAcrossRunsAndChunks() {
+        OrdinalBitmap bitmap = new OrdinalBitmap();
+        for (int i = 10; i < 20; i++) {
+            bitmap.add(i);
+        }
+
+        assertEquals(0, bitmap.nextAbsent(0));
+        assertEquals(20, bitmap.nextAbsent(10));
+        assertEquals(20, bitmap.nextAbsent(15));
+        assertEquals(200_000, bitmap.nextAbsent(200_000));
+    }
+
+    @Test
+    @DisplayName("Should skip a completely full chunk")
+    void shouldSkipCompletelyFullChunk() {
+        OrdinalBitmap bitmap = new OrdinalBitmap();
+        for (int i = 0; i < 65_536; i++) {
+            bitmap.add(i);
+        }
+
+        assertEquals(65_536, bitmap.nextAbsent(0));
+        assertEquals(65_536, bitmap.cardinality());
+    }
+
+    @Test
+    @DisplayName("Should match a BitSet for random dense and sparse data")
+    void shouldMatchBitSetForRandomData() {
+        Random random = new Random(7);
+        OrdinalBitmap bitmap = new OrdinalBitmap();
+        BitSet expected = new BitSet();
+        // Dense first chunk (converts to a bitmap), sparse elsewhere.
+        for (int i = 0; i < 20_000; i++) {
+            int value = i < 10_000 ? random.nextInt(65_536) : random.nextInt(1_000_000);
+            assertEquals(!expected.get(value), bitmap.add(value));
+            expected.set(value);
+        }
+
+        assertEquals(expected.cardinality(), bitmap.cardinality());
+        for (int i = 0; i < 5_000; i++) {
+            int probe = random.nextInt(1_000_000);
+            assertEquals(expected.get(probe), bitmap.contains(probe));
+            assertEquals(expected.nextClearBit(probe), bitmap.nextAbsent(probe));
+        }
+    }
+
+    @Test
+    @DisplayName("Should stay small for sparse voters")
+    void shouldStaySmallForSparseVoters() {
+        OrdinalBitmap bitmap = new OrdinalBitmap();
+        for (int i = 0; i < 100; i++) {
+            bitmap.add(i * 9_973);
+        }
+
+        assertTrue(bitmap.estimatedBytes() < 2_000, "Sparse bitmap took " + bitmap.estimatedBytes() + " bytes");
+    }
+}
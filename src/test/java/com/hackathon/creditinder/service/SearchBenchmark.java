@@ -0,0 +1,84 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ranked text search from the inverted index against scanning every
+ * application's text per request. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Search Benchmark")
+class SearchBenchmark {
+
+    private static final int PAGE_SIZE = 25;
+    private static final String[] PURPOSES = {
+            "Home Improvement", "Debt Consolidation", "Vehicle Purchase", "Education", "Medical Expenses",
+            "Business", "Other"};
+    private static final String[] WORDS = {
+            "kitchen", "roof", "car", "truck", "tuition", "degree", "surgery", "dental", "credit", "card",
+            "wedding", "bakery", "equipment", "solar", "panels", "boat", "moving", "deposit", "laptop",
+            "veterinary", "funeral", "garden", "fence", "plumbing", "furnace", "daycare", "tools", "stock"};
+
+    @Test
+    @DisplayName("Ranked pages from the index versus scanning per request")
+    void rankedPagesFromIndexVersusScan() {
+        System.out.printf("%-14s %16s %16s %16s%n", "applications", "common p50 us", "filtered p50 us", "scan p50 us");
+        for (int applications : new int[] {100_000, 1_000_000}) {
+            TestLoanApplicationService service = populated(applications);
+            SearchFilter filter = new SearchFilter("Home Improvement", null, 700, null);
+
+            long[] common = time(1_000, () -> service.searchApplications("kitchen roof", SearchFilter.NONE, null, PAGE_SIZE));
+            long[] filtered = time(1_000, () -> service.searchApplications("solar furnace", filter, null, PAGE_SIZE));
+            long[] scan = time(10, () -> service.getAllApplications().stream()
+                    .filter(a -> a.getAdditionalNotes().toLowerCase(Locale.ROOT).contains("kitchen"))
+                    .count());
+
+            System.out.printf("%,-14d %16.1f %16.1f %16.1f%n", applications,
+                    median(common) / 1_000.0, median(filtered) / 1_000.0, median(scan) / 1_000.0);
+            assertTrue(service.searchApplications("kitchen", SearchFilter.NONE, null, PAGE_SIZE).total() > 0);
+        }
+    }
+
+    private static TestLoanApplicationService populated(int applications) {
+        TestLoanApplicationService service = new TestLoanApplicationService();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < applications; i++) {
+            LoanApplication application = new LoanApplication();
+            application.setCreditScore(300 + random.nextInt(551));
+            application.setLoanAmount(BigDecimal.valueOf(1_000 + random.nextInt(99_000)));
+            application.setLoanPurpose(PURPOSES[random.nextInt(PURPOSES.length)]);
+            StringBuilder notes = new StringBuilder();
+            for (int w = 3 + random.nextInt(8); w > 0; w--) {
+                notes.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            application.setAdditionalNotes(notes.toString());
+            service.submitApplication(application);
+        }
+        return service;
+    }
+
+    private static long[] time(int samples, Runnable read) {
+        long[] nanos = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            read.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static long median(long[] sorted) {
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,91 @@
+package com.hackathon.creditinder.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SymbolTable Tests")
+class SymbolTableTest {
+
+    @Test
+    @DisplayName("Should hand out dense codes and decode them")
+    void shouldHandOutDenseCodes() {
+        SymbolTable table = new SymbolTable();
+
+        assertEquals(0, table.encode("Education"));
+        assertEquals(1, table.encode("Business"));
+        assertEquals(0, table.encode(new String("Education")));
+        assertEquals(SymbolTable.NONE, table.encode(null));
+
+        assertEquals(2, table.size());
+        assertEquals("Business", table.symbol(1));
+        assertNull(table.symbol(SymbolTable.NONE));
+        assertThrows(IllegalArgumentException.class, () -> table.symbol(2));
+        assertThrows(IllegalArgumentException.class, () -> table.symbol(SymbolTable.OTHER));
+    }
+
+    @Test
+    @DisplayName("Should share one instance per value")
+    void shouldShareOneInstancePerValue() {
+        SymbolTable table = new SymbolTable();
+        String first = table.canonical(new String("Full-time"));
+
+        assertSame(first, table.canonical(new String("Full-time")));
+        assertNull(table.canonical(null));
+    }
+
+    @Test
+    @DisplayName("Should look values up without admitting them")
+    void shouldLookUpWithoutAdmitting() {
+        SymbolTable table = new SymbolTable();
+        table.encode("Auto");
+
+        assertEquals(0, table.codeOf("Auto"));
+        assertEquals(SymbolTable.OTHER, table.codeOf("Boat"));
+        assertEquals(SymbolTable.NONE, table.codeOf(null));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    @DisplayName("Should fall back once full rather than grow without bound")
+    void shouldFallBackOnceFull() {
+        SymbolTable table = new SymbolTable(2);
+        table.encode("a");
+        table.encode("b");
+        String unseen = new String("c");
+
+        assertEquals(SymbolTable.OTHER, table.encode(unseen));
+        assertSame(unseen, table.canonical(unseen));
+        assertEquals(1, table.encode("b"));
+        assertEquals(2, table.size());
+        assertThrows(IllegalArgumentException.class, () -> new SymbolTable(0));
+    }
+
+    @Test
+    @DisplayName("Should give each value one code under concurrent admission")
+    void shouldGiveEachValueOneCodeConcurrently() throws InterruptedException {
+        SymbolTable table = new SymbolTable();
+        Set<String> decoded = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(4);
+        for (int t = 0; t < 4; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    String value = "value-" + (i % 100);
+                    int code = table.encode(value);
+                    assertEquals(value, table.symbol(code));
+                    decoded.add(value);
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+
+        assertEquals(100, table.size());
+        assertEquals(100, decoded.size());
+    }
+}
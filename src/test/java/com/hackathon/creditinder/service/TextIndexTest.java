@@ -0,0 +1,118 @@
+package com.hackathon.creditinder.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TextIndex Tests")
+class TextIndexTest {
+
+    @Test
+    @DisplayName("Should split text into lower-case words without stop words or plurals")
+    void shouldTokenize() {
+        assertEquals(List.of("new", "kitchen", "cabinet", "2024"),
+                TextIndex.tokenize("A new Kitchen, with cabinets (2024)!"));
+        assertEquals(List.of("medical", "emergency", "business"),
+                TextIndex.tokenize("Medical emergencies; business"));
+        assertEquals(List.of(), TextIndex.tokenize(null));
+    }
+
+    @Test
+    @DisplayName("Should rank purpose matches and rarer words higher")
+    void shouldRankByRelevance() {
+        TextIndex index = new TextIndex();
+        index.add(0, "Education", "Tuition for a nursing degree", 0);
+        index.add(1, "Home Improvement", "New kitchen and roof repairs", 0);
+        index.add(2, "Other", "Education savings for my kids and a kitchen", 0);
+        index.add(3, "Business", "Kitchen equipment for a food truck", 0);
+
+        assertEquals(List.of(0, 2), ordinals(index.search("education", TextIndex.Filter.ALL, null, 10)));
+        // "roof" appears once, "kitchen" three times, so 1 matching both leads.
+        TextIndex.Result result = index.search("kitchen roof", TextIndex.Filter.ALL, null, 10);
+        assertEquals(1, result.hits().get(0).ordinal());
+        assertEquals(3, result.total());
+        assertEquals(0, index.search("the and", TextIndex.Filter.ALL, null, 10).total());
+        assertEquals(0, index.search("skateboard", TextIndex.Filter.ALL, null, 10).total());
+    }
+
+    @Test
+    @DisplayName("Should filter, count and page through matches with cursors")
+    void shouldFilterAndPage() {
+        TextIndex index = new TextIndex();
+        for (int i = 0; i < 10; i++) {
+            index.add(i, "Vehicle Purchase", "Used car number " + i, i % 3);
+        }
+
+        TextIndex.Result even = index.search("car", (o, attributes) -> o % 2 == 0, null, 3);
+        assertEquals(5, even.total());
+        assertEquals(3, even.hits().size());
+        assertEquals(List.of(9, 6, 3, 0),
+                ordinals(index.search("car", (o, attributes) -> attributes == 0, null, 10)));
+
+        List<Integer> seen = new ArrayList<>();
+        TextIndex.Hit after = null;
+        for (;;) {
+            List<TextIndex.Hit> hits = index.search("car", TextIndex.Filter.ALL, after, 4).hits();
+            if (hits.isEmpty()) {
+                break;
+            }
+            hits.forEach(hit -> seen.add(hit.ordinal()));
+            after = TextIndex.Hit.decode(hits.get(hits.size() - 1).encode());
+        }
+        assertEquals(List.of(9, 8, 7, 6, 5, 4, 3, 2, 1, 0), seen, "equal scores list newest first");
+        assertNull(TextIndex.Hit.decode("not a cursor!"));
+    }
+
+    @Test
+    @DisplayName("Should forget removed text and pick up replacements")
+    void shouldRemoveAndReplace() {
+        TextIndex index = new TextIndex();
+        index.add(0, "Education", "Masters degree", 0);
+        index.add(1, "Education", "Coding bootcamp", 0);
+        index.add(2, "Education", "Pilot licence", 0);
+
+        index.remove(1, "Education", "Coding bootcamp");
+        index.add(1, "Education", "Welding course", 0);
+
+        assertEquals(0, index.search("bootcamp", TextIndex.Filter.ALL, null, 10).total());
+        assertEquals(List.of(1), ordinals(index.search("welding", TextIndex.Filter.ALL, null, 10)));
+        assertEquals(3, index.search("education", TextIndex.Filter.ALL, null, 10).total());
+
+        index.remove(0, "Education", "Masters degree");
+        index.remove(2, "Education", "Pilot licence");
+        assertEquals(List.of(1), ordinals(index.search("education", TextIndex.Filter.ALL, null, 10)));
+        assertEquals(3, index.words());
+    }
+
+    @Test
+    @DisplayName("Should keep serving searches while applications are added")
+    void shouldSearchWhileAdding() throws InterruptedException {
+        TextIndex index = new TextIndex();
+        AtomicBoolean failed = new AtomicBoolean();
+        Thread writer = Thread.ofPlatform().start(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                index.add(i, "Debt Consolidation", i % 2 == 0 ? "credit card balance" : "store card", 0);
+            }
+        });
+        while (writer.isAlive()) {
+            TextIndex.Result result = index.search("card", TextIndex.Filter.ALL, null, 5);
+            if (result.hits().size() > 5 || result.total() < result.hits().size()) {
+                failed.set(true);
+            }
+        }
+        writer.join();
+
+        assertFalse(failed.get());
+        assertEquals(20_000, index.search("card", TextIndex.Filter.ALL, null, 5).total());
+        assertEquals(10_000, index.search("balance", TextIndex.Filter.ALL, null, 5).total());
+    }
+
+    private static List<Integer> ordinals(TextIndex.Result result) {
+        return result.hits().stream().map(TextIndex.Hit::ordinal).toList();
+    }
+}
@@ -0,0 +1,109 @@
+package com.hackathon.creditinder.service;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Memory per voter and unseen-card selection latency at 1,000,000
+ * applications x 100,000 voters. Run with {@code ./gradlew benchmark}.
+ *
+ * Voters follow a skewed profile: most cast a few dozen votes, some a few
+ * thousand, and a handful have voted on nearly everything, which forces the
+ * bitmap walk instead of random probing.
+ */
+@Tag("benchmark")
+@DisplayName("VoterLedger Benchmark")
+class VoterLedgerBenchmark {
+
+    private static final int APPLICATIONS = 1_000_000;
+    private static final int VOTERS = 100_000;
+    private static final int SAMPLES = 20_000;
+
+    @Test
+    @DisplayName("Memory per voter and unseen selection latency")
+    void memoryPerVoterAndUnseenSelectionLatency() {
+        TestLoanApplicationService service = new TestLoanApplicationService();
+        String[] ids = new String[APPLICATIONS];
+        for (int i = 0; i < APPLICATIONS; i++) {
+            LoanApplication application = new LoanApplication();
+            ids[i] = application.getId();
+            service.submitApplication(application);
+        }
+
+        // Each voter's votes are mirrored into a standalone bitmap, so the
+        // footprint can be reported per profile.
+        SplittableRandom random = new SplittableRandom(42);
+        long[] bytesByProfile = new long[3];
+        int[] votersByProfile = new int[3];
+        for (int v = 0; v < VOTERS; v++) {
+            String voterId = "voter-" + v;
+            int profile = v < 10 ? 2 : (v % 100 == 0 ? 1 : 0);
+            int votes = switch (profile) {
+                case 0 -> 10 + random.nextInt(90);
+                case 1 -> 2_000 + random.nextInt(3_000);
+                default -> APPLICATIONS - 1_000;
+            };
+            OrdinalBitmap voted = new OrdinalBitmap();
+            for (int i = 0; i < votes; i++) {
+                int ordinal = profile == 2 ? i : random.nextInt(APPLICATIONS);
+                service.voteOnApplication(voterId, ids[ordinal], true);
+                voted.add(ordinal);
+            }
+            bytesByProfile[profile] += voted.estimatedBytes();
+            votersByProfile[profile]++;
+        }
+
+        System.out.printf("%-28s %10s %14s%n", "profile", "voters", "bytes/voter");
+        String[] names = {"light (10-100 votes)", "heavy (2k-5k votes)", "near-complete (999k votes)"};
+        long totalBytes = 0;
+        for (int p = 0; p < names.length; p++) {
+            totalBytes += bytesByProfile[p];
+            System.out.printf("%-28s %,10d %,14d%n", names[p], votersByProfile[p], bytesByProfile[p] / votersByProfile[p]);
+        }
+        System.out.printf("%-28s %,10d %,14d%n", "all voters", VOTERS, totalBytes / VOTERS);
+
+        for (int warmup = 0; warmup < SAMPLES; warmup++) {
+            service.getRandomApplication("voter-" + random.nextInt(VOTERS));
+        }
+        long[] lightNanos = time(service, random, 10, VOTERS);
+        long[] nearCompleteNanos = time(service, random, 0, 10);
+
+        System.out.printf("%n%-28s %10s %10s %10s%n", "selection latency (us)", "p50", "p99", "max");
+        report("light/heavy voters", lightNanos);
+        report("near-complete voters", nearCompleteNanos);
+
+        assertTrue(percentile(lightNanos, 0.99) < 1_000_000, "p99 selection should stay sub-millisecond");
+        assertTrue(percentile(nearCompleteNanos, 0.99) < 1_000_000, "p99 selection should stay sub-millisecond");
+    }
+
+    private static long[] time(LoanApplicationService service, SplittableRandom random, int fromVoter, int toVoter) {
+        long[] nanos = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            String voterId = "voter-" + random.nextInt(fromVoter, toVoter);
+            long start = System.nanoTime();
+            LoanApplication picked = service.getRandomApplication(voterId);
+            nanos[i] = System.nanoTime() - start;
+            assertNotNull(picked);
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static void report(String label, long[] sortedNanos) {
+        System.out.printf("%-28s %10.1f %10.1f %10.1f%n", label,
+                percentile(sortedNanos, 0.50) / 1_000.0,
+                percentile(sortedNanos, 0.99) / 1_000.0,
+                sortedNanos[sortedNanos.length - 1] / 1_000.0);
+    }
+
+    private static long percentile(long[] sortedNanos, double percentile) {
+        return sortedNanos[(int) Math.min(sortedNanos.length - 1, Math.round(percentile * (sortedNanos.length - 1)))];
+    }
+}
@@ -0,0 +1,159 @@
+package com.hackathon.creditinder.trending;
+
+import com.hackathon.creditinder.model.LoanApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TrendingTracker Tests")
+class TrendingTrackerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final List<TrendingTracker> trackers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        trackers.forEach(TrendingTracker::close);
+    }
+
+    @Test
+    @DisplayName("Should rank applications by votes in each window, most first")
+    void shouldRankByVotes() {
+        TrendingTracker tracker = tracker(3, 100);
+        vote(tracker, "a", 2);
+        vote(tracker, "b", 5);
+        vote(tracker, "c", 1);
+        vote(tracker, "d", 3);
+
+        tracker.refresh();
+
+        List<TrendingTracker.Trend> expected = List.of(
+                new TrendingTracker.Trend("b", 5), new TrendingTracker.Trend("d", 3), new TrendingTracker.Trend("a", 2));
+        assertEquals(expected, tracker.shortTrending());
+        assertEquals(expected, tracker.longTrending());
+    }
+
+    @Test
+    @DisplayName("Should let votes fall out of the short window before the long one")
+    void shouldSlideWindows() {
+        TrendingTracker tracker = tracker(10, 100);
+        vote(tracker, "early", 4);
+        tracker.refresh();
+        advance(Duration.ofMinutes(3));
+        tracker.refresh();
+        vote(tracker, "late", 1);
+        tracker.refresh();
+
+        advance(Duration.ofMinutes(3));
+        tracker.refresh();
+
+        assertEquals(List.of(new TrendingTracker.Trend("late", 1)), tracker.shortTrending());
+        assertEquals(List.of(new TrendingTracker.Trend("early", 4), new TrendingTracker.Trend("late", 1)),
+                tracker.longTrending());
+    }
+
+    @Test
+    @DisplayName("Should re-rank an application voted on again after it fell behind")
+    void shouldReRankOnNewVotes() {
+        TrendingTracker tracker = tracker(1, 100);
+        vote(tracker, "a", 3);
+        vote(tracker, "b", 2);
+        tracker.refresh();
+        assertEquals("a", tracker.shortTrending().get(0).applicationId());
+
+        vote(tracker, "b", 2);
+        tracker.refresh();
+
+        assertEquals(List.of(new TrendingTracker.Trend("b", 4)), tracker.shortTrending());
+    }
+
+    @Test
+    @DisplayName("Should evict applications idle for the long window and catch up after a long pause")
+    void shouldEvictIdleApplications() {
+        TrendingTracker tracker = tracker(10, 100);
+        vote(tracker, "a", 2);
+        tracker.refresh();
+        advance(Duration.ofMinutes(30));
+        tracker.refresh();
+        vote(tracker, "b", 1);
+        tracker.refresh();
+
+        advance(Duration.ofMinutes(45));
+        tracker.refresh();
+
+        assertEquals(List.of(new TrendingTracker.Trend("b", 1)), tracker.longTrending());
+        assertEquals(new TrendingTracker.Stats(1, 0, 1), tracker.stats());
+
+        advance(Duration.ofHours(5));
+        tracker.refresh();
+
+        assertEquals(List.of(), tracker.longTrending());
+        assertEquals(new TrendingTracker.Stats(0, 0, 2), tracker.stats());
+    }
+
+    @Test
+    @DisplayName("Should stop following new applications at maxTracked")
+    void shouldBoundTrackedApplications() {
+        TrendingTracker tracker = tracker(10, 2);
+        vote(tracker, "a", 1);
+        vote(tracker, "b", 1);
+        vote(tracker, "c", 3);
+        vote(tracker, "a", 1);
+
+        tracker.refresh();
+
+        assertEquals(List.of(new TrendingTracker.Trend("a", 2), new TrendingTracker.Trend("b", 1)),
+                tracker.longTrending());
+        assertEquals(new TrendingTracker.Stats(2, 3, 0), tracker.stats());
+    }
+
+    @Test
+    @DisplayName("Should count votes from many threads exactly")
+    void shouldCountConcurrentVotes() throws InterruptedException {
+        TrendingTracker tracker = tracker(10, 100);
+        LoanApplication application = application("hot");
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    tracker.onVotes(application, 1, 0);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        tracker.refresh();
+
+        assertEquals(List.of(new TrendingTracker.Trend("hot", 80_000)), tracker.shortTrending());
+    }
+
+    private TrendingTracker tracker(int top, int maxTracked) {
+        TrendingTracker tracker = new TrendingTracker(Duration.ofMinutes(5), Duration.ofHours(1),
+                Duration.ofMinutes(1), top, maxTracked, now::get);
+        trackers.add(tracker);
+        return tracker;
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    private static void vote(TrendingTracker tracker, String id, int approvals) {
+        tracker.onVotes(application(id), approvals, 0);
+    }
+
+    private static LoanApplication application(String id) {
+        LoanApplication application = new LoanApplication();
+        application.setId(id);
+        return application;
+    }
+}